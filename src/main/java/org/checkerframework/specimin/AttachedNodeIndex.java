@@ -0,0 +1,184 @@
+package org.checkerframework.specimin;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.nodeTypes.NodeWithSimpleName;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An index of the nodes of an attached type declaration, used by {@link
+ * JavaParserUtil#tryFindAttachedNode} to map a node from a separate parse of the same file (as
+ * returned by the {@code toAst()} of a resolved declaration) back to its attached equivalent. The
+ * nodes are keyed by their class, their own signature, and the qualified signature of the
+ * declaration that owns them (the nearest enclosing callable or type declaration), so a lookup only
+ * compares the detached node against the few nodes that share its key, instead of walking the whole
+ * type declaration and comparing it against every node of its class.
+ *
+ * <p>A member or parameter is therefore only matched within the declaration that the resolved
+ * declaration names; for example, a parameter {@code int x} of {@code m(int)} is never mistaken for
+ * an equal parameter of an overload {@code m(int, int)}. Equal nodes with the same owner, such as
+ * two {@code int x;} declarations in different blocks of one method, cannot be told apart by their
+ * declaration, so the first in document order is found. The index reflects the type declaration
+ * when it was built, so it must be rebuilt whenever the AST changes; see {@link
+ * JavaParserUtil#clearAttachedNodeIndexes()}.
+ */
+public class AttachedNodeIndex {
+  /** The indexed type declaration. */
+  private final TypeDeclaration<?> typeDecl;
+
+  /** The nodes of the type declaration (including itself) with each key, in document order. */
+  private final Map<Key, List<Node>> nodes = new HashMap<>();
+
+  /**
+   * The key of a node in the index.
+   *
+   * @param nodeClass The class of the node
+   * @param owner The qualified signature of the nearest callable or type declaration enclosing the
+   *     node, or "" if there is none
+   * @param signature The signature of the node itself; see {@link #getSignature(Node)}
+   */
+  private record Key(Class<?> nodeClass, String owner, String signature) {}
+
+  /**
+   * Indexes an attached type declaration.
+   *
+   * @param typeDecl The type declaration
+   */
+  public AttachedNodeIndex(TypeDeclaration<?> typeDecl) {
+    this.typeDecl = typeDecl;
+    typeDecl.walk(
+        node -> {
+          Key key = getKey(node);
+          if (key != null) {
+            nodes.computeIfAbsent(key, k -> new ArrayList<>()).add(node);
+          }
+        });
+  }
+
+  /**
+   * Finds the attached equivalent of a node.
+   *
+   * @param detachedNode A node equal to a node of the indexed type declaration, which may be that
+   *     node itself
+   * @return The first node of the type declaration, in document order, that is equal to the given
+   *     node (or the given node itself, if it is in the type declaration); or null if there is none
+   */
+  public @Nullable Node find(Node detachedNode) {
+    if (isInTypeDecl(detachedNode)) {
+      return detachedNode;
+    }
+    Key key = getKey(detachedNode);
+    List<Node> candidates = key == null ? null : nodes.get(key);
+    if (candidates == null) {
+      return null;
+    }
+    for (Node candidate : candidates) {
+      // A node removed from the type declaration since the index was built is skipped, as a
+      // walk of the type declaration would not have found it either.
+      if (isInTypeDecl(candidate) && candidate.equals(detachedNode)) {
+        return candidate;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Checks if a node is the indexed type declaration or one of its descendants.
+   *
+   * @param node The node
+   * @return true if the node is in the indexed type declaration
+   */
+  private boolean isInTypeDecl(Node node) {
+    return node == typeDecl || node.isDescendantOf(typeDecl);
+  }
+
+  /**
+   * Computes the key of a node.
+   *
+   * @param node The node
+   * @return The key, or null if the node has no parent
+   */
+  private static @Nullable Key getKey(Node node) {
+    if (node.getParentNode().isEmpty()) {
+      return null;
+    }
+    Node owner = getOwner(node);
+    String ownerSignature = owner == null ? "" : getQualifiedSignature(owner);
+    return new Key(node.getClass(), ownerSignature, getSignature(node));
+  }
+
+  /**
+   * Finds the declaration that owns a node.
+   *
+   * @param node The node
+   * @return The nearest proper ancestor of the node that is a callable or type declaration, or null
+   *     if there is none
+   */
+  private static @Nullable Node getOwner(Node node) {
+    Node ancestor = node.getParentNode().orElse(null);
+    while (ancestor != null
+        && !(ancestor instanceof CallableDeclaration<?> || ancestor instanceof TypeDeclaration<?>)) {
+      ancestor = ancestor.getParentNode().orElse(null);
+    }
+    return ancestor;
+  }
+
+  /**
+   * Computes the qualified signature of a callable or type declaration: the fully-qualified name of
+   * a type, or the qualified signature of its owner followed by "#" and its own signature. The
+   * signature is computed from the source alone, so the attached node and its detached equivalent
+   * have the same one without resolving anything.
+   *
+   * @param declaration A callable or type declaration
+   * @return The qualified signature of the declaration
+   */
+  private static String getQualifiedSignature(Node declaration) {
+    if (declaration instanceof TypeDeclaration<?> typeDecl) {
+      // A local class has no fully-qualified name, so it is qualified by its owner instead.
+      String name = typeDecl.getFullyQualifiedName().orElse(null);
+      if (name != null) {
+        return name;
+      }
+    }
+    Node owner = getOwner(declaration);
+    String prefix = owner == null ? "" : getQualifiedSignature(owner) + "#";
+    return prefix + getSignature(declaration);
+  }
+
+  /**
+   * Computes the signature of a node on its own: its simple name (or the names of the variables of
+   * a field declaration), followed by the parameter types of a callable declaration.
+   *
+   * @param node The node
+   * @return The signature of the node, or "" if it has no name
+   */
+  private static String getSignature(Node node) {
+    String signature;
+    if (node instanceof NodeWithSimpleName<?> withName) {
+      signature = withName.getNameAsString();
+    } else if (node instanceof FieldDeclaration fieldDecl) {
+      signature =
+          fieldDecl.getVariables().stream()
+              .map(VariableDeclarator::getNameAsString)
+              .collect(Collectors.joining(","));
+    } else {
+      signature = "";
+    }
+    if (node instanceof CallableDeclaration<?> callable) {
+      signature +=
+          callable.getParameters().stream()
+              .map(Parameter::getTypeAsString)
+              .collect(Collectors.joining(",", "(", ")"));
+    }
+    return signature;
+  }
+}
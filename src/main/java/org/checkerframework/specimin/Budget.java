@@ -0,0 +1,111 @@
+package org.checkerframework.specimin;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * The budget of a single minimization, which starts running out when it is created. Every phase
+ * that can expand without bound takes a step from the budget before each unit of work, and stops
+ * early once a step is refused, keeping what it has computed so far. The phases that were cut short
+ * are recorded, so that they can be reported along with the best-effort output.
+ */
+public class Budget {
+  /** A phase of a minimization that takes steps from the budget. */
+  public enum Phase {
+    /** Draining the slicer's worklist. */
+    SLICE("slicing"),
+    /** Adding information to generated symbols from the context of their uses. */
+    POST_PROCESSING("post-processing generated symbols"),
+    /** Compiling candidate outputs, to find one that compiles. */
+    ENUMERATION("compiling candidate outputs");
+
+    /** A description of the phase, for messages. */
+    private final String description;
+
+    /**
+     * Creates a new phase.
+     *
+     * @param description A description of the phase, for messages
+     */
+    Phase(String description) {
+      this.description = description;
+    }
+
+    @Override
+    public String toString() {
+      return description;
+    }
+  }
+
+  /** The value of {@link System#nanoTime()} when this budget was created. */
+  private final long startNanos;
+
+  /** The wall-clock time this budget allows, in nanoseconds, or -1 for no limit. */
+  private final long timeLimitNanos;
+
+  /** The number of steps this budget allows. */
+  private final long stepLimit;
+
+  /** The number of steps taken so far. */
+  private long steps = 0;
+
+  /** True once a step was refused; from then on, every step is refused. */
+  private boolean exhausted = false;
+
+  /** The phases that were refused a step. */
+  private final Set<Phase> cutShortPhases = EnumSet.noneOf(Phase.class);
+
+  /**
+   * Creates a new budget, which starts running out now.
+   *
+   * @param limits The limits of the budget
+   */
+  public Budget(BudgetLimits limits) {
+    Duration time = limits.time();
+    this.startNanos = System.nanoTime();
+    this.timeLimitNanos = time == null ? -1 : time.toNanos();
+    this.stepLimit = limits.steps();
+  }
+
+  /**
+   * Creates a budget that never runs out.
+   *
+   * @return A new unlimited budget
+   */
+  public static Budget unlimited() {
+    return new Budget(BudgetLimits.unlimited());
+  }
+
+  /**
+   * Takes a step from this budget. If the budget has run out, the step is refused, and the phase is
+   * recorded as cut short.
+   *
+   * @param phase The phase that takes the step
+   * @return True if the phase may take the step; false if it must stop
+   */
+  public boolean step(Phase phase) {
+    if (!exhausted
+        && (steps >= stepLimit
+            || (timeLimitNanos != -1 && System.nanoTime() - startNanos > timeLimitNanos))) {
+      exhausted = true;
+    }
+    if (exhausted) {
+      cutShortPhases.add(phase);
+      return false;
+    }
+    steps++;
+    return true;
+  }
+
+  /**
+   * Gets the phases that were cut short because this budget ran out, in the order of {@link
+   * Phase}.
+   *
+   * @return The phases that were refused a step, which is empty if the budget never ran out
+   */
+  public Set<Phase> getCutShortPhases() {
+    return Collections.unmodifiableSet(cutShortPhases);
+  }
+}
@@ -0,0 +1,39 @@
+package org.checkerframework.specimin;
+
+import java.time.Duration;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Limits on the work that a single minimization may spend expanding its slice and its generated
+ * symbols. When a limit is reached, Specimin stops expanding and writes out the best slice it has
+ * reached so far; see {@link Budget}.
+ *
+ * @param time The wall-clock time that a minimization may spend slicing, or null for no limit
+ * @param steps The number of steps (worklist elements handled, or nodes post-processed) that a
+ *     minimization may take, or {@link Long#MAX_VALUE} for no limit
+ */
+public record BudgetLimits(@Nullable Duration time, long steps) {
+  /**
+   * Creates new budget limits.
+   *
+   * @param time The wall-clock time that a minimization may spend slicing, or null for no limit
+   * @param steps The number of steps that a minimization may take, at least 1
+   */
+  public BudgetLimits {
+    if (time != null && (time.isNegative() || time.isZero())) {
+      throw new IllegalArgumentException("The time budget must be positive.");
+    }
+    if (steps < 1) {
+      throw new IllegalArgumentException("The step budget must be at least 1.");
+    }
+  }
+
+  /**
+   * Gets limits that are never reached.
+   *
+   * @return The limits of an unlimited budget
+   */
+  public static BudgetLimits unlimited() {
+    return new BudgetLimits(null, Long.MAX_VALUE);
+  }
+}
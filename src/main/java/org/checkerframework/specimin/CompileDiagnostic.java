@@ -0,0 +1,61 @@
+package org.checkerframework.specimin;
+
+import com.google.gson.JsonObject;
+import javax.tools.Diagnostic;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Something that the compiler reported about Specimin's output, when it was compiled by a {@link
+ * CompileOracle}.
+ *
+ * @param kind The kind of the diagnostic, such as an error or a warning
+ * @param path The path of the output file that the diagnostic is about, relative to the output
+ *     directory, or null if it is not about a single file
+ * @param line The line of the diagnostic in the file, starting at 1, or {@link
+ *     Diagnostic#NOPOS} if it has no position
+ * @param column The column of the diagnostic in the line, starting at 1, or {@link
+ *     Diagnostic#NOPOS} if it has no position
+ * @param code The compiler's code for the diagnostic, such as "compiler.err.cant.resolve", or null
+ *     if it has none
+ * @param message The message of the diagnostic
+ */
+public record CompileDiagnostic(
+    Diagnostic.Kind kind,
+    @Nullable String path,
+    long line,
+    long column,
+    @Nullable String code,
+    String message) {
+
+  /**
+   * Is this diagnostic an error? The output compiles if none of its diagnostics is an error.
+   *
+   * @return True if this diagnostic is an error
+   */
+  public boolean isError() {
+    return kind == Diagnostic.Kind.ERROR;
+  }
+
+  /**
+   * Converts this diagnostic to a JSON object, with a member for each component. The members for
+   * the components that are absent are left out.
+   *
+   * @return The JSON object
+   */
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject();
+    json.addProperty("kind", kind.name());
+    if (path != null) {
+      json.addProperty("path", path);
+    }
+    if (line != Diagnostic.NOPOS) {
+      json.addProperty("line", line);
+      json.addProperty("column", column);
+    }
+    if (code != null) {
+      json.addProperty("code", code);
+    }
+    json.addProperty("message", message);
+    return json;
+  }
+}
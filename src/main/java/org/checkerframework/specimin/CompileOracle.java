@@ -0,0 +1,236 @@
+package org.checkerframework.specimin;
+
+import com.sun.source.util.JavacTask;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import org.checkerframework.checker.nullness.qual.MonotonicNonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Compiles candidate outputs, using the Java compiler that Specimin runs on. A candidate is
+ * compiled entirely in memory: its files are handed to the compiler as strings, there is no class
+ * path or source path besides the JDK (the output of Specimin must compile on its own), and the
+ * compiler only analyzes the candidate, so nothing is written to disk.
+ *
+ * <p>An oracle is meant to outlive many compilations, such as every job of a batch. Each thread
+ * that compiles keeps its own file manager, so the JDK's classes are only opened once per thread;
+ * each compilation still has its own compiler instance, which shares nothing with the others.
+ * Several candidates can be compiled in parallel, one per available processor.
+ */
+public class CompileOracle implements AutoCloseable {
+  /** The options passed to the compiler. */
+  private static final List<String> OPTIONS = List.of("-proc:none", "-Xlint:none", "-nowarn");
+
+  /** The compiler, or null if it was not needed yet. */
+  private @MonotonicNonNull JavaCompiler compiler;
+
+  /** The pool that compiles candidates in parallel, or null if it was not needed yet. */
+  private @MonotonicNonNull ForkJoinPool pool;
+
+  /** The file manager of each thread that compiled something. */
+  private final ThreadLocal<@Nullable StandardJavaFileManager> fileManagers = new ThreadLocal<>();
+
+  /** Every file manager in {@link #fileManagers}, so that they can be closed. */
+  private final ConcurrentLinkedQueue<StandardJavaFileManager> allFileManagers =
+      new ConcurrentLinkedQueue<>();
+
+  /**
+   * Gets the compiler, looking it up the first time.
+   *
+   * @return The compiler
+   */
+  private synchronized JavaCompiler getCompiler() {
+    if (compiler == null) {
+      JavaCompiler systemCompiler = ToolProvider.getSystemJavaCompiler();
+      if (systemCompiler == null) {
+        throw new RuntimeException(
+            "Specimin must run on a JDK, not a JRE, to compile its output in memory.");
+      }
+      compiler = systemCompiler;
+    }
+    return compiler;
+  }
+
+  /**
+   * Gets the pool that compiles candidates in parallel, creating it the first time.
+   *
+   * @return The pool
+   */
+  private synchronized ForkJoinPool getPool() {
+    if (pool == null) {
+      pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    }
+    return pool;
+  }
+
+  /**
+   * Gets the number of candidates that this oracle compiles at once. Callers of {@link
+   * #findFirstCompiling(List)} should hand it this many candidates at a time.
+   *
+   * @return The parallelism of this oracle
+   */
+  public int getParallelism() {
+    return getPool().getParallelism();
+  }
+
+  /**
+   * Finds the first of some candidates that compiles. All candidates are compiled at the same time,
+   * so the result does not depend on which compilation finishes first.
+   *
+   * @param candidates The candidates, each a map from the paths of its files, relative to the
+   *     output directory, to their content
+   * @return The index of the first candidate that compiles, or -1 if none does
+   */
+  public int findFirstCompiling(List<Map<String, String>> candidates) {
+    List<Future<Boolean>> results = new ArrayList<>();
+    for (Map<String, String> candidate : candidates) {
+      results.add(getPool().submit(() -> compiles(candidate)));
+    }
+    for (int i = 0; i < results.size(); i++) {
+      try {
+        if (results.get(i).get()) {
+          return i;
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Interrupted while compiling candidate outputs", e);
+      } catch (ExecutionException e) {
+        throw new RuntimeException("Could not compile a candidate output", e.getCause());
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Checks whether a candidate compiles without errors.
+   *
+   * @param candidate A map from the paths of the candidate's files, relative to the output
+   *     directory, to their content
+   * @return True if the candidate compiles
+   */
+  public boolean compiles(Map<String, String> candidate) {
+    return compile(candidate).stream().noneMatch(CompileDiagnostic::isError);
+  }
+
+  /**
+   * Compiles a candidate, and gets what the compiler reported about it.
+   *
+   * @param candidate A map from the paths of the candidate's files, relative to the output
+   *     directory, to their content
+   * @return The diagnostics of the compiler, in the order in which it reported them. The candidate
+   *     compiles if none of them is an error.
+   */
+  public List<CompileDiagnostic> compile(Map<String, String> candidate) {
+    List<JavaFileObject> sources = new ArrayList<>();
+    for (Map.Entry<String, String> file : candidate.entrySet()) {
+      sources.add(new InMemorySource(file.getKey(), file.getValue()));
+    }
+
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    JavacTask task =
+        (JavacTask)
+            getCompiler().getTask(null, getFileManager(), diagnostics, OPTIONS, null, sources);
+    try {
+      // Analysis stops before code generation, so no class files are written
+      task.analyze();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    List<CompileDiagnostic> result = new ArrayList<>();
+    for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+      JavaFileObject source = diagnostic.getSource();
+      result.add(
+          new CompileDiagnostic(
+              diagnostic.getKind(),
+              source instanceof InMemorySource inMemory ? inMemory.path : null,
+              diagnostic.getLineNumber(),
+              diagnostic.getColumnNumber(),
+              diagnostic.getCode(),
+              diagnostic.getMessage(null)));
+    }
+    return result;
+  }
+
+  /**
+   * Gets the file manager of the current thread, creating it the first time. Its only locations
+   * are the JDK's: nothing but the candidate and the JDK may be seen by the compiler.
+   *
+   * @return The file manager
+   */
+  private StandardJavaFileManager getFileManager() {
+    StandardJavaFileManager fileManager = fileManagers.get();
+    if (fileManager == null) {
+      // Diagnostics about the file manager itself are reported as exceptions
+      fileManager = getCompiler().getStandardFileManager(null, null, StandardCharsets.UTF_8);
+      try {
+        fileManager.setLocation(StandardLocation.CLASS_PATH, List.of());
+        fileManager.setLocation(StandardLocation.SOURCE_PATH, List.of());
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      fileManagers.set(fileManager);
+      allFileManagers.add(fileManager);
+    }
+    return fileManager;
+  }
+
+  /** Shuts down the pool of this oracle, and closes every file manager that it created. */
+  @Override
+  public synchronized void close() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+    for (StandardJavaFileManager fileManager : allFileManagers) {
+      try {
+        fileManager.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    allFileManagers.clear();
+  }
+
+  /** A source file whose content is held in memory. */
+  private static class InMemorySource extends SimpleJavaFileObject {
+    /** The path of the file, relative to the output directory. */
+    private final String path;
+
+    /** The content of the file. */
+    private final String content;
+
+    /**
+     * Creates a new source file.
+     *
+     * @param path The path of the file, relative to the output directory
+     * @param content The content of the file
+     */
+    InMemorySource(String path, String content) {
+      super(Path.of(path).toUri(), Kind.SOURCE);
+      this.path = path;
+      this.content = content;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return content;
+    }
+  }
+}
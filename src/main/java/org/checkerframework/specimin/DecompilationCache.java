@@ -0,0 +1,228 @@
+package org.checkerframework.specimin;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.io.FileUtils;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jetbrains.java.decompiler.main.decompiler.ConsoleDecompiler;
+
+/**
+ * A content-addressed, on-disk cache of decompiled jar files. Each jar is decompiled once into its
+ * own entry, a directory named after a hash of the jar's bytes and of the decompiler's version, and
+ * later runs copy the decompiled sources from the entry instead of decompiling the jar again.
+ *
+ * <p>An entry is decompiled into a temporary directory next to it, and then renamed into place
+ * atomically. So a run never sees a partially written entry, and when two runs decompile the same
+ * jar at the same time, one of them wins the rename and the other discards its copy.
+ */
+public class DecompilationCache {
+
+  /** The number of cache entries decompiled by this process, whole jars and classes alike. */
+  private static final AtomicInteger decompilations = new AtomicInteger();
+
+  /**
+   * Private constructor to prevent instantiation.
+   *
+   * @throws UnsupportedOperationException if an attempt is made to instantiate this class.
+   */
+  private DecompilationCache() {
+    throw new UnsupportedOperationException("This class cannot be instantiated.");
+  }
+
+  /**
+   * Copies the decompiled sources of the given jar files into a directory, decompiling (and
+   * caching) any jar that is not in the cache yet.
+   *
+   * @param cacheDirectory The directory of the cache, which is created if it does not exist
+   * @param jarPaths The jar files
+   * @param destination The directory to copy the sources into
+   * @throws IOException if a jar cannot be read or the cache cannot be written
+   */
+  public static void copyDecompiledSources(
+      Path cacheDirectory, List<String> jarPaths, Path destination) throws IOException {
+    Files.createDirectories(cacheDirectory);
+    for (String jarPath : jarPaths) {
+      copySources(getOrDecompile(cacheDirectory, Path.of(jarPath)), destination);
+    }
+  }
+
+  /**
+   * Copies the decompiled sources in a directory into another directory, at the same relative
+   * paths.
+   *
+   * @param directory The directory that contains the decompiled sources
+   * @param destination The directory to copy the sources into
+   * @return The files created (or replaced) in the destination
+   * @throws IOException if a source cannot be copied
+   */
+  static List<Path> copySources(Path directory, Path destination) throws IOException {
+    List<Path> sources;
+    try (Stream<Path> stream = Files.walk(directory)) {
+      sources =
+          stream
+              .filter(path -> Files.isRegularFile(path) && path.toString().endsWith(".java"))
+              .collect(Collectors.toList());
+    }
+    List<Path> targets = new ArrayList<>();
+    for (Path source : sources) {
+      Path target = destination.resolve(directory.relativize(source).toString());
+      Path parent = target.getParent();
+      if (parent != null) {
+        Files.createDirectories(parent);
+      }
+      Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+      targets.add(target);
+    }
+    return targets;
+  }
+
+  /**
+   * Gets the cache entry of a jar file, decompiling the jar into a new entry if there is none.
+   *
+   * @param cacheDirectory The directory of the cache
+   * @param jar The jar file
+   * @return The entry's directory, which contains the decompiled sources of the jar
+   * @throws IOException if the jar cannot be read or the cache cannot be written
+   */
+  private static Path getOrDecompile(Path cacheDirectory, Path jar) throws IOException {
+    Path entry = cacheDirectory.resolve(getKey(jar));
+    if (Files.isDirectory(entry)) {
+      return entry;
+    }
+
+    Path temp = Files.createTempDirectory(cacheDirectory, entry.getFileName() + ".tmp");
+    try {
+      decompilations.incrementAndGet();
+      ConsoleDecompiler.main(
+          new String[] {"--silent", jar.toAbsolutePath().toString(), temp.toString()});
+      // Legal files are not needed, and only the decompiled sources are ever copied out.
+      FileUtils.deleteQuietly(temp.resolve("META-INF").toFile());
+      moveIntoPlace(temp, entry);
+    } finally {
+      FileUtils.deleteQuietly(temp.toFile());
+    }
+    return entry;
+  }
+
+  /**
+   * Gets the cache entry of a single top-level class in a jar file (with its member classes),
+   * decompiling the class into a new entry if there is none. These entries are separate from the
+   * entries of whole jars, since a class decompiled on its own may come out slightly differently.
+   *
+   * @param cacheDirectory The directory of the cache
+   * @param jarKey The cache key of the jar file, from {@link #getKey(Path)}
+   * @param jar The jar file
+   * @param binaryName The binary name of the top-level class, with slashes (e.g., "a/b/C")
+   * @param entryNames The names of the jar entries of the class and its member classes
+   * @return The entry's directory, which contains the decompiled source of the class
+   * @throws IOException if the jar cannot be read or the cache cannot be written
+   */
+  static Path getOrDecompileClass(
+      Path cacheDirectory, String jarKey, Path jar, String binaryName, List<String> entryNames)
+      throws IOException {
+    Path entry = cacheDirectory.resolve(jarKey + ".classes").resolve(binaryName);
+    if (Files.isDirectory(entry)) {
+      return entry;
+    }
+
+    Path parent = entry.getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    Path temp = Files.createTempDirectory(cacheDirectory, jarKey + ".tmp");
+    try {
+      decompilations.incrementAndGet();
+      DecompilingTypeSolver.decompileClass(jar, entryNames, temp);
+      moveIntoPlace(temp, entry);
+    } finally {
+      FileUtils.deleteQuietly(temp.toFile());
+    }
+    return entry;
+  }
+
+  /**
+   * Gets the number of cache entries that this process decompiled, rather than finding them in the
+   * cache.
+   *
+   * @return The number of entries decompiled
+   */
+  static int getDecompilations() {
+    return decompilations.get();
+  }
+
+  /**
+   * Renames a fully written temporary directory into place as a cache entry.
+   *
+   * @param temp The temporary directory
+   * @param entry The entry's directory
+   * @throws IOException if the directory cannot be renamed, and no other run created the entry
+   */
+  private static void moveIntoPlace(Path temp, Path entry) throws IOException {
+    try {
+      Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      // Another run created the entry first; its copy is as good as ours.
+      if (!Files.isDirectory(entry)) {
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Computes the cache key of a jar file: a hash of its contents and of the decompiler's version,
+   * since a different decompiler may decompile the same jar differently.
+   *
+   * @param jar The jar file
+   * @return The hex-encoded SHA-256 hash
+   * @throws IOException if the jar cannot be read
+   */
+  static String getKey(Path jar) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform is required to support SHA-256.
+      throw new RuntimeException(e);
+    }
+    digest.update(getDecompilerVersion().getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+    byte[] buffer = new byte[1 << 16];
+    try (InputStream in = Files.newInputStream(jar)) {
+      int read;
+      while ((read = in.read(buffer)) != -1) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  /**
+   * Gets the version of the decompiler: the implementation version in its jar's manifest, or, if
+   * there is none, the location that it was loaded from.
+   *
+   * @return The version of the decompiler
+   */
+  private static String getDecompilerVersion() {
+    @Nullable String version = ConsoleDecompiler.class.getPackage().getImplementationVersion();
+    if (version != null) {
+      return version;
+    }
+    CodeSource codeSource = ConsoleDecompiler.class.getProtectionDomain().getCodeSource();
+    @Nullable URL location = codeSource == null ? null : codeSource.getLocation();
+    return location == null ? "unknown" : location.toString();
+  }
+}
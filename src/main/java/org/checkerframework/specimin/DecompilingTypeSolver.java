@@ -0,0 +1,261 @@
+package org.checkerframework.specimin;
+
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import org.apache.commons.io.FileUtils;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jetbrains.java.decompiler.main.decompiler.ConsoleDecompiler;
+
+/**
+ * A type solver that decompiles the classes of the jar files on demand, instead of decompiling
+ * every jar file up front. It never solves a type itself: when it is asked for a type that a jar
+ * file declares and that has no source yet, it decompiles that type's top-level class (with its
+ * member classes) into the overlay root and reports the type as unsolved, so that the {@link
+ * com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver} of the overlay
+ * root, which comes after it, finds the new source file. Classes that are never looked up are
+ * never decompiled, so the cost of decompilation follows the size of the slice rather than the size
+ * of the classpath.
+ */
+public class DecompilingTypeSolver implements TypeSolver {
+  /** The parent type solver. */
+  private @Nullable TypeSolver parent;
+
+  /** The overlay root, the directory that classes are decompiled into. */
+  private final Path overlayRoot;
+
+  /** The index of the types with source, to which decompiled files are added. */
+  private final SourceIndex sourceIndex;
+
+  /** The directory of the {@link DecompilationCache}, or null to not cache decompiled classes. */
+  private final @Nullable Path cacheDirectory;
+
+  /**
+   * A map from the FQN of every class in the jar files (with member classes separated by dots) to
+   * its top-level class. If several jar files declare a class, the first one wins, as on a
+   * classpath.
+   */
+  private final Map<String, JarClass> jarClasses = new HashMap<>();
+
+  /** The top-level classes that were decompiled (or found in the source index) already. */
+  private final Set<JarClass> decompiledClasses = new HashSet<>();
+
+  /** The cache keys of the jar files, computed the first time each is needed. */
+  private final Map<Path, String> jarKeys = new HashMap<>();
+
+  /** Called with every file created in the overlay root. */
+  private Consumer<Path> listener = path -> {};
+
+  /**
+   * A top-level class in a jar file.
+   *
+   * @param jar The jar file
+   * @param binaryName The binary name of the class, with slashes (e.g., "a/b/C")
+   * @param entryNames The names of the jar entries of the class and of its member classes
+   */
+  private record JarClass(Path jar, String binaryName, List<String> entryNames) {}
+
+  /**
+   * Creates a new decompiling type solver for the jar files in the given index. This decompiles
+   * nothing.
+   *
+   * @param overlayRoot The directory to decompile classes into
+   * @param jarIndex The index of the classes in the jar files
+   * @param sourceIndex The index of the types with source
+   * @param cacheDirectory The directory of the decompilation cache, or null
+   */
+  public DecompilingTypeSolver(
+      Path overlayRoot,
+      JarIndex jarIndex,
+      SourceIndex sourceIndex,
+      @Nullable Path cacheDirectory) {
+    this.overlayRoot = overlayRoot;
+    this.sourceIndex = sourceIndex;
+    this.cacheDirectory = cacheDirectory;
+    for (Path jar : jarIndex.getJars()) {
+      addJar(jar, jarIndex);
+    }
+  }
+
+  /**
+   * Records the classes in a jar file, grouped by their top-level classes.
+   *
+   * @param jar The jar file
+   * @param jarIndex The index of the classes in the jar files
+   */
+  private void addJar(Path jar, JarIndex jarIndex) {
+    Map<String, List<String>> entriesByTopLevelClass = new HashMap<>();
+    for (String binaryName : jarIndex.getBinaryNames(jar)) {
+      int dollar = binaryName.indexOf('$', binaryName.lastIndexOf('/') + 1);
+      String topLevelName = dollar == -1 ? binaryName : binaryName.substring(0, dollar);
+      entriesByTopLevelClass
+          .computeIfAbsent(topLevelName, k -> new ArrayList<>())
+          .add(binaryName + ".class");
+    }
+
+    for (Map.Entry<String, List<String>> entry : entriesByTopLevelClass.entrySet()) {
+      JarClass jarClass = new JarClass(jar, entry.getKey(), entry.getValue());
+      for (String entryName : entry.getValue()) {
+        String fqn =
+            entryName
+                .substring(0, entryName.length() - ".class".length())
+                .replace('/', '.')
+                .replace('$', '.');
+        jarClasses.putIfAbsent(fqn, jarClass);
+      }
+    }
+  }
+
+  /**
+   * Sets the function that is called with every file that this solver creates in the overlay root,
+   * after the file has been added to the source index.
+   *
+   * @param listener The function to call
+   */
+  public void setListener(Consumer<Path> listener) {
+    this.listener = listener;
+  }
+
+  @Override
+  @SuppressWarnings(
+      "nullness") // TypeSolver's getParent() is unannotated (and hence @NonNull) but docs specify
+  // nullability
+  public @Nullable TypeSolver getParent() {
+    return parent;
+  }
+
+  @Override
+  public void setParent(@Nullable TypeSolver parent) {
+    this.parent = parent;
+  }
+
+  @Override
+  public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+    decompile(name);
+    return SymbolReference.unsolved();
+  }
+
+  @Override
+  public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveTypeInModule(
+      String packageQualifiedName, String simpleName) {
+    return tryToSolveType(packageQualifiedName + "." + simpleName);
+  }
+
+  /**
+   * Decompiles the top-level class of a type into the overlay root, if a jar file declares the
+   * type, the type has no source yet, and the class was not decompiled already.
+   *
+   * @param fqn The FQN of the type, with member types separated by dots
+   * @return true if the class was decompiled by this call
+   */
+  public synchronized boolean decompile(String fqn) {
+    JarClass jarClass = jarClasses.get(fqn);
+    // A type that the input declares is never shadowed by a decompiled one.
+    if (jarClass == null || sourceIndex.getPath(fqn) != null || !decompiledClasses.add(jarClass)) {
+      return false;
+    }
+    try {
+      decompile(jarClass);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return true;
+  }
+
+  /**
+   * Decompiles a top-level class into the overlay root (or copies it from the decompilation cache),
+   * and adds the new files to the source index.
+   *
+   * @param jarClass The class to decompile
+   * @throws IOException if the class cannot be decompiled or copied into the overlay root
+   */
+  private void decompile(JarClass jarClass) throws IOException {
+    List<Path> files;
+    if (cacheDirectory != null) {
+      String jarKey = jarKeys.get(jarClass.jar());
+      if (jarKey == null) {
+        jarKey = DecompilationCache.getKey(jarClass.jar());
+        jarKeys.put(jarClass.jar(), jarKey);
+      }
+      Path entry =
+          DecompilationCache.getOrDecompileClass(
+              cacheDirectory,
+              jarKey,
+              jarClass.jar(),
+              jarClass.binaryName(),
+              jarClass.entryNames());
+      files = DecompilationCache.copySources(entry, overlayRoot);
+    } else {
+      Path temp = Files.createTempDirectory("specimin-decompiled");
+      try {
+        decompileClass(jarClass.jar(), jarClass.entryNames(), temp);
+        files = DecompilationCache.copySources(temp, overlayRoot);
+      } finally {
+        FileUtils.deleteQuietly(temp.toFile());
+      }
+    }
+
+    sourceIndex.addOverlayFiles(files);
+    for (Path file : files) {
+      listener.accept(file);
+    }
+  }
+
+  /**
+   * Decompiles some of the classes of a jar file. The classes are extracted from the jar file
+   * first, and the jar file itself is passed to the decompiler as a library, so that it still knows
+   * about the classes' supertypes.
+   *
+   * @param jar The jar file
+   * @param entryNames The names of the jar entries of the classes to decompile, which should be a
+   *     top-level class and all of its member classes
+   * @param destination The directory to write the decompiled sources to, at paths that follow
+   *     their packages
+   * @throws IOException if the jar file cannot be read
+   */
+  static void decompileClass(Path jar, List<String> entryNames, Path destination)
+      throws IOException {
+    Path classes = Files.createTempDirectory("specimin-classes");
+    try {
+      try (JarFile jarFile = new JarFile(jar.toFile())) {
+        for (String entryName : entryNames) {
+          ZipEntry entry = jarFile.getEntry(entryName);
+          if (entry == null) {
+            throw new IOException("No entry " + entryName + " in " + jar);
+          }
+          Path target = classes.resolve(entryName);
+          Path parent = target.getParent();
+          if (parent != null) {
+            Files.createDirectories(parent);
+          }
+          try (InputStream in = jarFile.getInputStream(entry)) {
+            Files.copy(in, target);
+          }
+        }
+      }
+      ConsoleDecompiler.main(
+          new String[] {
+            "--silent",
+            "-e=" + jar.toAbsolutePath(),
+            classes.toString(),
+            destination.toAbsolutePath().toString()
+          });
+    } finally {
+      FileUtils.deleteQuietly(classes.toFile());
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package org.checkerframework.specimin;
+
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.symbolsolver.javassistmodel.JavassistFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+import javassist.ClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.NotFoundException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A type solver for the classes in a set of jar files, like JavaParser's {@link
+ * com.github.javaparser.symbolsolver.resolution.typesolvers.JarTypeSolver}, but backed by a {@link
+ * JarIndex}. JarTypeSolver opens and enumerates its jar when it is constructed; this solver only
+ * opens a jar the first time a class in it is solved, and a single solver serves every jar, in
+ * classpath order.
+ */
+public class IndexedJarTypeSolver implements TypeSolver {
+  /** The parent type solver. */
+  private @Nullable TypeSolver parent;
+
+  /** The index of the classes in the jar files. */
+  private final JarIndex jarIndex;
+
+  /** The class pool that reads the class files, through {@link #jarIndex}. */
+  private final ClassPool classPool = new ClassPool();
+
+  /** The jar files opened so far, keyed by path. */
+  private final Map<Path, JarFile> openJars = new HashMap<>();
+
+  /**
+   * Creates a new type solver for the jar files in the given index.
+   *
+   * @param jarIndex The index of the classes in the jar files
+   */
+  public IndexedJarTypeSolver(JarIndex jarIndex) {
+    this.jarIndex = jarIndex;
+    classPool.appendClassPath(new JarIndexClassPath());
+  }
+
+  @Override
+  @SuppressWarnings(
+      "nullness") // TypeSolver's getParent() is unannotated (and hence @NonNull) but docs specify
+  // nullability
+  public @Nullable TypeSolver getParent() {
+    return parent;
+  }
+
+  @Override
+  public void setParent(@Nullable TypeSolver parent) {
+    this.parent = parent;
+  }
+
+  @Override
+  public synchronized SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(
+      String name) {
+    JarIndex.ClassLocation location = jarIndex.getLocation(name);
+    if (location == null) {
+      return SymbolReference.unsolved();
+    }
+    try {
+      CtClass ctClass = classPool.get(location.binaryName().replace('/', '.'));
+      return SymbolReference.solved(JavassistFactory.toTypeDeclaration(ctClass, getRoot()));
+    } catch (NotFoundException e) {
+      // Every indexed class is in its jar, unless the jar changed since it was indexed.
+      throw new IllegalStateException("Could not read " + name + " from " + location.jar(), e);
+    }
+  }
+
+  @Override
+  public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveTypeInModule(
+      String packageQualifiedName, String simpleName) {
+    return tryToSolveType(packageQualifiedName + "." + simpleName);
+  }
+
+  /**
+   * Gets an open jar file, opening it if this is the first time it is needed. The jar files stay
+   * open for the lifetime of this solver, as they would in JarTypeSolver's class pool.
+   *
+   * @param jar The path of the jar file
+   * @return The open jar file
+   * @throws IOException if the jar file cannot be opened
+   */
+  private synchronized JarFile openJar(Path jar) throws IOException {
+    JarFile jarFile = openJars.get(jar);
+    if (jarFile == null) {
+      jarFile = new JarFile(jar.toFile());
+      openJars.put(jar, jarFile);
+    }
+    return jarFile;
+  }
+
+  /** A class path for the class pool, which finds each class file through the jar index. */
+  private class JarIndexClassPath implements ClassPath {
+    @Override
+    public @Nullable InputStream openClassfile(String classname) throws NotFoundException {
+      String binaryName = classname.replace('.', '/');
+      Path jar = jarIndex.getJar(binaryName);
+      if (jar == null) {
+        return null;
+      }
+      try {
+        JarFile jarFile = openJar(jar);
+        ZipEntry entry = jarFile.getEntry(binaryName + ".class");
+        if (entry == null) {
+          throw new NotFoundException(classname + " is not in " + jar);
+        }
+        return jarFile.getInputStream(entry);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    @Override
+    public @Nullable URL find(String classname) {
+      String binaryName = classname.replace('.', '/');
+      Path jar = jarIndex.getJar(binaryName);
+      if (jar == null) {
+        return null;
+      }
+      try {
+        return URI.create("jar:" + jar.toUri() + "!/" + binaryName + ".class").toURL();
+      } catch (MalformedURLException e) {
+        return null;
+      }
+    }
+  }
+}
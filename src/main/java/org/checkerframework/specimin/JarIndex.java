@@ -0,0 +1,306 @@
+package org.checkerframework.specimin;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Collectors;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An index of the classes in a list of jar files, mapping each class to the jar that contains it.
+ * Each jar is opened once to list its entries, and every part of Specimin that needs to know which
+ * classes the jars contain (the type solver that reads the jars, the decompiler, and the tracking
+ * of decompiled files) uses this index instead of enumerating the jars again. The jars are listed
+ * in parallel.
+ *
+ * <p>The index can also be backed by an on-disk cache, which stores the classes of each jar under
+ * the jar's path, size, and modification time, so that a later run does not open an unchanged jar
+ * at all until a class in it is actually needed.
+ */
+public class JarIndex {
+  /** The first line of a cache file; a cache file that starts with anything else is ignored. */
+  private static final String CACHE_HEADER = "specimin-jar-index-cache-v1";
+
+  /** The name of the cache file in the cache directory. */
+  private static final String CACHE_FILE_NAME = "jar-index.cache";
+
+  /** The indexed jars, in classpath order. */
+  private final List<Jar> jars;
+
+  /**
+   * The FQN of every class (with member classes separated by dots) mapped to its location. If
+   * several jars contain a class, the first one wins, as on a classpath.
+   */
+  private final Map<String, ClassLocation> fqnToLocation = new HashMap<>();
+
+  /** The binary name of every class (e.g., "a/b/C$D") mapped to the first jar that contains it. */
+  private final Map<String, Path> binaryNameToJar = new HashMap<>();
+
+  /**
+   * Where a class is found.
+   *
+   * @param jar The absolute, normalized path of the jar that contains the class
+   * @param binaryName The binary name of the class, with slashes (e.g., "a/b/C$D")
+   */
+  public record ClassLocation(Path jar, String binaryName) {}
+
+  /**
+   * A jar and its classes.
+   *
+   * @param path The absolute, normalized path of the jar
+   * @param size The size of the jar, in bytes, when it was listed
+   * @param lastModified The modification time of the jar, in milliseconds, when it was listed
+   * @param binaryNames The binary names of the classes in the jar, in the order of its entries
+   */
+  private record Jar(Path path, long size, long lastModified, List<String> binaryNames) {}
+
+  /**
+   * Creates an index of the given jars.
+   *
+   * @param jars The jars, in classpath order
+   */
+  private JarIndex(List<Jar> jars) {
+    this.jars = jars;
+    for (Jar jar : jars) {
+      for (String binaryName : jar.binaryNames()) {
+        binaryNameToJar.putIfAbsent(binaryName, jar.path());
+        fqnToLocation.putIfAbsent(
+            binaryName.replace('/', '.').replace('$', '.'),
+            new ClassLocation(jar.path(), binaryName));
+      }
+    }
+  }
+
+  /**
+   * Indexes the given jar files, without a cache.
+   *
+   * @param jarPaths The jar files, in classpath order
+   * @return The index
+   * @throws IOException if a jar file cannot be read
+   */
+  public static JarIndex build(List<String> jarPaths) throws IOException {
+    return build(jarPaths, null);
+  }
+
+  /**
+   * Indexes the given jar files, using and updating the cache in the given directory. A jar whose
+   * size and modification time match its cache entry is not opened.
+   *
+   * @param jarPaths The jar files, in classpath order
+   * @param cacheDirectory The directory of the cache, which is created if it does not exist; or
+   *     null to not use a cache
+   * @return The index
+   * @throws IOException if a jar file cannot be read
+   */
+  public static JarIndex build(List<String> jarPaths, @Nullable Path cacheDirectory)
+      throws IOException {
+    Path cacheFile = null;
+    Map<Path, Jar> cachedJars = Map.of();
+    if (cacheDirectory != null) {
+      Files.createDirectories(cacheDirectory);
+      cacheFile = cacheDirectory.resolve(CACHE_FILE_NAME);
+      cachedJars = readCache(cacheFile);
+    }
+
+    Map<Path, Jar> finalCachedJars = cachedJars;
+    List<Jar> jars;
+    try {
+      jars =
+          jarPaths.parallelStream()
+              .map(jarPath -> Path.of(jarPath).toAbsolutePath().normalize())
+              .map(path -> listJar(path, finalCachedJars))
+              .collect(Collectors.toList());
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+
+    if (cacheFile != null && !cachedJars.values().containsAll(jars)) {
+      writeCache(cacheFile, cachedJars, jars);
+    }
+    return new JarIndex(jars);
+  }
+
+  /**
+   * Lists the classes of a jar, unless its cache entry is still valid.
+   *
+   * @param path The absolute, normalized path of the jar
+   * @param cachedJars The jars read from the cache file, keyed by path
+   * @return The jar and its classes
+   */
+  private static Jar listJar(Path path, Map<Path, Jar> cachedJars) {
+    try {
+      BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+      long size = attributes.size();
+      long lastModified = attributes.lastModifiedTime().toMillis();
+      Jar cached = cachedJars.get(path);
+      if (cached != null && cached.size() == size && cached.lastModified() == lastModified) {
+        return cached;
+      }
+
+      List<String> binaryNames = new ArrayList<>();
+      try (JarFile jarFile = new JarFile(path.toFile())) {
+        Enumeration<JarEntry> entries = jarFile.entries();
+        while (entries.hasMoreElements()) {
+          JarEntry entry = entries.nextElement();
+          String name = entry.getName();
+          if (entry.isDirectory()
+              || !name.endsWith(".class")
+              || name.startsWith("META-INF/")
+              || name.endsWith("module-info.class")
+              || name.endsWith("package-info.class")) {
+            continue;
+          }
+          binaryNames.add(name.substring(0, name.length() - ".class".length()));
+        }
+      }
+      return new Jar(path, size, lastModified, binaryNames);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Reads the cache file, if it exists. A cache file that cannot be read is ignored, since the
+   * cache only ever saves work.
+   *
+   * @param cacheFile The cache file
+   * @return The jars in the cache file, keyed by path
+   */
+  private static Map<Path, Jar> readCache(Path cacheFile) {
+    Map<Path, Jar> result = new LinkedHashMap<>();
+    if (!Files.isRegularFile(cacheFile)) {
+      return result;
+    }
+    List<String> lines;
+    try {
+      lines = Files.readAllLines(cacheFile, StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      System.err.println("Ignoring unreadable jar index cache " + cacheFile + ": " + e);
+      return result;
+    }
+    if (lines.isEmpty() || !lines.get(0).equals(CACHE_HEADER)) {
+      return result;
+    }
+    // Each line is: path, tab, size, tab, modification time, tab, and the comma-separated binary
+    // names of the classes.
+    for (String line : lines.subList(1, lines.size())) {
+      String[] parts = line.split("\t", -1);
+      if (parts.length != 4) {
+        continue;
+      }
+      try {
+        Path path = Path.of(parts[0]);
+        List<String> binaryNames =
+            parts[3].isEmpty() ? List.of() : Arrays.asList(parts[3].split(",", -1));
+        result.put(
+            path, new Jar(path, Long.parseLong(parts[1]), Long.parseLong(parts[2]), binaryNames));
+      } catch (RuntimeException e) {
+        // A malformed line only costs a re-listing of its jar.
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Writes the cache file. The entries of other jars already in the cache are kept, so that runs
+   * with different classpaths can share a cache directory. The file is replaced atomically, so
+   * that concurrent runs sharing a cache never read a partial file.
+   *
+   * @param cacheFile The cache file
+   * @param cachedJars The jars read from the cache file, keyed by path
+   * @param jars The jars indexed by this run
+   * @throws IOException if the cache file cannot be written
+   */
+  private static void writeCache(Path cacheFile, Map<Path, Jar> cachedJars, List<Jar> jars)
+      throws IOException {
+    Map<Path, Jar> merged = new LinkedHashMap<>(cachedJars);
+    for (Jar jar : jars) {
+      merged.put(jar.path(), jar);
+    }
+    List<String> lines = new ArrayList<>();
+    lines.add(CACHE_HEADER);
+    for (Jar jar : merged.values()) {
+      lines.add(
+          jar.path()
+              + "\t"
+              + jar.size()
+              + "\t"
+              + jar.lastModified()
+              + "\t"
+              + String.join(",", jar.binaryNames()));
+    }
+    Path parent = cacheFile.toAbsolutePath().getParent();
+    Path temp = Files.createTempFile(parent, CACHE_FILE_NAME, ".tmp");
+    Files.write(temp, lines, StandardCharsets.UTF_8);
+    Files.move(
+        temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Gets the indexed jars.
+   *
+   * @return The absolute, normalized paths of the jars, in classpath order
+   */
+  public List<Path> getJars() {
+    return jars.stream().map(Jar::path).collect(Collectors.toList());
+  }
+
+  /**
+   * Gets the classes in a jar.
+   *
+   * @param jar The absolute, normalized path of an indexed jar
+   * @return The binary names of the classes in the jar (e.g., "a/b/C$D"), or an empty list if the
+   *     jar is not indexed
+   */
+  public List<String> getBinaryNames(Path jar) {
+    for (Jar indexed : jars) {
+      if (indexed.path().equals(jar)) {
+        return indexed.binaryNames();
+      }
+    }
+    return List.of();
+  }
+
+  /**
+   * Gets the location of a class.
+   *
+   * @param fqn The FQN of the class, with member classes separated by dots
+   * @return The location of the class, or null if no indexed jar contains it
+   */
+  public @Nullable ClassLocation getLocation(String fqn) {
+    return fqnToLocation.get(fqn);
+  }
+
+  /**
+   * Gets the jar that contains a class.
+   *
+   * @param binaryName The binary name of the class, with slashes (e.g., "a/b/C$D")
+   * @return The absolute, normalized path of the jar, or null if no indexed jar contains it
+   */
+  public @Nullable Path getJar(String binaryName) {
+    return binaryNameToJar.get(binaryName);
+  }
+
+  /**
+   * Gets the FQNs of every class in the indexed jars.
+   *
+   * @return The FQNs, with member classes separated by dots
+   */
+  public Set<String> getClassNames() {
+    return fqnToLocation.keySet();
+  }
+}
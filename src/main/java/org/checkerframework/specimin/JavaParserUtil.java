@@ -37,7 +37,6 @@ import com.github.javaparser.ast.nodeTypes.NodeWithDeclaration;
 import com.github.javaparser.ast.nodeTypes.NodeWithExtends;
 import com.github.javaparser.ast.nodeTypes.NodeWithImplements;
 import com.github.javaparser.ast.nodeTypes.NodeWithParameters;
-import com.github.javaparser.ast.nodeTypes.NodeWithSimpleName;
 import com.github.javaparser.ast.nodeTypes.NodeWithTraversableScope;
 import com.github.javaparser.ast.nodeTypes.NodeWithType;
 import com.github.javaparser.ast.nodeTypes.NodeWithTypeParameters;
@@ -86,8 +85,10 @@ import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.checkerframework.checker.nullness.qual.EnsuresNonNull;
@@ -125,6 +126,27 @@ public class JavaParserUtil {
    */
   private static final Set<String> generatedResolvedPlaceholderTypes = new HashSet<>();
 
+  /**
+   * The index of each attached type declaration searched by {@link
+   * #tryFindAttachedNode(AssociableToAST, Map)}, keyed by identity. Cleared whenever the AST
+   * changes, by {@link #clearAttachedNodeIndexes()}.
+   */
+  private static final Map<TypeDeclaration<?>, AttachedNodeIndex> attachedNodeIndexes =
+      new IdentityHashMap<>();
+
+  /**
+   * The type declarations of the project's compilation units, used by {@link
+   * #getTypeFromQualifiedName(String, Map)}; or null if there is no project. A compilation unit
+   * that is not in the table is searched by walking it.
+   */
+  private static @Nullable TypeDeclarationTable typeDeclarationTable = null;
+
+  /**
+   * The supertype graph shared by the ancestor, must-implement, and override queries. Cleared
+   * whenever the AST changes, by {@link #clearTypeHierarchy()}.
+   */
+  private static final TypeHierarchy typeHierarchy = new TypeHierarchy();
+
   /**
    * Set the SpeciminTypeSolvers instance to be used.
    *
@@ -141,6 +163,16 @@ public class JavaParserUtil {
     generatedResolvedPlaceholderTypes.clear();
   }
 
+  /**
+   * Set the table of the type declarations of the project's compilation units. The table is kept
+   * up to date by the project model as compilation units are parsed and dropped.
+   *
+   * @param typeDeclarationTable The table of type declarations, or null if there is no project
+   */
+  public static void setTypeDeclarationTable(@Nullable TypeDeclarationTable typeDeclarationTable) {
+    JavaParserUtil.typeDeclarationTable = typeDeclarationTable;
+  }
+
   /**
    * Gets the type solver, and ensures it is non-null.
    *
@@ -542,7 +574,28 @@ public class JavaParserUtil {
   public static @Nullable Pair<ResolvedType, Map<String, Node>>
       tryGetExpressionTypeFromUnresolvableGenericScopeOrUnsolvedLambdas(
           Expression expr, Map<String, CompilationUnit> fqnToCompilationUnits) {
+    // Placeholders are substituted into the AST and removed again before this returns, so nothing
+    // resolved in between can be memoized.
+    Resolver.suspendMemo();
+    try {
+      return tryGetExpressionTypeFromUnresolvableGenericScopeOrUnsolvedLambdasImpl(
+          expr, fqnToCompilationUnits);
+    } finally {
+      Resolver.resumeMemo();
+    }
+  }
 
+  /**
+   * Implementation of {@link #tryGetExpressionTypeFromUnresolvableGenericScopeOrUnsolvedLambdas},
+   * to be called while the resolution memo is suspended.
+   *
+   * @param expr The expression whose type is to be resolved
+   * @param fqnToCompilationUnits The map of FQNs to compilation units
+   * @return The resolved type, or null if it cannot be resolved
+   */
+  private static @Nullable Pair<ResolvedType, Map<String, Node>>
+      tryGetExpressionTypeFromUnresolvableGenericScopeOrUnsolvedLambdasImpl(
+          Expression expr, Map<String, CompilationUnit> fqnToCompilationUnits) {
     Expression copy = expr.clone();
     Pair<Map<Type, Node>, IdentityHashMap<Node, Node>> copyAndPlaceholderMap =
         copyAndReplaceAllUnresolvableScopeTypeArgumentsAndLambdasWithResolvablePlaceholders(
@@ -573,7 +626,29 @@ public class JavaParserUtil {
   public static @Nullable Pair<ResolvedType, Map<String, Node>>
       tryGetExpressionTypeForLambdaParameterInUnresolvableGenericScopeMethod(
           Expression expr, Map<String, CompilationUnit> fqnToCompilationUnits) {
+    // Placeholders are substituted into the AST and removed again before this returns, so nothing
+    // resolved in between can be memoized.
+    Resolver.suspendMemo();
+    try {
+      return tryGetExpressionTypeForLambdaParameterInUnresolvableGenericScopeMethodImpl(
+          expr, fqnToCompilationUnits);
+    } finally {
+      Resolver.resumeMemo();
+    }
+  }
 
+  /**
+   * Implementation of {@link
+   * #tryGetExpressionTypeForLambdaParameterInUnresolvableGenericScopeMethod}, to be called while
+   * the resolution memo is suspended.
+   *
+   * @param expr The expression whose type is to be resolved
+   * @param fqnToCompilationUnits The map of FQNs to compilation units
+   * @return The resolved type, or null if it cannot be resolved
+   */
+  private static @Nullable Pair<ResolvedType, Map<String, Node>>
+      tryGetExpressionTypeForLambdaParameterInUnresolvableGenericScopeMethodImpl(
+          Expression expr, Map<String, CompilationUnit> fqnToCompilationUnits) {
     @SuppressWarnings("unchecked")
     LambdaExpr lambda = expr.findAncestor(LambdaExpr.class).orElse(null);
     if (lambda == null) {
@@ -1866,28 +1941,7 @@ public class JavaParserUtil {
    */
   public static Set<ResolvedReferenceTypeDeclaration> getAllJDKAncestors(
       ResolvedReferenceTypeDeclaration start) {
-    Set<ResolvedReferenceTypeDeclaration> result = new HashSet<>();
-
-    getAllJDKAncestorsImpl(start, result);
-
-    return result;
-  }
-
-  /**
-   * Finds all JDK ancestors of a given type recursively.
-   *
-   * @param type The type declaration
-   * @param result The set to append to
-   */
-  private static void getAllJDKAncestorsImpl(
-      ResolvedReferenceTypeDeclaration type, Set<ResolvedReferenceTypeDeclaration> result) {
-    for (ResolvedReferenceType ancestor : type.getAncestors(true)) {
-      if (JavaLangUtils.inJdkPackage(ancestor.getQualifiedName())) {
-        result.add(ancestor.getTypeDeclaration().get());
-      }
-
-      getAllJDKAncestorsImpl(ancestor.getTypeDeclaration().get(), result);
-    }
+    return new HashSet<>(typeHierarchy.getAllJdkAncestors(start));
   }
 
   /**
@@ -1899,44 +1953,7 @@ public class JavaParserUtil {
    */
   public static List<TypeDeclaration<?>> getAllSolvableAncestors(
       TypeDeclaration<?> start, Map<String, CompilationUnit> fqnToCompilationUnits) {
-    List<TypeDeclaration<?>> result = new ArrayList<>();
-
-    getAllSolvableAncestorsImpl(start, fqnToCompilationUnits, result);
-
-    return result;
-  }
-
-  /**
-   * Helper method for {@link #getAllSolvableAncestors(TypeDeclaration, Map)}. Recursively calls
-   * itself on all solvable ancestors.
-   *
-   * @param start The declaration to start at
-   * @param fqnToCompilationUnits The map of FQNs to compilation units
-   * @param result The
-   */
-  private static void getAllSolvableAncestorsImpl(
-      TypeDeclaration<?> start,
-      Map<String, CompilationUnit> fqnToCompilationUnits,
-      List<TypeDeclaration<?>> result) {
-    List<ClassOrInterfaceType> extendedOrImplemented = getDirectSuperTypes(start);
-
-    for (ClassOrInterfaceType type : extendedOrImplemented) {
-      ResolvedType resolvedType = Resolver.resolve(type);
-
-      if (resolvedType == null) {
-        continue;
-      }
-
-      TypeDeclaration<?> typeDecl =
-          getTypeFromQualifiedName(resolvedType.describe(), fqnToCompilationUnits);
-
-      if (typeDecl == null) {
-        continue;
-      }
-
-      result.add(typeDecl);
-      getAllSolvableAncestorsImpl(typeDecl, fqnToCompilationUnits, result);
-    }
+    return new ArrayList<>(typeHierarchy.getAllSolvableAncestors(start, fqnToCompilationUnits));
   }
 
   /**
@@ -1964,6 +1981,11 @@ public class JavaParserUtil {
       return null;
     }
 
+    TypeDeclarationTable table = typeDeclarationTable;
+    if (table != null && table.contains(someCandidate)) {
+      return table.get(erased, someCandidate);
+    }
+
     return (TypeDeclaration<?>)
         someCandidate
             .findFirst(
@@ -2047,6 +2069,34 @@ public class JavaParserUtil {
     return result;
   }
 
+  /**
+   * Forgets the indexes built by {@link #tryFindAttachedNode(AssociableToAST, Map)}. Call this
+   * after mutating the AST, since an index only knows the nodes that existed when it was built.
+   * {@link Resolver#invalidateMemo()} calls this, so every place that invalidates the resolution
+   * memo also clears these indexes.
+   */
+  public static void clearAttachedNodeIndexes() {
+    attachedNodeIndexes.clear();
+  }
+
+  /**
+   * Gets the supertype graph shared by the ancestor, must-implement, and override queries.
+   *
+   * @return The type hierarchy
+   */
+  public static TypeHierarchy getTypeHierarchy() {
+    return typeHierarchy;
+  }
+
+  /**
+   * Forgets the supertype graph. Call this after mutating the AST. {@link
+   * Resolver#invalidateMemo()} calls this, so every place that invalidates the resolution memo also
+   * clears the graph.
+   */
+  public static void clearTypeHierarchy() {
+    typeHierarchy.clear();
+  }
+
   /**
    * Given an AssociableToAST that could give a detached node, find its attached equivalent. This
    * method is only necessary when you need to call resolve() or calculateResolvedType() on its
@@ -2077,38 +2127,18 @@ public class JavaParserUtil {
       return null;
     }
 
-    Class<? extends Node> nodeClass = detachedNode.getClass();
-    Node detachedParent = detachedNode.getParentNode().get();
-    NodeWithSimpleName<?> detachedParentWithName =
-        detachedParent instanceof NodeWithSimpleName<?>
-            ? (NodeWithSimpleName<?>) detachedParent
-            : null;
-
-    return attached
-        .findFirst(
-            nodeClass,
-            // These simple heuristics don't guarantee that a similar but incorrect node is not
-            // selected, but they make it very rare.
-
-            // For example, two identical variable declarators in the same class in different
-            // blocks, i.e.:
-            // if (...) { int x; } ... if (...) { int x; }
-            // Trying to get the node for the second `int x` may result in the node for the first
-            // `int x`.
-
-            // This is mainly an issue for small nodes; for larger nodes, like methods or types,
-            // these heuristics should always work.
-            n ->
-                n.getParentNode().isPresent()
-                    && n.getParentNode().get().getClass() == detachedParent.getClass()
-                    && (detachedParentWithName == null
-                        || detachedParentWithName
-                            .getNameAsString()
-                            .equals(
-                                ((NodeWithSimpleName<?>) n.getParentNode().get())
-                                    .getNameAsString()))
-                    && n.equals(detachedNode))
-        .orElse(null);
+    if (Resolver.isMemoSuspended()) {
+      // The AST is temporarily modified, so an index built now would be wrong once it is
+      // restored, and an index built before would not know the temporary nodes. Index the
+      // temporary AST without keeping the index.
+      return new AttachedNodeIndex(attached).find(detachedNode);
+    }
+    AttachedNodeIndex index = attachedNodeIndexes.get(attached);
+    if (index == null) {
+      index = new AttachedNodeIndex(attached);
+      attachedNodeIndexes.put(attached, index);
+    }
+    return index.find(detachedNode);
   }
 
   /**
@@ -2228,6 +2258,7 @@ public class JavaParserUtil {
 
     Node copy = nodeToResolve.clone();
 
+    Resolver.suspendMemo();
     try {
       // Temporarily insert a copy of the node outside the anonymous class and
       // see if it is resolvable
@@ -2249,6 +2280,7 @@ public class JavaParserUtil {
       return null;
     } finally {
       copy.remove();
+      Resolver.resumeMemo();
     }
   }
 
@@ -2555,20 +2587,46 @@ public class JavaParserUtil {
    */
   public static <T> List<List<T>> generateSubsets(List<T> original) {
     List<List<T>> subsets = new ArrayList<>();
-    // There are 2^n - 1 subsets; each bit will determine if an element is included
-    int totalSubsets = 1 << original.size();
-
-    for (int i = 0; i < totalSubsets; i++) {
-      List<T> subset = new ArrayList<>();
-      for (int j = 0; j < original.size(); j++) {
-        if ((i & (1 << j)) != 0) {
-          subset.add(original.get(j));
-        }
+    iterateSubsets(original).forEachRemaining(subsets::add);
+    return subsets;
+  }
+
+  /**
+   * Same as {@link #generateSubsets(List)}, but lazily: each subset is created only when the
+   * returned iterator reaches it. The subsets come in the same order.
+   *
+   * @param <T> The type of the list elements
+   * @param original The original list
+   * @return An iterator over all subsets
+   */
+  public static <T> Iterator<List<T>> iterateSubsets(List<T> original) {
+    List<T> elements = new ArrayList<>(original);
+    // There are 2^n subsets; each bit will determine if an element is included
+    long totalSubsets = 1L << elements.size();
+    return new Iterator<>() {
+      /** The bits of the next subset. */
+      private long next = 0;
+
+      @Override
+      public boolean hasNext() {
+        return next < totalSubsets;
       }
-      subsets.add(subset);
-    }
 
-    return subsets;
+      @Override
+      public List<T> next() {
+        if (next >= totalSubsets) {
+          throw new NoSuchElementException();
+        }
+        List<T> subset = new ArrayList<>();
+        for (int j = 0; j < elements.size(); j++) {
+          if ((next & (1L << j)) != 0) {
+            subset.add(elements.get(j));
+          }
+        }
+        next++;
+        return subset;
+      }
+    };
   }
 
   /**
@@ -2583,21 +2641,90 @@ public class JavaParserUtil {
   public static <T> List<List<T>> generateAllCombinations(
       List<? extends Collection<T>> collections) {
     List<List<T>> combos = new ArrayList<>();
-    combos.add(new ArrayList<>());
-
-    for (Collection<T> set : collections) {
-      List<List<T>> newCombos = new ArrayList<>();
-      for (List<T> combination : combos) {
-        for (T element : set) {
-          List<T> newCombination = new ArrayList<>(combination);
-          newCombination.add(element);
-          newCombos.add(newCombination);
+    iterateAllCombinations(collections).forEachRemaining(combos::add);
+    return combos;
+  }
+
+  /**
+   * Same as {@link #generateAllCombinations(List)}, but lazily: each combination is created only
+   * when the returned iterator reaches it, so taking the first few does not pay for the whole
+   * product. The combinations come in the same order, with the last collection varying fastest.
+   *
+   * @param <T> The type of the list elements
+   * @param collections The list of collections to combine
+   * @return An iterator over all combinations of elements
+   */
+  public static <T> Iterator<List<T>> iterateAllCombinations(
+      List<? extends Collection<T>> collections) {
+    List<List<T>> lists = new ArrayList<>();
+    for (Collection<T> collection : collections) {
+      lists.add(new ArrayList<>(collection));
+    }
+    return new Iterator<>() {
+      /** The index of the element picked from each collection for the next combination. */
+      private final int[] indices = new int[lists.size()];
+
+      /** False once every combination was returned; no combination exists if any is empty. */
+      private boolean hasNext = lists.stream().noneMatch(List::isEmpty);
+
+      @Override
+      public boolean hasNext() {
+        return hasNext;
+      }
+
+      @Override
+      public List<T> next() {
+        if (!hasNext) {
+          throw new NoSuchElementException();
         }
+        List<T> combination = new ArrayList<>(lists.size());
+        for (int i = 0; i < lists.size(); i++) {
+          combination.add(lists.get(i).get(indices[i]));
+        }
+        // Advance like an odometer, the last collection first
+        int i = lists.size() - 1;
+        while (i >= 0 && ++indices[i] == lists.get(i).size()) {
+          indices[i] = 0;
+          i--;
+        }
+        hasNext = i >= 0;
+        return combination;
       }
-      combos = newCombos;
-    }
+    };
+  }
 
-    return combos;
+  /**
+   * Lazily maps each element of an iterator to an iterator, and concatenates the results. An
+   * element is mapped only when the iterators of the elements before it are used up.
+   *
+   * @param <T> The type of the elements
+   * @param <R> The type of the results
+   * @param elements The elements
+   * @param mapper The function from an element to its results
+   * @return An iterator over the results of all elements, in order
+   */
+  public static <T, R> Iterator<R> flatMapIterator(
+      Iterator<T> elements, Function<? super T, ? extends Iterator<? extends R>> mapper) {
+    return new Iterator<>() {
+      /** The results of the current element. */
+      private Iterator<? extends R> current = Collections.emptyIterator();
+
+      @Override
+      public boolean hasNext() {
+        while (!current.hasNext() && elements.hasNext()) {
+          current = mapper.apply(elements.next());
+        }
+        return current.hasNext();
+      }
+
+      @Override
+      public R next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return current.next();
+      }
+    };
   }
 
   /**
@@ -2930,13 +3057,18 @@ public class JavaParserUtil {
 
     MethodCallExpr clone = methodCall.clone();
     clone.removeScope();
-    clone.setParentNode(methodCall.getParentNode().get());
-
-    MethodDeclaration method =
-        (MethodDeclaration)
-            tryFindSingleCallableForNodeWithUnresolvableArguments(clone, fqnToCompilationUnit);
+    Resolver.suspendMemo();
+    MethodDeclaration method;
+    try {
+      clone.setParentNode(methodCall.getParentNode().get());
 
-    clone.remove();
+      method =
+          (MethodDeclaration)
+              tryFindSingleCallableForNodeWithUnresolvableArguments(clone, fqnToCompilationUnit);
+    } finally {
+      clone.remove();
+      Resolver.resumeMemo();
+    }
 
     return method;
   }
@@ -3163,22 +3295,7 @@ public class JavaParserUtil {
    */
   public static Set<ResolvedMethodDeclaration> getAllMustImplementMethods(
       TypeDeclaration<?> typeDecl) {
-    Set<ResolvedMethodDeclaration> methodsThatMustBeImplemented = new HashSet<>();
-
-    for (ResolvedReferenceTypeDeclaration jdkAncestor : getAllJDKAncestors(typeDecl)) {
-      for (ResolvedMethodDeclaration resolvedMethod : jdkAncestor.getDeclaredMethods()) {
-        // Skip methods that are already defined in java.lang.Object
-        if (JavaLangUtils.isJavaLangObjectMethod(resolvedMethod.getSignature())) {
-          continue;
-        }
-
-        if (resolvedMethod.isAbstract()) {
-          methodsThatMustBeImplemented.add(resolvedMethod);
-        }
-      }
-    }
-
-    return methodsThatMustBeImplemented;
+    return new HashSet<>(typeHierarchy.getAllMustImplementMethods(typeDecl));
   }
 
   /**
@@ -1,6 +1,7 @@
 package org.checkerframework.specimin;
 
 import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.TypeDeclaration;
 import com.github.javaparser.resolution.TypeSolver;
 import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
 import com.github.javaparser.resolution.model.SymbolReference;
@@ -20,6 +21,9 @@ public class MemoryTypeSolver implements TypeSolver {
   /** A cache of FQNs to their compilation units */
   private final Map<String, CompilationUnit> cache = new HashMap<>();
 
+  /** The type declarations of the compilation units in {@link #cache}. */
+  private final TypeDeclarationTable typeDeclarations = new TypeDeclarationTable();
+
   @Override
   @SuppressWarnings(
       "nullness") // TypeSolver's getParent() is unannotated (and hence @NonNull) but docs specify
@@ -35,18 +39,10 @@ public class MemoryTypeSolver implements TypeSolver {
 
   @Override
   public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
-    if (cache.containsKey(name)) {
-      CompilationUnit cu = cache.get(name);
-      return SymbolReference.solved(
-          JavaParserFacade.get(this)
-              .getTypeDeclaration(
-                  cu.getTypes().stream()
-                      .filter(
-                          t ->
-                              t.getFullyQualifiedName().isPresent()
-                                  && t.getFullyQualifiedName().get().equals(name))
-                      .findFirst()
-                      .get()));
+    CompilationUnit cu = cache.get(name);
+    TypeDeclaration<?> typeDecl = cu == null ? null : typeDeclarations.get(name, cu);
+    if (typeDecl != null) {
+      return SymbolReference.solved(JavaParserFacade.get(this).getTypeDeclaration(typeDecl));
     }
     return SymbolReference.unsolved();
   }
@@ -57,6 +53,16 @@ public class MemoryTypeSolver implements TypeSolver {
     return tryToSolveType(packageQualifiedName + "." + simpleName);
   }
 
+  /**
+   * Checks if a type was added to the in-memory type solver.
+   *
+   * @param name the fully qualified name of the type
+   * @return true if the type was added
+   */
+  public boolean containsType(String name) {
+    return cache.containsKey(name);
+  }
+
   /**
    * Add a type to the in-memory type solver.
    *
@@ -65,5 +71,6 @@ public class MemoryTypeSolver implements TypeSolver {
    */
   public void addType(String name, CompilationUnit cu) {
     cache.put(name, cu);
+    typeDeclarations.add(cu);
   }
 }
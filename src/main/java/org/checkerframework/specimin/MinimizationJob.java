@@ -0,0 +1,31 @@
+package org.checkerframework.specimin;
+
+import java.util.List;
+
+/**
+ * A single minimization to run against a {@link ProjectModel}: everything that Specimin needs to
+ * know about a run other than the root and the jar files, which are shared by every job on the
+ * same project.
+ *
+ * @param targetFiles A list of files that contain the target methods, relative to the root.
+ * @param targetMethodNames A list of target method names to be preserved.
+ * @param targetFieldNames A list of target field names to be preserved.
+ * @param outputDirectory The directory for the output.
+ * @param modularityModelCode The modularity model to use.
+ * @param budgetLimits The limits on the work that slicing may do before the best slice reached so
+ *     far is written out.
+ * @param maxCandidates The number of candidate outputs to compile, looking for one that compiles,
+ *     before the best effort output is written out instead. If zero, the best effort output is
+ *     written out without compiling anything.
+ * @param verify Whether to compile the output once it is written out, and report what the
+ *     compiler finds.
+ */
+public record MinimizationJob(
+    List<String> targetFiles,
+    List<String> targetMethodNames,
+    List<String> targetFieldNames,
+    String outputDirectory,
+    String modularityModelCode,
+    BudgetLimits budgetLimits,
+    int maxCandidates,
+    boolean verify) {}
@@ -0,0 +1,32 @@
+package org.checkerframework.specimin;
+
+import java.util.List;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * What a single minimization reports, besides the files that it writes out.
+ *
+ * @param cutShortPhases The phases that were cut short because the job's budget ran out
+ * @param candidates The number of distinct candidate outputs that the search for one that compiles
+ *     went through, up to and including the one written out; or 0 if there was no search
+ * @param chosenCandidate The position of the written output among those candidates, counting from
+ *     0 for the best effort one; or -1 if there was no search or none of the candidates compiles
+ * @param diagnostics What the compiler reported about the output, if the job verified it, or null
+ *     if it did not
+ */
+public record MinimizationResult(
+    Set<Budget.Phase> cutShortPhases,
+    int candidates,
+    int chosenCandidate,
+    @Nullable List<CompileDiagnostic> diagnostics) {
+
+  /**
+   * Did the job verify its output and find that it does not compile?
+   *
+   * @return True if the output was verified and the compiler reported an error
+   */
+  public boolean failedVerification() {
+    return diagnostics != null && diagnostics.stream().anyMatch(CompileDiagnostic::isError);
+  }
+}
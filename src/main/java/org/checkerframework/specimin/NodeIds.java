@@ -0,0 +1,63 @@
+package org.checkerframework.specimin;
+
+import com.github.javaparser.ast.Node;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dense integer IDs for AST nodes, so that sets of nodes can be bit sets (see {@link NodeSet}). A
+ * node gets the next ID the first time it is added to a set that uses these IDs, and keeps it for
+ * the lifetime of this object; a node that was never added has no ID, and is not in any of the
+ * sets.
+ *
+ * <p>The IDs are kept by this object, keyed by node identity, so each object numbers the nodes
+ * independently of every other, and finding an ID never hashes the node's contents. They are not
+ * stored in the nodes' data: JavaParser's data keys of one class are all equal, so every object
+ * would share one slot in each node, and a node's data is copied into its clones.
+ */
+public class NodeIds {
+  /** The ID of each node that has one. */
+  private final Map<Node, Integer> ids = new IdentityHashMap<>();
+
+  /** The node of each ID. */
+  private final List<Node> nodes = new ArrayList<>();
+
+  /**
+   * Gets the ID of a node, assigning it the next ID if it has none.
+   *
+   * @param node The node
+   * @return The ID of the node
+   */
+  public int getOrAssign(Node node) {
+    Integer id = ids.get(node);
+    if (id == null) {
+      id = nodes.size();
+      nodes.add(node);
+      ids.put(node, id);
+    }
+    return id;
+  }
+
+  /**
+   * Finds the ID of a node, without assigning one.
+   *
+   * @param node The node
+   * @return The ID of the node, or -1 if it has none
+   */
+  public int find(Node node) {
+    Integer id = ids.get(node);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Gets the node with the given ID.
+   *
+   * @param id The ID, which must have been returned by {@link #getOrAssign(Node)}
+   * @return The node
+   */
+  public Node get(int id) {
+    return nodes.get(id);
+  }
+}
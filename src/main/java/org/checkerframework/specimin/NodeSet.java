@@ -0,0 +1,140 @@
+package org.checkerframework.specimin;
+
+import com.github.javaparser.ast.Node;
+import java.util.AbstractSet;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A set of AST nodes, stored as a bit set over their {@link NodeIds}. Like a set backed by an
+ * {@link java.util.IdentityHashMap}, it compares nodes by identity, which is the only safe choice
+ * for nodes: a node's {@code hashCode} changes whenever its children do. Unlike one, it costs a
+ * bit per node rather than a hash table entry (the IDs' own table is shared by every set that uses
+ * them), and it iterates in the order in which the nodes were first given IDs, so iteration is
+ * deterministic.
+ */
+public class NodeSet extends AbstractSet<Node> {
+  /** The IDs of the nodes. */
+  private final NodeIds ids;
+
+  /** The IDs of the nodes in this set. */
+  private final BitSet members;
+
+  /** The number of nodes in this set. */
+  private int size;
+
+  /**
+   * Creates an empty set, using the given IDs. Sets that share IDs are cheaper to copy and
+   * compare, and tag each node only once.
+   *
+   * @param ids The IDs of the nodes
+   */
+  public NodeSet(NodeIds ids) {
+    this.ids = ids;
+    this.members = new BitSet();
+    this.size = 0;
+  }
+
+  /**
+   * Creates a set containing the given nodes. If the given collection is a node set, the new set
+   * shares its IDs.
+   *
+   * @param nodes The nodes
+   */
+  public NodeSet(Collection<? extends Node> nodes) {
+    if (nodes instanceof NodeSet other) {
+      this.ids = other.ids;
+      this.members = (BitSet) other.members.clone();
+      this.size = other.size;
+    } else {
+      this.ids = new NodeIds();
+      this.members = new BitSet();
+      this.size = 0;
+      addAll(nodes);
+    }
+  }
+
+  @Override
+  public boolean add(Node node) {
+    int id = ids.getOrAssign(node);
+    if (members.get(id)) {
+      return false;
+    }
+    members.set(id);
+    size++;
+    return true;
+  }
+
+  @Override
+  public boolean contains(@Nullable Object o) {
+    if (!(o instanceof Node node)) {
+      return false;
+    }
+    int id = ids.find(node);
+    return id != -1 && members.get(id);
+  }
+
+  @Override
+  public boolean remove(@Nullable Object o) {
+    if (!(o instanceof Node node)) {
+      return false;
+    }
+    int id = ids.find(node);
+    if (id == -1 || !members.get(id)) {
+      return false;
+    }
+    members.clear(id);
+    size--;
+    return true;
+  }
+
+  @Override
+  public void clear() {
+    members.clear();
+    size = 0;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public Iterator<Node> iterator() {
+    return new Iterator<>() {
+      /** The ID of the next node, or -1 if there is none. */
+      private int next = members.nextSetBit(0);
+
+      /** The ID of the node last returned by {@link #next()}, or -1 if it may not be removed. */
+      private int last = -1;
+
+      @Override
+      public boolean hasNext() {
+        return next != -1;
+      }
+
+      @Override
+      public Node next() {
+        if (next == -1) {
+          throw new NoSuchElementException();
+        }
+        last = next;
+        next = members.nextSetBit(next + 1);
+        return ids.get(last);
+      }
+
+      @Override
+      public void remove() {
+        if (last == -1) {
+          throw new IllegalStateException();
+        }
+        members.clear(last);
+        size--;
+        last = -1;
+      }
+    };
+  }
+}
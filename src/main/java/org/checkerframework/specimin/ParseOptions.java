@@ -0,0 +1,50 @@
+package org.checkerframework.specimin;
+
+import java.nio.file.Path;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * How a {@link ProjectModel} loads and parses the files under its root.
+ *
+ * @param lazy True to parse each compilation unit only when it is first needed, rather than parsing
+ *     the whole root when the model is loaded.
+ * @param parseThreads The number of threads that parse the root when the whole root is parsed. 1
+ *     parses on the calling thread.
+ * @param cacheDirectory The directory of the on-disk cache of the {@link SourceIndex}, or null to
+ *     not cache it.
+ * @param decompileCacheDirectory The directory of the {@link DecompilationCache}, or null to
+ *     decompile the jar files on every run.
+ * @param lazyDecompilation True to decompile each class in the jar files only when it is first
+ *     looked up, rather than decompiling every jar file when the model is loaded.
+ */
+public record ParseOptions(
+    boolean lazy,
+    int parseThreads,
+    @Nullable Path cacheDirectory,
+    @Nullable Path decompileCacheDirectory,
+    boolean lazyDecompilation) {
+  /**
+   * Creates new parse options.
+   *
+   * @param lazy True to parse each compilation unit only when it is first needed
+   * @param parseThreads The number of threads that parse the root, at least 1
+   * @param cacheDirectory The directory of the on-disk cache of the source index, or null
+   * @param decompileCacheDirectory The directory of the decompilation cache, or null
+   * @param lazyDecompilation True to decompile each class in the jar files only when it is needed
+   */
+  public ParseOptions {
+    if (parseThreads < 1) {
+      throw new IllegalArgumentException("The number of parse threads must be at least 1.");
+    }
+  }
+
+  /**
+   * Gets the default parse options: the whole root is parsed up front, using one thread per
+   * available processor, every jar file is decompiled up front, and nothing is cached.
+   *
+   * @return The default parse options
+   */
+  public static ParseOptions defaults() {
+    return new ParseOptions(false, Runtime.getRuntime().availableProcessors(), null, null, false);
+  }
+}
@@ -0,0 +1,627 @@
+package org.checkerframework.specimin;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.javaparsermodel.JavaParserFacade;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.Stream;
+import org.apache.commons.io.FileUtils;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.jetbrains.java.decompiler.main.decompiler.ConsoleDecompiler;
+
+/**
+ * The parsed form of an input project: its source root, the type solvers built for it, and a
+ * compilation unit for every file under the root. Building a project model is the expensive part of
+ * a Specimin run (the whole root is parsed, and every jar is decompiled), so a single model can be
+ * shared by any number of minimizations against the same root.
+ *
+ * <p>A model can be loaded lazily, in which case no file is parsed up front. Instead, a compilation
+ * unit is parsed the first time it is needed: either because it is a target file, or because some
+ * part of Specimin looks up one of its types in {@link #getFqnToCompilationUnits()}. The file that
+ * declares a type is found with the project's {@link SourceIndex}, which does not parse anything.
+ *
+ * <p>The decompiled sources of the jar files are not written into the root. They live in an overlay
+ * root, a private temporary directory that is searched after the root, so that the input is never
+ * modified and several runs can share it.
+ *
+ * <p>Slicing mutates the compilation units it keeps, and pruning writes the pruned declarations
+ * into the type solvers' caches. Callers that reuse a model must therefore report the compilation
+ * units a minimization touched via {@link #markDirty(Collection)} (or {@link #markAllDirty()} if it
+ * is unknown which were touched), and then call {@link #restore()} before the next minimization.
+ */
+public class ProjectModel {
+  /** The Java language level that Specimin parses. */
+  public static final ParserConfiguration.LanguageLevel LANGUAGE_LEVEL =
+      ParserConfiguration.LanguageLevel.JAVA_17;
+
+  /** The root directory of the input, always ending in a trailing slash. */
+  private final String root;
+
+  /** The directory of the decompiled sources of the jar files. */
+  private final Path overlayRoot;
+
+  /** The type solvers for this project. */
+  private final SpeciminTypeSolvers typeSolvers;
+
+  /** The parser configuration, with a symbol resolver backed by {@link #typeSolvers}. */
+  private final ParserConfiguration parserConfiguration;
+
+  /**
+   * The index of the types declared under the root. It also serves as the map of the Java classes
+   * in the original codebase to their corresponding files.
+   */
+  private final SourceIndex sourceIndex;
+
+  /**
+   * The solver that decompiles classes of the jar files on demand, or null if the jar files were
+   * decompiled up front.
+   */
+  private final @Nullable DecompilingTypeSolver decompilingTypeSolver;
+
+  /** True if compilation units are parsed on demand rather than all at once when loading. */
+  private final boolean lazy;
+
+  /** The number of threads that parse the whole root. */
+  private final int parseThreads;
+
+  /**
+   * A map of FQNs to compilation units. This map is shared by reference with the rest of Specimin,
+   * so it is only ever updated in place.
+   */
+  private final FqnToCompilationUnitMap fqnToCompilationUnits = new FqnToCompilationUnitMap();
+
+  /**
+   * The type declarations of the compilation units parsed so far, keyed by FQN. This table is
+   * shared by reference with {@link JavaParserUtil}, so it is only ever updated in place.
+   */
+  private final TypeDeclarationTable typeDeclarations = new TypeDeclarationTable();
+
+  /** A map of absolute, normalized file paths to their compilation units. */
+  private final Map<Path, CompilationUnit> pathsToCompilationUnits = new HashMap<>();
+
+  /** Compilation units that were mutated since the last call to {@link #restore()}. */
+  private final Set<CompilationUnit> dirtyCompilationUnits =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+
+  /** True if it is unknown which compilation units were mutated since the last restore. */
+  private boolean allDirty = false;
+
+  /**
+   * Creates a new project model. Use {@link #load(String, List, Set, SourceIndex, ParseOptions)}
+   * instead.
+   *
+   * @param root The root directory, ending in a trailing slash
+   * @param overlayRoot The directory of the decompiled sources of the jar files
+   * @param typeSolvers The type solvers for this project
+   * @param parserConfiguration The parser configuration
+   * @param sourceIndex The index of the types declared under the root
+   * @param decompilingTypeSolver The solver that decompiles classes of the jar files on demand, or
+   *     null if the jar files were decompiled up front
+   * @param parseOptions How to parse the files under the root
+   */
+  private ProjectModel(
+      String root,
+      Path overlayRoot,
+      SpeciminTypeSolvers typeSolvers,
+      ParserConfiguration parserConfiguration,
+      SourceIndex sourceIndex,
+      @Nullable DecompilingTypeSolver decompilingTypeSolver,
+      ParseOptions parseOptions) {
+    this.root = root;
+    this.overlayRoot = overlayRoot;
+    this.typeSolvers = typeSolvers;
+    this.parserConfiguration = parserConfiguration;
+    this.sourceIndex = sourceIndex;
+    this.decompilingTypeSolver = decompilingTypeSolver;
+    this.lazy = parseOptions.lazy();
+    this.parseThreads = parseOptions.parseThreads();
+  }
+
+  /**
+   * Builds the project model for a source root: creates the type solvers, decompiles the jar files
+   * into a new overlay root (or copies them from the decompilation cache) and adds them to the
+   * source index, and parses every file (unless the model is lazy). This also installs the new
+   * solvers and compilation units as the ones used by JavaParser, {@link JavaParserUtil}, and
+   * {@link Resolver}.
+   *
+   * <p>If decompilation is lazy, no jar file is decompiled here. Instead, a {@link
+   * DecompilingTypeSolver} decompiles each class the first time it is looked up, and the new file
+   * is indexed (and, unless the model is lazy, parsed) right away.
+   *
+   * @param root The root directory of the input files, ending in a trailing slash
+   * @param jarPaths Paths to relevant JAR files
+   * @param createdClass A set to keep track of all files and directories created by this model,
+   *     which must be deleted once Specimin is done with it
+   * @param sourceIndex The index of the types declared under the root, built before the jar files
+   *     were decompiled
+   * @param parseOptions How to parse the files under the root
+   * @return The project model
+   * @throws IOException if something goes wrong
+   */
+  public static ProjectModel load(
+      String root,
+      List<String> jarPaths,
+      Set<Path> createdClass,
+      SourceIndex sourceIndex,
+      ParseOptions parseOptions)
+      throws IOException {
+    // Decompiled sources go into a private directory rather than into the root, so that the
+    // input is never modified and any number of runs can share it.
+    Path overlayRoot = Files.createTempDirectory("specimin-overlay");
+    createdClass.add(overlayRoot);
+
+    JarIndex jarIndex = JarIndex.build(jarPaths, parseOptions.cacheDirectory());
+    Path decompileCacheDirectory = parseOptions.decompileCacheDirectory();
+    @Nullable DecompilingTypeSolver decompilingTypeSolver =
+        parseOptions.lazyDecompilation()
+            ? new DecompilingTypeSolver(overlayRoot, jarIndex, sourceIndex, decompileCacheDirectory)
+            : null;
+    SpeciminTypeSolvers typeSolvers =
+        new SpeciminTypeSolvers(root, overlayRoot, jarIndex, decompilingTypeSolver);
+    JavaParserUtil.setTypeSolvers(typeSolvers);
+
+    ParserConfiguration config =
+        new ParserConfiguration()
+            .setSymbolResolver(new JavaSymbolSolver(typeSolvers.getTypeSolver()))
+            .setLanguageLevel(LANGUAGE_LEVEL);
+    StaticJavaParser.setConfiguration(config);
+
+    if (decompilingTypeSolver == null) {
+      if (decompileCacheDirectory != null) {
+        DecompilationCache.copyDecompiledSources(decompileCacheDirectory, jarPaths, overlayRoot);
+      } else {
+        decompileJarFiles(overlayRoot, jarPaths);
+      }
+      sourceIndex.addOverlayFiles(getPathsFromJarPaths(overlayRoot, jarIndex, sourceIndex));
+    }
+
+    ProjectModel model =
+        new ProjectModel(
+            root,
+            overlayRoot,
+            typeSolvers,
+            config,
+            sourceIndex,
+            decompilingTypeSolver,
+            parseOptions);
+    if (!parseOptions.lazy()) {
+      model.parseRoot();
+    }
+    if (decompilingTypeSolver != null) {
+      decompilingTypeSolver.setListener(model::addDecompiledFile);
+    }
+
+    Resolver.setTypeIndex(
+        new TypeIndex(sourceIndex, jarIndex, typeSolvers.getMemoryTypeSolver()));
+    JavaParserUtil.setTypeDeclarationTable(model.typeDeclarations);
+    Resolver.setFqnToCompilationUnitMap(model.fqnToCompilationUnits);
+    return model;
+  }
+
+  /**
+   * Parses every file under the root and records the resulting compilation units. The files are
+   * the ones in the source index, which were found the same way that JavaParser's {@link
+   * com.github.javaparser.utils.SourceRoot} finds them. They are split across a fork-join pool of
+   * {@link #parseThreads} workers, each with its own parser; the compilation units are recorded
+   * afterwards on the calling thread, in a fixed order, so the result does not depend on the order
+   * in which the workers finish.
+   *
+   * @throws IOException if a file cannot be read
+   */
+  private void parseRoot() throws IOException {
+    Path[] files = sourceIndex.getFiles().stream().sorted().toArray(Path[]::new);
+    @SuppressWarnings("unchecked")
+    ParseResult<CompilationUnit>[] results = new ParseResult[files.length];
+
+    if (parseThreads == 1) {
+      JavaParser parser = new JavaParser(parserConfiguration);
+      for (int i = 0; i < files.length; i++) {
+        results[i] = parser.parse(files[i]);
+      }
+    } else {
+      ForkJoinPool pool = new ForkJoinPool(parseThreads);
+      try {
+        ThreadLocal<JavaParser> parsers =
+            ThreadLocal.withInitial(() -> new JavaParser(parserConfiguration));
+        int threshold = Math.max(1, files.length / (parseThreads * 4));
+        pool.invoke(new ParseTask(files, results, 0, files.length, threshold, parsers));
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      } finally {
+        pool.shutdown();
+      }
+    }
+
+    for (ParseResult<CompilationUnit> res : results) {
+      addCompilationUnit(
+          res.getResult().orElseThrow(() -> new RuntimeException(res.getProblems().toString())));
+    }
+  }
+
+  /** A fork-join task that parses a range of files. */
+  private static class ParseTask extends RecursiveAction {
+    /** The serial version UID. */
+    private static final long serialVersionUID = 1L;
+
+    /** All files to parse. */
+    private final Path[] files;
+
+    /** The parse results, at the same indices as {@link #files}. */
+    private final ParseResult<CompilationUnit>[] results;
+
+    /** The first index of the range that this task parses. */
+    private final int start;
+
+    /** The index just past the range that this task parses. */
+    private final int end;
+
+    /** The largest range that a task parses without splitting it. */
+    private final int threshold;
+
+    /** The parser of each worker thread. */
+    private final ThreadLocal<JavaParser> parsers;
+
+    /**
+     * Creates a new task.
+     *
+     * @param files All files to parse
+     * @param results The parse results, at the same indices as the files
+     * @param start The first index of the range that this task parses
+     * @param end The index just past the range that this task parses
+     * @param threshold The largest range that a task parses without splitting it
+     * @param parsers The parser of each worker thread
+     */
+    ParseTask(
+        Path[] files,
+        ParseResult<CompilationUnit>[] results,
+        int start,
+        int end,
+        int threshold,
+        ThreadLocal<JavaParser> parsers) {
+      this.files = files;
+      this.results = results;
+      this.start = start;
+      this.end = end;
+      this.threshold = threshold;
+      this.parsers = parsers;
+    }
+
+    @Override
+    protected void compute() {
+      if (end - start <= threshold) {
+        JavaParser parser = parsers.get();
+        for (int i = start; i < end; i++) {
+          try {
+            results[i] = parser.parse(files[i]);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }
+        return;
+      }
+      int middle = (start + end) >>> 1;
+      invokeAll(
+          new ParseTask(files, results, start, middle, threshold, parsers),
+          new ParseTask(files, results, middle, end, threshold, parsers));
+    }
+  }
+
+  /**
+   * Parses a single file and records the resulting compilation unit.
+   *
+   * @param path The path of the file
+   * @return The compilation unit
+   * @throws IOException if the file cannot be read
+   */
+  private CompilationUnit parseFile(Path path) throws IOException {
+    ParseResult<CompilationUnit> res = new JavaParser(parserConfiguration).parse(path);
+    CompilationUnit compilationUnit =
+        res.getResult().orElseThrow(() -> new RuntimeException(res.getProblems().toString()));
+    addCompilationUnit(compilationUnit);
+    return compilationUnit;
+  }
+
+  /**
+   * Records a parsed compilation unit, replacing any earlier compilation unit for the same file.
+   *
+   * @param compilationUnit The compilation unit, which must have storage
+   */
+  private void addCompilationUnit(CompilationUnit compilationUnit) {
+    Path pathOfCurrentJavaFile =
+        compilationUnit.getStorage().get().getPath().toAbsolutePath().normalize();
+    pathsToCompilationUnits.put(pathOfCurrentJavaFile, compilationUnit);
+
+    for (String declaredClassQualifiedName : typeDeclarations.add(compilationUnit)) {
+      sourceIndex.put(declaredClassQualifiedName, pathOfCurrentJavaFile);
+      fqnToCompilationUnits.put(declaredClassQualifiedName, compilationUnit);
+    }
+  }
+
+  /**
+   * Records a file that was decompiled into the overlay root after the model was loaded. The file
+   * is already in the source index; an eager model also parses it, since an eager model's map of
+   * FQNs to compilation units never parses anything on its own.
+   *
+   * @param file The decompiled file
+   */
+  private void addDecompiledFile(Path file) {
+    if (!lazy) {
+      try {
+        parseFile(file);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  /**
+   * Gets the root directory of this project.
+   *
+   * @return The root directory, ending in a trailing slash
+   */
+  public String getRoot() {
+    return root;
+  }
+
+  /**
+   * Gets the overlay root, the directory of the decompiled sources of the jar files. Its layout
+   * follows packages, just like the root's.
+   *
+   * @return The overlay root
+   */
+  public Path getOverlayRoot() {
+    return overlayRoot;
+  }
+
+  /**
+   * Gets the index of the types declared under the root.
+   *
+   * @return The source index
+   */
+  public SourceIndex getSourceIndex() {
+    return sourceIndex;
+  }
+
+  /**
+   * Gets the type solvers for this project.
+   *
+   * @return The type solvers
+   */
+  public SpeciminTypeSolvers getTypeSolvers() {
+    return typeSolvers;
+  }
+
+  /**
+   * Gets the map of FQNs to compilation units. The map is updated in place when the model is
+   * restored, so it is safe to hold on to it.
+   *
+   * @return The map of FQNs to compilation units
+   */
+  public Map<String, CompilationUnit> getFqnToCompilationUnits() {
+    return fqnToCompilationUnits;
+  }
+
+  /**
+   * Gets the map of the classes in the original codebase to their files.
+   *
+   * @return The map of FQNs to absolute file paths, which is a live view of the source index
+   */
+  public Map<String, Path> getExistingClassesToFilePath() {
+    return sourceIndex.getFqnToPath();
+  }
+
+  /**
+   * Gets the compilation unit of a file under the root, parsing it first if the model is lazy.
+   *
+   * @param relativePath The path of the file, relative to the root
+   * @return The compilation unit, or null if the file was not parsed (or, for a lazy model, does
+   *     not exist)
+   * @throws IOException if the file cannot be read
+   */
+  public @Nullable CompilationUnit getCompilationUnit(String relativePath) throws IOException {
+    Path path = Path.of(root, relativePath).toAbsolutePath().normalize();
+    CompilationUnit compilationUnit = pathsToCompilationUnits.get(path);
+    if (compilationUnit == null && lazy && Files.isRegularFile(path)) {
+      compilationUnit = parseFile(path);
+    }
+    return compilationUnit;
+  }
+
+  /**
+   * Records that the given compilation units were mutated, so that {@link #restore()} re-parses
+   * them.
+   *
+   * @param compilationUnits The mutated compilation units
+   */
+  public void markDirty(Collection<CompilationUnit> compilationUnits) {
+    dirtyCompilationUnits.addAll(compilationUnits);
+  }
+
+  /**
+   * Records that an unknown set of compilation units may have been mutated (for example, because a
+   * minimization crashed while pruning), so that {@link #restore()} re-parses the whole root.
+   */
+  public void markAllDirty() {
+    allDirty = true;
+  }
+
+  /**
+   * Returns this model to the state it was in when it was loaded: every compilation unit marked as
+   * dirty is re-parsed from disk (or, for a lazy model, dropped, so that it is parsed again when it
+   * is next needed), and the type solver cache entries overridden while pruning are dropped. Call
+   * this between two minimizations that share this model.
+   *
+   * @throws IOException if a file cannot be re-parsed
+   */
+  public void restore() throws IOException {
+    if (allDirty) {
+      pathsToCompilationUnits.clear();
+      fqnToCompilationUnits.clear();
+      typeDeclarations.clear();
+      if (!lazy) {
+        parseRoot();
+      }
+    } else {
+      for (CompilationUnit dirty : dirtyCompilationUnits) {
+        if (lazy) {
+          evict(dirty);
+        } else {
+          typeDeclarations.remove(dirty);
+          parseFile(dirty.getStorage().get().getPath());
+        }
+      }
+    }
+
+    allDirty = false;
+    dirtyCompilationUnits.clear();
+
+    typeSolvers.resetOverriddenCaches();
+    Resolver.invalidateMemo();
+    // JavaParserFacade caches resolved types per node; nodes of re-parsed files are new objects,
+    // and the old ones must not keep stale results (or memory) alive.
+    JavaParserFacade.clearInstances();
+  }
+
+  /**
+   * Forgets a compilation unit, so that a lazy model parses its file again when it is next needed.
+   *
+   * @param compilationUnit The compilation unit to forget
+   */
+  private void evict(CompilationUnit compilationUnit) {
+    pathsToCompilationUnits.remove(
+        compilationUnit.getStorage().get().getPath().toAbsolutePath().normalize());
+    // Pruning may have removed some of the compilation unit's types, so its FQNs are found by
+    // identity rather than by walking its (current) type declarations.
+    fqnToCompilationUnits.parsed.values().removeIf(cu -> cu == compilationUnit);
+    typeDeclarations.remove(compilationUnit);
+  }
+
+  /**
+   * Decompiles the given jar files into the specified directory.
+   *
+   * @param overlayRoot The directory where the jar files will be decompiled.
+   * @param jarPaths The list of paths to the jar files to be decompiled.
+   */
+  private static void decompileJarFiles(Path overlayRoot, List<String> jarPaths) {
+    if (!jarPaths.isEmpty()) {
+      List<String> argsToDecompile = new ArrayList<>();
+      argsToDecompile.add("--silent");
+      argsToDecompile.addAll(jarPaths);
+      argsToDecompile.add(overlayRoot.toString());
+      ConsoleDecompiler.main(argsToDecompile.toArray(new String[0]));
+      // delete unnecessary legal files. Following decompilation, Windows may fail to delete them
+      // because the files are still being used (by what?); those are deleted along with the
+      // overlay root at the end.
+      FileUtils.deleteQuietly(overlayRoot.resolve("META-INF").toFile());
+    }
+  }
+
+  /**
+   * Retrieves the paths of the decompiled Java files of the classes in the given JAR files. A class
+   * that the input also declares is skipped, since the input's own source takes precedence. The
+   * overlay root only ever contains decompiled files, so it is walked once rather than probed for
+   * every class in the jars.
+   *
+   * @param overlayRoot The directory where the Java files were decompiled.
+   * @param jarIndex The index of the classes in the JAR files.
+   * @param sourceIndex The index of the types declared under the root.
+   * @return A set containing the paths of the decompiled Java files.
+   * @throws IOException If an I/O error occurs.
+   */
+  private static Set<Path> getPathsFromJarPaths(
+      Path overlayRoot, JarIndex jarIndex, SourceIndex sourceIndex) throws IOException {
+    Set<Path> pathsOfFile = new HashSet<>();
+    try (Stream<Path> stream = Files.walk(overlayRoot)) {
+      for (Path filePath : (Iterable<Path>) stream::iterator) {
+        String relativePath = overlayRoot.relativize(filePath).toString().replace('\\', '/');
+        if (!relativePath.endsWith(".java")) {
+          continue;
+        }
+        String qualifiedClassName =
+            relativePath.substring(0, relativePath.length() - ".java".length()).replace('/', '.');
+        if (jarIndex.getLocation(qualifiedClassName) != null
+            && sourceIndex.getPath(qualifiedClassName) == null) {
+          pathsOfFile.add(filePath);
+        }
+      }
+    }
+    return pathsOfFile;
+  }
+
+  /**
+   * The map of FQNs to compilation units. For an eager model, this is a plain map. For a lazy
+   * model, looking up an FQN that has not been parsed yet parses the file that the source index
+   * says declares it, if there is one. If decompilation is lazy, looking up an FQN that only a jar
+   * file declares decompiles it first, so that the map answers as if every jar had been decompiled
+   * up front.
+   */
+  private class FqnToCompilationUnitMap extends AbstractMap<String, CompilationUnit> {
+    /** The compilation units parsed so far, keyed by the FQNs of the types they declare. */
+    private final Map<String, CompilationUnit> parsed = new HashMap<>();
+
+    @Override
+    public @Nullable CompilationUnit get(@Nullable Object key) {
+      CompilationUnit result = parsed.get(key);
+      if (result != null || !(key instanceof String fqn)) {
+        return result;
+      }
+      if (decompilingTypeSolver != null && decompilingTypeSolver.decompile(fqn)) {
+        // An eager model has just parsed the decompiled file.
+        result = parsed.get(fqn);
+      }
+      if (result != null || !lazy) {
+        return result;
+      }
+
+      Path path = sourceIndex.getPath(fqn);
+      if (path == null || pathsToCompilationUnits.containsKey(path)) {
+        return null;
+      }
+      try {
+        parseFile(path);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      return parsed.get(fqn);
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+      return get(key) != null;
+    }
+
+    @Override
+    public @Nullable CompilationUnit put(String key, CompilationUnit value) {
+      return parsed.put(key, value);
+    }
+
+    @Override
+    public void clear() {
+      parsed.clear();
+    }
+
+    @Override
+    public Set<Entry<String, CompilationUnit>> entrySet() {
+      return parsed.entrySet();
+    }
+  }
+}
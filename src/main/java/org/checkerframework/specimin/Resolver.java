@@ -11,6 +11,7 @@ import com.github.javaparser.ast.expr.MethodCallExpr;
 import com.github.javaparser.ast.expr.MethodReferenceExpr;
 import com.github.javaparser.ast.nodeTypes.NodeWithArguments;
 import com.github.javaparser.ast.nodeTypes.NodeWithParameters;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import com.github.javaparser.resolution.MethodAmbiguityException;
 import com.github.javaparser.resolution.Resolvable;
 import com.github.javaparser.resolution.UnsolvedSymbolException;
@@ -23,6 +24,7 @@ import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclar
 import com.github.javaparser.resolution.declarations.ResolvedTypeDeclaration;
 import com.github.javaparser.resolution.declarations.ResolvedTypeParameterDeclaration;
 import com.github.javaparser.resolution.types.ResolvedType;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -34,6 +36,15 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 /**
  * Contains wrappers for {@link Resolvable#resolve()} and {@link Expression#calculateResolvedType()}
  * that handle known JavaParser bugs and return the correct result when possible.
+ *
+ * <p>The results of both wrappers are memoized per node, including failures: the same nodes are
+ * resolved many times over a slice, and a failed resolution is the most expensive kind, since
+ * JavaParser throws and the alternative resolution strategies run before null is returned. The
+ * memo is only correct while the AST is unchanged, so code that mutates the AST must tell this
+ * class: a permanent change (pruning, re-parsing) must call {@link #invalidateMemo()} afterwards,
+ * and a temporary change that is reverted before it returns (such as substituting placeholder
+ * types) must be bracketed by {@link #suspendMemo()} and {@link #resumeMemo()}, so that nothing
+ * resolved against the temporary AST is remembered and nothing remembered is used against it.
  */
 // This class must use Resolvable#resolve() and Expression#calculateResolvedType() because it is the
 // wrapper.
@@ -54,6 +65,34 @@ public class Resolver {
    */
   private static @MonotonicNonNull Map<String, CompilationUnit> fqnToCompilationUnits;
 
+  /**
+   * The index used to recognize type names that cannot resolve without asking JavaParser, or null
+   * to always ask JavaParser.
+   */
+  private static @Nullable TypeIndex typeIndex;
+
+  /** Stands for a failed resolution in the memos, which cannot hold null. */
+  private static final Object UNRESOLVABLE = new Object();
+
+  /**
+   * The results of {@link #resolve(Resolvable)} and {@link #resolveGuaranteeNonNull(Resolvable)},
+   * keyed by node identity, with {@link #UNRESOLVABLE} for a node that could not be resolved. Keyed
+   * by identity because a node's hash code changes with its children.
+   */
+  private static final Map<Node, Object> resolveMemo = new IdentityHashMap<>();
+
+  /**
+   * The results of {@link #calculateResolvedType(Expression)}, keyed by node identity, with {@link
+   * #UNRESOLVABLE} for an expression whose type could not be calculated.
+   */
+  private static final Map<Expression, Object> typeMemo = new IdentityHashMap<>();
+
+  /**
+   * The number of calls to {@link #suspendMemo()} not yet matched by a call to {@link
+   * #resumeMemo()}. The memos are neither read nor written while this is positive.
+   */
+  private static int memoSuspensions = 0;
+
   /**
    * Set the map of fully qualified names to compilation units for use in our custom resolution
    * logic.
@@ -64,6 +103,64 @@ public class Resolver {
   public static void setFqnToCompilationUnitMap(
       Map<String, CompilationUnit> fqnToCompilationUnits) {
     Resolver.fqnToCompilationUnits = fqnToCompilationUnits;
+    invalidateMemo();
+  }
+
+  /**
+   * Sets the index of the types that exist, which lets {@link #resolve(Resolvable)} fail fast on a
+   * type whose name cannot refer to any of them: JavaParser reports such a type by constructing
+   * and throwing an exception, which is the bulk of the cost of resolving it.
+   *
+   * @param typeIndex The index of the types that exist, or null to always ask JavaParser
+   */
+  public static void setTypeIndex(@Nullable TypeIndex typeIndex) {
+    Resolver.typeIndex = typeIndex;
+  }
+
+  /**
+   * Forgets every memoized resolution. Call this after mutating the AST in a way that is not
+   * reverted, such as pruning the nodes outside a slice or re-parsing a compilation unit, since
+   * memoized results may refer to removed nodes or depend on the old shape of the AST.
+   */
+  public static void invalidateMemo() {
+    resolveMemo.clear();
+    typeMemo.clear();
+    if (typeIndex != null) {
+      typeIndex.clearCache();
+    }
+    JavaParserUtil.clearAttachedNodeIndexes();
+    JavaParserUtil.clearTypeHierarchy();
+  }
+
+  /**
+   * Checks if the memo is suspended, which means that the AST is being temporarily modified.
+   *
+   * @return true if the memo is suspended
+   */
+  public static boolean isMemoSuspended() {
+    return memoSuspensions > 0;
+  }
+
+  /**
+   * Stops using the memo until the matching call to {@link #resumeMemo()}. Call this before
+   * temporarily mutating the AST, and call {@link #resumeMemo()} in a finally block once the AST is
+   * restored. Calls may nest.
+   */
+  public static void suspendMemo() {
+    memoSuspensions++;
+  }
+
+  /**
+   * Resumes using the memo after a call to {@link #suspendMemo()}. The results memoized before the
+   * suspension are still valid, since the AST must be exactly as it was then.
+   *
+   * @throws IllegalStateException if the memo is not suspended
+   */
+  public static void resumeMemo() {
+    if (memoSuspensions == 0) {
+      throw new IllegalStateException("resumeMemo called without a matching suspendMemo");
+    }
+    memoSuspensions--;
   }
 
   /**
@@ -75,6 +172,27 @@ public class Resolver {
    * @return The resolved type of the expression, or null if it cannot be resolved
    */
   public static @Nullable ResolvedType calculateResolvedType(Expression expr) {
+    if (memoSuspensions > 0) {
+      return calculateResolvedTypeUncached(expr);
+    }
+    Object memoized = typeMemo.get(expr);
+    if (memoized != null) {
+      return memoized == UNRESOLVABLE ? null : (ResolvedType) memoized;
+    }
+    ResolvedType result = calculateResolvedTypeUncached(expr);
+    // Resolution may have suspended the memo and resumed it again, but never invalidates it, so
+    // the result is still consistent with everything else in the memo.
+    typeMemo.put(expr, result == null ? UNRESOLVABLE : result);
+    return result;
+  }
+
+  /**
+   * Implementation of {@link #calculateResolvedType(Expression)}, without the memo.
+   *
+   * @param expr The expression
+   * @return The resolved type of the expression, or null if it cannot be resolved
+   */
+  private static @Nullable ResolvedType calculateResolvedTypeUncached(Expression expr) {
     try {
       return expr.calculateResolvedType();
     } catch (UnsolvedSymbolException | IllegalStateException ex) {
@@ -106,6 +224,37 @@ public class Resolver {
           "fqnToCompilationUnits must be set before calling resolve");
     }
 
+    if (memoSuspensions > 0) {
+      return resolveUncached(toResolve);
+    }
+    Node node = (Node) toResolve;
+    Object memoized = resolveMemo.get(node);
+    if (memoized != null) {
+      return memoized == UNRESOLVABLE ? null : (T) memoized;
+    }
+    T result = resolveUncached(toResolve);
+    resolveMemo.put(node, result == null ? UNRESOLVABLE : result);
+    return result;
+  }
+
+  /**
+   * Implementation of {@link #resolve(Resolvable)}, without the memo.
+   *
+   * @param toResolve The node to resolve
+   * @return The resolved object, or null if not resolvable
+   * @param <T> The type to resolve to
+   */
+  @SuppressWarnings("unchecked")
+  // All casts to T are ok. It's not possible for toResolve to suddenly resolve to a different type.
+  private static <T> @Nullable T resolveUncached(Resolvable<T> toResolve) {
+    // None of the alternative resolution strategies apply to a type, so a type that certainly
+    // cannot be resolved by JavaParser is not resolvable at all.
+    if (typeIndex != null
+        && toResolve instanceof ClassOrInterfaceType type
+        && typeIndex.cannotResolve(type)) {
+      return null;
+    }
+
     try {
       return toResolve.resolve();
     } catch (UnsolvedSymbolException ex) {
@@ -132,6 +281,15 @@ public class Resolver {
   @SuppressWarnings("unchecked")
   // All casts to T are ok. It's not possible for toResolve to suddenly resolve to a different type.
   public static <T> @NonNull T resolveGuaranteeNonNull(Resolvable<T> toResolve) {
+    Node node = (Node) toResolve;
+    if (memoSuspensions == 0) {
+      Object memoized = resolveMemo.get(node);
+      // A memoized failure is resolved again, so that the same exception is thrown as before.
+      if (memoized != null && memoized != UNRESOLVABLE) {
+        return (T) memoized;
+      }
+    }
+
     T result;
 
     try {
@@ -175,6 +333,9 @@ public class Resolver {
       throw new RuntimeException("Resolved result was null");
     }
 
+    if (memoSuspensions == 0) {
+      resolveMemo.put(node, result);
+    }
     return result;
   }
 
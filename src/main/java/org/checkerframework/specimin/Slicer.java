@@ -35,10 +35,8 @@ import com.github.javaparser.resolution.types.ResolvedReferenceType;
 import com.github.javaparser.resolution.types.ResolvedType;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
-import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -51,9 +49,12 @@ import org.checkerframework.specimin.unsolved.UnsolvedSymbolGenerator;
 /**
  * Slices a program, given an initial worklist and a type rule dependency map. This class cannot be
  * instantiated; instead, use {@link #slice(TypeRuleDependencyMap, Deque, UnsolvedSymbolGenerator,
- * Map, SpeciminTypeSolvers)} to use this class.
+ * Map, SpeciminTypeSolvers, Budget)} to use this class.
  */
 public class Slicer {
+  /** The IDs of the nodes in {@link #slice} and in the dependent slice. */
+  private final NodeIds nodeIds = new NodeIds();
+
   /**
    * The slice of nodes.
    *
@@ -61,10 +62,24 @@ public class Slicer {
    * no longer returns true, even if {@code equals} evaluates to true, {@code hashCode} returns the
    * same value, and {@code ==} yields the same reference.
    *
-   * <p>An {@code IdentityHashMap} is safe to use because we use the same compilation units
-   * everywhere, so all corresponding nodes will have the same reference.
+   * <p>A {@link NodeSet}, which compares nodes by identity, is safe to use because we use the same
+   * compilation units everywhere, so all corresponding nodes will have the same reference.
+   */
+  private final NodeSet slice = new NodeSet(nodeIds);
+
+  /**
+   * The fields that an assignment in the slice assigns, recorded as each assignment enters the
+   * slice, so that pruning can tell whether a blank final field is set without searching the slice.
+   */
+  private final Set<AssignedField> assignedFields = new HashSet<>();
+
+  /**
+   * A field assigned by an assignment in the slice.
+   *
+   * @param declaringType The qualified name of the type that declares the field
+   * @param name The name of the field
    */
-  private final Set<Node> slice = Collections.newSetFromMap(new IdentityHashMap<>());
+  private record AssignedField(String declaringType, String name) {}
 
   /** The slice of generated symbols. */
   private final Set<UnsolvedSymbolAlternates<?>> generatedSymbolSlice = new LinkedHashSet<>();
@@ -94,6 +109,9 @@ public class Slicer {
   /** The collection of type solvers used by Specimin. */
   private final SpeciminTypeSolvers typeSolvers;
 
+  /** The budget of the minimization, which building the slice takes steps from. */
+  private final Budget budget;
+
   /**
    * Creates a new instance of {@link Slicer}.
    *
@@ -102,18 +120,21 @@ public class Slicer {
    * @param unsolvedSymbolGenerator The unsolved symbol generator to use.
    * @param fqnToCompilationUnits The map of FQNs to compilation units.
    * @param typeSolvers The collection of type solvers to use.
+   * @param budget The budget of the minimization.
    */
   private Slicer(
       TypeRuleDependencyMap typeRuleDependencyMap,
       Deque<Node> worklist,
       UnsolvedSymbolGenerator unsolvedSymbolGenerator,
       Map<String, CompilationUnit> fqnToCompilationUnits,
-      SpeciminTypeSolvers typeSolvers) {
+      SpeciminTypeSolvers typeSolvers,
+      Budget budget) {
     this.typeRuleDependencyMap = typeRuleDependencyMap;
     this.worklist = worklist;
     this.unsolvedSymbolGenerator = unsolvedSymbolGenerator;
     this.fqnToCompilationUnits = fqnToCompilationUnits;
     this.typeSolvers = typeSolvers;
+    this.budget = budget;
   }
 
   /**
@@ -121,11 +142,16 @@ public class Slicer {
    * {@link SliceResult} which contains sliced compilation units and also generated unsolved
    * symbols.
    *
+   * <p>If the budget runs out while the slice is being built, the slicer stops expanding it: the
+   * worklist and the post-processing of generated symbols are abandoned, and the slice reached so
+   * far is pruned and returned as usual. The budget records which phases were cut short.
+   *
    * @param typeRuleDependencyMap The type rule dependency map to use in the slice.
    * @param worklist The worklist to use, already populated with target members and their bodies.
    * @param unsolvedSymbolGenerator The unsolved symbol generator to use.
    * @param fqnToCompilationUnits The map of FQNs to compilation units.
    * @param typeSolvers The collection of type solvers to use.
+   * @param budget The budget of the minimization.
    * @return A {@link SliceResult} representing the output of the slice.
    */
   public static SliceResult slice(
@@ -133,20 +159,22 @@ public class Slicer {
       Deque<Node> worklist,
       UnsolvedSymbolGenerator unsolvedSymbolGenerator,
       Map<String, CompilationUnit> fqnToCompilationUnits,
-      SpeciminTypeSolvers typeSolvers) {
+      SpeciminTypeSolvers typeSolvers,
+      Budget budget) {
     Slicer slicer =
         new Slicer(
             typeRuleDependencyMap,
             worklist,
             unsolvedSymbolGenerator,
             fqnToCompilationUnits,
-            typeSolvers);
+            typeSolvers,
+            budget);
 
     slicer.buildSlice();
 
     unsolvedSymbolGenerator.generateAllAlternatesBasedOnSuperTypeRelationships();
 
-    Set<Node> dependentSlice = new HashSet<>();
+    Set<Node> dependentSlice = new NodeSet(slicer.nodeIds);
     // Use getGeneratedSymbols() instead of Slicer.generatedSymbolSlice here because we want to
     // include nodes which are included by generated symbols that are conditionally included as
     // well, not just those in the slice
@@ -158,8 +186,8 @@ public class Slicer {
         }
         // These nodes may be something like a method declaration; we need to call the
         // type rule dependency map once to get its keywords to make sure it's not removed
-        slicer.slice.add(node);
-        slicer.slice.addAll(typeRuleDependencyMap.getRelevantElements(node));
+        slicer.addToSlice(node);
+        typeRuleDependencyMap.forEachRelevantElement(node, slicer::addToSlice);
       }
     }
 
@@ -175,7 +203,7 @@ public class Slicer {
    */
   private void buildSlice() {
     // Step 1: build the slice; see which nodes to keep
-    while (!worklist.isEmpty()) {
+    while (!worklist.isEmpty() && budget.step(Budget.Phase.SLICE)) {
       Node element = worklist.removeLast();
       handleElement(element);
     }
@@ -185,6 +213,9 @@ public class Slicer {
     if (!generatedSymbolSlice.isEmpty()) {
       // Step 2: Add more information to generated symbols based on context
       for (Node element : postProcessingWorklist) {
+        if (!budget.step(Budget.Phase.POST_PROCESSING)) {
+          break;
+        }
         UnsolvedGenerationResult result = unsolvedSymbolGenerator.addInformation(element, slice);
         generatedSymbolSlice.addAll(result.toAdd());
         result.toRemove().forEach(generatedSymbolSlice::remove);
@@ -198,7 +229,7 @@ public class Slicer {
     for (CompilationUnit cu : resultCompilationUnits) {
       // If a non-primary class is preserved, the primary class still must be preserved,
       // even if all its nodes were removed
-      slice.add(cu.getPrimaryType().get());
+      addToSlice(cu.getPrimaryType().get());
 
       removeNonSliceNodesFromCompilationUnit(cu);
     }
@@ -276,14 +307,46 @@ public class Slicer {
       }
     }
 
-    slice.add(node);
-    worklist.addAll(typeRuleDependencyMap.getRelevantElements(node));
+    addToSlice(node);
+    typeRuleDependencyMap.forEachRelevantElement(
+        node,
+        relevant -> {
+          // A node already in the slice would be skipped when it is taken off the worklist
+          if (!slice.contains(relevant)) {
+            worklist.add(relevant);
+          }
+        });
 
     if (unsolvedSymbolGenerator.needToPostProcess(node)) {
       postProcessingWorklist.add(node);
     }
   }
 
+  /**
+   * Adds a node to the slice. If the node is an assignment to a field, the field is recorded as
+   * assigned.
+   *
+   * @param node The node to add
+   */
+  private void addToSlice(Node node) {
+    if (!slice.add(node) || !(node instanceof AssignExpr assignExpr)) {
+      return;
+    }
+
+    ResolvedValueDeclaration target = null;
+    if (assignExpr.getTarget().isFieldAccessExpr()) {
+      target = Resolver.resolve(assignExpr.getTarget().asFieldAccessExpr());
+    } else if (assignExpr.getTarget().isNameExpr()) {
+      target = Resolver.resolve(assignExpr.getTarget().asNameExpr());
+    }
+
+    if (target != null && target.isField()) {
+      assignedFields.add(
+          new AssignedField(
+              target.asField().declaringType().getQualifiedName(), target.getName()));
+    }
+  }
+
   /**
    * Preserves every declaration that an unresolvable method reference could be referring to.
    *
@@ -347,7 +410,10 @@ public class Slicer {
   private void removeNonSliceNodesFromCompilationUnit(CompilationUnit cu) {
     List<TypeDeclaration<?>> typesCopy = new ArrayList<>(cu.getTypes());
     for (TypeDeclaration<?> typeDecl : typesCopy) {
+      // Pruning only resolves nodes of the slice, whose resolution is not affected by removing
+      // the nodes outside it, so the memo only has to be dropped once each type is pruned.
       removeNonSliceNodes(typeDecl);
+      Resolver.invalidateMemo();
 
       if (slice.contains(typeDecl)) {
         // If it's not in the slice, resolving will cause an error
@@ -378,29 +444,9 @@ public class Slicer {
             (ResolvedFieldDeclaration) Resolver.resolveGuaranteeNonNull(fieldDeclarator);
 
         boolean isSet =
-            slice.stream()
-                .filter(n -> n instanceof AssignExpr)
-                .map(n -> (AssignExpr) n)
-                .anyMatch(
-                    assignExpr -> {
-                      ResolvedValueDeclaration target = null;
-                      if (assignExpr.getTarget().isFieldAccessExpr()) {
-                        target = Resolver.resolve(assignExpr.getTarget().asFieldAccessExpr());
-                      } else if (assignExpr.getTarget().isNameExpr()) {
-                        target = Resolver.resolve(assignExpr.getTarget().asNameExpr());
-                      }
-
-                      if (target != null && target.isField()) {
-                        return target
-                                .asField()
-                                .declaringType()
-                                .getQualifiedName()
-                                .equals(resolved.declaringType().getQualifiedName())
-                            && target.getName().equals(resolved.getName());
-                      }
-
-                      return false;
-                    });
+            assignedFields.contains(
+                new AssignedField(
+                    resolved.declaringType().getQualifiedName(), resolved.getName()));
 
         if (!isSet) {
           fieldDeclarator.setInitializer(
@@ -0,0 +1,585 @@
+package org.checkerframework.specimin;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An index of the types declared under a source root, mapping each type's FQN to the file that
+ * declares it. The index is built with a token-level scan of each file that only tracks the
+ * package declaration, braces, and type declaration keywords, so it is far cheaper than parsing:
+ * no AST is built, and files are scanned in parallel. Top-level types and member types are indexed
+ * (including top-level types that are not in the file named after them); local and anonymous
+ * classes are not, since they have no FQN.
+ *
+ * <p>The index only depends on the files under the root, so it can be reused by every minimization
+ * that runs against the same root. It can also be backed by an on-disk cache, which stores the
+ * result of scanning each file along with its size, its modification time, and a hash of its
+ * contents (and of the Java language level that Specimin parses). A later run does not even read a
+ * file whose size and modification time are unchanged, and does not scan a file whose contents
+ * are. Combined with
+ * lazy parsing, this means that an unchanged file is neither scanned nor parsed unless the slice
+ * reaches it.
+ */
+public class SourceIndex {
+  /** The FQN of every indexed type, mapped to the absolute, normalized path of its file. */
+  private final Map<String, Path> fqnToPath = new ConcurrentHashMap<>();
+
+  /** The package of every indexed file ("" for the default package). */
+  private final Map<Path, String> pathToPackage = new ConcurrentHashMap<>();
+
+  /**
+   * The first line of a cache file; a cache file that starts with anything else is ignored. It
+   * names the language level that Specimin parses, since a change of language level can change
+   * what a file declares, and an entry found by a file's size and modification time is not checked
+   * against its contents.
+   */
+  private static final String CACHE_HEADER =
+      "specimin-source-index-cache-v2 " + ProjectModel.LANGUAGE_LEVEL.name();
+
+  /** The name of the cache file in the cache directory. */
+  private static final String CACHE_FILE_NAME = "source-index.cache";
+
+  /** The cache file, or null if this index is not cached. */
+  private final @Nullable Path cacheFile;
+
+  /** The entries read from the cache file, keyed by absolute, normalized path. */
+  private final Map<Path, CachedFile> cachedFiles = new ConcurrentHashMap<>();
+
+  /**
+   * The scan results read from the cache file, keyed by content hash, for the files whose size or
+   * modification time changed without a change of contents (or that were moved or copied).
+   */
+  private final Map<String, ScanResult> cachedScans = new ConcurrentHashMap<>();
+
+  /**
+   * The entries of the files under the root indexed by this index. Only these are written back to
+   * the cache file, so that the entries of deleted or changed files are dropped.
+   */
+  private final Map<Path, CachedFile> usedFiles = new ConcurrentHashMap<>();
+
+  /** The number of files whose contents this index read. */
+  private final AtomicInteger filesRead = new AtomicInteger();
+
+  /**
+   * The cache entry of a file.
+   *
+   * @param size The size of the file, in bytes, when it was scanned
+   * @param lastModified The modification time of the file, in milliseconds, when it was scanned
+   * @param hash The key of the file's contents; see {@link #hash(byte[])}
+   * @param scan The result of scanning the file
+   */
+  private record CachedFile(long size, long lastModified, String hash, ScanResult scan) {}
+
+  /**
+   * Creates an empty index. Use {@link #build(Path, Path)} to index a source root.
+   *
+   * @param cacheFile The cache file, or null if this index is not cached
+   */
+  private SourceIndex(@Nullable Path cacheFile) {
+    this.cacheFile = cacheFile;
+  }
+
+  /**
+   * Indexes every Java file under a source root. Like JavaParser's {@link
+   * com.github.javaparser.utils.SourceRoot}, this skips hidden directories and directories whose
+   * names are not Java identifiers (and so cannot be packages), such as META-INF.
+   *
+   * @param root The source root
+   * @return The index
+   * @throws IOException if the root cannot be walked or a file cannot be read
+   */
+  public static SourceIndex build(Path root) throws IOException {
+    return build(root, null);
+  }
+
+  /**
+   * Indexes every Java file under a source root, using and updating the cache in the given
+   * directory. See {@link #build(Path)}.
+   *
+   * @param root The source root
+   * @param cacheDirectory The directory of the cache, which is created if it does not exist; or
+   *     null to not use a cache
+   * @return The index
+   * @throws IOException if the root cannot be walked or a file cannot be read
+   */
+  public static SourceIndex build(Path root, @Nullable Path cacheDirectory) throws IOException {
+    Path cacheFile = null;
+    if (cacheDirectory != null) {
+      Files.createDirectories(cacheDirectory);
+      cacheFile = cacheDirectory.resolve(CACHE_FILE_NAME);
+    }
+    SourceIndex index = new SourceIndex(cacheFile);
+    index.readCache();
+    List<Path> javaFiles = new ArrayList<>();
+    Files.walkFileTree(
+        root,
+        new SimpleFileVisitor<>() {
+          @Override
+          public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+              throws IOException {
+            return dir.equals(root) || isSensibleDirectoryToEnter(dir)
+                ? FileVisitResult.CONTINUE
+                : FileVisitResult.SKIP_SUBTREE;
+          }
+
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            if (!attrs.isDirectory() && file.toString().endsWith(".java")) {
+              javaFiles.add(file);
+            }
+            return FileVisitResult.CONTINUE;
+          }
+        });
+    index.addFiles(javaFiles, true);
+    index.writeCache();
+    return index;
+  }
+
+  /**
+   * Could a directory be a package directory?
+   *
+   * @param dir A directory under the root
+   * @return True if the directory is not hidden and its name is a Java identifier
+   * @throws IOException if the directory cannot be checked
+   */
+  private static boolean isSensibleDirectoryToEnter(Path dir) throws IOException {
+    Path fileName = dir.getFileName();
+    if (fileName == null || Files.isHidden(dir)) {
+      return false;
+    }
+    String name = fileName.toString();
+    if (name.isEmpty() || !Character.isJavaIdentifierStart(name.charAt(0))) {
+      return false;
+    }
+    for (int i = 1; i < name.length(); i++) {
+      if (!Character.isJavaIdentifierPart(name.charAt(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Indexes files that are not under the root, such as the decompiled sources in a project's
+   * overlay root, in parallel. A file that was already indexed is indexed again. These files only
+   * live as long as the run that created them, so they are never looked up in or written to the
+   * cache.
+   *
+   * @param javaFiles The Java files to index
+   * @throws IOException if a file cannot be read
+   */
+  public void addOverlayFiles(Collection<Path> javaFiles) throws IOException {
+    addFiles(javaFiles, false);
+  }
+
+  /**
+   * Indexes the given files, in parallel. A file that was already indexed is indexed again.
+   *
+   * @param javaFiles The Java files to index
+   * @param cached True if the files are under the root, so that their scan results are looked up
+   *     in and later written to the cache
+   * @throws IOException if a file cannot be read
+   */
+  private void addFiles(Collection<Path> javaFiles, boolean cached) throws IOException {
+    try {
+      javaFiles.parallelStream().forEach(javaFile -> addFile(javaFile, cached));
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Indexes a single file. A cached file whose size and modification time match its cache entry is
+   * not read at all; otherwise, its contents are hashed, and are only scanned if no cache entry has
+   * the same hash.
+   *
+   * @param javaFile The Java file to index
+   * @param cached True if the file's scan result is looked up in and later written to the cache
+   */
+  private void addFile(Path javaFile, boolean cached) {
+    Path path = javaFile.toAbsolutePath().normalize();
+    ScanResult result;
+    try {
+      if (cacheFile == null || !cached) {
+        filesRead.incrementAndGet();
+        result = scan(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+      } else {
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        CachedFile entry = cachedFiles.get(path);
+        if (entry == null || entry.size() != size || entry.lastModified() != lastModified) {
+          filesRead.incrementAndGet();
+          byte[] contents = Files.readAllBytes(path);
+          String hash = hash(contents);
+          ScanResult scan = cachedScans.get(hash);
+          if (scan == null) {
+            scan = scan(new String(contents, StandardCharsets.UTF_8));
+          }
+          entry = new CachedFile(size, lastModified, hash, scan);
+        }
+        usedFiles.put(path, entry);
+        result = entry.scan();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    pathToPackage.put(path, result.packageName());
+    for (String fqn : result.typeNames()) {
+      fqnToPath.put(fqn, path);
+    }
+  }
+
+  /**
+   * Computes the key of a file in the cache: a hash of its contents and of the language level that
+   * Specimin parses, since a change of language level can change what a file declares.
+   *
+   * @param contents The contents of the file
+   * @return The hex-encoded SHA-256 hash
+   */
+  private static String hash(byte[] contents) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform is required to support SHA-256.
+      throw new RuntimeException(e);
+    }
+    digest.update(ProjectModel.LANGUAGE_LEVEL.name().getBytes(StandardCharsets.UTF_8));
+    digest.update((byte) 0);
+    return HexFormat.of().formatHex(digest.digest(contents));
+  }
+
+  /**
+   * Reads the cache file, if this index is cached and the file exists. A cache file that cannot be
+   * read is ignored, since the cache only ever saves work.
+   */
+  private void readCache() {
+    if (cacheFile == null || !Files.isRegularFile(cacheFile)) {
+      return;
+    }
+    List<String> lines;
+    try {
+      lines = Files.readAllLines(cacheFile, StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      System.err.println("Ignoring unreadable source index cache " + cacheFile + ": " + e);
+      return;
+    }
+    if (lines.isEmpty() || !lines.get(0).equals(CACHE_HEADER)) {
+      return;
+    }
+    // Each line is: path, tab, size, tab, modification time, tab, hash, tab, package, tab, and the
+    // comma-separated type names.
+    for (String line : lines.subList(1, lines.size())) {
+      String[] parts = line.split("\t", -1);
+      if (parts.length != 6) {
+        continue;
+      }
+      List<String> typeNames =
+          parts[5].isEmpty() ? List.of() : Arrays.asList(parts[5].split(",", -1));
+      ScanResult scan = new ScanResult(parts[4], typeNames);
+      try {
+        cachedFiles.put(
+            Path.of(parts[0]),
+            new CachedFile(Long.parseLong(parts[1]), Long.parseLong(parts[2]), parts[3], scan));
+      } catch (NumberFormatException | InvalidPathException e) {
+        continue;
+      }
+      cachedScans.put(parts[3], scan);
+    }
+  }
+
+  /**
+   * Writes the scan results of the indexed files under the root to the cache file, if this index is
+   * cached. The file is replaced atomically, so that concurrent runs sharing a cache never read a
+   * partial file.
+   *
+   * @throws IOException if the cache file cannot be written
+   */
+  private void writeCache() throws IOException {
+    if (cacheFile == null) {
+      return;
+    }
+    List<String> lines = new ArrayList<>();
+    lines.add(CACHE_HEADER);
+    for (Map.Entry<Path, CachedFile> entry : usedFiles.entrySet()) {
+      CachedFile file = entry.getValue();
+      lines.add(
+          entry.getKey()
+              + "\t"
+              + file.size()
+              + "\t"
+              + file.lastModified()
+              + "\t"
+              + file.hash()
+              + "\t"
+              + file.scan().packageName()
+              + "\t"
+              + String.join(",", file.scan().typeNames()));
+    }
+    Path parent = cacheFile.toAbsolutePath().getParent();
+    Path temp = Files.createTempFile(parent, CACHE_FILE_NAME, ".tmp");
+    Files.write(temp, lines, StandardCharsets.UTF_8);
+    Files.move(
+        temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Records that a type is declared in a file, for a type that the scan missed but that a parser
+   * found.
+   *
+   * @param fqn The FQN of the type
+   * @param path The file that declares it
+   */
+  public void put(String fqn, Path path) {
+    fqnToPath.put(fqn, path.toAbsolutePath().normalize());
+  }
+
+  /**
+   * Gets the file that declares a type.
+   *
+   * @param fqn The FQN of the type
+   * @return The absolute, normalized path of the file, or null if the type is not in the index
+   */
+  public @Nullable Path getPath(String fqn) {
+    return fqnToPath.get(fqn);
+  }
+
+  /**
+   * Gets the package declared by an indexed file.
+   *
+   * @param path The absolute, normalized path of the file
+   * @return The package ("" for the default package), or null if the file is not in the index
+   */
+  public @Nullable String getPackage(Path path) {
+    return pathToPackage.get(path);
+  }
+
+  /**
+   * Gets every indexed file.
+   *
+   * @return The absolute, normalized paths of the indexed files
+   */
+  public Set<Path> getFiles() {
+    return pathToPackage.keySet();
+  }
+
+  /**
+   * Gets the number of files whose contents this index read, rather than finding them unchanged in
+   * the cache by their size and modification time.
+   *
+   * @return The number of files read
+   */
+  int getFilesRead() {
+    return filesRead.get();
+  }
+
+  /**
+   * Gets the map of FQNs to the files that declare them. The map is a live view of the index.
+   *
+   * @return The map of FQNs to absolute, normalized file paths
+   */
+  public Map<String, Path> getFqnToPath() {
+    return fqnToPath;
+  }
+
+  /**
+   * The result of scanning a single file.
+   *
+   * @param packageName The package of the file, or "" for the default package
+   * @param typeNames The FQNs of the top-level and member types that the file declares
+   */
+  public record ScanResult(String packageName, List<String> typeNames) {}
+
+  /**
+   * Finds the package and the top-level and member types declared by a Java source file, without
+   * parsing it. Comments, string and character literals, and text blocks are skipped; a type
+   * declaration is the keyword class, interface, enum, or record followed by a name, in a top-level
+   * position or directly in the body of another type.
+   *
+   * @param source The contents of the file
+   * @return The package and types of the file
+   */
+  public static ScanResult scan(String source) {
+    List<String> tokens = tokenize(source);
+
+    String packageName = "";
+    List<String> typeNames = new ArrayList<>();
+    // For each open brace, the FQN of the type whose body it opens, or "" if it opens something
+    // else (a method body, an initializer, an anonymous class, an enum constant's body, ...).
+    List<String> braces = new ArrayList<>();
+    // The FQN of a type whose header has been scanned, but whose body has not been opened yet.
+    @Nullable String pendingType = null;
+    boolean seenType = false;
+
+    for (int i = 0; i < tokens.size(); i++) {
+      String token = tokens.get(i);
+      switch (token) {
+        case "{":
+          braces.add(pendingType == null ? "" : pendingType);
+          pendingType = null;
+          break;
+        case "}":
+          if (!braces.isEmpty()) {
+            braces.remove(braces.size() - 1);
+          }
+          break;
+        case ";":
+          pendingType = null;
+          break;
+        case "package":
+          if (braces.isEmpty() && !seenType && packageName.isEmpty()) {
+            StringBuilder packageNameBuilder = new StringBuilder();
+            int j = i + 1;
+            while (j < tokens.size() && !tokens.get(j).equals(";")) {
+              packageNameBuilder.append(tokens.get(j));
+              j++;
+            }
+            packageName = packageNameBuilder.toString();
+            i = j;
+          }
+          break;
+        default:
+          String name = getDeclaredTypeName(tokens, i);
+          if (name == null) {
+            break;
+          }
+          String enclosing = braces.isEmpty() ? packageName : braces.get(braces.size() - 1);
+          // The innermost brace is not a type body: the type is local or in an anonymous class,
+          // and has no FQN.
+          if (!braces.isEmpty() && enclosing.isEmpty()) {
+            break;
+          }
+          String fqn = enclosing.isEmpty() ? name : enclosing + "." + name;
+          typeNames.add(fqn);
+          pendingType = fqn;
+          seenType = true;
+          i++;
+          break;
+      }
+    }
+    return new ScanResult(packageName, typeNames);
+  }
+
+  /**
+   * If the token at the given index starts a type declaration, gets the name of the declared type.
+   *
+   * @param tokens The tokens of a file
+   * @param i The index of the token
+   * @return The simple name of the declared type, or null if the token does not start a type
+   *     declaration
+   */
+  private static @Nullable String getDeclaredTypeName(List<String> tokens, int i) {
+    String token = tokens.get(i);
+    if (!token.equals("class")
+        && !token.equals("interface")
+        && !token.equals("enum")
+        && !token.equals("record")) {
+      return null;
+    }
+    // Foo.class is a class literal, not a declaration.
+    if (i > 0 && tokens.get(i - 1).equals(".")) {
+      return null;
+    }
+    if (i + 1 >= tokens.size() || !Character.isJavaIdentifierStart(tokens.get(i + 1).charAt(0))) {
+      return null;
+    }
+    // record is only a keyword in front of a record header.
+    if (token.equals("record")
+        && (i + 2 >= tokens.size()
+            || !(tokens.get(i + 2).equals("(") || tokens.get(i + 2).equals("<")))) {
+      return null;
+    }
+    return tokens.get(i + 1);
+  }
+
+  /**
+   * Splits a Java source file into the tokens that {@link #scan(String)} needs: identifiers and
+   * keywords, and single-character punctuation. Whitespace, comments, and literals are dropped.
+   *
+   * @param source The contents of the file
+   * @return The tokens
+   */
+  private static List<String> tokenize(String source) {
+    List<String> tokens = new ArrayList<>();
+    int length = source.length();
+    int i = 0;
+    while (i < length) {
+      char c = source.charAt(i);
+      if (Character.isWhitespace(c)) {
+        i++;
+      } else if (source.startsWith("//", i)) {
+        int end = source.indexOf('\n', i);
+        i = end < 0 ? length : end + 1;
+      } else if (source.startsWith("/*", i)) {
+        int end = source.indexOf("*/", i + 2);
+        i = end < 0 ? length : end + 2;
+      } else if (source.startsWith("\"\"\"", i)) {
+        i = skipLiteral(source, i + 3, "\"\"\"");
+      } else if (c == '"') {
+        i = skipLiteral(source, i + 1, "\"");
+      } else if (c == '\'') {
+        i = skipLiteral(source, i + 1, "'");
+      } else if (Character.isJavaIdentifierStart(c)) {
+        int start = i;
+        while (i < length && Character.isJavaIdentifierPart(source.charAt(i))) {
+          i++;
+        }
+        tokens.add(source.substring(start, i));
+      } else if (Character.isDigit(c)) {
+        // Numeric literals are dropped; their letters (e.g., 0x1F, 10L) must not become tokens.
+        while (i < length
+            && (Character.isJavaIdentifierPart(source.charAt(i)) || source.charAt(i) == '.')) {
+          i++;
+        }
+      } else {
+        tokens.add(String.valueOf(c));
+        i++;
+      }
+    }
+    return tokens;
+  }
+
+  /**
+   * Skips a string literal, character literal, or text block.
+   *
+   * @param source The contents of the file
+   * @param start The index just after the opening delimiter
+   * @param delimiter The closing delimiter
+   * @return The index just after the closing delimiter, or the length of the source if the literal
+   *     is not closed
+   */
+  private static int skipLiteral(String source, int start, String delimiter) {
+    int i = start;
+    while (i < source.length()) {
+      if (source.charAt(i) == '\\') {
+        i += 2;
+      } else if (source.startsWith(delimiter, i)) {
+        return i + delimiter.length();
+      } else {
+        i++;
+      }
+    }
+    return source.length();
+  }
+}
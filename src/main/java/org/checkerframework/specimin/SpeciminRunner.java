@@ -1,17 +1,11 @@
 package org.checkerframework.specimin;
 
-import com.github.javaparser.ParseResult;
-import com.github.javaparser.ParserConfiguration;
-import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.ImportDeclaration;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.PackageDeclaration;
 import com.github.javaparser.ast.body.TypeDeclaration;
 import com.github.javaparser.ast.comments.Comment;
-import com.github.javaparser.symbolsolver.JavaSymbolSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.JarTypeSolver;
-import com.github.javaparser.utils.SourceRoot;
 import com.google.googlejavaformat.java.Formatter;
 import com.google.googlejavaformat.java.FormatterException;
 import java.io.File;
@@ -21,12 +15,15 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -42,7 +39,6 @@ import org.checkerframework.specimin.modularity.ModularityModel;
 import org.checkerframework.specimin.unsolved.UnsolvedSymbolEnumerator;
 import org.checkerframework.specimin.unsolved.UnsolvedSymbolEnumeratorResult;
 import org.checkerframework.specimin.unsolved.UnsolvedSymbolGenerator;
-import org.jetbrains.java.decompiler.main.decompiler.ConsoleDecompiler;
 
 /** This class is the main runner for Specimin. Use its main() method to start Specimin. */
 public class SpeciminRunner {
@@ -93,25 +89,226 @@ public class SpeciminRunner {
     OptionSpec<String> modularityModelOption =
         optionParser.accepts("modularityModel").withOptionalArg().defaultsTo("cf");
 
+    // The wall-clock time, in seconds, that a minimization may spend slicing. When it runs out,
+    // the slicer stops expanding the slice and the best slice reached so far is written out.
+    // Unlimited by default.
+    OptionSpec<Integer> timeBudgetOption =
+        optionParser.accepts("timeBudget").withRequiredArg().ofType(Integer.class);
+
+    // The number of steps (worklist elements handled, and uses of generated symbols
+    // post-processed) that a minimization may take, with the same effect as --timeBudget when it
+    // runs out. Unlimited by default.
+    OptionSpec<Long> stepBudgetOption =
+        optionParser.accepts("stepBudget").withRequiredArg().ofType(Long.class);
+
+    // The number of candidate outputs, each a different combination of the alternates of the
+    // generated symbols, to compile in memory in search of one that compiles. The first candidate
+    // that compiles is written out; if none does, the best effort output is. Zero by default,
+    // which writes out the best effort output without compiling anything.
+    OptionSpec<Integer> maxCandidatesOption =
+        optionParser.accepts("maxCandidates").withRequiredArg().ofType(Integer.class);
+
+    // Compile the output in memory once it is written out, and report what the compiler finds as
+    // JSON lines on standard error. The minimization fails if the output does not compile.
+    OptionSpec<Void> verifyOption = optionParser.accepts("verify");
+
     OptionSpec<Void> disableRootValidationOption = optionParser.accepts("disable-root-validation");
 
+    // Parse only the target files up front, and every other file under the root the first time
+    // one of its types is looked up, instead of parsing the whole root before slicing.
+    OptionSpec<Void> lazyParsingOption = optionParser.accepts("lazy-parsing");
+
+    // The number of threads that parse the root (when the whole root is parsed). Defaults to the
+    // number of available processors.
+    OptionSpec<Integer> parseThreadsOption =
+        optionParser.accepts("parseThreads").withRequiredArg().ofType(Integer.class);
+
+    // A directory in which to cache what Specimin learns about each file under the root without
+    // parsing it, keyed by the file's contents, so that later runs skip unchanged files.
+    OptionSpec<String> parseCacheDirectoryOption =
+        optionParser.accepts("parseCacheDirectory").withRequiredArg();
+
+    // A directory in which to cache the decompiled sources of each --jarPath jar, keyed by the
+    // jar's contents, so that later runs do not decompile the same jar again.
+    OptionSpec<String> decompileCacheDirectoryOption =
+        optionParser.accepts("decompileCacheDirectory").withRequiredArg();
+
+    // Decompile each class of the --jarPath jars the first time it is looked up, instead of
+    // decompiling every jar before slicing.
+    OptionSpec<Void> lazyDecompilationOption = optionParser.accepts("lazy-decompilation");
+
+    // Runs Specimin as a server that keeps the root parsed between minimizations. Jobs are read
+    // as JSON lines from standard input, or from connections to this local port if --port is
+    // given; see SpeciminServer for the protocol.
+    OptionSpec<Void> serverOption = optionParser.accepts("server");
+    OptionSpec<Integer> portOption =
+        optionParser.accepts("port").withRequiredArg().ofType(Integer.class);
+
+    // A manifest of minimization jobs to run against the same root. Each non-empty line of the
+    // manifest that does not start with '#' is one job, written with the same options as a
+    // single run (--targetFile, --targetMethod, --targetField, --outputDirectory,
+    // --modularityModel, --timeBudget, --stepBudget, --maxCandidates, and --verify; the last four
+    // default to the ones on the command line). The root is parsed and the jar files are
+    // decompiled only once.
+    OptionSpec<String> batchOption = optionParser.accepts("batch").withRequiredArg();
+
     OptionSet options = optionParser.parse(args);
 
+    BudgetLimits budgetLimits =
+        getBudgetLimits(options, timeBudgetOption, stepBudgetOption, BudgetLimits.unlimited());
+    int maxCandidates = getMaxCandidates(options, maxCandidatesOption, 0);
+
+    Integer parseThreads = options.valueOf(parseThreadsOption);
+    String parseCacheDirectory = options.valueOf(parseCacheDirectoryOption);
+    String decompileCacheDirectory = options.valueOf(decompileCacheDirectoryOption);
+    ParseOptions parseOptions =
+        new ParseOptions(
+            options.has(lazyParsingOption),
+            parseThreads == null ? ParseOptions.defaults().parseThreads() : parseThreads,
+            parseCacheDirectory == null ? null : Path.of(parseCacheDirectory),
+            decompileCacheDirectory == null ? null : Path.of(decompileCacheDirectory),
+            options.has(lazyDecompilationOption));
+
     String jarDirectory = options.valueOf(jar);
     List<String> jarFiles = new ArrayList<>();
     if (jarDirectory != null) {
       jarFiles = getJarFiles(jarDirectory);
     }
 
+    if (options.has(serverOption)) {
+      Set<Path> createdClass = new HashSet<>();
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> deleteFiles(createdClass)));
+
+      String root = normalizeRoot(options.valueOf(rootOption));
+      ProjectModel project =
+          ProjectModel.load(
+              root,
+              jarFiles,
+              createdClass,
+              SourceIndex.build(Path.of(root), parseOptions.cacheDirectory()),
+              parseOptions);
+      try (SpeciminServer server =
+          new SpeciminServer(
+              project,
+              options.has(disableRootValidationOption),
+              new SpeciminServer.JobDefaults(
+                  budgetLimits, maxCandidates, options.has(verifyOption)))) {
+        Integer port = options.valueOf(portOption);
+        if (port != null) {
+          server.serveLocalPort(port);
+        } else {
+          server.serveStandardStreams();
+        }
+      }
+      return;
+    }
+
+    if (options.has(batchOption)) {
+      List<MinimizationJob> jobs = new ArrayList<>();
+      for (String line : readBatchManifest(options.valueOf(batchOption))) {
+        OptionSet jobOptions = optionParser.parse(tokenizeBatchManifestLine(line));
+        if (jobOptions.has(rootOption)
+            || jobOptions.has(jar)
+            || jobOptions.has(disableRootValidationOption)
+            || jobOptions.has(batchOption)
+            || jobOptions.has(lazyParsingOption)
+            || jobOptions.has(parseThreadsOption)
+            || jobOptions.has(parseCacheDirectoryOption)
+            || jobOptions.has(decompileCacheDirectoryOption)
+            || jobOptions.has(lazyDecompilationOption)
+            || jobOptions.has(serverOption)
+            || jobOptions.has(portOption)) {
+          throw new RuntimeException(
+              "--root, --jarPath, --disable-root-validation, --lazy-parsing, --parseThreads,"
+                  + " --parseCacheDirectory, --decompileCacheDirectory, --lazy-decompilation,"
+                  + " --batch, --server, and --port apply to every job in a batch, so they must be"
+                  + " passed on the command line, not in the manifest: "
+                  + line);
+        }
+        String jobOutputDirectory = jobOptions.valueOf(outputDirectoryOption);
+        if (jobOutputDirectory == null) {
+          throw new RuntimeException("Every batch job needs an --outputDirectory: " + line);
+        }
+        jobs.add(
+            new MinimizationJob(
+                jobOptions.valuesOf(targetFilesOption),
+                jobOptions.valuesOf(targetMethodsOption),
+                jobOptions.valuesOf(targetFieldsOptions),
+                jobOutputDirectory,
+                jobOptions.valueOf(modularityModelOption),
+                getBudgetLimits(jobOptions, timeBudgetOption, stepBudgetOption, budgetLimits),
+                getMaxCandidates(jobOptions, maxCandidatesOption, maxCandidates),
+                options.has(verifyOption) || jobOptions.has(verifyOption)));
+      }
+
+      int failedJobs =
+          performBatchMinimization(
+              options.valueOf(rootOption),
+              jarFiles,
+              jobs,
+              options.has(disableRootValidationOption),
+              parseOptions);
+      if (failedJobs > 0) {
+        throw new RuntimeException(failedJobs + " of " + jobs.size() + " batch jobs failed.");
+      }
+      return;
+    }
+
     performMinimization(
         options.valueOf(rootOption),
-        options.valuesOf(targetFilesOption),
         jarFiles,
-        options.valuesOf(targetMethodsOption),
-        options.valuesOf(targetFieldsOptions),
-        options.valueOf(outputDirectoryOption),
-        options.valueOf(modularityModelOption),
-        options.has(disableRootValidationOption));
+        new MinimizationJob(
+            options.valuesOf(targetFilesOption),
+            options.valuesOf(targetMethodsOption),
+            options.valuesOf(targetFieldsOptions),
+            options.valueOf(outputDirectoryOption),
+            options.valueOf(modularityModelOption),
+            budgetLimits,
+            maxCandidates,
+            options.has(verifyOption)),
+        options.has(disableRootValidationOption),
+        parseOptions);
+  }
+
+  /**
+   * Gets the budget limits given by the --timeBudget and --stepBudget options.
+   *
+   * @param options The parsed options
+   * @param timeBudgetOption The --timeBudget option
+   * @param stepBudgetOption The --stepBudget option
+   * @param defaults The limits to use for an option that is absent
+   * @return The budget limits
+   */
+  private static BudgetLimits getBudgetLimits(
+      OptionSet options,
+      OptionSpec<Integer> timeBudgetOption,
+      OptionSpec<Long> stepBudgetOption,
+      BudgetLimits defaults) {
+    Integer timeBudget = options.valueOf(timeBudgetOption);
+    Long stepBudget = options.valueOf(stepBudgetOption);
+    return new BudgetLimits(
+        timeBudget == null ? defaults.time() : Duration.ofSeconds(timeBudget),
+        stepBudget == null ? defaults.steps() : stepBudget);
+  }
+
+  /**
+   * Gets the number of candidate outputs given by the --maxCandidates option.
+   *
+   * @param options The parsed options
+   * @param maxCandidatesOption The --maxCandidates option
+   * @param defaultValue The number to use if the option is absent
+   * @return The number of candidate outputs to compile
+   */
+  private static int getMaxCandidates(
+      OptionSet options, OptionSpec<Integer> maxCandidatesOption, int defaultValue) {
+    Integer maxCandidates = options.valueOf(maxCandidatesOption);
+    if (maxCandidates == null) {
+      return defaultValue;
+    }
+    if (maxCandidates < 0) {
+      throw new IllegalArgumentException("--maxCandidates must not be negative: " + maxCandidates);
+    }
+    return maxCandidates;
   }
 
   /**
@@ -171,6 +368,41 @@ public class SpeciminRunner {
       String modularityModelCode,
       boolean disableRootValidation)
       throws IOException {
+    performMinimization(
+        root,
+        jarPaths,
+        new MinimizationJob(
+            targetFiles,
+            targetMethodNames,
+            targetFieldNames,
+            outputDirectory,
+            modularityModelCode,
+            BudgetLimits.unlimited(),
+            0,
+            false),
+        disableRootValidation,
+        ParseOptions.defaults());
+  }
+
+  /**
+   * This method acts as an API for users who want to incorporate Specimin as a library into their
+   * projects. It offers an easy way to do the minimization job without needing to directly call
+   * Specimin's main method.
+   *
+   * @param root The root directory of the input files.
+   * @param jarPaths Paths to relevant JAR files.
+   * @param job The minimization to run
+   * @param disableRootValidation whether to disable root validation
+   * @param parseOptions how to parse the files under the root
+   * @throws IOException if there is an exception
+   */
+  public static void performMinimization(
+      String root,
+      List<String> jarPaths,
+      MinimizationJob job,
+      boolean disableRootValidation,
+      ParseOptions parseOptions)
+      throws IOException {
     // The set of path of files that have been created by Specimin. We must be
     // careful to delete all
     // those files in the end, because otherwise they can pollute the input
@@ -179,104 +411,169 @@ public class SpeciminRunner {
     Set<Path> createdClass = new HashSet<>();
     Runtime.getRuntime().addShutdownHook(new Thread(() -> deleteFiles(createdClass)));
 
-    ModularityModel model = ModularityModel.createModularityModel(modularityModelCode);
+    // Create the modularity model first, so that an unsupported model fails before parsing.
+    ModularityModel.createModularityModel(job.modularityModelCode());
 
-    performMinimizationImpl(
-        root,
-        targetFiles,
-        jarPaths,
-        targetMethodNames,
-        targetFieldNames,
-        outputDirectory,
-        model,
-        createdClass,
-        disableRootValidation);
+    root = normalizeRoot(root);
+    // Indexing the root is cheap compared to parsing it, and lets root validation find targets in
+    // non-primary classes.
+    SourceIndex sourceIndex = SourceIndex.build(Path.of(root), parseOptions.cacheDirectory());
+
+    if (!disableRootValidation) {
+      validateRoot(root, sourceIndex, job.targetMethodNames(), job.targetFieldNames());
+    }
+
+    MinimizationResult result;
+    try (CompileOracle oracle = new CompileOracle()) {
+      result =
+          minimize(
+              ProjectModel.load(root, jarPaths, createdClass, sourceIndex, parseOptions),
+              job,
+              oracle);
+    }
+    if (result.failedVerification()) {
+      throw new RuntimeException(
+          "The output in " + job.outputDirectory() + " does not compile; see the errors above.");
+    }
   }
 
   /**
-   * Helper method for performMinimization. The logic of performMinimization is here;
-   * performMinimization itself wraps this in a try-finally to ensure that all created files are
-   * cleaned up properly in the event of a crash or interrupt.
+   * Runs several minimizations against the same root. The root is parsed, the type solvers are
+   * created, and the jar files are decompiled only once; between two jobs, only the state dirtied
+   * by the previous job's slice is restored. A job that fails does not stop the jobs after it: its
+   * error is printed, and the number of failed jobs is returned.
    *
    * @param root The root directory of the input files.
-   * @param targetFiles A list of files that contain the target methods.
    * @param jarPaths Paths to relevant JAR files.
-   * @param targetMethodNames A set of target method names to be preserved.
-   * @param targetFieldNames A set of target field names to be preserved.
-   * @param outputDirectory The directory for the output.
-   * @param modularityModel The modularity model.
+   * @param jobs The minimizations to run, in order.
    * @param disableRootValidation whether to disable root validation
-   * @throws IOException if there is an exception
+   * @param parseOptions how to parse the files under the root
+   * @return The number of jobs that failed
+   * @throws IOException if the project cannot be parsed
    */
-  private static void performMinimizationImpl(
+  public static int performBatchMinimization(
       String root,
-      List<String> targetFiles,
       List<String> jarPaths,
-      List<String> targetMethodNames,
-      List<String> targetFieldNames,
-      String outputDirectory,
-      ModularityModel modularityModel,
-      Set<Path> createdClass,
-      boolean disableRootValidation)
+      List<MinimizationJob> jobs,
+      boolean disableRootValidation,
+      ParseOptions parseOptions)
       throws IOException {
-    // To facilitate string manipulation in subsequent methods, ensure that 'root'
-    // ends with a
-    // trailing slash.
-    if (!root.endsWith("/")) {
-      root = root + "/";
-    }
+    Set<Path> createdClass = new HashSet<>();
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> deleteFiles(createdClass)));
 
-    if (!disableRootValidation) {
-      validateRoot(root, targetMethodNames, targetFieldNames);
+    root = normalizeRoot(root);
+    ProjectModel project =
+        ProjectModel.load(
+            root,
+            jarPaths,
+            createdClass,
+            SourceIndex.build(Path.of(root), parseOptions.cacheDirectory()),
+            parseOptions);
+
+    int failedJobs = 0;
+    // One oracle for all jobs, so that the compiler stays warm
+    try (CompileOracle oracle = new CompileOracle()) {
+      for (MinimizationJob job : jobs) {
+        try {
+          if (runJob(project, job, disableRootValidation, oracle).failedVerification()) {
+            failedJobs++;
+            System.err.println(
+                "Batch job with output directory "
+                    + job.outputDirectory()
+                    + " failed: its output does not compile.");
+          }
+        } catch (IOException | RuntimeException e) {
+          failedJobs++;
+          System.err.println(
+              "Batch job with output directory " + job.outputDirectory() + " failed:");
+          e.printStackTrace();
+        }
+      }
     }
+    return failedJobs;
+  }
 
-    SpeciminTypeSolvers typeSolver = initializeSolvers(root, jarPaths);
-    ParserConfiguration config = updateStaticSolver(typeSolver);
-    decompileJarFiles(root, jarPaths, createdClass);
+  /**
+   * Runs one minimization against a project model that is shared with other minimizations, and
+   * restores the model afterwards, whether or not the minimization succeeded.
+   *
+   * @param project The shared project model
+   * @param job The minimization to run
+   * @param disableRootValidation whether to disable root validation
+   * @param oracle The oracle that compiles the output, which may be shared with other jobs
+   * @return What the minimization reports
+   * @throws IOException if there is an exception
+   */
+  static MinimizationResult runJob(
+      ProjectModel project,
+      MinimizationJob job,
+      boolean disableRootValidation,
+      CompileOracle oracle)
+      throws IOException {
+    try {
+      if (!disableRootValidation) {
+        validateRoot(
+            project.getRoot(),
+            project.getSourceIndex(),
+            job.targetMethodNames(),
+            job.targetFieldNames());
+      }
+      return minimize(project, job, oracle);
+    } finally {
+      project.restore();
+    }
+  }
 
-    SourceRoot sourceRoot = new SourceRoot(Path.of(root));
-    sourceRoot.setParserConfiguration(config);
-    sourceRoot.tryToParse();
+  /**
+   * Ensures that the root ends with a trailing slash, to facilitate string manipulation in
+   * subsequent methods.
+   *
+   * @param root The root directory
+   * @return The root directory, ending in a trailing slash
+   */
+  private static String normalizeRoot(String root) {
+    if (!root.endsWith("/")) {
+      return root + "/";
+    }
+    return root;
+  }
 
-    // the set of Java classes in the original codebase mapped with their
-    // corresponding Java files.
-    Map<String, Path> existingClassesToFilePath = new HashMap<>();
-    Map<String, CompilationUnit> fqnToCompilationUnits = new HashMap<>();
+  /**
+   * Runs a single minimization against a project model. The logic of performMinimization is here;
+   * the compilation units that this method mutates are marked as dirty in the project model, so
+   * that the model can be restored for another minimization afterwards.
+   *
+   * <p>If the job's budget runs out, the best slice reached so far is written out, a warning is
+   * printed, and the phases that were cut short are returned. If the job verifies its output, the
+   * written files are compiled in memory, and the compiler's diagnostics are printed as JSON lines
+   * on standard error and returned.
+   *
+   * @param project The project model
+   * @param job The minimization to run
+   * @param oracle The oracle that compiles candidate outputs and verifies the output
+   * @return What the minimization reports
+   * @throws IOException if there is an exception
+   */
+  private static MinimizationResult minimize(
+      ProjectModel project, MinimizationJob job, CompileOracle oracle) throws IOException {
+    ModularityModel modularityModel =
+        ModularityModel.createModularityModel(job.modularityModelCode());
+    Map<String, CompilationUnit> fqnToCompilationUnits = project.getFqnToCompilationUnits();
 
     // Keys are paths to files, values are parsed ASTs
     Map<String, CompilationUnit> parsedTargetFiles = new HashMap<>();
-
-    // getCompilationUnits does not seem to include all files, causing some to be deleted
-    for (ParseResult<CompilationUnit> res : sourceRoot.getCache()) {
-      CompilationUnit compilationUnit =
-          res.getResult().orElseThrow(() -> new RuntimeException(res.getProblems().toString()));
-      Path pathOfCurrentJavaFile =
-          compilationUnit.getStorage().get().getPath().toAbsolutePath().normalize();
-
-      for (String targetFile : targetFiles) {
-        if (Path.of(root, targetFile).equals(pathOfCurrentJavaFile)) {
-          parsedTargetFiles.put(targetFile.replace('\\', '/'), compilationUnit);
-        }
-      }
-
-      for (TypeDeclaration<?> declaredClass : compilationUnit.findAll(TypeDeclaration.class)) {
-        if (declaredClass.getFullyQualifiedName().isPresent()) {
-          String declaredClassQualifiedName = declaredClass.getFullyQualifiedName().get();
-          existingClassesToFilePath.put(declaredClassQualifiedName, pathOfCurrentJavaFile);
-          fqnToCompilationUnits.put(declaredClassQualifiedName, compilationUnit);
-        }
+    for (String targetFile : job.targetFiles()) {
+      CompilationUnit compilationUnit = project.getCompilationUnit(targetFile);
+      if (compilationUnit != null) {
+        parsedTargetFiles.put(targetFile.replace('\\', '/'), compilationUnit);
       }
     }
 
-    Resolver.setFqnToCompilationUnitMap(fqnToCompilationUnits);
-
-    createdClass.addAll(getPathsFromJarPaths(root, jarPaths));
-
     Deque<Node> worklist = new ArrayDeque<>();
 
     TargetMemberFinderVisitor finder =
         new TargetMemberFinderVisitor(
-            targetMethodNames, targetFieldNames, worklist, modularityModel);
+            job.targetMethodNames(), job.targetFieldNames(), worklist, modularityModel);
 
     for (CompilationUnit cu : parsedTargetFiles.values()) {
       cu.accept(finder, null);
@@ -298,20 +595,36 @@ public class SpeciminRunner {
 
     UnsolvedSymbolGenerator unsolvedSymbolGenerator =
         new UnsolvedSymbolGenerator(fqnToCompilationUnits);
-    SliceResult sliceResult =
-        Slicer.slice(
-            new StandardTypeRuleDependencyMap(fqnToCompilationUnits),
-            worklist,
-            unsolvedSymbolGenerator,
-            fqnToCompilationUnits,
-            typeSolver);
+    Budget budget = new Budget(job.budgetLimits());
+    SliceResult sliceResult;
+    boolean sliced = false;
+    try {
+      sliceResult =
+          Slicer.slice(
+              new StandardTypeRuleDependencyMap(fqnToCompilationUnits),
+              worklist,
+              unsolvedSymbolGenerator,
+              fqnToCompilationUnits,
+              project.getTypeSolvers(),
+              budget);
+      sliced = true;
+    } finally {
+      // The slicer may have stopped partway through pruning, even with an Error such as a
+      // StackOverflowError, in which case there is no telling which compilation units it already
+      // modified.
+      if (!sliced) {
+        project.markAllDirty();
+      }
+    }
+    // The pruned compilation units are modified again when they are written out.
+    project.markDirty(sliceResult.solvedSlice());
 
     // cache to avoid called Files.createDirectories repeatedly with the same
     // arguments
     Set<Path> createdDirectories = new HashSet<>();
     Set<String> targetFilesAbsolutePaths = new HashSet<>();
 
-    for (String target : targetFiles) {
+    for (String target : job.targetFiles()) {
       File targetFile = new File(target);
       // Convert to absolute path for comparison
       targetFilesAbsolutePaths.add(targetFile.getAbsolutePath());
@@ -319,21 +632,211 @@ public class SpeciminRunner {
 
     UnsolvedSymbolEnumerator alternateOutput =
         new UnsolvedSymbolEnumerator(sliceResult.generatedSymbolSlice());
-    UnsolvedSymbolEnumeratorResult enumeratorResult =
-        alternateOutput.getBestEffort(sliceResult.generatedSymbolDependentSlice());
     Formatter formatter = new Formatter();
+    CandidateSearch search =
+        job.maxCandidates() > 0
+            ? findCompilingEnumeratorResult(
+                alternateOutput,
+                sliceResult,
+                project,
+                targetFilesAbsolutePaths,
+                formatter,
+                job.maxCandidates(),
+                budget,
+                oracle)
+            : new CandidateSearch(
+                alternateOutput.getBestEffort(sliceResult.generatedSymbolDependentSlice()), 0, -1);
+    UnsolvedSymbolEnumeratorResult enumeratorResult = search.result();
+
+    Map<String, String> outputFiles =
+        handleUnsolvedSymbolEnumeratorResult(
+            sliceResult,
+            enumeratorResult,
+            project.getExistingClassesToFilePath(),
+            project.getRoot(),
+            project.getOverlayRoot(),
+            targetFilesAbsolutePaths,
+            job.outputDirectory(),
+            createdDirectories,
+            formatter);
+
+    Set<Budget.Phase> cutShortPhases = budget.getCutShortPhases();
+    if (!cutShortPhases.isEmpty()) {
+      System.err.println(
+          "Warning: the budget of the minimization into "
+              + job.outputDirectory()
+              + " ran out while "
+              + cutShortPhases.stream()
+                  .map(Budget.Phase::toString)
+                  .collect(Collectors.joining(", "))
+              + "; the output is the best slice reached so far.");
+    }
 
-    handleUnsolvedSymbolEnumeratorResult(
-        sliceResult,
-        enumeratorResult,
-        existingClassesToFilePath,
-        root,
-        targetFilesAbsolutePaths,
-        outputDirectory,
-        createdDirectories,
-        formatter);
+    if (!job.verify()) {
+      return new MinimizationResult(
+          cutShortPhases, search.candidates(), search.chosenCandidate(), null);
+    }
+    List<CompileDiagnostic> diagnostics = oracle.compile(outputFiles);
+    for (CompileDiagnostic diagnostic : diagnostics) {
+      System.err.println(diagnostic.toJson());
+    }
+    return new MinimizationResult(
+        cutShortPhases, search.candidates(), search.chosenCandidate(), diagnostics);
+  }
+
+  /**
+   * Reads a batch manifest, skipping blank lines and lines starting with '#'.
+   *
+   * @param manifestPath The path of the manifest
+   * @return The lines of the manifest that describe jobs
+   * @throws IOException if the manifest cannot be read
+   */
+  private static List<String> readBatchManifest(String manifestPath) throws IOException {
+    List<String> jobLines = new ArrayList<>();
+    for (String line : Files.readAllLines(Path.of(manifestPath), StandardCharsets.UTF_8)) {
+      String trimmed = line.trim();
+      if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+        jobLines.add(trimmed);
+      }
+    }
+    return jobLines;
+  }
+
+  /**
+   * Splits a line of a batch manifest into arguments. Arguments are separated by whitespace, and an
+   * argument containing whitespace (such as a path) can be surrounded with double quotes.
+   *
+   * @param line A line of the manifest
+   * @return The arguments on the line
+   */
+  private static String[] tokenizeBatchManifestLine(String line) {
+    List<String> tokens = new ArrayList<>();
+    StringBuilder current = new StringBuilder();
+    boolean inQuotes = false;
+    boolean inToken = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (c == '"') {
+        inQuotes = !inQuotes;
+        inToken = true;
+      } else if (Character.isWhitespace(c) && !inQuotes) {
+        if (inToken) {
+          tokens.add(current.toString());
+          current.setLength(0);
+          inToken = false;
+        }
+      } else {
+        current.append(c);
+        inToken = true;
+      }
+    }
+    if (inQuotes) {
+      throw new RuntimeException("Unterminated quote in batch manifest line: " + line);
+    }
+    if (inToken) {
+      tokens.add(current.toString());
+    }
+    return tokens.toArray(new String[0]);
   }
 
+  /**
+   * Compiles candidate outputs, each built from a different combination of the alternates of the
+   * generated symbols, until one compiles. The candidates come from {@link
+   * UnsolvedSymbolEnumerator#enumerate(Set)}, so the best effort output is the first one. They are
+   * compiled in memory by a {@link CompileOracle}, in batches of one candidate per processor, and
+   * each candidate takes a step from the budget.
+   *
+   * @param enumerator The enumerator of the generated symbols
+   * @param sliceResult The result of the slice
+   * @param project The project model
+   * @param targetFilesAbsolutePaths The target files as absolute paths
+   * @param formatter A formatter for the output
+   * @param maxCandidates The number of candidates to consider
+   * @param budget The budget of the minimization
+   * @param oracle The oracle that compiles the candidates
+   * @return The first candidate that compiles, or the best effort one if none of the candidates
+   *     that were compiled does, with how far the search went
+   */
+  private static CandidateSearch findCompilingEnumeratorResult(
+      UnsolvedSymbolEnumerator enumerator,
+      SliceResult sliceResult,
+      ProjectModel project,
+      Set<String> targetFilesAbsolutePaths,
+      Formatter formatter,
+      int maxCandidates,
+      Budget budget,
+      CompileOracle oracle) {
+    Iterator<UnsolvedSymbolEnumeratorResult> candidates =
+        enumerator.enumerate(sliceResult.generatedSymbolDependentSlice());
+    // Different combinations of alternates can produce the same output
+    Set<Map<String, String>> seen = new HashSet<>();
+    int considered = 0;
+    int compiled = 0;
+    boolean hasMore = true;
+    while (hasMore) {
+      List<UnsolvedSymbolEnumeratorResult> batch = new ArrayList<>();
+      List<Map<String, String>> batchFiles = new ArrayList<>();
+      while (batch.size() < oracle.getParallelism()) {
+        if (considered == maxCandidates
+            || !candidates.hasNext()
+            || !budget.step(Budget.Phase.ENUMERATION)) {
+          hasMore = false;
+          break;
+        }
+        UnsolvedSymbolEnumeratorResult candidate = candidates.next();
+        considered++;
+        // Rendering a candidate must not modify the slice, which later candidates share
+        Map<String, String> files =
+            getOutputFiles(
+                sliceResult,
+                candidate,
+                project.getExistingClassesToFilePath(),
+                project.getRoot(),
+                project.getOverlayRoot(),
+                targetFilesAbsolutePaths,
+                formatter,
+                true);
+        if (seen.add(files)) {
+          batch.add(candidate);
+          batchFiles.add(files);
+        }
+      }
+
+      int firstCompiling = oracle.findFirstCompiling(batchFiles);
+      if (firstCompiling != -1) {
+        // The candidates after the first that compiles were only compiled to use the processors,
+        // so they do not count as searched.
+        int chosen = compiled + firstCompiling;
+        return new CandidateSearch(batch.get(firstCompiling), chosen + 1, chosen);
+      }
+      compiled += batch.size();
+    }
+
+    // If the budget ran out, the enumeration is recorded as cut short and reported with the output,
+    // so there is only something to add here if some candidates were compiled.
+    if (compiled > 0) {
+      System.err.println(
+          "Warning: none of the "
+              + compiled
+              + " distinct candidate outputs that were compiled compiles; the best effort output"
+              + " is written out.");
+    }
+    return new CandidateSearch(
+        enumerator.getBestEffort(sliceResult.generatedSymbolDependentSlice()), compiled, -1);
+  }
+
+  /**
+   * The outcome of the search for a candidate output that compiles.
+   *
+   * @param result The candidate to write out
+   * @param candidates The number of distinct candidates searched; see {@link
+   *     MinimizationResult#candidates()}
+   * @param chosenCandidate The position of the written candidate among them, or -1; see {@link
+   *     MinimizationResult#chosenCandidate()}
+   */
+  private record CandidateSearch(
+      UnsolvedSymbolEnumeratorResult result, int candidates, int chosenCandidate) {}
+
   /**
    * Handles a result from an iteration of {@link UnsolvedSymbolEnumerator}. This outputs the files
    * for both solved and unsolved symbols.
@@ -342,21 +845,86 @@ public class SpeciminRunner {
    * @param enumeratorResult The iteration of the UnsolvedSymbolEnumerator
    * @param existingClassesToFilePath A map of existing classes to their files paths
    * @param root The root directory
+   * @param overlayRoot The directory of the decompiled sources of the jar files
    * @param targetFilesAbsolutePaths The target files as absolute paths
    * @param outputDirectory The output directory
    * @param createdDirectories A cache of created directories
    * @param formatter A formatter for the output
+   * @return A map from the path of each output file, relative to the output directory, to its
+   *     content
    */
-  private static void handleUnsolvedSymbolEnumeratorResult(
+  private static Map<String, String> handleUnsolvedSymbolEnumeratorResult(
       SliceResult sliceResult,
       UnsolvedSymbolEnumeratorResult enumeratorResult,
       Map<String, Path> existingClassesToFilePath,
       String root,
+      Path overlayRoot,
       Set<String> targetFilesAbsolutePaths,
       String outputDirectory,
       Set<Path> createdDirectories,
       Formatter formatter)
       throws IOException {
+    Map<String, String> outputFiles =
+        getOutputFiles(
+            sliceResult,
+            enumeratorResult,
+            existingClassesToFilePath,
+            root,
+            overlayRoot,
+            targetFilesAbsolutePaths,
+            formatter,
+            false);
+
+    for (Entry<String, String> outputFile : outputFiles.entrySet()) {
+      Path targetOutputPath = Path.of(outputDirectory, outputFile.getKey());
+      // Create any parts of the directory structure that don't already exist.
+      Path dirContainingOutputFile = targetOutputPath.getParent();
+      // This null test is very defensive and might not be required? I think getParent can
+      // only return null if its input was a single element path, which targetOutputPath
+      // should not be unless the user made an error.
+      if (dirContainingOutputFile != null
+          && !createdDirectories.contains(dirContainingOutputFile)) {
+        Files.createDirectories(dirContainingOutputFile);
+        createdDirectories.add(dirContainingOutputFile);
+      }
+      // Write the string representation of CompilationUnit to the file
+      try (PrintWriter writer =
+          new PrintWriter(targetOutputPath.toFile(), StandardCharsets.UTF_8)) {
+        writer.print(outputFile.getValue());
+      } catch (IOException e) {
+        System.out.println("failed to write output file " + targetOutputPath);
+        System.out.println("with error: " + e);
+      }
+    }
+    return outputFiles;
+  }
+
+  /**
+   * Gets the content of the output files for a result from an iteration of {@link
+   * UnsolvedSymbolEnumerator}, for both solved and unsolved symbols.
+   *
+   * @param sliceResult The result of the slice
+   * @param enumeratorResult The iteration of the UnsolvedSymbolEnumerator
+   * @param existingClassesToFilePath A map of existing classes to their files paths
+   * @param root The root directory
+   * @param overlayRoot The directory of the decompiled sources of the jar files
+   * @param targetFilesAbsolutePaths The target files as absolute paths
+   * @param formatter A formatter for the output
+   * @param cloneAll True to clone every compilation unit before modifying it, so that the slice is
+   *     left as it was; false to clone only the ones that lose unused dependent nodes
+   * @return A map from the path of each output file, relative to the output directory, to its
+   *     content
+   */
+  private static Map<String, String> getOutputFiles(
+      SliceResult sliceResult,
+      UnsolvedSymbolEnumeratorResult enumeratorResult,
+      Map<String, Path> existingClassesToFilePath,
+      String root,
+      Path overlayRoot,
+      Set<String> targetFilesAbsolutePaths,
+      Formatter formatter,
+      boolean cloneAll) {
+    Map<String, String> outputFiles = new LinkedHashMap<>();
     Set<String> usedPackagesAndClasses = getUsedPackagesAndClasses(sliceResult, enumeratorResult);
 
     for (CompilationUnit original : sliceResult.solvedSlice()) {
@@ -389,13 +957,16 @@ public class SpeciminRunner {
           }
           clone.remove();
         }
+      } else if (cloneAll) {
+        cu = original.clone();
       }
 
       String path =
           qualifiedNameToFilePath(
               cu.getPrimaryType().get().getFullyQualifiedName().get(),
               existingClassesToFilePath,
-              root);
+              root,
+              overlayRoot);
 
       // ignore classes from the Java package, unless we are targeting a JDK file.
       // However, all related java/ files should not be included (as in used, but not targeted)
@@ -404,57 +975,24 @@ public class SpeciminRunner {
           && (path.startsWith("java/") || path.startsWith("java\\"))) {
         continue;
       }
-      Path targetOutputPath = Path.of(outputDirectory, path);
-      // Create any parts of the directory structure that don't already exist.
-      Path dirContainingOutputFile = targetOutputPath.getParent();
-      // This null test is very defensive and might not be required? I think getParent can
-      // only return null if its input was a single element path, which targetOutputPath
-      // should not be unless the user made an error.
-      if (dirContainingOutputFile != null
-          && !createdDirectories.contains(dirContainingOutputFile)) {
-        Files.createDirectories(dirContainingOutputFile);
-        createdDirectories.add(dirContainingOutputFile);
-      }
-      // Write the string representation of CompilationUnit to the file
-      try (PrintWriter writer =
-          new PrintWriter(targetOutputPath.toFile(), StandardCharsets.UTF_8)) {
-        writer.print(
+      try {
+        outputFiles.put(
+            path,
             formatter.formatSourceAndFixImports(
                 getCompilationUnitWithUnusedWildcardImportsRemoved(
                         getCompilationUnitWithCommentsTrimmed(cu), usedPackagesAndClasses)
                     .toString()));
-      } catch (IOException | FormatterException e) {
-        System.out.println("failed to write output file " + targetOutputPath);
+      } catch (FormatterException e) {
+        System.out.println("failed to format output file " + path);
         System.out.println("with error: " + e);
       }
     }
 
     // Generated files do not have imports, so we don't need to call the formatter.
     for (Entry<String, String> alternate : enumeratorResult.classNamesToFileContent().entrySet()) {
-      Path targetOutputPath =
-          Path.of(outputDirectory, alternate.getKey().replace('.', '/') + ".java");
-      // Create any parts of the directory structure that don't already exist.
-      Path dirContainingOutputFile = targetOutputPath.getParent();
-      // This null test is very defensive and might not be required? I think getParent
-      // can
-      // only return null if its input was a single element path, which
-      // targetOutputPath
-      // should not be unless the user made an error.
-      if (dirContainingOutputFile != null
-          && !createdDirectories.contains(dirContainingOutputFile)) {
-        Files.createDirectories(dirContainingOutputFile);
-        createdDirectories.add(dirContainingOutputFile);
-      }
-      // Write the string representation of CompilationUnit to the file
-      try {
-        PrintWriter writer = new PrintWriter(targetOutputPath.toFile(), StandardCharsets.UTF_8);
-        writer.print(alternate.getValue());
-        writer.close();
-      } catch (IOException e) {
-        System.out.println("failed to write output file " + targetOutputPath);
-        System.out.println("with error: " + e);
-      }
+      outputFiles.put(alternate.getKey().replace('.', '/') + ".java", alternate.getValue());
     }
+    return outputFiles;
   }
 
   /**
@@ -502,12 +1040,16 @@ public class SpeciminRunner {
    * target methods/fields can be found.
    *
    * @param root the root directory
+   * @param sourceIndex the index of the types declared under the root
    * @param targetMethodNames the list of target methods
    * @param targetFieldNames the list of target fields
    * @throws IOException if the root is incorrect
    */
   private static void validateRoot(
-      String root, List<String> targetMethodNames, List<String> targetFieldNames)
+      String root,
+      SourceIndex sourceIndex,
+      List<String> targetMethodNames,
+      List<String> targetFieldNames)
       throws IOException {
     Set<String> targetClassFqns = new HashSet<>();
     for (String targetMethod : targetMethodNames) {
@@ -533,6 +1075,20 @@ public class SpeciminRunner {
     }
 
     for (String fqn : targetClassFqns) {
+      // A class found by the index is in the right place if its file's directory matches its
+      // package, whatever the file is called (so non-primary classes are found, too).
+      Path indexedPath = sourceIndex.getPath(fqn);
+      if (indexedPath != null) {
+        String packageName = sourceIndex.getPackage(indexedPath);
+        Path packageDirectory =
+            Path.of(root, packageName == null ? "" : packageName.replace('.', '/'))
+                .toAbsolutePath()
+                .normalize();
+        if (packageDirectory.equals(indexedPath.getParent())) {
+          continue;
+        }
+      }
+
       String classFqn = fqn;
       boolean found = false;
       while (true) {
@@ -623,36 +1179,6 @@ public class SpeciminRunner {
     return cu;
   }
 
-  /**
-   * Decompiles the given jar files into the specified root directory.
-   *
-   * @param root The root directory where the jar files will be decompiled.
-   * @param jarPaths The list of paths to the jar files to be decompiled.
-   * @param createdClass A set to keep track of all created class files during decompilation.
-   */
-  private static void decompileJarFiles(
-      String root, List<String> jarPaths, Set<Path> createdClass) {
-    if (!jarPaths.isEmpty()) {
-      List<String> argsToDecompile = new ArrayList<>();
-      argsToDecompile.add("--silent");
-      argsToDecompile.addAll(jarPaths);
-      argsToDecompile.add(root);
-      ConsoleDecompiler.main(argsToDecompile.toArray(new String[0]));
-      // delete unnecessary legal files
-      try {
-        FileUtils.deleteDirectory(new File(root + "META-INF"));
-      } catch (IOException ex) {
-        // Following decompilation, Windows raises an IOException because the files are still
-        // being used (by what?), so we should defer deletion until the end
-
-        for (File legalFile :
-            FileUtils.listFiles(new File(root + "META-INF"), new String[] {}, true)) {
-          createdClass.add(legalFile.toPath());
-        }
-      }
-    }
-  }
-
   /**
    * Helper method to create a human-readable table of the unfound members and each member in the
    * same class that was considered.
@@ -681,41 +1207,6 @@ public class SpeciminRunner {
     return sb.toString();
   }
 
-  /**
-   * Sets up the type solvers for this run of Specimin, and returns it once initialized.
-   *
-   * @param root the root directory of the files to parse.
-   * @param jarPaths the list of jar files to be used as input.
-   * @return The type solvers
-   * @throws IOException if something went wrong.
-   */
-  private static SpeciminTypeSolvers initializeSolvers(String root, List<String> jarPaths)
-      throws IOException {
-    SpeciminTypeSolvers typeSolver = new SpeciminTypeSolvers(root, jarPaths);
-
-    JavaParserUtil.setTypeSolvers(typeSolver);
-
-    return typeSolver;
-  }
-
-  /**
-   * Update the static solver for JavaParser.
-   *
-   * @param typeSolver the type solver
-   */
-  private static ParserConfiguration updateStaticSolver(SpeciminTypeSolvers typeSolver) {
-    JavaSymbolSolver symbolSolver = new JavaSymbolSolver(typeSolver.getTypeSolver());
-
-    ParserConfiguration config =
-        new ParserConfiguration()
-            .setSymbolResolver(symbolSolver)
-            .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17);
-
-    StaticJavaParser.setConfiguration(config);
-
-    return config;
-  }
-
   /**
    * Checks whether the given compilation unit contains nothing. Should conservatively return false
    * by default if unsure.
@@ -738,41 +1229,21 @@ public class SpeciminRunner {
     return true;
   }
 
-  /**
-   * Retrieves the paths of Java files that should be created from the list of JAR files.
-   *
-   * @param outputDirectory The directory where the Java files will be created.
-   * @param jarPaths The set of paths to JAR files.
-   * @return A set containing the paths of the Java files to be created.
-   * @throws IOException If an I/O error occurs.
-   */
-  private static Set<Path> getPathsFromJarPaths(String outputDirectory, List<String> jarPaths)
-      throws IOException {
-    Set<Path> pathsOfFile = new HashSet<>();
-    for (String path : jarPaths) {
-      JarTypeSolver jarSolver = new JarTypeSolver(path);
-      for (String qualifiedClassName : jarSolver.getKnownClasses()) {
-        String relativePath = qualifiedClassName.replace(".", "/") + ".java";
-        String absolutePath = outputDirectory + relativePath;
-        Path filePath = Paths.get(absolutePath);
-        if (Files.exists(filePath)) {
-          pathsOfFile.add(filePath);
-        }
-      }
-    }
-    return pathsOfFile;
-  }
-
   /**
    * This method delete all files from a set of Paths. If a file is the only file in its parent
    * directory, this method will recursively delete the parent directories until it meets a
-   * non-empty directory.
+   * non-empty directory. A directory in the set (such as a project model's overlay root) is deleted
+   * with everything in it, but its parent directories are left alone.
    *
    * @param fileList the set of Paths of files to be deleted
    */
   private static void deleteFiles(Set<Path> fileList) {
     for (Path filePath : fileList) {
       try {
+        if (Files.isDirectory(filePath)) {
+          FileUtils.deleteDirectory(filePath.toFile());
+          continue;
+        }
         Files.delete(filePath);
         File classFile = new File(filePath.toString().replace(".java", ".class"));
         // since javac might leave some .class files
@@ -848,20 +1319,30 @@ public class SpeciminRunner {
 
   /**
    * Gets the path of the file containing the definition for the class represented by a qualified
-   * name. Throws an exception if this class is not in the original directory.
+   * name. Throws an exception if this class is not in the original directory or in the decompiled
+   * sources of the jar files.
    *
    * @param qualifiedName The qualified name of the type
    * @param existingClassesToFilePath The map of existing classes to file paths
    * @param rootDirectory The root directory
-   * @return The relative path of the file containing the definition of the class
+   * @param overlayRoot The directory of the decompiled sources of the jar files
+   * @return The path of the file containing the definition of the class, relative to the directory
+   *     that contains it
    */
   private static String qualifiedNameToFilePath(
-      String qualifiedName, Map<String, Path> existingClassesToFilePath, String rootDirectory) {
+      String qualifiedName,
+      Map<String, Path> existingClassesToFilePath,
+      String rootDirectory,
+      Path overlayRoot) {
     if (!existingClassesToFilePath.containsKey(qualifiedName)) {
       throw new RuntimeException(
           "qualifiedNameToFilePath only works for classes in the original directory");
     }
     Path absoluteFilePath = existingClassesToFilePath.get(qualifiedName);
+    Path absoluteOverlayRoot = overlayRoot.toAbsolutePath().normalize();
+    if (absoluteFilePath.startsWith(absoluteOverlayRoot)) {
+      return absoluteOverlayRoot.relativize(absoluteFilePath).toString().replace('\\', '/');
+    }
     // theoretically rootDirectory should already be absolute as stated in README.
     Path absoluteRootDirectory = Paths.get(rootDirectory).toAbsolutePath();
     return absoluteRootDirectory.relativize(absoluteFilePath).toString().replace('\\', '/');
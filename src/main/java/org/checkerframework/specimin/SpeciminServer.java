@@ -0,0 +1,327 @@
+package org.checkerframework.specimin;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A long-running Specimin process that keeps one {@link ProjectModel} warm between minimizations,
+ * so that JVM startup, JIT warm-up, parsing the root, and decompiling the jars are paid once rather
+ * than once per minimization. Between two jobs, only the state that the previous job's slice
+ * dirtied is restored; see {@link ProjectModel#restore()}.
+ *
+ * <p>The protocol is JSON lines: each request is a single-line JSON object, and the server answers
+ * each request with a single-line JSON object, in order. A minimization request looks like this
+ * (only "outputDirectory" is required):
+ *
+ * <pre>{@code
+ * {"id": 1, "targetFiles": ["com/example/Foo.java"], "targetMethods": ["com.example.Foo#bar()"],
+ *  "targetFields": [], "outputDirectory": "/tmp/out", "modularityModel": "cf"}
+ * }</pre>
+ *
+ * <p>A request may also limit the work of its minimization with "timeBudgetSeconds" and
+ * "stepBudget", which default to the server's own limits; see {@link BudgetLimits}. Its
+ * "maxCandidates" member, which defaults to the server's own, is the number of candidate outputs
+ * to compile in search of one that compiles; see {@link CompileOracle}. If its "verify" member
+ * (which also defaults to the server's own) is true, the output is compiled once it is written
+ * out.
+ *
+ * <p>The response echoes the request's "id" (if any), and has a "status" of either "ok" or "error";
+ * an error response also has an "error" member with the exception's message and a "stackTrace"
+ * member. An "ok" response has a "cutShort" member, the names of the {@link Budget.Phase}s that
+ * were cut short because the budget ran out (an empty array if it did not). If the output was
+ * verified, an "ok" response also has a "compiles" member, and a "diagnostics" member with what the
+ * compiler reported, each in the form of {@link CompileDiagnostic#toJson()}. The request {@code
+ * {"command": "shutdown"}} stops the server; a request with any other "command" is answered with an
+ * error. A request that fails, even with a {@link StackOverflowError}, is answered with an error
+ * and does not stop the server.
+ *
+ * <p>A server must be closed once it no longer serves requests, so that its {@link CompileOracle}
+ * releases its threads and file managers.
+ */
+public class SpeciminServer implements AutoCloseable {
+  /** The command that stops the server. */
+  private static final JsonPrimitive SHUTDOWN = new JsonPrimitive("shutdown");
+
+  /** The project model shared by every job. */
+  private final ProjectModel project;
+
+  /** Whether to disable root validation. */
+  private final boolean disableRootValidation;
+
+  /** The settings of a job whose request does not give its own. */
+  private final JobDefaults defaults;
+
+  /** The oracle that compiles the output of every job, so that the compiler stays warm. */
+  private final CompileOracle oracle = new CompileOracle();
+
+  /**
+   * The settings of a job that its request may override.
+   *
+   * @param budgetLimits The budget limits of a job whose request does not give its own
+   * @param maxCandidates The number of candidate outputs to compile for a job whose request does
+   *     not give its own, or zero to write out the best effort output without compiling anything
+   * @param verify Whether to verify the output of a job whose request does not say
+   */
+  public record JobDefaults(BudgetLimits budgetLimits, int maxCandidates, boolean verify) {
+    /**
+     * Gets the default job settings: an unlimited budget, no candidate outputs compiled, and no
+     * verification.
+     *
+     * @return The default job settings
+     */
+    public static JobDefaults defaults() {
+      return new JobDefaults(BudgetLimits.unlimited(), 0, false);
+    }
+  }
+
+  /**
+   * Creates a new server for the given project model.
+   *
+   * @param project The project model shared by every job
+   * @param disableRootValidation whether to disable root validation
+   * @param defaults The settings of a job whose request does not give its own
+   */
+  public SpeciminServer(ProjectModel project, boolean disableRootValidation, JobDefaults defaults) {
+    this.project = project;
+    this.disableRootValidation = disableRootValidation;
+    this.defaults = defaults;
+  }
+
+  /**
+   * Serves requests from standard input until it is closed or a shutdown request is received. The
+   * responses are written to standard output; while the server runs, anything else that Specimin
+   * would print to standard output is redirected to standard error, so that it cannot corrupt the
+   * responses.
+   *
+   * @throws IOException if standard input cannot be read
+   */
+  public void serveStandardStreams() throws IOException {
+    PrintStream originalOut = System.out;
+    System.setOut(System.err);
+    try {
+      BufferedReader in =
+          new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+      PrintWriter out =
+          new PrintWriter(new OutputStreamWriter(originalOut, StandardCharsets.UTF_8), true);
+      serve(in, out);
+    } finally {
+      System.setOut(originalOut);
+    }
+  }
+
+  /**
+   * Serves requests from connections to the given port on the loopback interface, until a shutdown
+   * request is received. Connections are served one at a time, since the project model can only be
+   * used by one job at a time; each connection may send any number of requests.
+   *
+   * @param port The port to listen on
+   * @throws IOException if the port cannot be bound
+   */
+  public void serveLocalPort(int port) throws IOException {
+    try (ServerSocket serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+      while (true) {
+        try (Socket client = serverSocket.accept();
+            BufferedReader in =
+                new BufferedReader(
+                    new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+            PrintWriter out =
+                new PrintWriter(
+                    new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8),
+                    true)) {
+          if (serve(in, out)) {
+            return;
+          }
+        } catch (IOException e) {
+          // A client that disconnects abruptly must not take the server down with it.
+          System.err.println("Connection to Specimin server client failed: " + e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Serves requests from a reader until it is exhausted or a shutdown request is received.
+   *
+   * @param in The reader to read requests from, one per line
+   * @param out The writer to write responses to, one per line
+   * @return true if a shutdown request was received
+   * @throws IOException if the reader cannot be read
+   */
+  public boolean serve(BufferedReader in, PrintWriter out) throws IOException {
+    String line;
+    while ((line = in.readLine()) != null) {
+      if (line.isBlank()) {
+        continue;
+      }
+
+      JsonObject request;
+      try {
+        request = JsonParser.parseString(line).getAsJsonObject();
+      } catch (JsonParseException | IllegalStateException e) {
+        out.println(errorResponse(null, e));
+        continue;
+      }
+
+      JsonElement id = request.get("id");
+      JsonElement command = request.get("command");
+      if (SHUTDOWN.equals(command)) {
+        JsonObject response = new JsonObject();
+        addId(response, id);
+        response.addProperty("status", "ok");
+        out.println(response);
+        return true;
+      } else if (command != null) {
+        out.println(errorResponse(id, new IllegalArgumentException("Unknown command: " + command)));
+        continue;
+      }
+
+      out.println(handle(request, id));
+    }
+    return false;
+  }
+
+  /**
+   * Runs the minimization described by a request.
+   *
+   * @param request The request
+   * @param id The request's id, or null if it has none
+   * @return The response
+   */
+  private JsonObject handle(JsonObject request, @Nullable JsonElement id) {
+    try {
+      JsonElement outputDirectory = request.get("outputDirectory");
+      if (outputDirectory == null) {
+        throw new IllegalArgumentException("Every request needs an \"outputDirectory\".");
+      }
+      JsonElement modularityModel = request.get("modularityModel");
+      JsonElement timeBudget = request.get("timeBudgetSeconds");
+      JsonElement stepBudget = request.get("stepBudget");
+      JsonElement requestMaxCandidates = request.get("maxCandidates");
+      JsonElement requestVerify = request.get("verify");
+      BudgetLimits budgetLimits = defaults.budgetLimits();
+
+      MinimizationJob job =
+          new MinimizationJob(
+              getStrings(request, "targetFiles"),
+              getStrings(request, "targetMethods"),
+              getStrings(request, "targetFields"),
+              outputDirectory.getAsString(),
+              modularityModel == null ? "cf" : modularityModel.getAsString(),
+              new BudgetLimits(
+                  timeBudget == null
+                      ? budgetLimits.time()
+                      : Duration.ofSeconds(timeBudget.getAsLong()),
+                  stepBudget == null ? budgetLimits.steps() : stepBudget.getAsLong()),
+              requestMaxCandidates == null
+                  ? defaults.maxCandidates()
+                  : requestMaxCandidates.getAsInt(),
+              requestVerify == null ? defaults.verify() : requestVerify.getAsBoolean());
+
+      MinimizationResult result =
+          SpeciminRunner.runJob(project, job, disableRootValidation, oracle);
+
+      JsonObject response = new JsonObject();
+      addId(response, id);
+      response.addProperty("status", "ok");
+      response.addProperty("outputDirectory", job.outputDirectory());
+      JsonArray cutShort = new JsonArray();
+      for (Budget.Phase phase : result.cutShortPhases()) {
+        cutShort.add(phase.name());
+      }
+      response.add("cutShort", cutShort);
+      if (job.maxCandidates() > 0) {
+        response.addProperty("candidates", result.candidates());
+        response.addProperty("chosenCandidate", result.chosenCandidate());
+      }
+      List<CompileDiagnostic> diagnostics = result.diagnostics();
+      if (diagnostics != null) {
+        response.addProperty("compiles", !result.failedVerification());
+        JsonArray diagnosticsArray = new JsonArray();
+        for (CompileDiagnostic diagnostic : diagnostics) {
+          diagnosticsArray.add(diagnostic.toJson());
+        }
+        response.add("diagnostics", diagnosticsArray);
+      }
+      return response;
+    } catch (IOException | RuntimeException | StackOverflowError e) {
+      // JavaParser can overflow the stack on deeply nested input. That only fails this request:
+      // the compilation units it may have modified are marked dirty, whatever it threw, and runJob
+      // restores them on the way out.
+      return errorResponse(id, e);
+    }
+  }
+
+  /** Closes the oracle that compiles the output of every job. */
+  @Override
+  public void close() {
+    oracle.close();
+  }
+
+  /**
+   * Gets a member of a request that is an array of strings.
+   *
+   * @param request The request
+   * @param name The name of the member
+   * @return The strings in the array, or an empty list if the member is absent
+   */
+  private static List<String> getStrings(JsonObject request, String name) {
+    List<String> result = new ArrayList<>();
+    JsonArray array = request.getAsJsonArray(name);
+    if (array != null) {
+      for (JsonElement element : array) {
+        result.add(element.getAsString());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Creates a response for a request that failed.
+   *
+   * @param id The request's id, or null if it has none
+   * @param e The exception or error that made the request fail
+   * @return The response
+   */
+  private static JsonObject errorResponse(@Nullable JsonElement id, Throwable e) {
+    StringWriter stackTrace = new StringWriter();
+    e.printStackTrace(new PrintWriter(stackTrace));
+
+    JsonObject response = new JsonObject();
+    addId(response, id);
+    response.addProperty("status", "error");
+    response.addProperty("error", String.valueOf(e.getMessage()));
+    response.addProperty("stackTrace", stackTrace.toString());
+    return response;
+  }
+
+  /**
+   * Echoes a request's id in its response.
+   *
+   * @param response The response
+   * @param id The request's id, or null if it has none
+   */
+  private static void addId(JsonObject response, @Nullable JsonElement id) {
+    if (id != null) {
+      response.add("id", id);
+    }
+  }
+}
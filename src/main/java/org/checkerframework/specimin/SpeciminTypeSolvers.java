@@ -6,12 +6,15 @@ import com.github.javaparser.resolution.cache.Cache;
 import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
 import com.github.javaparser.resolution.model.SymbolReference;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.JarTypeSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Creates and manages the type solvers required for Specimin, in addition to some reflection-based
@@ -24,9 +27,21 @@ public class SpeciminTypeSolvers {
   /** The solver that reads in files from the root. */
   private final JavaParserTypeSolver javaParserTypeSolver;
 
+  /**
+   * The solver that reads in the decompiled sources of the jar files from the overlay root, or null
+   * if there is no overlay root.
+   */
+  private final @Nullable JavaParserTypeSolver overlayTypeSolver;
+
   /** Type solver for types created during Specimin's run. */
   private final MemoryTypeSolver memoryTypeSolver;
 
+  /**
+   * The qualified names of types whose cache entries were overridden by {@link
+   * #overrideCache(TypeDeclaration)}, so that {@link #resetOverriddenCaches()} can drop them again.
+   */
+  private final Set<String> overriddenTypes = new HashSet<>();
+
   /**
    * Creates the necessary type solvers for Specimin.
    *
@@ -35,14 +50,42 @@ public class SpeciminTypeSolvers {
    * @throws IOException if something goes wrong
    */
   public SpeciminTypeSolvers(String root, List<String> jarPaths) throws IOException {
+    this(root, null, JarIndex.build(jarPaths), null);
+  }
+
+  /**
+   * Creates the necessary type solvers for Specimin. The decompiled sources of the jar files are
+   * read from an overlay root, a directory separate from the input's root, which is searched after
+   * the root, so that a type that the input declares is never shadowed by a decompiled type. If a
+   * decompiling type solver is given, it is consulted right before the overlay root is searched, so
+   * that it can decompile a class into the overlay root just in time.
+   *
+   * @param root The root directory of the input.
+   * @param overlayRoot The directory of the decompiled sources of the jar files, or null if there
+   *     are none.
+   * @param jarIndex The index of the classes in the jar files.
+   * @param decompilingTypeSolver The solver that decompiles classes of the jar files on demand, or
+   *     null if the jar files were decompiled up front.
+   * @throws IOException if something goes wrong
+   */
+  public SpeciminTypeSolvers(
+      String root,
+      @Nullable Path overlayRoot,
+      JarIndex jarIndex,
+      @Nullable DecompilingTypeSolver decompilingTypeSolver)
+      throws IOException {
     this.memoryTypeSolver = new MemoryTypeSolver();
     this.javaParserTypeSolver = new JavaParserTypeSolver(new File(root));
-    this.typeSolver =
-        new CombinedTypeSolver(new JdkTypeSolver(), javaParserTypeSolver, memoryTypeSolver);
-
-    for (String path : jarPaths) {
-      this.typeSolver.add(new JarTypeSolver(path));
+    this.overlayTypeSolver = overlayRoot == null ? null : new JavaParserTypeSolver(overlayRoot);
+    this.typeSolver = new CombinedTypeSolver(new JdkTypeSolver(), javaParserTypeSolver);
+    if (decompilingTypeSolver != null) {
+      this.typeSolver.add(decompilingTypeSolver);
+    }
+    if (overlayTypeSolver != null) {
+      this.typeSolver.add(overlayTypeSolver);
     }
+    this.typeSolver.add(memoryTypeSolver);
+    this.typeSolver.add(new IndexedJarTypeSolver(jarIndex));
   }
 
   /**
@@ -81,9 +124,39 @@ public class SpeciminTypeSolvers {
     if (resolved instanceof ResolvedReferenceTypeDeclaration resolvedDecl) {
       overrideInCombinedTypeSolverCache(resolvedDecl);
       overrideInJavaParserTypeSolverCache(resolvedDecl);
+      overriddenTypes.add(resolvedDecl.getQualifiedName());
     }
   }
 
+  /**
+   * Drops every cache entry written by {@link #overrideCache(TypeDeclaration)}, so that those types
+   * are looked up from the original source files again. Call this method before reusing these type
+   * solvers for another slice of the same project, since the overridden entries contain the pruned
+   * declarations of the previous slice.
+   */
+  public void resetOverriddenCaches() {
+    try {
+      Cache<String, SymbolReference<ResolvedReferenceTypeDeclaration>> combinedCache =
+          getJavaParserCache(CombinedTypeSolver.class.getDeclaredField("typeCache"), typeSolver);
+      Field foundTypes = JavaParserTypeSolver.class.getDeclaredField("foundTypes");
+      Cache<String, SymbolReference<ResolvedReferenceTypeDeclaration>> javaParserCache =
+          getJavaParserCache(foundTypes, javaParserTypeSolver);
+      @Nullable Cache<String, SymbolReference<ResolvedReferenceTypeDeclaration>> overlayCache =
+          overlayTypeSolver == null ? null : getJavaParserCache(foundTypes, overlayTypeSolver);
+
+      for (String qualifiedName : overriddenTypes) {
+        combinedCache.remove(qualifiedName);
+        javaParserCache.remove(qualifiedName);
+        if (overlayCache != null) {
+          overlayCache.remove(qualifiedName);
+        }
+      }
+    } catch (NoSuchFieldException e) {
+      throw new RuntimeException(e);
+    }
+    overriddenTypes.clear();
+  }
+
   /**
    * Overrides the cache in {@link SpeciminTypeSolvers#typeSolver} for the given type.
    *
@@ -102,17 +175,21 @@ public class SpeciminTypeSolvers {
   }
 
   /**
-   * Overrides the cache in {@link SpeciminTypeSolvers#javaParserTypeSolver} for the given type.
+   * Overrides the cache in {@link SpeciminTypeSolvers#javaParserTypeSolver} (and in {@link
+   * SpeciminTypeSolvers#overlayTypeSolver}, if any) for the given type.
    *
    * @param resolvedReferenceTypeDeclaration The declaration to override in the cache
    */
   private void overrideInJavaParserTypeSolverCache(
       ResolvedReferenceTypeDeclaration resolvedReferenceTypeDeclaration) {
     try {
+      Field foundTypes = JavaParserTypeSolver.class.getDeclaredField("foundTypes");
       overrideInJavaParserCacheImpl(
-          JavaParserTypeSolver.class.getDeclaredField("foundTypes"),
-          javaParserTypeSolver,
-          resolvedReferenceTypeDeclaration);
+          foundTypes, javaParserTypeSolver, resolvedReferenceTypeDeclaration);
+      if (overlayTypeSolver != null) {
+        overrideInJavaParserCacheImpl(
+            foundTypes, overlayTypeSolver, resolvedReferenceTypeDeclaration);
+      }
     } catch (NoSuchFieldException e) {
       throw new RuntimeException(e);
     }
@@ -129,6 +206,21 @@ public class SpeciminTypeSolvers {
       Field field,
       Object solver,
       ResolvedReferenceTypeDeclaration resolvedReferenceTypeDeclaration) {
+    getJavaParserCache(field, solver)
+        .put(
+            resolvedReferenceTypeDeclaration.getQualifiedName(),
+            SymbolReference.solved(resolvedReferenceTypeDeclaration));
+  }
+
+  /**
+   * Gets a type solver's resolution cache from the given field, through reflection.
+   *
+   * @param field The field containing the cache
+   * @param solver The solver containing the field
+   * @return The cache
+   */
+  private static Cache<String, SymbolReference<ResolvedReferenceTypeDeclaration>>
+      getJavaParserCache(Field field, Object solver) {
     try {
       field.setAccessible(true);
 
@@ -141,9 +233,7 @@ public class SpeciminTypeSolvers {
         throw new RuntimeException("Could not access JavaParser's symbol resolution cache.");
       }
 
-      value.put(
-          resolvedReferenceTypeDeclaration.getQualifiedName(),
-          SymbolReference.solved(resolvedReferenceTypeDeclaration));
+      return value;
     } catch (IllegalAccessException e) {
       throw new RuntimeException(e);
     }
@@ -14,6 +14,7 @@ import com.github.javaparser.ast.body.TypeDeclaration;
 import com.github.javaparser.ast.body.VariableDeclarator;
 import com.github.javaparser.ast.expr.AnnotationExpr;
 import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.Name;
 import com.github.javaparser.ast.expr.ObjectCreationExpr;
 import com.github.javaparser.ast.nodeTypes.NodeWithAnnotations;
 import com.github.javaparser.ast.nodeTypes.NodeWithExtends;
@@ -47,6 +48,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
 
 /** The standard type rule dependency map */
 public class StandardTypeRuleDependencyMap implements TypeRuleDependencyMap {
@@ -98,32 +100,37 @@ public class StandardTypeRuleDependencyMap implements TypeRuleDependencyMap {
   @Override
   public List<Node> getRelevantElements(Node node) {
     List<Node> elements = new ArrayList<>();
+    forEachRelevantElement(node, elements::add);
+    return elements;
+  }
 
+  @Override
+  public void forEachRelevantElement(Node node, Consumer<? super Node> action) {
     if (node instanceof NodeWithAnnotations<?> withAnnotations) {
       for (AnnotationExpr annotation : withAnnotations.getAnnotations()) {
-        if (annotation.toString().equals("@Override")) {
+        if (isAnnotationNamed(annotation, "Override")) {
           // Never preserve @Override, since it causes compile errors but does not fix them.
           continue;
-        } else if (annotation.toString().equals("@FunctionalInterface")) {
+        } else if (isAnnotationNamed(annotation, "FunctionalInterface")) {
           // Don't preserve @FunctionalInterface until we know the method is also preserved.
           continue;
         }
-        elements.add(annotation);
+        action.accept(annotation);
       }
     }
     if (node instanceof NodeWithModifiers<?> withModifiers) {
-      elements.addAll(withModifiers.getModifiers());
+      withModifiers.getModifiers().forEach(action);
     }
     if (node instanceof NodeWithTypeArguments<?> withTypeArguments
         && withTypeArguments.getTypeArguments().isPresent()) {
-      elements.addAll(withTypeArguments.getTypeArguments().get());
+      withTypeArguments.getTypeArguments().get().forEach(action);
     }
     if (node instanceof NodeWithTypeParameters<?> withTypeParameters) {
-      elements.addAll(withTypeParameters.getTypeParameters());
+      withTypeParameters.getTypeParameters().forEach(action);
     }
     // i.e., method declarations, parameters, annotation type declarations, instanceof, etc.
     if (node instanceof NodeWithType<?, ?> withType) {
-      elements.add(withType.getType());
+      action.accept(withType.getType());
 
       if (withType instanceof MethodDeclaration methodDecl && methodDecl.isAbstract()) {
         // Method declarations can always be resolved
@@ -131,13 +138,14 @@ public class StandardTypeRuleDependencyMap implements TypeRuleDependencyMap {
         nonJDKMustImplementMethods.add(resolvedMethod);
         if (methodsWithAbstractSuperDefinitions.containsKey(
             resolvedMethod.getQualifiedSignature())) {
-          elements.addAll(
-              methodsWithAbstractSuperDefinitions.get(resolvedMethod.getQualifiedSignature()));
+          methodsWithAbstractSuperDefinitions
+              .get(resolvedMethod.getQualifiedSignature())
+              .forEach(action);
         }
       }
     }
     if (node instanceof NodeWithSimpleName<?> nodeWithSimpleName) {
-      elements.add(nodeWithSimpleName.getName());
+      action.accept(nodeWithSimpleName.getName());
     }
 
     // Type declarations
@@ -147,7 +155,7 @@ public class StandardTypeRuleDependencyMap implements TypeRuleDependencyMap {
       List<MethodDeclaration> mustImplement =
           JavaParserUtil.getDeclarationsForAllMustImplementMethods(
               typeDeclaration, nonJDKMustImplementMethods, fqnToCompilationUnits);
-      elements.addAll(mustImplement);
+      mustImplement.forEach(action);
 
       for (MethodDeclaration method : typeDeclaration.getMethods()) {
         if (mustImplement.contains(method)) {
@@ -179,19 +187,19 @@ public class StandardTypeRuleDependencyMap implements TypeRuleDependencyMap {
       }
     }
     if (node instanceof NodeWithImplements<?> withImplements) {
-      elements.addAll(withImplements.getImplementedTypes());
+      withImplements.getImplementedTypes().forEach(action);
     }
     if (node instanceof NodeWithExtends<?> withExtends) {
-      elements.addAll(withExtends.getExtendedTypes());
+      withExtends.getExtendedTypes().forEach(action);
     }
     if (node instanceof ClassOrInterfaceDeclaration decl) {
-      elements.addAll(decl.getPermittedTypes());
+      decl.getPermittedTypes().forEach(action);
     }
 
     // If the node is a type declaration, exit now, so we don't unintentionally
     // add extra nodes to our worklist.
     if (node instanceof TypeDeclaration) {
-      return elements;
+      return;
     }
 
     // =========================================================
@@ -200,12 +208,12 @@ public class StandardTypeRuleDependencyMap implements TypeRuleDependencyMap {
 
     // i.e., constructor/method declarations, lambdas
     if (node instanceof NodeWithParameters<?> withParameters) {
-      elements.addAll(withParameters.getParameters());
+      withParameters.getParameters().forEach(action);
     }
 
     // i.e., constructor/method declarations
     if (node instanceof NodeWithThrownExceptions<?> withThrownExceptions) {
-      elements.addAll(withThrownExceptions.getThrownExceptions());
+      withThrownExceptions.getThrownExceptions().forEach(action);
     }
 
     // If this is a method declaration in a functional interface, preserve the
@@ -215,7 +223,7 @@ public class StandardTypeRuleDependencyMap implements TypeRuleDependencyMap {
             instanceof ClassOrInterfaceDeclaration typeDecl
         && typeDecl.isInterface()
         && typeDecl.getAnnotationByName("FunctionalInterface").isPresent()) {
-      elements.add(typeDecl.getAnnotationByName("FunctionalInterface").get());
+      action.accept(typeDecl.getAnnotationByName("FunctionalInterface").get());
     }
 
     if (node instanceof ConstructorDeclaration constructor) {
@@ -246,7 +254,7 @@ public class StandardTypeRuleDependencyMap implements TypeRuleDependencyMap {
             }
 
             if (!hasDefaultConstructor) {
-              elements.add(constructor.getBody());
+              action.accept(constructor.getBody());
 
               // No default constructor = first statement must be super()/this()
               Statement firstStatement =
@@ -255,7 +263,7 @@ public class StandardTypeRuleDependencyMap implements TypeRuleDependencyMap {
                       .findFirst()
                       .get();
 
-              elements.add(firstStatement);
+              action.accept(firstStatement);
             }
           }
         } else {
@@ -270,8 +278,8 @@ public class StandardTypeRuleDependencyMap implements TypeRuleDependencyMap {
                   .orElse(null);
 
           if (firstStatement != null) {
-            elements.add(constructor.getBody());
-            elements.add(firstStatement);
+            action.accept(constructor.getBody());
+            action.accept(firstStatement);
           }
         }
       }
@@ -280,7 +288,7 @@ public class StandardTypeRuleDependencyMap implements TypeRuleDependencyMap {
     // If the node is a member declaration, exit now, so we don't unintentionally
     // add extra nodes to our worklist.
     if (node instanceof CallableDeclaration) {
-      return elements;
+      return;
     }
 
     // =========================================================
@@ -295,10 +303,10 @@ public class StandardTypeRuleDependencyMap implements TypeRuleDependencyMap {
     if (node instanceof FieldDeclaration fieldDecl) {
       for (Node child : fieldDecl.getChildNodes()) {
         if (!(child instanceof VariableDeclarator)) {
-          elements.add(child);
+          action.accept(child);
         }
       }
-      return elements;
+      return;
     }
 
     // If a constructor's block statement is included, we shouldn't add all its child statements
@@ -307,7 +315,7 @@ public class StandardTypeRuleDependencyMap implements TypeRuleDependencyMap {
     // statements already.
     if (node instanceof BlockStmt
         && node.getParentNode().orElse(null) instanceof ConstructorDeclaration) {
-      return elements;
+      return;
     }
 
     if (node instanceof VariableDeclarator varDecl
@@ -321,13 +329,13 @@ public class StandardTypeRuleDependencyMap implements TypeRuleDependencyMap {
           continue;
         }
 
-        elements.add(child);
+        action.accept(child);
       }
 
-      return elements;
+      return;
     }
 
-    elements.addAll(node.getChildNodes());
+    node.getChildNodes().forEach(action);
 
     if (node instanceof ObjectCreationExpr objectCreationExpr
         && objectCreationExpr.getAnonymousClassBody().isPresent()) {
@@ -335,27 +343,43 @@ public class StandardTypeRuleDependencyMap implements TypeRuleDependencyMap {
           objectCreationExpr.getAnonymousClassBody().get();
       // Must preserve everything in the anonymous class body
       for (BodyDeclaration<?> bodyDeclaration : anonymousClassBody) {
-        elements.add(bodyDeclaration);
+        action.accept(bodyDeclaration);
 
         // Need to call getChildNodes() since adding a method/field/constructor declaration
         // will not add its content. Still, we must be careful about adding @Override.
         for (Node child : bodyDeclaration.getChildNodes()) {
           if (child instanceof AnnotationExpr annotation
-              && annotation.toString().equals("@Override")) {
+              && isAnnotationNamed(annotation, "Override")) {
             continue;
           }
 
-          elements.add(child);
+          action.accept(child);
 
           // By default, variable declarator initializers are not preserved
           if (child instanceof VariableDeclarator varDecl && varDecl.getInitializer().isPresent()) {
-            elements.add(varDecl.getInitializer().get());
+            action.accept(varDecl.getInitializer().get());
           }
         }
       }
     }
+  }
 
-    return elements;
+  /**
+   * Checks whether an annotation is the given annotation from {@code java.lang}, by its name as
+   * written. Unlike comparing {@link AnnotationExpr#toString()}, this does not pretty-print the
+   * annotation.
+   *
+   * @param annotation The annotation
+   * @param simpleName The simple name of an annotation in {@code java.lang}
+   * @return True iff the annotation is written with that simple name or its fully-qualified name
+   */
+  private static boolean isAnnotationNamed(AnnotationExpr annotation, String simpleName) {
+    Name name = annotation.getName();
+    if (!name.getIdentifier().equals(simpleName)) {
+      return false;
+    }
+    return name.getQualifier().isEmpty()
+        || name.getQualifier().get().asString().equals("java.lang");
   }
 
   @Override
@@ -460,14 +484,16 @@ public class StandardTypeRuleDependencyMap implements TypeRuleDependencyMap {
           // The current type is already a parent class, so we need to add those too
           elements.addAll(
               getOverriddenMethodsInDeclaration(
-                  type, resolvedMethodDeclaration, typeParametersMapForAnonClass));
+                  TypeHierarchy.computeMethodSignatures(type, typeParametersMapForAnonClass),
+                  resolvedMethodDeclaration));
         }
 
         elements.addAll(getAllOverriddenMethods(resolvedMethodDeclaration, type));
 
         if (nonJDKMustImplementMethods.size() > before) {
-          elements.addAll(
-              seenTypeDeclarations.stream().flatMap(d -> getRelevantElements(d).stream()).toList());
+          for (TypeDeclaration<?> seen : seenTypeDeclarations) {
+            forEachRelevantElement(seen, elements::add);
+          }
         }
       }
 
@@ -579,64 +605,49 @@ public class StandardTypeRuleDependencyMap implements TypeRuleDependencyMap {
    */
   private void getAllOverriddenMethodsImpl(
       ResolvedMethodDeclaration original, TypeDeclaration<?> type, List<MethodDeclaration> result) {
-    List<ClassOrInterfaceType> parents = JavaParserUtil.getDirectSuperTypes(type);
-
-    for (ClassOrInterfaceType parent : parents) {
-      ResolvedType parentType = Resolver.resolve(parent);
+    TypeHierarchy typeHierarchy = JavaParserUtil.getTypeHierarchy();
 
-      if (parentType == null) {
-        continue;
-      }
+    for (TypeHierarchy.Supertype parent :
+        typeHierarchy.getDirectSupertypes(type, fqnToCompilationUnits)) {
+      ResolvedType parentType = parent.type();
+      TypeDeclaration<?> typeDecl = parent.declaration();
 
       if (!parentType.isReferenceType()
-          || parentType.asReferenceType().getTypeDeclaration().isEmpty()) {
-        continue;
-      }
-
-      ResolvedReferenceTypeDeclaration decl =
-          parentType.asReferenceType().getTypeDeclaration().get();
-
-      TypeDeclaration<?> typeDecl =
-          JavaParserUtil.getTypeFromQualifiedName(decl.getQualifiedName(), fqnToCompilationUnits);
-      if (typeDecl == null) {
+          || parentType.asReferenceType().getTypeDeclaration().isEmpty()
+          || typeDecl == null) {
         continue;
       }
 
       result.addAll(
-          getOverriddenMethodsInDeclaration(
-              typeDecl, original, parentType.asReferenceType().getTypeParametersMap()));
+          getOverriddenMethodsInDeclaration(typeHierarchy.getMethodSignatures(parent), original));
 
       getAllOverriddenMethodsImpl(original, typeDecl, result);
     }
   }
 
   /**
-   * Helper method to find methods of matching signature to {@code original} from {@code typeDecl}.
+   * Helper method to find methods of matching signature to {@code original} in a type declaration.
    *
-   * @param typeDecl The type declaration to search for overridden methods in
+   * @param methods The method signature table of the type declaration to search for overridden
+   *     methods in, with the type arguments of the subtype substituted
    * @param original The original method declaration to find overridden methods for
-   * @param typeParametersMap The type parameters map
    * @return the list of overridden methods
    */
   private List<MethodDeclaration> getOverriddenMethodsInDeclaration(
-      TypeDeclaration<?> typeDecl,
-      ResolvedMethodDeclaration original,
-      List<Pair<ResolvedTypeParameterDeclaration, ResolvedType>> typeParametersMap) {
+      List<TypeHierarchy.MethodSignature> methods, ResolvedMethodDeclaration original) {
     List<MethodDeclaration> result = new ArrayList<>();
 
-    for (MethodDeclaration method : typeDecl.getMethods()) {
-      ResolvedMethodDeclaration resolved = Resolver.resolveGuaranteeNonNull(method);
+    String signature = null;
+    try {
+      signature = original.getSignature();
+    } catch (UnsolvedSymbolException ex) {
+      // getSignature() could throw
+    }
 
-      String signature = null;
-      String signatureOfDeclarationWithTypeParamsAdjusted = null;
-      try {
-        signature = original.getSignature();
-        signatureOfDeclarationWithTypeParamsAdjusted =
-            JavaParserUtil.getSignatureFromResolvedMethodWithTypeVariablesMap(
-                resolved, typeParametersMap);
-      } catch (UnsolvedSymbolException ex) {
-        // getSignature() and getSignature...Map() both could throw
-      }
+    for (TypeHierarchy.MethodSignature methodSignature : methods) {
+      MethodDeclaration method = methodSignature.method();
+      ResolvedMethodDeclaration resolved = methodSignature.resolved();
+      String signatureOfDeclarationWithTypeParamsAdjusted = methodSignature.signature();
 
       if (signature != null && signatureOfDeclarationWithTypeParamsAdjusted != null) {
         if (signature.equals(signatureOfDeclarationWithTypeParamsAdjusted)) {
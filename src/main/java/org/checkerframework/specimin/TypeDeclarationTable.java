@@ -0,0 +1,106 @@
+package org.checkerframework.specimin;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A table of every type declaration (top-level and member) in a set of compilation units, keyed by
+ * FQN. {@link JavaParserUtil#getTypeFromQualifiedName} used to find a type by walking its
+ * compilation unit and computing the FQN of every type declaration in it, on every lookup; with
+ * this table, a lookup is a map lookup.
+ *
+ * <p>A compilation unit is added once, when it is parsed (or created), and its types are never
+ * looked up by walking it again. This relies on type declarations only ever being removed from
+ * the compilation units in the table, never added: pruning removes them, but generated types are
+ * put in new compilation units, which are added to the table themselves. A type declaration that
+ * was removed is detected when it is looked up, and the compilation unit is searched again.
+ */
+public class TypeDeclarationTable {
+  /**
+   * The type declarations of each compilation unit in the table, keyed by FQN. The compilation
+   * units are keyed by identity.
+   */
+  private final Map<CompilationUnit, Map<String, TypeDeclaration<?>>> types =
+      new IdentityHashMap<>();
+
+  /**
+   * Adds the type declarations of a compilation unit. Local and anonymous classes have no FQN, so
+   * they are not added. If several type declarations of the compilation unit have the same FQN,
+   * the first one in document order wins.
+   *
+   * @param compilationUnit The compilation unit
+   * @return The FQNs of the compilation unit's type declarations
+   */
+  public Set<String> add(CompilationUnit compilationUnit) {
+    Map<String, TypeDeclaration<?>> declared = new HashMap<>();
+    for (TypeDeclaration<?> typeDecl : compilationUnit.findAll(TypeDeclaration.class)) {
+      typeDecl.getFullyQualifiedName().ifPresent(fqn -> declared.putIfAbsent(fqn, typeDecl));
+    }
+    types.put(compilationUnit, declared);
+    return declared.keySet();
+  }
+
+  /**
+   * Removes the type declarations of a compilation unit.
+   *
+   * @param compilationUnit The compilation unit
+   */
+  public void remove(CompilationUnit compilationUnit) {
+    types.remove(compilationUnit);
+  }
+
+  /** Removes every compilation unit. */
+  public void clear() {
+    types.clear();
+  }
+
+  /**
+   * Checks if a compilation unit is in the table, in which case {@link #get(String,
+   * CompilationUnit)} answers for it.
+   *
+   * @param compilationUnit The compilation unit
+   * @return true if the compilation unit was added (and not removed since)
+   */
+  public boolean contains(CompilationUnit compilationUnit) {
+    return types.containsKey(compilationUnit);
+  }
+
+  /**
+   * Finds the type declaration with the given FQN in a compilation unit in the table.
+   *
+   * @param erasedFqn The FQN of the type, without type arguments
+   * @param compilationUnit The compilation unit, which must be in the table
+   * @return The first type declaration in the compilation unit, in document order, with the given
+   *     FQN; or null if there is none
+   */
+  public @Nullable TypeDeclaration<?> get(String erasedFqn, CompilationUnit compilationUnit) {
+    Map<String, TypeDeclaration<?>> declared = types.get(compilationUnit);
+    @Nullable TypeDeclaration<?> typeDecl = declared == null ? null : declared.get(erasedFqn);
+    if (declared == null
+        || typeDecl == null
+        || typeDecl.findCompilationUnit().orElse(null) == compilationUnit) {
+      return typeDecl;
+    }
+    // The type declaration was removed from the compilation unit; another one with the same FQN
+    // may remain.
+    @Nullable TypeDeclaration<?> remaining =
+        compilationUnit
+            .findFirst(
+                TypeDeclaration.class,
+                n ->
+                    n.getFullyQualifiedName().isPresent()
+                        && n.getFullyQualifiedName().get().equals(erasedFqn))
+            .orElse(null);
+    if (remaining == null) {
+      declared.remove(erasedFqn);
+    } else {
+      declared.put(erasedFqn, remaining);
+    }
+    return remaining;
+  }
+}
@@ -0,0 +1,329 @@
+package org.checkerframework.specimin;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.resolution.UnsolvedSymbolException;
+import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedTypeParameterDeclaration;
+import com.github.javaparser.resolution.types.ResolvedReferenceType;
+import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.utils.Pair;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The supertype graph of the types of the project, built lazily as it is queried and shared by
+ * every query that walks a type hierarchy: the ancestors of a type, the methods a type must
+ * implement, and the methods a method overrides. Each edge of the graph is resolved once, and each
+ * supertype's table of method signatures (with the supertype's type arguments substituted) is
+ * computed once, so that repeated queries over the same hierarchy are graph lookups rather than
+ * fresh rounds of resolution.
+ *
+ * <p>The graph follows the AST, so it is cleared along with the {@link Resolver}'s memo whenever
+ * the AST changes permanently, and it is bypassed (neither read nor extended) while that memo is
+ * suspended.
+ */
+public class TypeHierarchy {
+  /**
+   * A resolvable direct supertype of a type declaration: an edge of the graph.
+   *
+   * @param type The resolved supertype, with the type arguments that the subtype gives it
+   * @param declaration The declaration of the supertype in the project, or null if it is not in the
+   *     project (for example, if it is a JDK type)
+   */
+  public record Supertype(ResolvedType type, @Nullable TypeDeclaration<?> declaration) {}
+
+  /**
+   * A method of a supertype, with its signature as seen from the subtype.
+   *
+   * @param method The method declaration
+   * @param resolved The resolved method declaration
+   * @param signature The signature of the method, with the type arguments of the supertype
+   *     substituted for its type variables; or null if a parameter type could not be solved
+   */
+  public record MethodSignature(
+      MethodDeclaration method, ResolvedMethodDeclaration resolved, @Nullable String signature) {}
+
+  /**
+   * The map of FQNs to compilation units that the memoized declarations were found in, or null if
+   * nothing is memoized.
+   */
+  private @Nullable Map<String, CompilationUnit> fqnToCompilationUnits = null;
+
+  /** The direct supertypes of each type declaration, keyed by identity. */
+  private final Map<TypeDeclaration<?>, List<Supertype>> directSupertypes =
+      new IdentityHashMap<>();
+
+  /** The solvable ancestors in the project of each type declaration, keyed by identity. */
+  private final Map<TypeDeclaration<?>, List<TypeDeclaration<?>>> solvableAncestors =
+      new IdentityHashMap<>();
+
+  /** The JDK ancestors of each resolved type declaration, keyed by qualified name. */
+  private final Map<String, Set<ResolvedReferenceTypeDeclaration>> jdkAncestors = new HashMap<>();
+
+  /** The JDK methods that each type declaration must implement, keyed by identity. */
+  private final Map<TypeDeclaration<?>, Set<ResolvedMethodDeclaration>> mustImplementMethods =
+      new IdentityHashMap<>();
+
+  /** The method signature table of each supertype in the project, keyed by identity. */
+  private final Map<Supertype, List<MethodSignature>> methodSignatures = new IdentityHashMap<>();
+
+  /** Forgets the whole graph. Call this after the AST changes. */
+  public void clear() {
+    fqnToCompilationUnits = null;
+    directSupertypes.clear();
+    solvableAncestors.clear();
+    jdkAncestors.clear();
+    mustImplementMethods.clear();
+    methodSignatures.clear();
+  }
+
+  /**
+   * Checks if the graph may be used and extended, and forgets the declarations found in another
+   * map of FQNs to compilation units.
+   *
+   * @param fqnToCompilationUnits The map of FQNs to compilation units of the current query
+   * @return true if the graph may be used, false if the AST is being temporarily modified
+   */
+  private boolean useMemo(Map<String, CompilationUnit> fqnToCompilationUnits) {
+    if (Resolver.isMemoSuspended()) {
+      return false;
+    }
+    if (this.fqnToCompilationUnits != fqnToCompilationUnits) {
+      clear();
+      this.fqnToCompilationUnits = fqnToCompilationUnits;
+    }
+    return true;
+  }
+
+  /**
+   * Gets the resolvable direct supertypes of a type declaration, in the order that its extends and
+   * implements clauses list them.
+   *
+   * @param typeDecl The type declaration
+   * @param fqnToCompilationUnits The map of FQNs to compilation units
+   * @return The resolvable direct supertypes; unresolvable ones are left out
+   */
+  public List<Supertype> getDirectSupertypes(
+      TypeDeclaration<?> typeDecl, Map<String, CompilationUnit> fqnToCompilationUnits) {
+    if (!useMemo(fqnToCompilationUnits)) {
+      return computeDirectSupertypes(typeDecl, fqnToCompilationUnits);
+    }
+    List<Supertype> result = directSupertypes.get(typeDecl);
+    if (result == null) {
+      result = computeDirectSupertypes(typeDecl, fqnToCompilationUnits);
+      directSupertypes.put(typeDecl, result);
+    }
+    return result;
+  }
+
+  /**
+   * Computes the resolvable direct supertypes of a type declaration.
+   *
+   * @param typeDecl The type declaration
+   * @param fqnToCompilationUnits The map of FQNs to compilation units
+   * @return The resolvable direct supertypes
+   */
+  private static List<Supertype> computeDirectSupertypes(
+      TypeDeclaration<?> typeDecl, Map<String, CompilationUnit> fqnToCompilationUnits) {
+    List<Supertype> result = new ArrayList<>();
+    for (ClassOrInterfaceType supertype : JavaParserUtil.getDirectSuperTypes(typeDecl)) {
+      ResolvedType resolved = Resolver.resolve(supertype);
+      if (resolved == null) {
+        continue;
+      }
+      result.add(
+          new Supertype(
+              resolved,
+              JavaParserUtil.getTypeFromQualifiedName(resolved.describe(), fqnToCompilationUnits)));
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  /**
+   * Gets the solvable ancestors of a type declaration that are in the project, depth first in the
+   * order of the extends and implements clauses. An ancestor reachable along several paths appears
+   * once per path.
+   *
+   * @param typeDecl The type declaration
+   * @param fqnToCompilationUnits The map of FQNs to compilation units
+   * @return The solvable ancestors in the project
+   */
+  public List<TypeDeclaration<?>> getAllSolvableAncestors(
+      TypeDeclaration<?> typeDecl, Map<String, CompilationUnit> fqnToCompilationUnits) {
+    if (!useMemo(fqnToCompilationUnits)) {
+      return computeAllSolvableAncestors(typeDecl, fqnToCompilationUnits);
+    }
+    List<TypeDeclaration<?>> result = solvableAncestors.get(typeDecl);
+    if (result == null) {
+      result = computeAllSolvableAncestors(typeDecl, fqnToCompilationUnits);
+      solvableAncestors.put(typeDecl, result);
+    }
+    return result;
+  }
+
+  /**
+   * Computes the solvable ancestors of a type declaration that are in the project.
+   *
+   * @param typeDecl The type declaration
+   * @param fqnToCompilationUnits The map of FQNs to compilation units
+   * @return The solvable ancestors in the project
+   */
+  private List<TypeDeclaration<?>> computeAllSolvableAncestors(
+      TypeDeclaration<?> typeDecl, Map<String, CompilationUnit> fqnToCompilationUnits) {
+    List<TypeDeclaration<?>> result = new ArrayList<>();
+    for (Supertype supertype : getDirectSupertypes(typeDecl, fqnToCompilationUnits)) {
+      TypeDeclaration<?> declaration = supertype.declaration();
+      if (declaration != null) {
+        result.add(declaration);
+        result.addAll(getAllSolvableAncestors(declaration, fqnToCompilationUnits));
+      }
+    }
+    return Collections.unmodifiableList(result);
+  }
+
+  /**
+   * Gets the JDK ancestors of a resolved type declaration, however far up its hierarchy they are.
+   *
+   * @param typeDecl The resolved type declaration
+   * @return The JDK ancestors
+   */
+  public Set<ResolvedReferenceTypeDeclaration> getAllJdkAncestors(
+      ResolvedReferenceTypeDeclaration typeDecl) {
+    if (Resolver.isMemoSuspended()) {
+      return computeAllJdkAncestors(typeDecl);
+    }
+    String key = typeDecl.getQualifiedName();
+    Set<ResolvedReferenceTypeDeclaration> result = jdkAncestors.get(key);
+    if (result == null) {
+      result = computeAllJdkAncestors(typeDecl);
+      jdkAncestors.put(key, result);
+    }
+    return result;
+  }
+
+  /**
+   * Computes the JDK ancestors of a resolved type declaration.
+   *
+   * @param typeDecl The resolved type declaration
+   * @return The JDK ancestors
+   */
+  private Set<ResolvedReferenceTypeDeclaration> computeAllJdkAncestors(
+      ResolvedReferenceTypeDeclaration typeDecl) {
+    Set<ResolvedReferenceTypeDeclaration> result = new HashSet<>();
+    for (ResolvedReferenceType ancestor : typeDecl.getAncestors(true)) {
+      ResolvedReferenceTypeDeclaration ancestorDecl = ancestor.getTypeDeclaration().get();
+      if (JavaLangUtils.inJdkPackage(ancestor.getQualifiedName())) {
+        result.add(ancestorDecl);
+      }
+      result.addAll(getAllJdkAncestors(ancestorDecl));
+    }
+    return Collections.unmodifiableSet(result);
+  }
+
+  /**
+   * Gets the methods that a type declaration must implement because of its JDK ancestors: the
+   * abstract methods they declare, other than those of java.lang.Object.
+   *
+   * @param typeDecl The type declaration
+   * @return The resolved JDK methods that must be implemented
+   */
+  public Set<ResolvedMethodDeclaration> getAllMustImplementMethods(TypeDeclaration<?> typeDecl) {
+    if (Resolver.isMemoSuspended()) {
+      return computeAllMustImplementMethods(typeDecl);
+    }
+    Set<ResolvedMethodDeclaration> result = mustImplementMethods.get(typeDecl);
+    if (result == null) {
+      result = computeAllMustImplementMethods(typeDecl);
+      mustImplementMethods.put(typeDecl, result);
+    }
+    return result;
+  }
+
+  /**
+   * Computes the methods that a type declaration must implement because of its JDK ancestors.
+   *
+   * @param typeDecl The type declaration
+   * @return The resolved JDK methods that must be implemented
+   */
+  private Set<ResolvedMethodDeclaration> computeAllMustImplementMethods(
+      TypeDeclaration<?> typeDecl) {
+    Set<ResolvedMethodDeclaration> result = new HashSet<>();
+    for (ResolvedReferenceTypeDeclaration jdkAncestor :
+        JavaParserUtil.getAllJDKAncestors(typeDecl)) {
+      for (ResolvedMethodDeclaration resolvedMethod : jdkAncestor.getDeclaredMethods()) {
+        // Skip methods that are already defined in java.lang.Object
+        if (JavaLangUtils.isJavaLangObjectMethod(resolvedMethod.getSignature())) {
+          continue;
+        }
+
+        if (resolvedMethod.isAbstract()) {
+          result.add(resolvedMethod);
+        }
+      }
+    }
+    return Collections.unmodifiableSet(result);
+  }
+
+  /**
+   * Gets the method signature table of a supertype in the project: each of its methods, with its
+   * signature as seen from the subtype.
+   *
+   * @param supertype A supertype returned by {@link #getDirectSupertypes(TypeDeclaration, Map)},
+   *     whose declaration is in the project and whose type is a reference type
+   * @return The methods of the supertype's declaration, in declaration order
+   */
+  public List<MethodSignature> getMethodSignatures(Supertype supertype) {
+    TypeDeclaration<?> declaration = supertype.declaration();
+    if (declaration == null) {
+      throw new IllegalArgumentException(supertype.type().describe() + " is not in the project");
+    }
+    List<Pair<ResolvedTypeParameterDeclaration, ResolvedType>> typeParametersMap =
+        supertype.type().asReferenceType().getTypeParametersMap();
+    if (Resolver.isMemoSuspended()) {
+      return computeMethodSignatures(declaration, typeParametersMap);
+    }
+    List<MethodSignature> result = methodSignatures.get(supertype);
+    if (result == null) {
+      result = computeMethodSignatures(declaration, typeParametersMap);
+      methodSignatures.put(supertype, result);
+    }
+    return result;
+  }
+
+  /**
+   * Computes the method signature table of a type declaration, under the given type arguments.
+   *
+   * @param typeDecl The type declaration
+   * @param typeParametersMap The type arguments of the type declaration's type parameters
+   * @return The methods of the type declaration, in declaration order
+   */
+  public static List<MethodSignature> computeMethodSignatures(
+      TypeDeclaration<?> typeDecl,
+      List<Pair<ResolvedTypeParameterDeclaration, ResolvedType>> typeParametersMap) {
+    List<MethodSignature> result = new ArrayList<>();
+    for (MethodDeclaration method : typeDecl.getMethods()) {
+      ResolvedMethodDeclaration resolved = Resolver.resolveGuaranteeNonNull(method);
+      String signature = null;
+      try {
+        signature =
+            JavaParserUtil.getSignatureFromResolvedMethodWithTypeVariablesMap(
+                resolved, typeParametersMap);
+      } catch (UnsolvedSymbolException ex) {
+        // A parameter type may not be solvable
+      }
+      result.add(new MethodSignature(method, resolved, signature));
+    }
+    return Collections.unmodifiableList(result);
+  }
+}
@@ -0,0 +1,269 @@
+package org.checkerframework.specimin;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.NodeList;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.expr.ObjectCreationExpr;
+import com.github.javaparser.ast.nodeTypes.NodeWithImplements;
+import com.github.javaparser.ast.nodeTypes.NodeWithTypeParameters;
+import com.github.javaparser.ast.type.ArrayType;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import com.github.javaparser.ast.type.Type;
+import com.github.javaparser.ast.type.TypeParameter;
+import com.github.javaparser.ast.type.WildcardType;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A view of every place a type can be found by the symbol solver: the input's {@link SourceIndex},
+ * the {@link JarIndex}, the in-memory type solver, and the JDK. It is used by {@link Resolver} to
+ * recognize type names that cannot resolve without asking JavaParser, which reports an unsolvable
+ * type by throwing an exception, so that unsolvable types (the common case when slicing an
+ * incomplete program) cost a few map lookups instead of an exception and its stack trace.
+ *
+ * <p>The check is conservative: a type is only reported as unsolvable if every scope the simple
+ * name could be found in -- type parameters, types declared in the compilation unit, member types
+ * inherited from a supertype that may exist, imports, the same package, and java.lang -- has been
+ * ruled out. Anything it cannot rule out, including every qualified type name, is left to
+ * JavaParser.
+ */
+public class TypeIndex {
+  /** The index of the types declared under the root and in the overlay root. */
+  private final SourceIndex sourceIndex;
+
+  /** The index of the classes in the jar files. */
+  private final JarIndex jarIndex;
+
+  /** The type solver for types created during Specimin's run. */
+  private final MemoryTypeSolver memoryTypeSolver;
+
+  /** Whether each FQN looked up in the JDK names a JDK class. */
+  private final Map<String, Boolean> jdkTypes = new HashMap<>();
+
+  /**
+   * The simple names of the types declared anywhere in each compilation unit (including member,
+   * local, and anonymous classes' member types), keyed by identity. Cleared by {@link
+   * #clearCache()}.
+   */
+  private final Map<CompilationUnit, Set<String>> declaredTypeNames = new IdentityHashMap<>();
+
+  /**
+   * Creates a new type index.
+   *
+   * @param sourceIndex The index of the types declared under the root and in the overlay root
+   * @param jarIndex The index of the classes in the jar files
+   * @param memoryTypeSolver The type solver for types created during Specimin's run
+   */
+  public TypeIndex(SourceIndex sourceIndex, JarIndex jarIndex, MemoryTypeSolver memoryTypeSolver) {
+    this.sourceIndex = sourceIndex;
+    this.jarIndex = jarIndex;
+    this.memoryTypeSolver = memoryTypeSolver;
+  }
+
+  /**
+   * Forgets the types declared by each compilation unit. Call this when compilation units are
+   * re-parsed, so that the old ones are not kept alive.
+   */
+  public void clearCache() {
+    declaredTypeNames.clear();
+  }
+
+  /**
+   * Checks if a type with the given FQN exists anywhere the symbol solver looks.
+   *
+   * @param fqn The FQN of the type, with member types separated by dots
+   * @return true if the type exists
+   */
+  public boolean containsType(String fqn) {
+    return sourceIndex.getPath(fqn) != null
+        || jarIndex.getLocation(fqn) != null
+        || memoryTypeSolver.containsType(fqn)
+        || isJdkType(fqn);
+  }
+
+  /**
+   * Checks if a type certainly cannot be resolved: either its own name, or the name of one of its
+   * type arguments (or of their type arguments, and so on), is a simple name that cannot refer to
+   * any type. Resolving such a type always fails.
+   *
+   * @param type The type, which must be in a compilation unit for this to ever return true
+   * @return true if resolving the type certainly fails; false if it may succeed
+   */
+  public boolean cannotResolve(ClassOrInterfaceType type) {
+    CompilationUnit cu = type.findCompilationUnit().orElse(null);
+    if (cu == null) {
+      return false;
+    }
+    return containsUnresolvableName(type, cu);
+  }
+
+  /**
+   * Checks if a type, or any type nested in it, is a simple name that cannot refer to any type.
+   *
+   * @param type The type
+   * @param cu The compilation unit of the type
+   * @return true if the type contains an unresolvable simple name
+   */
+  private boolean containsUnresolvableName(Type type, CompilationUnit cu) {
+    if (type instanceof ClassOrInterfaceType classType) {
+      if (classType.getScope().isEmpty()
+          && isUnresolvableSimpleName(classType.getNameAsString(), classType, cu)) {
+        return true;
+      }
+      NodeList<Type> typeArguments = classType.getTypeArguments().orElse(null);
+      if (typeArguments != null) {
+        for (Type typeArgument : typeArguments) {
+          if (containsUnresolvableName(typeArgument, cu)) {
+            return true;
+          }
+        }
+      }
+    } else if (type instanceof ArrayType arrayType) {
+      return containsUnresolvableName(arrayType.getComponentType(), cu);
+    } else if (type instanceof WildcardType wildcardType) {
+      Type bound =
+          wildcardType.getExtendedType().isPresent()
+              ? wildcardType.getExtendedType().get()
+              : wildcardType.getSuperType().orElse(null);
+      return bound != null && containsUnresolvableName(bound, cu);
+    }
+    return false;
+  }
+
+  /**
+   * Checks if a simple type name, used at the given node, cannot refer to any type.
+   *
+   * @param name The simple name
+   * @param usage The node where the name is used, or the node to start the search for enclosing
+   *     scopes from
+   * @param cu The compilation unit of the node
+   * @return true if the name cannot refer to any type
+   */
+  private boolean isUnresolvableSimpleName(String name, Node usage, CompilationUnit cu) {
+    if (JavaLangUtils.isJavaLangOrPrimitiveName(name) || getDeclaredTypeNames(cu).contains(name)) {
+      return false;
+    }
+
+    for (Node scope = usage; scope != null; scope = scope.getParentNode().orElse(null)) {
+      if (scope instanceof NodeWithTypeParameters<?> withTypeParameters) {
+        for (TypeParameter typeParameter : withTypeParameters.getTypeParameters()) {
+          if (typeParameter.getNameAsString().equals(name)) {
+            return false;
+          }
+        }
+      }
+      // A member type inherited from a supertype is in scope, so any supertype that may exist
+      // could declare the name.
+      for (ClassOrInterfaceType supertype : getSupertypes(scope)) {
+        Node outside = scope.getParentNode().orElse(null);
+        if (supertype.getScope().isPresent()
+            || outside == null
+            || !isUnresolvableSimpleName(supertype.getNameAsString(), outside, cu)) {
+          return false;
+        }
+      }
+    }
+
+    for (ImportDeclaration importDecl : cu.getImports()) {
+      String imported = importDecl.getNameAsString();
+      if (importDecl.isAsterisk()) {
+        if (containsType(imported + "." + name)) {
+          return false;
+        }
+      } else if (importDecl.getName().getIdentifier().equals(name) && containsType(imported)) {
+        return false;
+      }
+    }
+
+    String packageName =
+        cu.getPackageDeclaration().map(packageDecl -> packageDecl.getNameAsString()).orElse("");
+    return !containsType(packageName.isEmpty() ? name : packageName + "." + name)
+        && !containsType(name)
+        && !containsType("java.lang." + name);
+  }
+
+  /**
+   * Gets the supertypes written in the source of a node, if it declares a class: the extended and
+   * implemented types of a type declaration, or the type of an anonymous class.
+   *
+   * @param node The node
+   * @return The supertypes, or an empty list if the node does not declare a class
+   */
+  private static List<ClassOrInterfaceType> getSupertypes(Node node) {
+    List<ClassOrInterfaceType> supertypes = new ArrayList<>();
+    if (node instanceof ClassOrInterfaceDeclaration classDecl) {
+      supertypes.addAll(classDecl.getExtendedTypes());
+    }
+    if (node instanceof TypeDeclaration<?>
+        && node instanceof NodeWithImplements<?> withImplements) {
+      supertypes.addAll(withImplements.getImplementedTypes());
+    }
+    if (node instanceof ObjectCreationExpr creation
+        && creation.getAnonymousClassBody().isPresent()) {
+      supertypes.add(creation.getType());
+    }
+    return supertypes;
+  }
+
+  /**
+   * Gets the simple names of the types declared anywhere in a compilation unit.
+   *
+   * @param cu The compilation unit
+   * @return The simple names
+   */
+  private Set<String> getDeclaredTypeNames(CompilationUnit cu) {
+    Set<String> names = declaredTypeNames.get(cu);
+    if (names == null) {
+      names = new HashSet<>();
+      for (TypeDeclaration<?> typeDecl : cu.findAll(TypeDeclaration.class)) {
+        names.add(typeDecl.getNameAsString());
+      }
+      declaredTypeNames.put(cu, names);
+    }
+    return names;
+  }
+
+  /**
+   * Checks if an FQN names a class in the JDK, the way {@link JdkTypeSolver} finds one, but without
+   * loading it or throwing if it does not exist.
+   *
+   * @param fqn The FQN, with member types separated by dots
+   * @return true if the JDK declares the type
+   */
+  private boolean isJdkType(String fqn) {
+    if (!JavaLangUtils.inJdkPackage(fqn)) {
+      return false;
+    }
+    Boolean cached = jdkTypes.get(fqn);
+    if (cached != null) {
+      return cached;
+    }
+    // The FQN does not say which of its dots separate member types, so try each split, from the
+    // innermost member type outwards.
+    ClassLoader classLoader = TypeIndex.class.getClassLoader();
+    String binaryName = fqn.replace('.', '/');
+    boolean found = false;
+    while (true) {
+      if (classLoader.getResource(binaryName + ".class") != null) {
+        found = true;
+        break;
+      }
+      int lastSlash = binaryName.lastIndexOf('/');
+      if (lastSlash == -1) {
+        break;
+      }
+      binaryName = binaryName.substring(0, lastSlash) + "$" + binaryName.substring(lastSlash + 1);
+    }
+    jdkTypes.put(fqn, found);
+    return found;
+  }
+}
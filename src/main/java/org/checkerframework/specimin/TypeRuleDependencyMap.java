@@ -2,6 +2,7 @@ package org.checkerframework.specimin;
 
 import com.github.javaparser.ast.Node;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * This class provides a method to help determine what other elements are relevant when processing
@@ -17,6 +18,18 @@ public interface TypeRuleDependencyMap {
    */
   List<Node> getRelevantElements(Node node);
 
+  /**
+   * Given a node, passes each relevant node (see {@link #getRelevantElements(Node)}) to an action,
+   * in the same order, without collecting them into a list. The slicer calls this for every node
+   * it visits, so implementations should override it rather than allocate a list per node.
+   *
+   * @param node The node
+   * @param action The action to perform on each relevant node
+   */
+  default void forEachRelevantElement(Node node, Consumer<? super Node> action) {
+    getRelevantElements(node).forEach(action);
+  }
+
   /**
    * Given a resolved object, return all relevant nodes. For example, a resolved method declaration
    * would return the method declaration and its declaring type, both as attached nodes.
@@ -0,0 +1,84 @@
+package org.checkerframework.specimin.unsolved;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A table of canonical instances, so that values that are created over and over again (such as
+ * {@link FullyQualifiedNameSet} and {@link MemberType}) exist only once each. A canonical instance
+ * is found by a key that describes it; each instance must hold a strong reference to its own key.
+ * The table holds its keys and instances weakly, so an instance that is no longer used anywhere
+ * else is dropped from the table, and a long-running Specimin server does not keep every value it
+ * ever created.
+ *
+ * @param <K> The type of the keys, which must implement equals and hashCode
+ * @param <V> The type of the canonical instances
+ */
+final class CanonicalTable<K, V> {
+  /** The canonical instance of each key. */
+  private final Map<K, WeakReference<V>> instances = new WeakHashMap<>();
+
+  /**
+   * Gets the canonical instance for a key, creating it if there is none yet.
+   *
+   * @param key The key of the instance. It is only used to look up the instance, so it may be a
+   *     temporary object that is not safe to store.
+   * @param create Creates the instance if there is none yet. It is passed the key, and must return
+   *     an instance that holds a strong reference to a key equal to it that is safe to store, which
+   *     is then stored in the table instead of the given key.
+   * @param keyOf Gets the key that an instance holds
+   * @return The canonical instance
+   */
+  synchronized V intern(K key, Function<K, V> create, Function<V, K> keyOf) {
+    WeakReference<V> existingReference = instances.get(key);
+    @Nullable V existing = existingReference == null ? null : existingReference.get();
+    if (existing != null) {
+      return existing;
+    }
+    V created = create.apply(key);
+    // A stale entry keeps its old key when its value is replaced, and that key is about to be
+    // collected, so the entry must be replaced as a whole
+    instances.remove(key);
+    instances.put(keyOf.apply(created), new WeakReference<>(created));
+    return created;
+  }
+
+  /**
+   * Checks whether two lists hold the same objects, in the same order. Keys use this to compare
+   * lists of canonical instances, for which identity is equality.
+   *
+   * @param list1 The first list
+   * @param list2 The second list
+   * @return True if the lists have the same size, and the same object at each index
+   */
+  @SuppressWarnings("not.interned") // Canonical instances are compared by identity
+  static boolean identicalElements(List<?> list1, List<?> list2) {
+    if (list1.size() != list2.size()) {
+      return false;
+    }
+    for (int i = 0; i < list1.size(); i++) {
+      if (list1.get(i) != list2.get(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Computes a hash code of a list that is consistent with {@link #identicalElements(List, List)}.
+   *
+   * @param list The list
+   * @return The hash code of the list, based on the identity of its elements
+   */
+  static int identityHashCode(List<?> list) {
+    int result = 1;
+    for (Object element : list) {
+      result = 31 * result + System.identityHashCode(element);
+    }
+    return result;
+  }
+}
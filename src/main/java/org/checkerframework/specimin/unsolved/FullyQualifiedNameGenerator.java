@@ -95,7 +95,7 @@ public class FullyQualifiedNameGenerator {
   private final Map<String, CompilationUnit> fqnToCompilationUnits;
 
   /** Map of fully qualified names to their generated symbol alternates. */
-  private final Map<String, UnsolvedSymbolAlternates<?>> generatedSymbols;
+  private final GeneratedSymbolMap generatedSymbols;
 
   /** A function that takes in a set of FQNs and returns the corresponding member type. */
   private final Function<FullyQualifiedNameSet, @Nullable MemberType> getMemberTypeFromFQNsFunction;
@@ -117,7 +117,7 @@ public class FullyQualifiedNameGenerator {
    */
   public FullyQualifiedNameGenerator(
       Map<String, CompilationUnit> fqnToCompilationUnits,
-      Map<String, UnsolvedSymbolAlternates<?>> generatedSymbols,
+      GeneratedSymbolMap generatedSymbols,
       Function<FullyQualifiedNameSet, @Nullable MemberType> getMemberTypeFromFQNsFunction) {
     this.fqnToCompilationUnits = fqnToCompilationUnits;
     this.generatedSymbols = generatedSymbols;
@@ -432,6 +432,8 @@ public class FullyQualifiedNameGenerator {
             getReplacementExpressionIfRepresentsGeneratedSymbolWithSolvableType(scope);
 
         if (replacementScope != null) {
+          // Nothing resolved against the replacement may be memoized
+          Resolver.suspendMemo();
           try {
             scope.replace(replacementScope);
 
@@ -439,6 +441,7 @@ public class FullyQualifiedNameGenerator {
           } finally {
             // Change it back so that we don't mess up other analyses
             replacementScope.replace(scope);
+            Resolver.resumeMemo();
           }
         }
       }
@@ -542,12 +545,12 @@ public class FullyQualifiedNameGenerator {
       }
 
       return Set.of(
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               getFQNsFromErasedClassName(
                   scoped.toString(), expr.toString(), expr.findCompilationUnit().get(), expr)));
     } else if (expr.isNameExpr() && JavaParserUtil.isAClassName(expr.toString())) {
       return Set.of(
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               getFQNsFromErasedClassName(
                   expr.toString(), expr.toString(), expr.findCompilationUnit().get(), expr)));
     }
@@ -575,10 +578,10 @@ public class FullyQualifiedNameGenerator {
           getFQNsFromClassOrInterfaceType(expr.asCastExpr().getType().asClassOrInterfaceType()));
     } else if (expr.isClassExpr()) {
       return Set.of(
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.lang.Class"),
               List.of(
-                  new FullyQualifiedNameSet(
+                  FullyQualifiedNameSet.of(
                       getFQNsFromType(expr.asClassExpr().getType()).erasedFqns(),
                       List.of(),
                       "? extends"))));
@@ -595,7 +598,7 @@ public class FullyQualifiedNameGenerator {
             fixedFQNs.add(fqn.substring(0, fqn.length() - 2));
           }
         }
-        result.add(new FullyQualifiedNameSet(fixedFQNs, fqns.typeArguments()));
+        result.add(FullyQualifiedNameSet.of(fixedFQNs, fqns.typeArguments()));
       }
       return result;
     } else if (expr.isObjectCreationExpr()) {
@@ -657,7 +660,7 @@ public class FullyQualifiedNameGenerator {
           || operator == Operator.GREATER
           || operator == Operator.LESS_EQUALS
           || operator == Operator.GREATER_EQUALS) {
-        return Set.of(new FullyQualifiedNameSet("boolean"));
+        return Set.of(FullyQualifiedNameSet.of("boolean"));
       } else {
         // Treat all other cases; type on one side is equal to the other
         Set<FullyQualifiedNameSet> leftType = getFQNsForExpressionType(binary.getLeft());
@@ -684,7 +687,7 @@ public class FullyQualifiedNameGenerator {
           if (JavaParserUtil.isAClassName(validType)) {
             validType = "java.lang." + validType;
           }
-          result.add(new FullyQualifiedNameSet(validType));
+          result.add(FullyQualifiedNameSet.of(validType));
         }
 
         return result;
@@ -713,7 +716,7 @@ public class FullyQualifiedNameGenerator {
         // where Baz is the name expr could mean that it's an imported type and thus static.
         if (!importDecl.isStatic()) {
           return Set.of(
-              new FullyQualifiedNameSet(
+              FullyQualifiedNameSet.of(
                   getFQNsFromErasedClassName(
                       expr.toString(), expr.toString(), expr.findCompilationUnit().get(), expr)));
         }
@@ -723,7 +726,7 @@ public class FullyQualifiedNameGenerator {
 
       String exprTypeName = SYNTHETIC_TYPE_FOR + toCapital(name);
       return Set.of(
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               getFQNsFromErasedClassName(
                   exprTypeName, exprTypeName, expr.findCompilationUnit().get(), null),
               List.of(),
@@ -761,7 +764,7 @@ public class FullyQualifiedNameGenerator {
         result.add(fqn.substring(0, fqn.lastIndexOf('.') + 1) + exprTypeName);
       }
 
-      return Set.of(new FullyQualifiedNameSet(result, List.of(), null, true));
+      return Set.of(FullyQualifiedNameSet.of(result, List.of(), null, true));
     } else if (expr.isMethodCallExpr()) {
       String exprTypeName = toCapital(expr.asMethodCallExpr().getNameAsString()) + RETURN_TYPE;
       // Place in the same package as its scope type
@@ -772,7 +775,7 @@ public class FullyQualifiedNameGenerator {
         result.add(fqn.substring(0, fqn.lastIndexOf('.') + 1) + exprTypeName);
       }
 
-      return Set.of(new FullyQualifiedNameSet(result, List.of(), null, true));
+      return Set.of(FullyQualifiedNameSet.of(result, List.of(), null, true));
     }
 
     // Hitting this error means we forgot to account for a case
@@ -822,7 +825,7 @@ public class FullyQualifiedNameGenerator {
           replacePlaceholderTypesWithActualTypes(typeArg, placeholderFQNsToTypeHolding));
     }
 
-    return new FullyQualifiedNameSet(
+    return FullyQualifiedNameSet.of(
         replacedFQNs, replacedTypeArgs, methodReturnTypeFQNs.wildcard());
   }
 
@@ -890,7 +893,7 @@ public class FullyQualifiedNameGenerator {
               || declaringType.doesExtend(SolvedMemberType.JAVA_LANG_ERROR)) {
             if (JavaLangUtils.getJavaLangThrowableMethods().containsKey(methodSignature)) {
               return Set.of(
-                  new FullyQualifiedNameSet(
+                  FullyQualifiedNameSet.of(
                       JavaLangUtils.getJavaLangThrowableMethods().get(methodSignature)));
             }
           }
@@ -976,14 +979,12 @@ public class FullyQualifiedNameGenerator {
 
       Set<UnsolvedMethodAlternates> generatedMethods = new LinkedHashSet<>();
 
-      for (Entry<String, UnsolvedSymbolAlternates<?>> genSymbolEntry :
-          generatedSymbols.entrySet()) {
-        if (!(genSymbolEntry.getValue() instanceof UnsolvedMethodAlternates method)) {
+      for (String key : generatedSymbols.getKeysWithSimpleName(methodName)) {
+        if (!(generatedSymbols.get(key) instanceof UnsolvedMethodAlternates method)) {
           continue;
         }
 
-        String fullyQualifiedMethodName =
-            genSymbolEntry.getKey().substring(0, genSymbolEntry.getKey().indexOf('(') + 1);
+        String fullyQualifiedMethodName = key.substring(0, key.indexOf('(') + 1);
 
         if (potentialFullyQualifiedNames.contains(fullyQualifiedMethodName)) {
           generatedMethods.add(method);
@@ -1004,7 +1005,7 @@ public class FullyQualifiedNameGenerator {
             for (MemberType parameter : alternate.getParameterList()) {
               FullyQualifiedNameSet converted = convertMemberTypeToFQNSet(parameter);
               parameterTypes.add(
-                  new FullyQualifiedNameSet(
+                  FullyQualifiedNameSet.of(
                       converted.erasedFqns(), converted.typeArguments(), "? extends"));
             }
 
@@ -1066,7 +1067,7 @@ public class FullyQualifiedNameGenerator {
       for (int i = 0; i < typeArguments.size(); i++) {
         Type typeArgument = typeArguments.get(i);
         MemberType typeParameter =
-            new SolvedMemberType(JavaParserUtil.getGeneratedTypeParameterName(i));
+            SolvedMemberType.of(JavaParserUtil.getGeneratedTypeParameterName(i));
 
         FullyQualifiedNameSet fqnSet = getFQNsFromType(typeArgument);
         typeParameterUsageMap.put(typeParameter, Set.of(fqnSet));
@@ -1094,7 +1095,7 @@ public class FullyQualifiedNameGenerator {
               Set<FullyQualifiedNameSet> existingSet =
                   typeParameterUsageMap.computeIfAbsent(entry.getKey(), k -> new LinkedHashSet<>());
               existingSet.add(
-                  new FullyQualifiedNameSet(
+                  FullyQualifiedNameSet.of(
                       entry.getValue().erasedFqns(), entry.getValue().typeArguments()));
             }
           }
@@ -1130,7 +1131,7 @@ public class FullyQualifiedNameGenerator {
       if (argument.isNullLiteralExpr() && keepNullInsteadOfObject) {
         simpleNames.add(Set.of("null"));
         if (argumentToParameterPotentialFQNs != null) {
-          argumentToParameterPotentialFQNs.put(argument, Set.of(new FullyQualifiedNameSet("null")));
+          argumentToParameterPotentialFQNs.put(argument, Set.of(FullyQualifiedNameSet.of("null")));
         }
         continue;
       }
@@ -1260,7 +1261,7 @@ public class FullyQualifiedNameGenerator {
       if (bound != null) {
         FullyQualifiedNameSet boundFQNs = convertMemberTypeToFQNSet(bound);
         boolean isUpperBound = wildcard.isUpperBounded();
-        return new FullyQualifiedNameSet(
+        return FullyQualifiedNameSet.of(
             boundFQNs.erasedFqns(),
             boundFQNs.typeArguments(),
             isUpperBound ? "? extends" : "? super");
@@ -1268,7 +1269,7 @@ public class FullyQualifiedNameGenerator {
         return FullyQualifiedNameSet.UNBOUNDED_WILDCARD;
       }
     }
-    return new FullyQualifiedNameSet(
+    return FullyQualifiedNameSet.of(
         memberType.getFullyQualifiedNames(),
         typeArguments,
         null,
@@ -1311,7 +1312,7 @@ public class FullyQualifiedNameGenerator {
         // symbols not in the current class.
         qualifiedName = "java.lang.Object";
       }
-      return new FullyQualifiedNameSet(
+      return FullyQualifiedNameSet.of(
           Set.of(qualifiedName),
           resolvedType.asReferenceType().typeParametersValues().stream()
               .map(this::getFQNsForResolvedType)
@@ -1322,7 +1323,7 @@ public class FullyQualifiedNameGenerator {
             getFQNsForResolvedType(resolvedType.asWildcard().getBoundedType());
         boolean isUpperBound = resolvedType.asWildcard().isUpperBounded();
 
-        return new FullyQualifiedNameSet(
+        return FullyQualifiedNameSet.of(
             bound.erasedFqns(), bound.typeArguments(), isUpperBound ? "? extends" : "? super");
       } else {
         return FullyQualifiedNameSet.UNBOUNDED_WILDCARD;
@@ -1331,7 +1332,7 @@ public class FullyQualifiedNameGenerator {
       FullyQualifiedNameSet erasedConstraint =
           getFQNsForResolvedType(resolvedType.asConstraintType().getBound());
 
-      return new FullyQualifiedNameSet(
+      return FullyQualifiedNameSet.of(
           erasedConstraint.erasedFqns(),
           erasedConstraint.typeArguments(),
           "? super" // lambda constraints are always ? super
@@ -1339,10 +1340,10 @@ public class FullyQualifiedNameGenerator {
     }
 
     if (resolvedType.isNull()) {
-      return new FullyQualifiedNameSet("null");
+      return FullyQualifiedNameSet.of("null");
     }
 
-    return new FullyQualifiedNameSet(resolvedType.describe());
+    return FullyQualifiedNameSet.of(resolvedType.describe());
   }
 
   /**
@@ -1372,13 +1373,13 @@ public class FullyQualifiedNameGenerator {
           FullyQualifiedNameSet nonWildcard =
               getFQNsFromType(methodRef.getScope().asTypeExpr().getType());
           paramList.add(
-              new FullyQualifiedNameSet(
+              FullyQualifiedNameSet.of(
                   nonWildcard.erasedFqns(), nonWildcard.typeArguments(), "? extends"));
         }
 
         for (String param : parameters.split(",\\s*", -1)) {
           if (!param.isEmpty()) {
-            paramList.add(new FullyQualifiedNameSet(param));
+            paramList.add(FullyQualifiedNameSet.of(param));
           }
         }
 
@@ -1439,7 +1440,7 @@ public class FullyQualifiedNameGenerator {
       FullyQualifiedNameSet nonWildcard =
           getFQNsFromType(methodRef.getScope().asTypeExpr().getType());
       parameters.add(
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               nonWildcard.erasedFqns(), nonWildcard.typeArguments(), "? extends"));
     }
 
@@ -1457,7 +1458,7 @@ public class FullyQualifiedNameGenerator {
         }
 
         parameters.add(
-            new FullyQualifiedNameSet(
+            FullyQualifiedNameSet.of(
                 nonWildcard.erasedFqns(), nonWildcard.typeArguments(), "? extends"));
       }
     } else {
@@ -1468,7 +1469,7 @@ public class FullyQualifiedNameGenerator {
           if (fqn.equals("java.lang.Object")) {
             parameters.add(FullyQualifiedNameSet.UNBOUNDED_WILDCARD);
           } else {
-            parameters.add(new FullyQualifiedNameSet(fqn));
+            parameters.add(FullyQualifiedNameSet.of(fqn));
           }
         } catch (UnsolvedSymbolException ex) {
           parameters.add(FullyQualifiedNameSet.UNBOUNDED_WILDCARD);
@@ -1544,7 +1545,7 @@ public class FullyQualifiedNameGenerator {
             useType.stream()
                 .map(
                     type ->
-                        new FullyQualifiedNameSet(
+                        FullyQualifiedNameSet.of(
                             type.erasedFqns(), type.typeArguments(), "? extends"))
                 .collect(Collectors.toCollection(LinkedHashSet::new)));
       } else {
@@ -1555,7 +1556,7 @@ public class FullyQualifiedNameGenerator {
     Set<FullyQualifiedNameSet> result = new LinkedHashSet<>();
     for (List<FullyQualifiedNameSet> combination :
         JavaParserUtil.generateAllCombinations(newTypeArguments)) {
-      result.add(new FullyQualifiedNameSet(functionalInterface.erasedFqns(), combination));
+      result.add(FullyQualifiedNameSet.of(functionalInterface.erasedFqns(), combination));
     }
 
     return result;
@@ -1777,6 +1778,7 @@ public class FullyQualifiedNameGenerator {
 
       Expression originalScope = null;
       Expression replacementScope = null;
+      boolean memoSuspended = false;
 
       if (parentNode instanceof NodeWithTraversableScope withScope
           && withScope.traverseScope().isPresent()
@@ -1785,6 +1787,9 @@ public class FullyQualifiedNameGenerator {
         replacementScope =
             getReplacementExpressionIfRepresentsGeneratedSymbolWithSolvableType(originalScope);
         if (replacementScope != null && !originalScope.equals(expr)) {
+          // Nothing resolved against the replacement may be memoized
+          Resolver.suspendMemo();
+          memoSuspended = true;
           originalScope.replace(replacementScope);
         }
       }
@@ -1876,6 +1881,9 @@ public class FullyQualifiedNameGenerator {
         if (originalScope != null && replacementScope != null) {
           replacementScope.replace(originalScope);
         }
+        if (memoSuspended) {
+          Resolver.resumeMemo();
+        }
       }
       // scope of the method call, not an argument, continue
     } else if (parentNode instanceof VariableDeclarator declarator) {
@@ -1915,7 +1923,7 @@ public class FullyQualifiedNameGenerator {
     // Check if it's the conditional of an if, while, do, ?:; if so, its type is boolean
     else if (parentNode instanceof NodeWithCondition<?> withCondition) {
       if (withCondition.getCondition().equals(expr)) {
-        return Set.of(new FullyQualifiedNameSet("boolean"));
+        return Set.of(FullyQualifiedNameSet.of("boolean"));
       }
 
       if (withCondition instanceof ConditionalExpr conditionalExpr) {
@@ -1947,7 +1955,7 @@ public class FullyQualifiedNameGenerator {
 
       // Boolean
       if (operator == BinaryExpr.Operator.AND || operator == BinaryExpr.Operator.OR) {
-        return Set.of(new FullyQualifiedNameSet("boolean"));
+        return Set.of(FullyQualifiedNameSet.of("boolean"));
       } else if (isExpressionNotInProgress(other) && isExpressionNotInProgress(binary)) {
         // Treat all other cases; type on one side is equal to the other
         Set<FullyQualifiedNameSet> otherType = getFQNsForExpressionType(other);
@@ -1992,7 +2000,7 @@ public class FullyQualifiedNameGenerator {
             if (JavaParserUtil.isAClassName(validType)) {
               validType = "java.lang." + validType;
             }
-            result.add(new FullyQualifiedNameSet(validType));
+            result.add(FullyQualifiedNameSet.of(validType));
           }
 
           return result;
@@ -2026,7 +2034,7 @@ public class FullyQualifiedNameGenerator {
         for (String fqn : notArray.erasedFqns()) {
           result.add(fqn + "[]");
         }
-        return Set.of(new FullyQualifiedNameSet(result, notArray.typeArguments()));
+        return Set.of(FullyQualifiedNameSet.of(result, notArray.typeArguments()));
       }
     } else if (parentNode instanceof CastExpr castExpr
         && castExpr.getExpression().equals(expr)
@@ -2053,7 +2061,7 @@ public class FullyQualifiedNameGenerator {
       // to -- a final class such as String, an unrelated class, or a primitive. java.lang.Object
       // is the only choice guaranteed to compile here: it can be cast to any reference type, and
       // to any primitive type via unboxing.
-      return Set.of(new FullyQualifiedNameSet("java.lang.Object"));
+      return Set.of(FullyQualifiedNameSet.of("java.lang.Object"));
     } else if (parentNode instanceof ExpressionStmt exprStmt
         && exprStmt.getParentNode().orElse(null) instanceof SwitchEntry arrowEntry
         && arrowEntry.getParentNode().orElse(null) instanceof SwitchExpr arrowSwitchExpr
@@ -2145,7 +2153,7 @@ public class FullyQualifiedNameGenerator {
         result.add(fqn + "[]".repeat(arrayLevel));
       }
 
-      return new FullyQualifiedNameSet(result, elementFQNs.typeArguments());
+      return FullyQualifiedNameSet.of(result, elementFQNs.typeArguments());
     }
 
     if (type.isWildcardType()) {
@@ -2153,13 +2161,13 @@ public class FullyQualifiedNameGenerator {
         FullyQualifiedNameSet extendedFQNs =
             getFQNsFromType(type.asWildcardType().getExtendedType().get());
 
-        return new FullyQualifiedNameSet(
+        return FullyQualifiedNameSet.of(
             extendedFQNs.erasedFqns(), extendedFQNs.typeArguments(), "? extends");
       } else if (type.asWildcardType().getSuperType().isPresent()) {
         FullyQualifiedNameSet superFQNs =
             getFQNsFromType(type.asWildcardType().getSuperType().get());
 
-        return new FullyQualifiedNameSet(
+        return FullyQualifiedNameSet.of(
             superFQNs.erasedFqns(), superFQNs.typeArguments(), "? super");
       } else {
         return FullyQualifiedNameSet.UNBOUNDED_WILDCARD;
@@ -2206,7 +2214,7 @@ public class FullyQualifiedNameGenerator {
     // Sometimes, a type parameter usage can be mistaken for a ClassOrInterfaceType if located
     // inside an anonymous class.
     if (JavaParserUtil.tryResolveNodeIfInAnonymousClass(type) instanceof ResolvedTypeVariable) {
-      return new FullyQualifiedNameSet(type.getNameAsString());
+      return FullyQualifiedNameSet.of(type.getNameAsString());
     }
     // If a ClassOrInterfaceType is Map.Entry, we need to find the import with java.util.Map, not
     // java.util.Map.Entry.
@@ -2234,10 +2242,10 @@ public class FullyQualifiedNameGenerator {
         typeArguments.add(getFQNsFromType(typeArg));
       }
 
-      return new FullyQualifiedNameSet(erasedFQNs, typeArguments);
+      return FullyQualifiedNameSet.of(erasedFQNs, typeArguments);
     }
 
-    return new FullyQualifiedNameSet(erasedFQNs);
+    return FullyQualifiedNameSet.of(erasedFQNs);
   }
 
   /**
@@ -2268,7 +2276,7 @@ public class FullyQualifiedNameGenerator {
       parent = JavaParserUtil.getEnclosingClassLikeOptional(anno.getParentNode().get());
     }
 
-    return new FullyQualifiedNameSet(
+    return FullyQualifiedNameSet.of(
         getFQNsFromErasedClassName(
             getImportedName, anno.getNameAsString(), anno.findCompilationUnit().get(), parent));
   }
@@ -2423,7 +2431,7 @@ public class FullyQualifiedNameGenerator {
         .append(toCapital(fieldName))
         .append(isMethod ? RETURN_TYPE : "SyntheticType");
 
-    return new FullyQualifiedNameSet(
+    return FullyQualifiedNameSet.of(
         Set.of(packageName + "." + fieldTypeClassName), List.of(), null, true);
   }
 
@@ -2445,7 +2453,7 @@ public class FullyQualifiedNameGenerator {
       return simple;
     }
 
-    return new FullyQualifiedNameSet(
+    return FullyQualifiedNameSet.of(
         getFQNsFromErasedClassName(name, name, node.findCompilationUnit().get(), node),
         simple.typeArguments(),
         simple.wildcard(),
@@ -2470,7 +2478,7 @@ public class FullyQualifiedNameGenerator {
       return simple;
     }
 
-    return new FullyQualifiedNameSet(
+    return FullyQualifiedNameSet.of(
         getFQNsFromErasedClassName(name, name, node.findCompilationUnit().get(), node),
         simple.typeArguments(),
         simple.wildcard(),
@@ -2496,7 +2504,7 @@ public class FullyQualifiedNameGenerator {
           && JavaLangUtils.isPrimitive(parameters.get(i).erasedFqns().iterator().next())) {
         parameters.set(
             i,
-            new FullyQualifiedNameSet(
+            FullyQualifiedNameSet.of(
                 Set.of(
                     JavaLangUtils.getPrimitiveAsBoxedType(
                         parameters.get(i).erasedFqns().iterator().next())),
@@ -2509,20 +2517,20 @@ public class FullyQualifiedNameGenerator {
     // check arity:
     int numberOfParams = parameters.size();
     if (numberOfParams == 0 && isVoid) {
-      return new FullyQualifiedNameSet("java.lang.Runnable");
+      return FullyQualifiedNameSet.of("java.lang.Runnable");
     } else if (numberOfParams == 0 && !isVoid) {
-      return new FullyQualifiedNameSet(
+      return FullyQualifiedNameSet.of(
           Set.of("java.util.function.Supplier"), List.of(FullyQualifiedNameSet.UNBOUNDED_WILDCARD));
     } else if (numberOfParams == 1 && isVoid) {
-      return new FullyQualifiedNameSet(Set.of("java.util.function.Consumer"), parameters);
+      return FullyQualifiedNameSet.of(Set.of("java.util.function.Consumer"), parameters);
     } else if (numberOfParams == 1 && !isVoid) {
-      return new FullyQualifiedNameSet(
+      return FullyQualifiedNameSet.of(
           Set.of("java.util.function.Function"),
           List.of(parameters.get(0), FullyQualifiedNameSet.UNBOUNDED_WILDCARD));
     } else if (numberOfParams == 2 && isVoid) {
-      return new FullyQualifiedNameSet(Set.of("java.util.function.BiConsumer"), parameters);
+      return FullyQualifiedNameSet.of(Set.of("java.util.function.BiConsumer"), parameters);
     } else if (numberOfParams == 2 && !isVoid) {
-      return new FullyQualifiedNameSet(
+      return FullyQualifiedNameSet.of(
           Set.of("java.util.function.BiFunction"),
           List.of(parameters.get(0), parameters.get(1), FullyQualifiedNameSet.UNBOUNDED_WILDCARD));
     } else {
@@ -2536,7 +2544,7 @@ public class FullyQualifiedNameGenerator {
         parameters = typeArgs;
       }
 
-      return new FullyQualifiedNameSet(Set.of(funcInterfaceName), parameters, null, true);
+      return FullyQualifiedNameSet.of(Set.of(funcInterfaceName), parameters, null, true);
     }
   }
 
@@ -1,6 +1,8 @@
 package org.checkerframework.specimin.unsolved;
 
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -8,39 +10,129 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
  * Represents a set of fully qualified names from FullyQualifiedNameGenerator, representing a single
- * type. This record also holds type arguments and a wildcard if applicable. The parameter for
+ * type. This class also holds type arguments and a wildcard if applicable. The parameter for
  * wildcard should hold either "?", "? extends", or "? super".
  *
  * <p>For example, if representing the set {@code [? extends org.example.A<org.example.B>, ? extends
- * com.example.A<com.example.B>]}, then pass in a set of erasedFqns {@code [org.example.A,
+ * com.example.A<com.example.B>]}, then pass {@link #of} a set of erasedFqns {@code [org.example.A,
  * com.example.A]}, a list of FullyQualifiedNameSet {@code [org.example.B, com.example.B]} for type
  * arguments, and a wildcard of {@code ? extends}.
  *
  * <p>usesGeneratedName represents whether this FullyQualifiedNameSet uses a generated type name
  * (i.e., GetListReturnType).
+ *
+ * <p>FullyQualifiedNameSets are immutable and hash-consed: {@link #of} returns the same instance
+ * for the same components, so the many identical sets that FullyQualifiedNameGenerator creates
+ * share memory, and comparing or hashing them rarely needs to walk their contents.
  */
-public record FullyQualifiedNameSet(
-    Set<String> erasedFqns,
-    List<FullyQualifiedNameSet> typeArguments,
-    @Nullable String wildcard,
-    boolean usesGeneratedName) {
+public final class FullyQualifiedNameSet {
+  /** The canonical instance of each distinct FullyQualifiedNameSet. */
+  private static final CanonicalTable<Key, FullyQualifiedNameSet> CANONICAL_INSTANCES =
+      new CanonicalTable<>();
+
+  /** Represents an unbounded wildcard: ? */
+  public static final FullyQualifiedNameSet UNBOUNDED_WILDCARD = of(Set.of(), List.of(), "?");
+
+  /** The components of this set, which are also its key in {@link #CANONICAL_INSTANCES}. */
+  private final Key key;
+
+  /** The hash code of this set, which is computed once since these sets are immutable. */
+  private final int hashCode;
+
   /**
-   * Creates a new FullyQualifiedNameSet.
+   * The key of a canonical instance. Unlike {@link #equals(Object)}, keys tell apart sets whose
+   * erased FQNs are in a different order or that differ only in whether they use a generated name,
+   * since both are observed by callers; their type arguments are compared by identity, since they
+   * are canonical instances themselves.
+   *
+   * @param erasedFqns The erased FQNs, in order
+   * @param typeArguments The canonical type arguments
+   * @param wildcard The wildcard, or null if none
+   * @param usesGeneratedName Whether the set uses a generated type name
+   */
+  private record Key(
+      Set<String> erasedFqns,
+      List<FullyQualifiedNameSet> typeArguments,
+      @Nullable String wildcard,
+      boolean usesGeneratedName) {
+    @Override
+    public boolean equals(@Nullable Object other) {
+      if (!(other instanceof Key otherKey)
+          || erasedFqns.size() != otherKey.erasedFqns.size()
+          || usesGeneratedName != otherKey.usesGeneratedName
+          || !Objects.equals(wildcard, otherKey.wildcard)
+          || !CanonicalTable.identicalElements(typeArguments, otherKey.typeArguments)) {
+        return false;
+      }
+      Iterator<String> otherFqns = otherKey.erasedFqns.iterator();
+      for (String fqn : erasedFqns) {
+        if (!fqn.equals(otherFqns.next())) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = Objects.hash(wildcard, usesGeneratedName);
+      for (String fqn : erasedFqns) {
+        result = 31 * result + fqn.hashCode();
+      }
+      return 31 * result + CanonicalTable.identityHashCode(typeArguments);
+    }
+  }
+
+  /**
+   * Creates a new FullyQualifiedNameSet. Use {@link #of(Set, List, String, boolean)} instead, which
+   * returns the canonical instance.
+   *
+   * @param key The components of the set, which must not be changed by anything else
+   */
+  private FullyQualifiedNameSet(Key key) {
+    this.key = key;
+    this.hashCode = Objects.hash(key.erasedFqns, key.typeArguments, key.wildcard);
+  }
+
+  /**
+   * Gets the canonical FullyQualifiedNameSet with the given components. Callers may keep changing
+   * the given collections afterwards; the set holds copies of them.
    *
    * @param erasedFqns A set of FQNs with no type arguments.
    * @param typeArguments The list of type arguments, or an empty list if none.
    * @param wildcard The wildcard (?, ? extends, ? super) or null if none.
    * @param usesGeneratedName Whether this FQNSet represents an inferred, generated type name versus
    *     a known type name (i.e., FooReturnType)
+   * @return The canonical FullyQualifiedNameSet
+   */
+  public static FullyQualifiedNameSet of(
+      Set<String> erasedFqns,
+      List<FullyQualifiedNameSet> typeArguments,
+      @Nullable String wildcard,
+      boolean usesGeneratedName) {
+    return CANONICAL_INSTANCES.intern(
+        new Key(erasedFqns, typeArguments, wildcard, usesGeneratedName),
+        FullyQualifiedNameSet::create,
+        fqnSet -> fqnSet.key);
+  }
+
+  /**
+   * Creates the canonical instance for a key, after checking its components.
+   *
+   * @param key The key, whose collections may still be changed by the caller of {@link #of(Set,
+   *     List, String, boolean)}
+   * @return The new canonical instance
    */
-  public FullyQualifiedNameSet {
-    for (String fqn : erasedFqns) {
+  private static FullyQualifiedNameSet create(Key key) {
+    for (String fqn : key.erasedFqns) {
       if (fqn.contains("?")) {
         throw new IllegalArgumentException(
-            "erasedFqns cannot contain a wildcard; use parameter wildcard instead: " + erasedFqns);
+            "erasedFqns cannot contain a wildcard; use parameter wildcard instead: "
+                + key.erasedFqns);
       }
     }
 
+    String wildcard = key.wildcard;
     if (wildcard != null
         && !wildcard.equals("?")
         && !wildcard.equals("? extends")
@@ -48,53 +140,98 @@ public record FullyQualifiedNameSet(
       throw new IllegalArgumentException(
           "wildcard must be either ?, ? extends, or ? super: " + wildcard);
     }
-  }
 
-  /** Represents an unbounded wildcard: ? */
-  public static final FullyQualifiedNameSet UNBOUNDED_WILDCARD =
-      new FullyQualifiedNameSet(Set.of(), List.of(), "?");
+    return new FullyQualifiedNameSet(
+        new Key(
+            Collections.unmodifiableSet(new LinkedHashSet<>(key.erasedFqns)),
+            List.copyOf(key.typeArguments),
+            wildcard,
+            key.usesGeneratedName));
+  }
 
   /**
-   * Creates a non-synthetic FullyQualifiedNameSet with erased FQNs, type arguments, and a wildcard.
+   * Gets the canonical non-synthetic FullyQualifiedNameSet with erased FQNs, type arguments, and a
+   * wildcard.
    *
    * @param erasedFqns A set of erased fully qualified names.
    * @param typeArguments A list of type arguments.
    * @param wildcard The wildcard for the fully qualified name set.
+   * @return The canonical FullyQualifiedNameSet
    */
-  public FullyQualifiedNameSet(
+  public static FullyQualifiedNameSet of(
       Set<String> erasedFqns,
       List<FullyQualifiedNameSet> typeArguments,
       @Nullable String wildcard) {
-    this(erasedFqns, typeArguments, wildcard, false);
+    return of(erasedFqns, typeArguments, wildcard, false);
   }
 
   /**
-   * Creates a non-synthetic FullyQualifiedNameSet with erased FQNs, type arguments, but no
+   * Gets the canonical non-synthetic FullyQualifiedNameSet with erased FQNs, type arguments, but no
    * wildcard.
    *
    * @param erasedFqns A set of erased fully qualified names.
    * @param typeArguments A list of type arguments
+   * @return The canonical FullyQualifiedNameSet
    */
-  public FullyQualifiedNameSet(Set<String> erasedFqns, List<FullyQualifiedNameSet> typeArguments) {
-    this(erasedFqns, typeArguments, null);
+  public static FullyQualifiedNameSet of(
+      Set<String> erasedFqns, List<FullyQualifiedNameSet> typeArguments) {
+    return of(erasedFqns, typeArguments, null);
   }
 
   /**
-   * Creates a non-synthetic FullyQualifiedNameSet with erased FQNs and no type arguments.
+   * Gets the canonical non-synthetic FullyQualifiedNameSet with erased FQNs and no type arguments.
    *
    * @param erasedFqns A set of erased fully qualified names.
+   * @return The canonical FullyQualifiedNameSet
    */
-  public FullyQualifiedNameSet(Set<String> erasedFqns) {
-    this(erasedFqns, Collections.emptyList(), null);
+  public static FullyQualifiedNameSet of(Set<String> erasedFqns) {
+    return of(erasedFqns, Collections.emptyList(), null);
   }
 
   /**
-   * Creates a non-synthetic FullyQualifiedNameSet with erased FQNs and no type arguments.
+   * Gets the canonical non-synthetic FullyQualifiedNameSet with erased FQNs and no type arguments.
    *
    * @param erasedFqns A varargs of erased fully qualified names.
+   * @return The canonical FullyQualifiedNameSet
+   */
+  public static FullyQualifiedNameSet of(String... erasedFqns) {
+    return of(Set.of(erasedFqns));
+  }
+
+  /**
+   * Gets the erased FQNs of this set. The returned set cannot be modified.
+   *
+   * @return A set of FQNs with no type arguments
+   */
+  public Set<String> erasedFqns() {
+    return key.erasedFqns;
+  }
+
+  /**
+   * Gets the type arguments of this set. The returned list cannot be modified.
+   *
+   * @return The list of type arguments, or an empty list if none
+   */
+  public List<FullyQualifiedNameSet> typeArguments() {
+    return key.typeArguments;
+  }
+
+  /**
+   * Gets the wildcard of this set.
+   *
+   * @return The wildcard (?, ? extends, ? super) or null if none
    */
-  public FullyQualifiedNameSet(String... erasedFqns) {
-    this(Set.of(erasedFqns));
+  public @Nullable String wildcard() {
+    return key.wildcard;
+  }
+
+  /**
+   * Returns whether this set represents an inferred, generated type name (i.e., FooReturnType).
+   *
+   * @return True if this set uses a generated type name
+   */
+  public boolean usesGeneratedName() {
+    return key.usesGeneratedName;
   }
 
   /**
@@ -117,18 +254,40 @@ public record FullyQualifiedNameSet(
     return erasedFqns.size() == 1 ? erasedFqns.iterator().next() : null;
   }
 
+  /**
+   * Two sets are equal if they have the same erased FQNs, type arguments, and wildcard, regardless
+   * of the order of their erased FQNs or whether they use a generated name. Since every set is a
+   * canonical instance, this is usually decided by comparing references or hash codes.
+   */
   @Override
   public boolean equals(@Nullable Object other) {
+    if (this == other) {
+      return true;
+    }
     if (other instanceof FullyQualifiedNameSet otherSet) {
-      return Objects.equals(erasedFqns, otherSet.erasedFqns)
-          && Objects.equals(typeArguments, otherSet.typeArguments)
-          && Objects.equals(wildcard, otherSet.wildcard);
+      return hashCode == otherSet.hashCode
+          && Objects.equals(key.wildcard, otherSet.key.wildcard)
+          && key.erasedFqns.equals(otherSet.key.erasedFqns)
+          && key.typeArguments.equals(otherSet.key.typeArguments);
     }
     return false;
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(erasedFqns, typeArguments, wildcard);
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return "FullyQualifiedNameSet[erasedFqns="
+        + key.erasedFqns
+        + ", typeArguments="
+        + key.typeArguments
+        + ", wildcard="
+        + key.wildcard
+        + ", usesGeneratedName="
+        + key.usesGeneratedName
+        + "]";
   }
 }
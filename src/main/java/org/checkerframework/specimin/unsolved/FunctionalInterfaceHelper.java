@@ -30,198 +30,198 @@ public class FunctionalInterfaceHelper {
     // Autogenerated with GitHub Copilot using the contents from the link above
     return switch (name) {
       case "BinaryOperator" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.BiFunction"),
               Collections.nCopies(3, fqnSet.typeArguments().get(0)));
       case "BiPredicate" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.BiFunction"),
               Stream.concat(
                       fqnSet.typeArguments().stream(),
-                      Stream.of(new FullyQualifiedNameSet("java.lang.Boolean")))
+                      Stream.of(FullyQualifiedNameSet.of("java.lang.Boolean")))
                   .toList());
       case "BooleanSupplier" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Supplier"),
-              List.of(new FullyQualifiedNameSet("java.lang.Boolean")));
+              List.of(FullyQualifiedNameSet.of("java.lang.Boolean")));
       case "DoubleBinaryOperator" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.BiFunction"),
-              Collections.nCopies(3, new FullyQualifiedNameSet("java.lang.Double")));
+              Collections.nCopies(3, FullyQualifiedNameSet.of("java.lang.Double")));
       case "DoubleConsumer" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Consumer"),
-              List.of(new FullyQualifiedNameSet("java.lang.Double")));
+              List.of(FullyQualifiedNameSet.of("java.lang.Double")));
       case "DoubleFunction" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
               List.of(
-                  new FullyQualifiedNameSet("java.lang.Double"), fqnSet.typeArguments().get(0)));
+                  FullyQualifiedNameSet.of("java.lang.Double"), fqnSet.typeArguments().get(0)));
       case "DoublePredicate" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
               List.of(
-                  new FullyQualifiedNameSet("java.lang.Double"),
-                  new FullyQualifiedNameSet("java.lang.Boolean")));
+                  FullyQualifiedNameSet.of("java.lang.Double"),
+                  FullyQualifiedNameSet.of("java.lang.Boolean")));
       case "DoubleSupplier" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Supplier"),
-              List.of(new FullyQualifiedNameSet("java.lang.Double")));
+              List.of(FullyQualifiedNameSet.of("java.lang.Double")));
       case "DoubleToIntFunction" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
               List.of(
-                  new FullyQualifiedNameSet("java.lang.Double"),
-                  new FullyQualifiedNameSet("java.lang.Integer")));
+                  FullyQualifiedNameSet.of("java.lang.Double"),
+                  FullyQualifiedNameSet.of("java.lang.Integer")));
       case "DoubleToLongFunction" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
               List.of(
-                  new FullyQualifiedNameSet("java.lang.Double"),
-                  new FullyQualifiedNameSet("java.lang.Long")));
+                  FullyQualifiedNameSet.of("java.lang.Double"),
+                  FullyQualifiedNameSet.of("java.lang.Long")));
       case "DoubleUnaryOperator" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
               List.of(
-                  new FullyQualifiedNameSet("java.lang.Double"),
-                  new FullyQualifiedNameSet("java.lang.Double")));
+                  FullyQualifiedNameSet.of("java.lang.Double"),
+                  FullyQualifiedNameSet.of("java.lang.Double")));
       case "IntBinaryOperator" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.BiFunction"),
-              Collections.nCopies(3, new FullyQualifiedNameSet("java.lang.Integer")));
+              Collections.nCopies(3, FullyQualifiedNameSet.of("java.lang.Integer")));
       case "IntConsumer" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Consumer"),
-              List.of(new FullyQualifiedNameSet("java.lang.Integer")));
+              List.of(FullyQualifiedNameSet.of("java.lang.Integer")));
       case "IntFunction" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
               List.of(
-                  new FullyQualifiedNameSet("java.lang.Integer"), fqnSet.typeArguments().get(0)));
+                  FullyQualifiedNameSet.of("java.lang.Integer"), fqnSet.typeArguments().get(0)));
       case "IntPredicate" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
               List.of(
-                  new FullyQualifiedNameSet("java.lang.Integer"),
-                  new FullyQualifiedNameSet("java.lang.Boolean")));
+                  FullyQualifiedNameSet.of("java.lang.Integer"),
+                  FullyQualifiedNameSet.of("java.lang.Boolean")));
       case "IntSupplier" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Supplier"),
-              List.of(new FullyQualifiedNameSet("java.lang.Integer")));
+              List.of(FullyQualifiedNameSet.of("java.lang.Integer")));
       case "IntToDoubleFunction" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
               List.of(
-                  new FullyQualifiedNameSet("java.lang.Integer"),
-                  new FullyQualifiedNameSet("java.lang.Double")));
+                  FullyQualifiedNameSet.of("java.lang.Integer"),
+                  FullyQualifiedNameSet.of("java.lang.Double")));
       case "IntToLongFunction" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
               List.of(
-                  new FullyQualifiedNameSet("java.lang.Integer"),
-                  new FullyQualifiedNameSet("java.lang.Long")));
+                  FullyQualifiedNameSet.of("java.lang.Integer"),
+                  FullyQualifiedNameSet.of("java.lang.Long")));
       case "IntUnaryOperator" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
               List.of(
-                  new FullyQualifiedNameSet("java.lang.Integer"),
-                  new FullyQualifiedNameSet("java.lang.Integer")));
+                  FullyQualifiedNameSet.of("java.lang.Integer"),
+                  FullyQualifiedNameSet.of("java.lang.Integer")));
       case "LongBinaryOperator" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.BiFunction"),
-              Collections.nCopies(3, new FullyQualifiedNameSet("java.lang.Long")));
+              Collections.nCopies(3, FullyQualifiedNameSet.of("java.lang.Long")));
       case "LongConsumer" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Consumer"),
-              List.of(new FullyQualifiedNameSet("java.lang.Long")));
+              List.of(FullyQualifiedNameSet.of("java.lang.Long")));
       case "LongFunction" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
-              List.of(new FullyQualifiedNameSet("java.lang.Long"), fqnSet.typeArguments().get(0)));
+              List.of(FullyQualifiedNameSet.of("java.lang.Long"), fqnSet.typeArguments().get(0)));
       case "LongPredicate" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
               List.of(
-                  new FullyQualifiedNameSet("java.lang.Long"),
-                  new FullyQualifiedNameSet("java.lang.Boolean")));
+                  FullyQualifiedNameSet.of("java.lang.Long"),
+                  FullyQualifiedNameSet.of("java.lang.Boolean")));
       case "LongSupplier" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Supplier"),
-              List.of(new FullyQualifiedNameSet("java.lang.Long")));
+              List.of(FullyQualifiedNameSet.of("java.lang.Long")));
       case "LongToDoubleFunction" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
               List.of(
-                  new FullyQualifiedNameSet("java.lang.Long"),
-                  new FullyQualifiedNameSet("java.lang.Double")));
+                  FullyQualifiedNameSet.of("java.lang.Long"),
+                  FullyQualifiedNameSet.of("java.lang.Double")));
       case "LongToIntFunction" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
               List.of(
-                  new FullyQualifiedNameSet("java.lang.Long"),
-                  new FullyQualifiedNameSet("java.lang.Integer")));
+                  FullyQualifiedNameSet.of("java.lang.Long"),
+                  FullyQualifiedNameSet.of("java.lang.Integer")));
       case "LongUnaryOperator" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
               List.of(
-                  new FullyQualifiedNameSet("java.lang.Long"),
-                  new FullyQualifiedNameSet("java.lang.Long")));
+                  FullyQualifiedNameSet.of("java.lang.Long"),
+                  FullyQualifiedNameSet.of("java.lang.Long")));
       case "ObjDoubleConsumer" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.BiConsumer"),
               List.of(
-                  fqnSet.typeArguments().get(0), new FullyQualifiedNameSet("java.lang.Double")));
+                  fqnSet.typeArguments().get(0), FullyQualifiedNameSet.of("java.lang.Double")));
       case "ObjIntConsumer" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.BiConsumer"),
               List.of(
-                  fqnSet.typeArguments().get(0), new FullyQualifiedNameSet("java.lang.Integer")));
+                  fqnSet.typeArguments().get(0), FullyQualifiedNameSet.of("java.lang.Integer")));
       case "ObjLongConsumer" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.BiConsumer"),
-              List.of(fqnSet.typeArguments().get(0), new FullyQualifiedNameSet("java.lang.Long")));
+              List.of(fqnSet.typeArguments().get(0), FullyQualifiedNameSet.of("java.lang.Long")));
       case "Predicate" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
               List.of(
-                  fqnSet.typeArguments().get(0), new FullyQualifiedNameSet("java.lang.Boolean")));
+                  fqnSet.typeArguments().get(0), FullyQualifiedNameSet.of("java.lang.Boolean")));
       case "ToDoubleBiFunction" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.BiFunction"),
               List.of(
                   fqnSet.typeArguments().get(0),
                   fqnSet.typeArguments().get(1),
-                  new FullyQualifiedNameSet("java.lang.Double")));
+                  FullyQualifiedNameSet.of("java.lang.Double")));
       case "ToDoubleFunction" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
               List.of(
-                  fqnSet.typeArguments().get(0), new FullyQualifiedNameSet("java.lang.Double")));
+                  fqnSet.typeArguments().get(0), FullyQualifiedNameSet.of("java.lang.Double")));
       case "ToIntBiFunction" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.BiFunction"),
               List.of(
                   fqnSet.typeArguments().get(0),
                   fqnSet.typeArguments().get(1),
-                  new FullyQualifiedNameSet("java.lang.Integer")));
+                  FullyQualifiedNameSet.of("java.lang.Integer")));
       case "ToIntFunction" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
               List.of(
-                  fqnSet.typeArguments().get(0), new FullyQualifiedNameSet("java.lang.Integer")));
+                  fqnSet.typeArguments().get(0), FullyQualifiedNameSet.of("java.lang.Integer")));
       case "ToLongBiFunction" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.BiFunction"),
               List.of(
                   fqnSet.typeArguments().get(0),
                   fqnSet.typeArguments().get(1),
-                  new FullyQualifiedNameSet("java.lang.Long")));
+                  FullyQualifiedNameSet.of("java.lang.Long")));
       case "ToLongFunction" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
-              List.of(fqnSet.typeArguments().get(0), new FullyQualifiedNameSet("java.lang.Long")));
+              List.of(fqnSet.typeArguments().get(0), FullyQualifiedNameSet.of("java.lang.Long")));
       case "UnaryOperator" ->
-          new FullyQualifiedNameSet(
+          FullyQualifiedNameSet.of(
               Set.of("java.util.function.Function"),
               List.of(fqnSet.typeArguments().get(0), fqnSet.typeArguments().get(0)));
       default -> fqnSet;
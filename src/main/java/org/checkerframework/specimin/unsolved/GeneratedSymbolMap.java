@@ -0,0 +1,198 @@
+package org.checkerframework.specimin.unsolved;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The map of generated symbols that {@link UnsolvedSymbolGenerator} keeps, from every potential FQN
+ * of a symbol to the symbol. Besides the map itself, this class keeps indexes of its keys by
+ * declaring type, by simple name, and by the kind of their symbol, so that finding the members of
+ * one type, or the generated methods with one name, is a lookup rather than a scan of every
+ * generated symbol.
+ *
+ * <p>The keys are the FQNs that {@link UnsolvedSymbolAlternates#getFullyQualifiedNames()} returns:
+ * a type's is its FQN (for example, {@code com.example.Foo}), a field's is its declaring type's FQN
+ * followed by {@code #} and its name ({@code com.example.Foo#bar}), and a method's is followed by
+ * its parameter list as well ({@code com.example.Foo#bar(int)}).
+ *
+ * <p>The indexes are kept up to date by {@link #put(String, UnsolvedSymbolAlternates)}, {@link
+ * #remove(Object)}, and {@link #clear()}, through which every change to the map goes: removing
+ * entries through the views of the map is not supported.
+ */
+public final class GeneratedSymbolMap extends AbstractMap<String, UnsolvedSymbolAlternates<?>> {
+  /** The generated symbols, by FQN. */
+  private final Map<String, UnsolvedSymbolAlternates<?>> symbols = new HashMap<>();
+
+  /** The keys of the generated members of each type, by the FQN of the declaring type. */
+  private final Map<String, Set<String>> keysByDeclaringType = new HashMap<>();
+
+  /** The keys of the generated symbols, by simple name. */
+  private final Map<String, Set<String>> keysBySimpleName = new HashMap<>();
+
+  /** The keys of the generated symbols, by the class of their symbol. */
+  private final Map<Class<?>, Set<String>> keysByKind = new HashMap<>();
+
+  @Override
+  public @Nullable UnsolvedSymbolAlternates<?> get(@Nullable Object key) {
+    return symbols.get(key);
+  }
+
+  @Override
+  public boolean containsKey(@Nullable Object key) {
+    return symbols.containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return symbols.size();
+  }
+
+  @Override
+  public @Nullable UnsolvedSymbolAlternates<?> put(String key, UnsolvedSymbolAlternates<?> value) {
+    UnsolvedSymbolAlternates<?> previous = symbols.put(key, value);
+    if (previous == null) {
+      String declaringType = getDeclaringType(key);
+      if (declaringType != null) {
+        keysByDeclaringType.computeIfAbsent(declaringType, k -> new HashSet<>()).add(key);
+      }
+      keysBySimpleName.computeIfAbsent(getSimpleName(key), k -> new HashSet<>()).add(key);
+    } else if (previous.getClass() != value.getClass()) {
+      removeFromIndex(keysByKind, previous.getClass(), key);
+    }
+    keysByKind.computeIfAbsent(value.getClass(), k -> new HashSet<>()).add(key);
+    return previous;
+  }
+
+  @Override
+  public @Nullable UnsolvedSymbolAlternates<?> remove(@Nullable Object key) {
+    UnsolvedSymbolAlternates<?> previous = symbols.remove(key);
+    if (previous != null && key instanceof String removedKey) {
+      String declaringType = getDeclaringType(removedKey);
+      if (declaringType != null) {
+        removeFromIndex(keysByDeclaringType, declaringType, removedKey);
+      }
+      removeFromIndex(keysBySimpleName, getSimpleName(removedKey), removedKey);
+      removeFromIndex(keysByKind, previous.getClass(), removedKey);
+    }
+    return previous;
+  }
+
+  @Override
+  public void clear() {
+    symbols.clear();
+    keysByDeclaringType.clear();
+    keysBySimpleName.clear();
+    keysByKind.clear();
+  }
+
+  @Override
+  public Set<Entry<String, UnsolvedSymbolAlternates<?>>> entrySet() {
+    return Collections.unmodifiableMap(symbols).entrySet();
+  }
+
+  /**
+   * Gets the keys of the generated members (fields and methods) of a type. A member with several
+   * potential declaring types has a key for each.
+   *
+   * @param declaringType The FQN of the declaring type
+   * @return The keys whose declaring type is the given type. The set cannot be modified, and must
+   *     not be used once the map changes.
+   */
+  public Set<String> getKeysDeclaredIn(String declaringType) {
+    return getFromIndex(keysByDeclaringType, declaringType);
+  }
+
+  /**
+   * Gets the keys of the generated symbols with a simple name: the name of a field or method, or
+   * the simple name of a type.
+   *
+   * @param simpleName The simple name
+   * @return The keys with the given simple name. The set cannot be modified, and must not be used
+   *     once the map changes.
+   */
+  public Set<String> getKeysWithSimpleName(String simpleName) {
+    return getFromIndex(keysBySimpleName, simpleName);
+  }
+
+  /**
+   * Gets the generated symbols of one kind, such as every {@link UnsolvedMethodAlternates}. Each
+   * symbol is only in the result once, even if it has several keys.
+   *
+   * @param <T> The kind of symbol
+   * @param kind The class of the symbols
+   * @return A new set of every generated symbol of the given kind
+   */
+  public <T extends UnsolvedSymbolAlternates<?>> Set<T> getSymbolsOfKind(Class<T> kind) {
+    Set<T> result = new LinkedHashSet<>();
+    for (String key : getFromIndex(keysByKind, kind)) {
+      UnsolvedSymbolAlternates<?> symbol = symbols.get(key);
+      if (symbol != null) {
+        result.add(kind.cast(symbol));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Gets the FQN of the declaring type of a member's key.
+   *
+   * @param key The key of a generated symbol
+   * @return The declaring type, or null if the key is the key of a type
+   */
+  private static @Nullable String getDeclaringType(String key) {
+    int hash = key.indexOf('#');
+    return hash == -1 ? null : key.substring(0, hash);
+  }
+
+  /**
+   * Gets the simple name of a generated symbol from its key.
+   *
+   * @param key The key of a generated symbol
+   * @return The name of the field or method, or the simple name of the type
+   */
+  private static String getSimpleName(String key) {
+    int hash = key.indexOf('#');
+    if (hash == -1) {
+      return key.substring(key.lastIndexOf('.') + 1);
+    }
+    int parenthesis = key.indexOf('(', hash);
+    return key.substring(hash + 1, parenthesis == -1 ? key.length() : parenthesis);
+  }
+
+  /**
+   * Gets the keys that an index holds for a value.
+   *
+   * @param <I> The type of the indexed values
+   * @param index The index
+   * @param indexed The value
+   * @return The keys for the value, which may be empty. The set cannot be modified.
+   */
+  private static <I> Set<String> getFromIndex(Map<I, Set<String>> index, I indexed) {
+    Set<String> keys = index.get(indexed);
+    return keys == null ? Set.of() : Collections.unmodifiableSet(keys);
+  }
+
+  /**
+   * Removes a key from an index, and drops the value's entry once it has no more keys.
+   *
+   * @param <I> The type of the indexed values
+   * @param index The index
+   * @param indexed The value that the key is indexed under
+   * @param key The key to remove
+   */
+  private static <I> void removeFromIndex(Map<I, Set<String>> index, I indexed, String key) {
+    Set<String> keys = index.get(indexed);
+    if (keys != null) {
+      keys.remove(key);
+      if (keys.isEmpty()) {
+        index.remove(indexed);
+      }
+    }
+  }
+}
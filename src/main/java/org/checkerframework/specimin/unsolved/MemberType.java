@@ -9,18 +9,25 @@ import java.util.Set;
  *
  * <p>Use this class instead of hardcoding a string into {@link UnsolvedMethod} or {@link
  * UnsolvedField} to ensure proper types when alternates are generated.
+ *
+ * <p>Member types are immutable and hash-consed: each subclass creates its instances through a
+ * static {@code of} method that returns the same instance for the same components, so type
+ * arguments can be compared by identity and hash codes only need to be computed once.
  */
 public abstract class MemberType {
   /** The type arguments of this type. */
   private final List<MemberType> typeArguments;
 
+  /** The hash code of this type, or 0 if it was not computed yet. */
+  private int hashCode;
+
   /**
    * Creates a new MemberType with the given type arguments.
    *
    * @param typeArguments The type arguments for this MemberType, which can be empty if there are
-   *     none.
+   *     none. They must be canonical instances, and the list must not be changed afterwards.
    */
-  public MemberType(List<MemberType> typeArguments) {
+  protected MemberType(List<MemberType> typeArguments) {
     this.typeArguments = typeArguments;
   }
 
@@ -47,4 +54,22 @@ public abstract class MemberType {
    * @return A copy of this member type with the specified type arguments
    */
   public abstract MemberType copyWithNewTypeArgs(List<MemberType> newTypeArgs);
+
+  @Override
+  public final int hashCode() {
+    // Like String, a hash code of 0 is recomputed each time, which is harmless
+    int result = hashCode;
+    if (result == 0) {
+      result = computeHashCode();
+      hashCode = result;
+    }
+    return result;
+  }
+
+  /**
+   * Computes the hash code of this type, which {@link #hashCode()} then caches.
+   *
+   * @return The hash code of this type
+   */
+  protected abstract int computeHashCode();
 }
@@ -12,38 +12,80 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  * <p>See {@link MemberType} for more details.
  */
 public class SolvedMemberType extends MemberType {
+  /** The canonical instance of each distinct SolvedMemberType. */
+  private static final CanonicalTable<Key, SolvedMemberType> CANONICAL_INSTANCES =
+      new CanonicalTable<>();
+
   /** Represents java.lang.Exception */
-  public static final SolvedMemberType JAVA_LANG_EXCEPTION =
-      new SolvedMemberType("java.lang.Exception");
+  public static final SolvedMemberType JAVA_LANG_EXCEPTION = of("java.lang.Exception");
 
   /** Represents java.lang.Error */
-  public static final SolvedMemberType JAVA_LANG_ERROR = new SolvedMemberType("java.lang.Error");
+  public static final SolvedMemberType JAVA_LANG_ERROR = of("java.lang.Error");
 
   /** Represents java.lang.Object */
-  public static final SolvedMemberType JAVA_LANG_OBJECT = new SolvedMemberType("java.lang.Object");
+  public static final SolvedMemberType JAVA_LANG_OBJECT = of("java.lang.Object");
 
   /** The fully-qualified name represented by this type. */
   private final String fqn;
 
+  /** The key of this type in {@link #CANONICAL_INSTANCES}. */
+  private final Key key;
+
   /**
-   * Creates a new SolvedMemberType based on a fully-qualified name. May include array brackets.
+   * The key of a canonical instance.
    *
    * @param fqn The fully-qualified name
+   * @param typeArguments The type arguments, which are compared by identity
    */
-  public SolvedMemberType(String fqn) {
-    this(fqn, List.of());
+  private record Key(String fqn, List<MemberType> typeArguments) {
+    @Override
+    public boolean equals(@Nullable Object other) {
+      return other instanceof Key otherKey
+          && fqn.equals(otherKey.fqn)
+          && CanonicalTable.identicalElements(typeArguments, otherKey.typeArguments);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * fqn.hashCode() + CanonicalTable.identityHashCode(typeArguments);
+    }
   }
 
   /**
-   * Creates a new SolvedMemberType based on a fully-qualified name. May include array brackets.
+   * Creates a new SolvedMemberType from its key.
+   *
+   * @param key The key, which must not be changed afterwards
+   */
+  private SolvedMemberType(Key key) {
+    super(key.typeArguments);
+    this.fqn = key.fqn;
+    this.key = key;
+  }
+
+  /**
+   * Gets the canonical SolvedMemberType of a fully-qualified name. May include array brackets.
+   *
+   * @param fqn The fully-qualified name
+   * @return The canonical SolvedMemberType
+   */
+  public static SolvedMemberType of(String fqn) {
+    return of(fqn, List.of());
+  }
+
+  /**
+   * Gets the canonical SolvedMemberType of a fully-qualified name. May include array brackets.
    * Also provides a list of type arguments.
    *
    * @param fqn The fully-qualified name
    * @param typeArguments The type arguments for this type
+   * @return The canonical SolvedMemberType
    */
-  public SolvedMemberType(String fqn, List<MemberType> typeArguments) {
-    super(typeArguments);
-    this.fqn = fqn;
+  public static SolvedMemberType of(String fqn, List<MemberType> typeArguments) {
+    return CANONICAL_INSTANCES.intern(
+        new Key(fqn, typeArguments),
+        // The caller may still change its list
+        key -> new SolvedMemberType(new Key(key.fqn, List.copyOf(key.typeArguments))),
+        type -> type.key);
   }
 
   @Override
@@ -85,7 +127,11 @@ public class SolvedMemberType extends MemberType {
 
   @Override
   public boolean equals(@Nullable Object other) {
-    if (!(other instanceof SolvedMemberType otherAsSolvedMemberType)) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof SolvedMemberType otherAsSolvedMemberType)
+        || otherAsSolvedMemberType.hashCode() != hashCode()) {
       return false;
     }
 
@@ -94,12 +140,12 @@ public class SolvedMemberType extends MemberType {
   }
 
   @Override
-  public int hashCode() {
+  protected int computeHashCode() {
     return Objects.hash(fqn, getTypeArguments());
   }
 
   @Override
   public MemberType copyWithNewTypeArgs(List<MemberType> newTypeArgs) {
-    return new SolvedMemberType(fqn, newTypeArgs);
+    return of(fqn, newTypeArgs);
   }
 }
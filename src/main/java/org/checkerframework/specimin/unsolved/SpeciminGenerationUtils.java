@@ -118,7 +118,7 @@ public class SpeciminGenerationUtils {
       if (newBound.equals(bound)) {
         return original;
       }
-      return new WildcardMemberType(newBound, wildcard.isUpperBounded());
+      return WildcardMemberType.of(newBound, wildcard.isUpperBounded());
     }
 
     boolean replaced = false;
@@ -210,7 +210,7 @@ public class SpeciminGenerationUtils {
 
         return getDifferentTypesImpl(
             bound1,
-            new FullyQualifiedNameSet(type2.erasedFqns(), type2.typeArguments()),
+            FullyQualifiedNameSet.of(type2.erasedFqns(), type2.typeArguments()),
             differences);
       }
 
@@ -1,7 +1,9 @@
 package org.checkerframework.specimin.unsolved;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -505,7 +507,7 @@ public class UnsolvedClassOrInterfaceAlternates
         // Half sanitized means that all member types up to index i are already handled
         List<MemberType> newTypeArgs = new ArrayList<>(halfSanitized.getTypeArguments());
         if (preferredTypeArg != null) {
-          newTypeArgs.set(i, new SolvedMemberType(preferredTypeArg));
+          newTypeArgs.set(i, SolvedMemberType.of(preferredTypeArg));
           newSanitized.add(halfSanitized.copyWithNewTypeArgs(newTypeArgs));
 
           newTypeArgs = new ArrayList<>(halfSanitized.getTypeArguments());
@@ -519,7 +521,7 @@ public class UnsolvedClassOrInterfaceAlternates
               continue;
             }
 
-            newTypeArgs.set(i, new SolvedMemberType(potentialTypeArg));
+            newTypeArgs.set(i, SolvedMemberType.of(potentialTypeArg));
             newSanitized.add(halfSanitized.copyWithNewTypeArgs(newTypeArgs));
             addedAlternate = true;
 
@@ -605,9 +607,20 @@ public class UnsolvedClassOrInterfaceAlternates
       setType(type);
     }
 
+    // The alternates are every combination of the possible super types, so there can be
+    // exponentially many of them. Only the first few are usually needed, so the combinations are
+    // enumerated lazily; only the alternates that may have must-preserve nodes are created now.
     switch (type) {
-      case INTERFACE -> createAlternatesBasedOnSuperTypeRelationshipsForInterface(getAlternates());
-      case CLASS, ENUM -> createAlternatesBasedOnSuperTypeRelationshipsForClass(getAlternates());
+      case INTERFACE -> {
+        AlternatesSequence sequence =
+            createAlternatesBasedOnSuperTypeRelationshipsForInterface(getAlternates());
+        setAlternates(sequence.created(), sequence.remaining());
+      }
+      case CLASS, ENUM -> {
+        AlternatesSequence sequence =
+            createAlternatesBasedOnSuperTypeRelationshipsForClass(getAlternates());
+        setAlternates(sequence.created(), sequence.remaining());
+      }
       case ANNOTATION -> {
         // An annotation cannot extend or implement other types
       }
@@ -627,24 +640,49 @@ public class UnsolvedClassOrInterfaceAlternates
           interfaceAlternates.add(asInterface);
         }
 
-        createAlternatesBasedOnSuperTypeRelationshipsForClass(classAlternates);
-        createAlternatesBasedOnSuperTypeRelationshipsForInterface(interfaceAlternates);
+        AlternatesSequence asClasses =
+            createAlternatesBasedOnSuperTypeRelationshipsForClass(classAlternates);
+        AlternatesSequence asInterfaces =
+            createAlternatesBasedOnSuperTypeRelationshipsForInterface(interfaceAlternates);
 
-        getAlternates().clear();
-        getAlternates().addAll(classAlternates);
-        getAlternates().addAll(interfaceAlternates);
+        // All of these are copies, which have no must-preserve nodes, so none are created now
+        setAlternates(
+            List.of(),
+            JavaParserUtil.flatMapIterator(
+                List.of(asClasses, asInterfaces).iterator(), AlternatesSequence::iterator));
       }
     }
   }
 
+  /**
+   * A sequence of alternates, of which only the first few exist yet.
+   *
+   * @param created The first alternates, which already exist
+   * @param remaining The alternates after them, which are created as they are iterated over. These
+   *     are all copies made by {@link UnsolvedClassOrInterface#copy()}, so they have no
+   *     must-preserve nodes.
+   */
+  private record AlternatesSequence(
+      List<UnsolvedClassOrInterface> created, Iterator<UnsolvedClassOrInterface> remaining) {
+    /**
+     * Iterates over all alternates in this sequence. This may only be called once.
+     *
+     * @return An iterator over the created alternates, then the remaining ones
+     */
+    Iterator<UnsolvedClassOrInterface> iterator() {
+      return JavaParserUtil.flatMapIterator(
+          List.of(created.iterator(), remaining).iterator(), iterator -> iterator);
+    }
+  }
+
   /**
    * This helper method creates alternates based on super type relationships for interfaces.
    *
    * @param alternates The initial list of alternates. If {@link #getType()} returns INTERFACE, you
-   *     should pass getAlternates() here. This list will be modified as a side effect, and its
-   *     values may be cleared and overwritten after a call to this method.
+   *     should pass getAlternates() here. These alternates may be modified as a side effect.
+   * @return The new alternates, which replace the given ones
    */
-  private void createAlternatesBasedOnSuperTypeRelationshipsForInterface(
+  private AlternatesSequence createAlternatesBasedOnSuperTypeRelationshipsForInterface(
       List<UnsolvedClassOrInterface> alternates) {
     // Must implement means that all alternates must implement this interface, because
     // no superinterfaces also implement this interface.
@@ -684,35 +722,41 @@ public class UnsolvedClassOrInterfaceAlternates
     // so we'll keep those alternates without adding additional interfaces. However, if it
     // is empty, then we should not preserve the alternates without any interfaces.
 
-    List<UnsolvedClassOrInterface> originalAlternates = List.copyOf(alternates);
-    if (mustImplement.isEmpty()) {
-      alternates.clear();
-    }
-
-    for (List<Set<MemberType>> subset : JavaParserUtil.generateSubsets(optionalImplement)) {
-      for (List<MemberType> combination : JavaParserUtil.generateAllCombinations(subset)) {
-        for (UnsolvedClassOrInterface alternate : originalAlternates) {
-          UnsolvedClassOrInterface copy = alternate.copy();
-          copy.implement(combination);
-
-          alternates.add(copy);
-        }
-      }
-    }
+    List<UnsolvedClassOrInterface> kept =
+        mustImplement.isEmpty() ? List.of() : List.copyOf(alternates);
+    // Copy the originals now, so that later changes to the kept ones do not leak into the copies
+    List<UnsolvedClassOrInterface> originalAlternates =
+        alternates.stream().map(UnsolvedClassOrInterface::copy).toList();
+
+    Iterator<UnsolvedClassOrInterface> withOptional =
+        JavaParserUtil.flatMapIterator(
+            JavaParserUtil.iterateSubsets(optionalImplement),
+            subset ->
+                JavaParserUtil.flatMapIterator(
+                    JavaParserUtil.iterateAllCombinations(subset),
+                    combination ->
+                        originalAlternates.stream()
+                            .map(
+                                alternate -> {
+                                  UnsolvedClassOrInterface copy = alternate.copy();
+                                  copy.implement(combination);
+                                  return copy;
+                                })
+                            .iterator()));
+    return new AlternatesSequence(kept, withOptional);
   }
 
   /**
    * This helper method creates alternates based on super type relationships for classes.
    *
    * @param alternates The initial list of alternates. If {@link #getType()} returns CLASS/ENUM, you
-   *     should pass getAlternates() here. This list will be modified as a side effect, and its
-   *     values may be cleared and overwritten after a call to this method.
+   *     should pass getAlternates() here.
+   * @return The new alternates, which replace the given ones
    */
-  private void createAlternatesBasedOnSuperTypeRelationshipsForClass(
+  private AlternatesSequence createAlternatesBasedOnSuperTypeRelationshipsForClass(
       List<UnsolvedClassOrInterface> alternates) {
-    List<UnsolvedClassOrInterface> originalAlternates = List.copyOf(alternates);
-
-    alternates.clear();
+    List<UnsolvedClassOrInterface> originalAlternates =
+        alternates.stream().map(UnsolvedClassOrInterface::copy).toList();
 
     List<UnsolvedClassOrInterface> withExtends = new ArrayList<>();
     List<Set<MemberType>> toImplement = new ArrayList<>();
@@ -744,25 +788,31 @@ public class UnsolvedClassOrInterfaceAlternates
     }
 
     if (toImplement.isEmpty()) {
-      alternates.addAll(withExtends);
-    } else {
-      for (List<MemberType> combination : JavaParserUtil.generateAllCombinations(toImplement)) {
-        for (UnsolvedClassOrInterface originalAlternate :
-            withExtends.isEmpty() ? originalAlternates : withExtends) {
-          UnsolvedClassOrInterface copy = originalAlternate.copy();
-
-          for (MemberType interfaceType : combination) {
-            if (copy.doesExtend(interfaceType)) {
-              continue;
-            }
-
-            copy.implement(interfaceType);
-          }
-
-          alternates.add(copy);
-        }
-      }
+      return new AlternatesSequence(withExtends, Collections.emptyIterator());
     }
+
+    List<UnsolvedClassOrInterface> bases = withExtends.isEmpty() ? originalAlternates : withExtends;
+    Iterator<UnsolvedClassOrInterface> withImplements =
+        JavaParserUtil.flatMapIterator(
+            JavaParserUtil.iterateAllCombinations(toImplement),
+            combination ->
+                bases.stream()
+                    .map(
+                        originalAlternate -> {
+                          UnsolvedClassOrInterface copy = originalAlternate.copy();
+
+                          for (MemberType interfaceType : combination) {
+                            if (copy.doesExtend(interfaceType)) {
+                              continue;
+                            }
+
+                            copy.implement(interfaceType);
+                          }
+
+                          return copy;
+                        })
+                    .iterator());
+    return new AlternatesSequence(List.of(), withImplements);
   }
 
   /**
@@ -899,12 +949,12 @@ public class UnsolvedClassOrInterfaceAlternates
    */
   @Override
   public List<String> getTypeVariables() {
-    return getAlternates().get(0).getTypeVariables();
+    return getBestAlternate().getTypeVariables();
   }
 
   @Override
   public @ClassGetSimpleName String getClassName() {
-    return getAlternates().get(0).getClassName();
+    return getBestAlternate().getClassName();
   }
 
   @Override
@@ -12,6 +12,10 @@ import org.checkerframework.checker.nullness.qual.Nullable;
  * <p>See {@link MemberType} for more details.
  */
 public class UnsolvedMemberType extends MemberType {
+  /** The canonical instance of each distinct UnsolvedMemberType. */
+  private static final CanonicalTable<Key, UnsolvedMemberType> CANONICAL_INSTANCES =
+      new CanonicalTable<>();
+
   /** The unsolved class or interface alternates that this member type wraps. */
   private final UnsolvedClassOrInterfaceAlternates unsolved;
 
@@ -24,25 +28,83 @@ public class UnsolvedMemberType extends MemberType {
    */
   private final boolean usesGeneratedName;
 
+  /** The key of this type in {@link #CANONICAL_INSTANCES}. */
+  private final Key key;
+
+  /**
+   * The key of a canonical instance. Unlike {@link #equals(Object)}, keys tell apart types that
+   * differ only in their array brackets or in whether they use a generated name. The unsolved type
+   * and the type arguments are compared by identity.
+   *
+   * @param unsolved The unsolved type
+   * @param numArrayBrackets The number of array brackets
+   * @param typeArguments The type arguments
+   * @param usesGeneratedName Whether the type uses a generated type name
+   */
+  private record Key(
+      UnsolvedClassOrInterfaceAlternates unsolved,
+      int numArrayBrackets,
+      List<MemberType> typeArguments,
+      boolean usesGeneratedName) {
+    @Override
+    @SuppressWarnings("not.interned") // Unsolved types are compared by identity
+    public boolean equals(@Nullable Object other) {
+      return other instanceof Key otherKey
+          && unsolved == otherKey.unsolved
+          && numArrayBrackets == otherKey.numArrayBrackets
+          && usesGeneratedName == otherKey.usesGeneratedName
+          && CanonicalTable.identicalElements(typeArguments, otherKey.typeArguments);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = System.identityHashCode(unsolved);
+      result = 31 * result + numArrayBrackets;
+      result = 31 * result + Boolean.hashCode(usesGeneratedName);
+      return 31 * result + CanonicalTable.identityHashCode(typeArguments);
+    }
+  }
+
   /**
-   * Creates a new UnsolvedMemberType with the given unsolved type, number of array brackets, and
-   * type arguments.
+   * Creates a new UnsolvedMemberType from its key.
+   *
+   * @param key The key, which must not be changed afterwards
+   */
+  private UnsolvedMemberType(Key key) {
+    super(key.typeArguments);
+    this.unsolved = key.unsolved;
+    this.numArrayBrackets = key.numArrayBrackets;
+    this.usesGeneratedName = key.usesGeneratedName;
+    this.key = key;
+  }
+
+  /**
+   * Gets the canonical UnsolvedMemberType with the given unsolved type, number of array brackets,
+   * and type arguments.
    *
    * @param unsolved The unsolved type
    * @param numArrayBrackets The number of array brackets
    * @param typeArguments The type arguments for this type
    * @param usesGeneratedName Whether this UnsolvedMemberType uses a generated type name (i.e.,
    *     GetListReturnType)
+   * @return The canonical UnsolvedMemberType
    */
-  public UnsolvedMemberType(
+  public static UnsolvedMemberType of(
       UnsolvedClassOrInterfaceAlternates unsolved,
       int numArrayBrackets,
       List<MemberType> typeArguments,
       boolean usesGeneratedName) {
-    super(typeArguments);
-    this.unsolved = unsolved;
-    this.numArrayBrackets = numArrayBrackets;
-    this.usesGeneratedName = usesGeneratedName;
+    return CANONICAL_INSTANCES.intern(
+        new Key(unsolved, numArrayBrackets, typeArguments, usesGeneratedName),
+        // The caller may still change its list
+        key ->
+            new UnsolvedMemberType(
+                new Key(
+                    key.unsolved,
+                    key.numArrayBrackets,
+                    List.copyOf(key.typeArguments),
+                    key.usesGeneratedName)),
+        type -> type.key);
   }
 
   /**
@@ -95,7 +157,11 @@ public class UnsolvedMemberType extends MemberType {
 
   @Override
   public boolean equals(@Nullable Object other) {
-    if (!(other instanceof UnsolvedMemberType otherAsUnsolvedMemberType)) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof UnsolvedMemberType otherAsUnsolvedMemberType)
+        || otherAsUnsolvedMemberType.hashCode() != hashCode()) {
       return false;
     }
 
@@ -104,12 +170,12 @@ public class UnsolvedMemberType extends MemberType {
   }
 
   @Override
-  public int hashCode() {
+  protected int computeHashCode() {
     return Objects.hash(unsolved, getTypeArguments());
   }
 
   @Override
   public MemberType copyWithNewTypeArgs(List<MemberType> newTypeArgs) {
-    return new UnsolvedMemberType(unsolved, numArrayBrackets, newTypeArgs, usesGeneratedName);
+    return of(unsolved, numArrayBrackets, newTypeArgs, usesGeneratedName);
   }
 }
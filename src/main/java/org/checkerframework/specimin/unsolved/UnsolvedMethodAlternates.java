@@ -281,7 +281,7 @@ public class UnsolvedMethodAlternates extends UnsolvedSymbolAlternates<UnsolvedM
     for (UnsolvedMethod alternate : getAlternates()) {
       alternate.setNumberOfTypeVariables(alternate.getNumberOfTypeVariables() + 1);
       MemberType returnType =
-          new SolvedMemberType(
+          SolvedMemberType.of(
               alternate.getTypeVariableName(alternate.getNumberOfTypeVariables() - 1));
       alternate.setReturnType(returnType);
     }
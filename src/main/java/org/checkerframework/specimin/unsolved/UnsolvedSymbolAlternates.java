@@ -2,22 +2,34 @@ package org.checkerframework.specimin.unsolved;
 
 import com.github.javaparser.ast.Node;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 /** Base type for all synthetic definitions containing alternates. */
 public abstract class UnsolvedSymbolAlternates<T extends UnsolvedSymbolAlternate> {
   /** A list of potential declaring types for this symbol. */
   private final List<UnsolvedClassOrInterfaceAlternates> alternateDeclaringTypes;
 
-  /** A list of alternate definitions for this symbol. */
+  /**
+   * A list of alternate definitions for this symbol. If {@link #remainingAlternates} is not null,
+   * these are only the ones created so far.
+   */
   private final List<T> alternates = new ArrayList<>();
 
+  /**
+   * The alternates that come after {@link #alternates} but were not created yet, or null if every
+   * alternate was created. See {@link #setAlternates(List, Iterator)}.
+   */
+  private @Nullable Iterator<T> remainingAlternates = null;
+
   /**
    * Base constructor for setting alternate declaring types.
    *
@@ -45,17 +57,78 @@ public abstract class UnsolvedSymbolAlternates<T extends UnsolvedSymbolAlternate
   }
 
   /**
-   * Gets alternate definitions for this symbol.
+   * Gets alternate definitions for this symbol. This creates any alternates that are enumerated
+   * lazily; use {@link #getBestAlternate()} if only the first one is needed.
    *
    * @return All alternates
    */
   public List<T> getAlternates() {
+    if (remainingAlternates != null) {
+      remainingAlternates.forEachRemaining(alternates::add);
+      remainingAlternates = null;
+    }
     return alternates;
   }
 
+  /**
+   * Gets the first alternate definition for this symbol, which is the one that best-effort output
+   * uses. Unlike {@link #getAlternates()}, this creates at most one lazily enumerated alternate.
+   *
+   * @return The first alternate
+   */
+  public T getBestAlternate() {
+    return getAlternate(0);
+  }
+
+  /**
+   * Gets the alternate definition at an index. Unlike {@link #getAlternates()}, this only creates
+   * the lazily enumerated alternates up to that index.
+   *
+   * @param index The index of the alternate, which must be one for which {@link
+   *     #hasAlternate(int)} is true
+   * @return The alternate at the index
+   */
+  public T getAlternate(int index) {
+    hasAlternate(index);
+    return alternates.get(index);
+  }
+
+  /**
+   * Checks if this symbol has an alternate definition at an index, without creating the lazily
+   * enumerated alternates after it. Since the alternates are a sequence, this is true for every
+   * index below the number of alternates, so it can rank alternates without counting them all.
+   *
+   * @param index The index, which must not be negative
+   * @return true if there is an alternate at the index
+   */
+  public boolean hasAlternate(int index) {
+    while (alternates.size() <= index
+        && remainingAlternates != null
+        && remainingAlternates.hasNext()) {
+      alternates.add(remainingAlternates.next());
+    }
+    return index < alternates.size();
+  }
+
+  /**
+   * Replaces the alternates of this symbol with a sequence whose tail is enumerated lazily: the
+   * alternates of the iterator are only created when {@link #getAlternates()}, {@link
+   * #getAlternate(int)}, or {@link #hasAlternate(int)} reaches them. Since {@link
+   * #getDependentNodes()} does not create them, the alternates of the iterator must not have any
+   * must-preserve nodes.
+   *
+   * @param created The first alternates, which already exist
+   * @param remaining The alternates that come after them
+   */
+  protected void setAlternates(List<T> created, Iterator<T> remaining) {
+    alternates.clear();
+    alternates.addAll(created);
+    remainingAlternates = remaining;
+  }
+
   /** Removes duplicate alternates. */
   public void removeDuplicateAlternates() {
-    Set<T> uniqueAlternates = new LinkedHashSet<>(alternates);
+    Set<T> uniqueAlternates = new LinkedHashSet<>(getAlternates());
     alternates.clear();
     alternates.addAll(uniqueAlternates);
   }
@@ -68,7 +141,7 @@ public abstract class UnsolvedSymbolAlternates<T extends UnsolvedSymbolAlternate
    *     with no parameters.
    */
   protected void applyToAllAlternates(Consumer<T> apply) {
-    for (T alternate : alternates) {
+    for (T alternate : getAlternates()) {
       apply.accept(alternate);
     }
   }
@@ -83,7 +156,7 @@ public abstract class UnsolvedSymbolAlternates<T extends UnsolvedSymbolAlternate
    * @param input The input to use to set all alternates.
    */
   protected <U> void applyToAllAlternates(BiConsumer<T, U> apply, U input) {
-    for (T alternate : alternates) {
+    for (T alternate : getAlternates()) {
       apply.accept(alternate, input);
     }
   }
@@ -97,7 +170,7 @@ public abstract class UnsolvedSymbolAlternates<T extends UnsolvedSymbolAlternate
    * @return True if all alternates return true for the predicate
    */
   protected boolean doAllAlternatesReturnTrueFor(Predicate<T> predicate) {
-    for (T alternate : alternates) {
+    for (T alternate : getAlternates()) {
       if (!predicate.test(alternate)) {
         return false;
       }
@@ -106,12 +179,13 @@ public abstract class UnsolvedSymbolAlternates<T extends UnsolvedSymbolAlternate
   }
 
   /**
-   * Gets all the nodes that alternates could depend on.
+   * Gets all the nodes that alternates could depend on. Alternates that are still enumerated
+   * lazily have no must-preserve nodes, so they are not created.
    *
    * @return A set of all the nodes that alternates could depend on.
    */
   public Set<Node> getDependentNodes() {
-    Set<Node> nodes = new HashSet<>();
+    Set<Node> nodes = Collections.newSetFromMap(new IdentityHashMap<>());
 
     for (T alternate : alternates) {
       nodes.addAll(alternate.getMustPreserveNodes());
@@ -126,6 +200,6 @@ public abstract class UnsolvedSymbolAlternates<T extends UnsolvedSymbolAlternate
    * @param alternate The alternate to add
    */
   protected void addAlternate(T alternate) {
-    this.alternates.add(alternate);
+    getAlternates().add(alternate);
   }
 }
@@ -1,18 +1,27 @@
 package org.checkerframework.specimin.unsolved;
 
 import com.github.javaparser.ast.Node;
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.stream.IntStream;
 import org.checkerframework.specimin.JavaParserUtil;
+import org.checkerframework.specimin.NodeSet;
 import org.checkerframework.specimin.Slicer;
 
 /**
  * Enumerates possible combinations of unsolved symbols, given a set of generated unsolved symbols
- * from the {@link Slicer}. Depending on the (TODO: ambiguity resolution policy), this class may
- * enumerate one to all possibilities.
+ * from the {@link Slicer}. {@link #getBestEffort(Set)} picks the first alternate of every symbol;
+ * {@link #enumerate(Set)} lazily enumerates every combination of alternates, starting with the best
+ * effort one, so that a caller can stop at the first combination that compiles.
  */
 public class UnsolvedSymbolEnumerator {
   /** The unsolved types that must be included in the output. */
@@ -57,6 +66,206 @@ public class UnsolvedSymbolEnumerator {
    */
   public UnsolvedSymbolEnumeratorResult getBestEffort(Set<Node> allDependentNodes) {
     // Best effort is the first alternate in every alternate set
+    return getResult(allDependentNodes, new Choices(new IdentityHashMap<>()));
+  }
+
+  /**
+   * Lazily enumerates every combination of alternates and declaring types of the unsolved symbols.
+   * The combinations are ordered by how far they stray from the best effort one, which comes
+   * first: a combination's distance is the sum of the indices of its choices, so that combinations
+   * that change a single choice to the second alternate come right after the best effort one. Each
+   * result is only created when the returned iterator reaches it, and the alternates of a symbol
+   * are only created as far as the combinations reached so far index into them, so the number of
+   * alternates is never needed up front.
+   *
+   * @param allDependentNodes The set of all nodes that are dependent on some alternate
+   * @return An iterator over the results of every combination, the best effort result first
+   */
+  public Iterator<UnsolvedSymbolEnumeratorResult> enumerate(Set<Node> allDependentNodes) {
+    List<Choice> choices = new ArrayList<>();
+    for (UnsolvedClassOrInterfaceAlternates unsolved : unsolvedTypes) {
+      addChoice(choices, new Choice(unsolved, false));
+    }
+    for (UnsolvedFieldAlternates unsolved : unsolvedFields) {
+      addChoice(choices, new Choice(unsolved, false));
+      addChoice(choices, new Choice(unsolved, true));
+    }
+    for (UnsolvedMethodAlternates unsolved : unsolvedMethods) {
+      addChoice(choices, new Choice(unsolved, false));
+      addChoice(choices, new Choice(unsolved, true));
+    }
+
+    Iterator<int[]> combinations =
+        new Iterator<>() {
+          /** The distance of the combinations that {@link #atDistance} enumerates. */
+          private int distance = 0;
+
+          /** The remaining combinations at the current distance. */
+          private Iterator<int[]> atDistance = indicesAtDistance(choices, new int[0], 0);
+
+          /** True if a combination at the current distance was returned. */
+          private boolean found = false;
+
+          @Override
+          public boolean hasNext() {
+            while (!atDistance.hasNext()) {
+              // Lowering any nonzero index of a combination gives one at a smaller distance, so
+              // once a distance has no combinations, no larger distance has any either.
+              if (!found) {
+                return false;
+              }
+              distance++;
+              atDistance = indicesAtDistance(choices, new int[0], distance);
+              found = false;
+            }
+            return true;
+          }
+
+          @Override
+          public int[] next() {
+            if (!hasNext()) {
+              throw new NoSuchElementException();
+            }
+            found = true;
+            return atDistance.next();
+          }
+        };
+    return new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        return combinations.hasNext();
+      }
+
+      @Override
+      public UnsolvedSymbolEnumeratorResult next() {
+        int[] indices = combinations.next();
+        Map<UnsolvedSymbolAlternates<?>, int[]> picked = new IdentityHashMap<>();
+        for (int i = 0; i < choices.size(); i++) {
+          Choice choice = choices.get(i);
+          int[] symbolIndices = picked.computeIfAbsent(choice.symbol(), k -> new int[2]);
+          symbolIndices[choice.isDeclaringType() ? 1 : 0] = indices[i];
+        }
+        return getResult(allDependentNodes, new Choices(picked));
+      }
+    };
+  }
+
+  /**
+   * A choice that {@link #enumerate(Set)} makes for an unsolved symbol: which of its alternates to
+   * use, or, for a field or method, which of its declaring types to put it in.
+   *
+   * @param symbol The unsolved symbol
+   * @param isDeclaringType True if this is the choice of declaring type, false if it is the choice
+   *     of alternate
+   */
+  private record Choice(UnsolvedSymbolAlternates<?> symbol, boolean isDeclaringType) {
+    /**
+     * Checks if this choice has an option at an index. The options are a sequence, so this is true
+     * for every index below the number of options; an alternate of the symbol is created when it
+     * is first checked.
+     *
+     * @param index The index of the option
+     * @return true if there is an option at the index
+     */
+    boolean hasOption(int index) {
+      return isDeclaringType
+          ? index < symbol.getAlternateDeclaringTypes().size()
+          : symbol.hasAlternate(index);
+    }
+  }
+
+  /**
+   * Adds a choice to a list, unless there is only one option.
+   *
+   * @param choices The list of choices
+   * @param choice The choice
+   */
+  private static void addChoice(List<Choice> choices, Choice choice) {
+    if (choice.hasOption(1)) {
+      choices.add(choice);
+    }
+  }
+
+  /**
+   * Lazily enumerates the options picked for the choices after a prefix whose indices add up to a
+   * distance. The options of the first of these choices vary slowest.
+   *
+   * @param choices All choices
+   * @param prefix The indices picked for the first choices
+   * @param distance The distance that the options picked for the remaining choices must add up to
+   * @return An iterator over arrays with the picked index of every choice
+   */
+  private static Iterator<int[]> indicesAtDistance(
+      List<Choice> choices, int[] prefix, int distance) {
+    int from = prefix.length;
+    if (from == choices.size()) {
+      return distance == 0 ? List.of(prefix).iterator() : Collections.emptyIterator();
+    }
+    Choice choice = choices.get(from);
+    if (from == choices.size() - 1) {
+      // The last choice must take up the whole remaining distance
+      return choice.hasOption(distance)
+          ? List.of(withIndex(prefix, distance)).iterator()
+          : Collections.emptyIterator();
+    }
+    return JavaParserUtil.flatMapIterator(
+        IntStream.rangeClosed(0, distance).takeWhile(choice::hasOption).boxed().iterator(),
+        index -> indicesAtDistance(choices, withIndex(prefix, index), distance - index));
+  }
+
+  /**
+   * Appends an index to the indices picked for a prefix of the choices.
+   *
+   * @param prefix The indices picked so far
+   * @param index The index picked for the next choice
+   * @return A new array with the index appended
+   */
+  private static int[] withIndex(int[] prefix, int index) {
+    int[] indices = Arrays.copyOf(prefix, prefix.length + 1);
+    indices[prefix.length] = index;
+    return indices;
+  }
+
+  /**
+   * The alternates and declaring types picked for the unsolved symbols. A symbol with no pick uses
+   * its first alternate and its first declaring type.
+   *
+   * @param picked For each unsolved symbol with a pick, the index of its alternate and the index of
+   *     its declaring type
+   */
+  private record Choices(Map<UnsolvedSymbolAlternates<?>, int[]> picked) {
+    /**
+     * Gets the alternate picked for an unsolved symbol.
+     *
+     * @param <T> The type of the alternates
+     * @param symbol The unsolved symbol
+     * @return The picked alternate
+     */
+    <T extends UnsolvedSymbolAlternate> T alternateOf(UnsolvedSymbolAlternates<T> symbol) {
+      int[] indices = picked.get(symbol);
+      return indices == null ? symbol.getBestAlternate() : symbol.getAlternate(indices[0]);
+    }
+
+    /**
+     * Gets the declaring type picked for an unsolved field or method.
+     *
+     * @param symbol The unsolved field or method
+     * @return The picked declaring type
+     */
+    UnsolvedClassOrInterfaceAlternates declaringTypeOf(UnsolvedSymbolAlternates<?> symbol) {
+      int[] indices = picked.get(symbol);
+      return symbol.getAlternateDeclaringTypes().get(indices == null ? 0 : indices[1]);
+    }
+  }
+
+  /**
+   * Gets the unsolved symbol generation for some picked alternates and declaring types.
+   *
+   * @param allDependentNodes The set of all nodes that are dependent on some alternate
+   * @param choices The picked alternates and declaring types
+   * @return A map of class names to file content
+   */
+  private UnsolvedSymbolEnumeratorResult getResult(Set<Node> allDependentNodes, Choices choices) {
     // This set should not contain any inner classes.
     Set<UnsolvedClassOrInterface> outerTypes = new LinkedHashSet<>();
 
@@ -67,60 +276,58 @@ public class UnsolvedSymbolEnumerator {
         new LinkedHashMap<>();
 
     for (UnsolvedClassOrInterfaceAlternates unsolved : unsolvedTypes) {
-      addTypeToCorrectDataStructure(unsolved, outerTypes, outerTypesToInnerTypes);
-      for (MemberType implemented : unsolved.getAlternates().get(0).getImplementedTypes()) {
-        addAllUsedTypesToSet(implemented, outerTypes, outerTypesToInnerTypes);
+      addTypeToCorrectDataStructure(unsolved, outerTypes, outerTypesToInnerTypes, choices);
+      for (MemberType implemented : choices.alternateOf(unsolved).getImplementedTypes()) {
+        addAllUsedTypesToSet(implemented, outerTypes, outerTypesToInnerTypes, choices);
       }
 
-      MemberType extended = unsolved.getAlternates().get(0).getExtendedType();
+      MemberType extended = choices.alternateOf(unsolved).getExtendedType();
       if (extended != null) {
-        addAllUsedTypesToSet(extended, outerTypes, outerTypesToInnerTypes);
+        addAllUsedTypesToSet(extended, outerTypes, outerTypesToInnerTypes, choices);
       }
     }
 
     Map<UnsolvedClassOrInterface, Set<UnsolvedField>> typesToFields = new LinkedHashMap<>();
 
     for (UnsolvedFieldAlternates unsolved : unsolvedFields) {
-      UnsolvedField field = unsolved.getAlternates().get(0);
-      UnsolvedClassOrInterfaceAlternates typeAlternates =
-          unsolved.getAlternateDeclaringTypes().get(0);
-      UnsolvedClassOrInterface type = typeAlternates.getAlternates().get(0);
+      UnsolvedField field = choices.alternateOf(unsolved);
+      UnsolvedClassOrInterfaceAlternates typeAlternates = choices.declaringTypeOf(unsolved);
+      UnsolvedClassOrInterface type = choices.alternateOf(typeAlternates);
       if (!typesToFields.containsKey(type)) {
         typesToFields.put(type, new LinkedHashSet<>());
 
-        addTypeToCorrectDataStructure(typeAlternates, outerTypes, outerTypesToInnerTypes);
+        addTypeToCorrectDataStructure(typeAlternates, outerTypes, outerTypesToInnerTypes, choices);
       }
 
       typesToFields.get(type).add(field);
 
-      addAllUsedTypesToSet(field.getType(), outerTypes, outerTypesToInnerTypes);
+      addAllUsedTypesToSet(field.getType(), outerTypes, outerTypesToInnerTypes, choices);
     }
 
     Map<UnsolvedClassOrInterface, Set<UnsolvedMethod>> typesToMethods = new LinkedHashMap<>();
 
     for (UnsolvedMethodAlternates unsolved : unsolvedMethods) {
-      UnsolvedMethod method = unsolved.getAlternates().get(0);
-      UnsolvedClassOrInterfaceAlternates typeAlternates =
-          unsolved.getAlternateDeclaringTypes().get(0);
-      UnsolvedClassOrInterface type = typeAlternates.getAlternates().get(0);
+      UnsolvedMethod method = choices.alternateOf(unsolved);
+      UnsolvedClassOrInterfaceAlternates typeAlternates = choices.declaringTypeOf(unsolved);
+      UnsolvedClassOrInterface type = choices.alternateOf(typeAlternates);
       if (!typesToMethods.containsKey(type)) {
         typesToMethods.put(type, new LinkedHashSet<>());
 
-        addTypeToCorrectDataStructure(typeAlternates, outerTypes, outerTypesToInnerTypes);
+        addTypeToCorrectDataStructure(typeAlternates, outerTypes, outerTypesToInnerTypes, choices);
       }
 
       typesToMethods.get(type).add(method);
 
-      addAllUsedTypesToSet(method.getReturnType(), outerTypes, outerTypesToInnerTypes);
+      addAllUsedTypesToSet(method.getReturnType(), outerTypes, outerTypesToInnerTypes, choices);
 
       for (MemberType parameterType : method.getParameterList()) {
-        addAllUsedTypesToSet(parameterType, outerTypes, outerTypesToInnerTypes);
+        addAllUsedTypesToSet(parameterType, outerTypes, outerTypesToInnerTypes, choices);
       }
     }
 
     Map<String, String> result = new LinkedHashMap<>();
 
-    Set<Node> ableToRemove = new HashSet<>(allDependentNodes);
+    Set<Node> ableToRemove = new NodeSet(allDependentNodes);
 
     for (UnsolvedClassOrInterface type : outerTypes) {
       result.put(
@@ -202,22 +409,26 @@ public class UnsolvedSymbolEnumerator {
    *
    * @param memberType The member type
    * @param types The set to add to
+   * @param outerTypesToInnerTypes The map of outer types to their inner types
+   * @param choices The picked alternates and declaring types
    */
   private void addAllUsedTypesToSet(
       MemberType memberType,
       Set<UnsolvedClassOrInterface> types,
-      Map<UnsolvedClassOrInterface, Set<UnsolvedClassOrInterface>> outerTypesToInnerTypes) {
+      Map<UnsolvedClassOrInterface, Set<UnsolvedClassOrInterface>> outerTypesToInnerTypes,
+      Choices choices) {
     for (MemberType typeArg : memberType.getTypeArguments()) {
-      addAllUsedTypesToSet(typeArg, types, outerTypesToInnerTypes);
+      addAllUsedTypesToSet(typeArg, types, outerTypesToInnerTypes, choices);
     }
 
     if (memberType instanceof UnsolvedMemberType unsolvedType) {
-      addTypeToCorrectDataStructure(unsolvedType.getUnsolvedType(), types, outerTypesToInnerTypes);
+      addTypeToCorrectDataStructure(
+          unsolvedType.getUnsolvedType(), types, outerTypesToInnerTypes, choices);
     } else if (memberType instanceof WildcardMemberType wildcardType) {
       MemberType bound = wildcardType.getBound();
 
       if (bound != null) {
-        addAllUsedTypesToSet(bound, types, outerTypesToInnerTypes);
+        addAllUsedTypesToSet(bound, types, outerTypesToInnerTypes, choices);
       }
     }
   }
@@ -229,12 +440,14 @@ public class UnsolvedSymbolEnumerator {
    * @param type The type
    * @param outerTypes The set of outer types
    * @param outerTypesToInnerTypes The map of outer types to their inner types
+   * @param choices The picked alternates and declaring types
    */
   private void addTypeToCorrectDataStructure(
       UnsolvedClassOrInterfaceAlternates type,
       Set<UnsolvedClassOrInterface> outerTypes,
-      Map<UnsolvedClassOrInterface, Set<UnsolvedClassOrInterface>> outerTypesToInnerTypes) {
-    UnsolvedClassOrInterface alternate = type.getAlternates().get(0);
+      Map<UnsolvedClassOrInterface, Set<UnsolvedClassOrInterface>> outerTypesToInnerTypes,
+      Choices choices) {
+    UnsolvedClassOrInterface alternate = choices.alternateOf(type);
 
     // Alternate declaring types may not be empty but the first alternate could still be an outer
     // type. This could happen when Foo is not imported, so Foo could either be located in the
@@ -249,7 +462,7 @@ public class UnsolvedSymbolEnumerator {
     } else {
       for (UnsolvedClassOrInterfaceAlternates declaringType : type.getAlternateDeclaringTypes()) {
         outerTypesToInnerTypes
-            .computeIfAbsent(declaringType.getAlternates().get(0), k -> new LinkedHashSet<>())
+            .computeIfAbsent(choices.alternateOf(declaringType), k -> new LinkedHashSet<>())
             .add(alternate);
       }
     }
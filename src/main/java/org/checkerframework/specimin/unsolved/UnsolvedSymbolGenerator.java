@@ -94,7 +94,7 @@ public class UnsolvedSymbolGenerator {
    * type is not an enum. JLS 9.7.1 requires such an argument to be a constant expression, so the
    * field's type must be primitive or String; {@code int} is as good a choice as any.
    */
-  private static final SolvedMemberType ANNOTATION_CONSTANT_TYPE = new SolvedMemberType("int");
+  private static final SolvedMemberType ANNOTATION_CONSTANT_TYPE = SolvedMemberType.of("int");
 
   /** A map of fully qualified names to their corresponding compilation units. */
   private final Map<String, CompilationUnit> fqnsToCompilationUnits;
@@ -123,9 +123,9 @@ public class UnsolvedSymbolGenerator {
   /**
    * The cache of unsolved symbol definitions. These values need not be unique; the map is provided
    * for simple lookups when adding new symbols. Keys: fully qualified names --> values: unsolved
-   * symbol alternates
+   * symbol alternates. The map also indexes them by declaring type, simple name, and kind.
    */
-  private final Map<String, UnsolvedSymbolAlternates<?>> generatedSymbols = new HashMap<>();
+  private final GeneratedSymbolMap generatedSymbols = new GeneratedSymbolMap();
 
   /**
    * Gets all generated symbols.
@@ -401,7 +401,7 @@ public class UnsolvedSymbolGenerator {
             signature.append(", ");
           }
 
-          paramTypes.add(Set.of(new SolvedMemberType(method.getParam(i).describeType())));
+          paramTypes.add(Set.of(SolvedMemberType.of(method.getParam(i).describeType())));
         }
 
         signature.append(")");
@@ -417,7 +417,7 @@ public class UnsolvedSymbolGenerator {
           gen =
               UnsolvedMethodAlternates.create(
                   method.getName(),
-                  Set.of(new SolvedMemberType(method.getReturnType().describe())),
+                  Set.of(SolvedMemberType.of(method.getReturnType().describe())),
                   List.of(generated),
                   paramTypes);
           addNewSymbolToGeneratedSymbolsMap(gen);
@@ -504,7 +504,7 @@ public class UnsolvedSymbolGenerator {
     if (isEmpty) {
       // Handle empty arrays (i.e. @Anno({})); we have no way of telling
       // what it actually is
-      fqns = new FullyQualifiedNameSet(Set.of("java.lang.String[]"));
+      fqns = FullyQualifiedNameSet.of(Set.of("java.lang.String[]"));
     } else {
       FullyQualifiedNameSet rawFqns;
 
@@ -512,7 +512,7 @@ public class UnsolvedSymbolGenerator {
         ResolvedAnnotationDeclaration resolved =
             Resolver.resolve(toLookUpTypeFor.asAnnotationExpr());
         if (resolved != null) {
-          rawFqns = new FullyQualifiedNameSet(Set.of(resolved.getQualifiedName()));
+          rawFqns = FullyQualifiedNameSet.of(Set.of(resolved.getQualifiedName()));
         } else {
           rawFqns =
               fullyQualifiedNameGenerator
@@ -549,7 +549,7 @@ public class UnsolvedSymbolGenerator {
         fqnsAsString.add(fqn);
       }
 
-      fqns = new FullyQualifiedNameSet(fqnsAsString, typeArgs);
+      fqns = FullyQualifiedNameSet.of(fqnsAsString, typeArgs);
     }
 
     MemberType type = getMemberTypeFromFQNs(fqns, false);
@@ -702,7 +702,7 @@ public class UnsolvedSymbolGenerator {
         if (isEnumConstant) {
           // An enum constant declaration names no type, so the empty type is what should be
           // printed; see UnsolvedField#toString.
-          types = Set.of(new SolvedMemberType(""));
+          types = Set.of(SolvedMemberType.of(""));
         } else if (isInAnnotation) {
           // The declaring type is not an enum, so this is an ordinary field being used as an
           // annotation argument. JLS 9.7.1 requires such an argument to be a constant expression,
@@ -930,7 +930,7 @@ public class UnsolvedSymbolGenerator {
     UnsolvedFieldAlternates constant =
         UnsolvedFieldAlternates.create(
             nameExpr.getNameAsString(),
-            getOrCreateMemberTypeFromFQNs(new FullyQualifiedNameSet(enumFQNs)),
+            getOrCreateMemberTypeFromFQNs(FullyQualifiedNameSet.of(enumFQNs)),
             List.of(enumType),
             true,
             true);
@@ -1066,7 +1066,7 @@ public class UnsolvedSymbolGenerator {
           potentialScopeFQNs.stream().flatMap(Set::stream).collect(Collectors.toSet());
 
       // If we see null, try to find an existing generated method which has an object instead
-      for (String fqn : generatedSymbols.keySet()) {
+      for (String fqn : generatedSymbols.getKeysWithSimpleName(methodCall.getNameAsString())) {
         UnsolvedSymbolAlternates<?> gen = generatedSymbols.get(fqn);
         if (gen instanceof UnsolvedMethodAlternates) {
           String qualifiedMethodName = fqn.substring(0, fqn.indexOf('('));
@@ -1223,7 +1223,7 @@ public class UnsolvedSymbolGenerator {
           }
 
           originalToReplacement.put(
-              memberTypeForTypeArg, new SolvedMemberType(generatedMethod.getTypeVariableName(i)));
+              memberTypeForTypeArg, SolvedMemberType.of(generatedMethod.getTypeVariableName(i)));
         }
       } else {
         int typeVar = generatedMethod.getNumberOfTypeVariables();
@@ -1233,7 +1233,7 @@ public class UnsolvedSymbolGenerator {
 
         for (MemberType typeToReplace : typesInOriginalToReplaceWithTypeVariables) {
           MemberType newTypeVariable =
-              new SolvedMemberType(generatedMethod.getTypeVariableName(typeVar));
+              SolvedMemberType.of(generatedMethod.getTypeVariableName(typeVar));
 
           if (typeToReplace.equals(newTypeVariable)) {
             continue;
@@ -1278,7 +1278,7 @@ public class UnsolvedSymbolGenerator {
             && unsolved.usesGeneratedName()) {
           Set<MemberType> potentialReturns = new LinkedHashSet<>();
           for (int i = 0; i < generatedMethod.getNumberOfTypeVariables(); i++) {
-            potentialReturns.add(new SolvedMemberType(generatedMethod.getTypeVariableName(i)));
+            potentialReturns.add(SolvedMemberType.of(generatedMethod.getTypeVariableName(i)));
           }
 
           generatedMethod.replaceReturnType(unsolved, potentialReturns);
@@ -1580,7 +1580,7 @@ public class UnsolvedSymbolGenerator {
       UnsolvedMethodAlternates generatedMethod =
           UnsolvedMethodAlternates.createWithPreservation(
               constructorName,
-              Set.of(new SolvedMemberType("")),
+              Set.of(SolvedMemberType.of("")),
               List.of(location),
               parametersToMustPreserve,
               List.of());
@@ -1813,13 +1813,13 @@ public class UnsolvedSymbolGenerator {
           List<FullyQualifiedNameSet> typeArgumentsWithTypeParams = new ArrayList<>();
           for (int i = 0; i < fqnSet.typeArguments().size(); i++) {
             typeArgumentsWithTypeParams.add(
-                new FullyQualifiedNameSet(
+                FullyQualifiedNameSet.of(
                     JavaParserUtil.getGeneratedTypeParameterName(existingTypeParams + i)));
           }
 
           potentialFQNsForArgumentWithTypeArgs.put(
               fqnSet,
-              new FullyQualifiedNameSet(
+              FullyQualifiedNameSet.of(
                   fqnSet.erasedFqns(),
                   typeArgumentsWithTypeParams,
                   null,
@@ -2200,8 +2200,8 @@ public class UnsolvedSymbolGenerator {
         finalTypeParamMapping.entrySet().stream()
             .collect(
                 Collectors.toMap(
-                    e -> new SolvedMemberType(e.getKey()),
-                    e -> new SolvedMemberType(e.getValue()))));
+                    e -> SolvedMemberType.of(e.getKey()),
+                    e -> SolvedMemberType.of(e.getValue()))));
   }
 
   /**
@@ -2320,7 +2320,7 @@ public class UnsolvedSymbolGenerator {
           parameters.remove(parameters.size() - 1);
         }
 
-        returnType = new SolvedMemberType("");
+        returnType = SolvedMemberType.of("");
       } else {
         if (returnTypeFromTypeArgs != null) {
           parameters.remove(parameters.size() - 1);
@@ -2330,10 +2330,10 @@ public class UnsolvedSymbolGenerator {
 
           if (returnTypeFromTypeArgs.wildcard() != null) {
             if (returnTypeFromTypeArgs.equals(FullyQualifiedNameSet.UNBOUNDED_WILDCARD)) {
-              unwildcarded = new FullyQualifiedNameSet("java.lang.Object");
+              unwildcarded = FullyQualifiedNameSet.of("java.lang.Object");
             } else {
               unwildcarded =
-                  new FullyQualifiedNameSet(
+                  FullyQualifiedNameSet.of(
                       returnTypeFromTypeArgs.erasedFqns(), returnTypeFromTypeArgs.typeArguments());
             }
           }
@@ -2341,7 +2341,7 @@ public class UnsolvedSymbolGenerator {
           returnType = getOrCreateMemberTypeFromFQNs(unwildcarded);
         } else {
           isVoid = true;
-          returnType = new SolvedMemberType("void");
+          returnType = SolvedMemberType.of("void");
         }
       }
 
@@ -2473,7 +2473,7 @@ public class UnsolvedSymbolGenerator {
 
     // remove the last element of params, because that's the return type, not a parameter
     for (int i = 0; i < paramList.size() - (isVoid ? 0 : 1); i++) {
-      params.add(Set.of(new SolvedMemberType(paramList.get(i))));
+      params.add(Set.of(SolvedMemberType.of(paramList.get(i))));
     }
 
     String paramListAsString = String.join(", ", paramList);
@@ -2501,7 +2501,7 @@ public class UnsolvedSymbolGenerator {
     UnsolvedMethodAlternates apply =
         UnsolvedMethodAlternates.create(
             "apply",
-            Set.of(new SolvedMemberType(returnType)),
+            Set.of(SolvedMemberType.of(returnType)),
             List.of(functionalInterface),
             params);
 
@@ -2588,7 +2588,7 @@ public class UnsolvedSymbolGenerator {
     for (UnsolvedMethodAlternates unsolvedMethodAlternates : methodsWithNullInSignature) {
       for (UnsolvedMethod alternate : unsolvedMethodAlternates.getAlternates()) {
         alternate.replaceParameterType(
-            new SolvedMemberType("null"), SolvedMemberType.JAVA_LANG_OBJECT);
+            SolvedMemberType.of("null"), SolvedMemberType.JAVA_LANG_OBJECT);
       }
 
       removeSymbolFromGeneratedSymbolsMap(unsolvedMethodAlternates);
@@ -2646,11 +2646,10 @@ public class UnsolvedSymbolGenerator {
         if (syntheticType != null) {
           if (!decl.isInterface()) {
             syntheticType.setType(UnsolvedClassOrInterfaceType.CLASS);
-            syntheticType.ensureSuperClass(
-                new SolvedMemberType(decl.getFullyQualifiedName().get()));
+            syntheticType.ensureSuperClass(SolvedMemberType.of(decl.getFullyQualifiedName().get()));
           } else {
             syntheticType.forceSuperInterface(
-                new SolvedMemberType(decl.getFullyQualifiedName().get()));
+                SolvedMemberType.of(decl.getFullyQualifiedName().get()));
           }
 
           // Sealedness best effort should be final unless we have evidence against it
@@ -2695,7 +2694,7 @@ public class UnsolvedSymbolGenerator {
               UnsolvedMethodAlternates constructor =
                   UnsolvedMethodAlternates.create(
                       syntheticType.getClassName(),
-                      Set.of(new SolvedMemberType("")),
+                      Set.of(SolvedMemberType.of("")),
                       List.of(syntheticType),
                       List.of());
 
@@ -2832,7 +2831,7 @@ public class UnsolvedSymbolGenerator {
       }
 
       for (UnsolvedClassOrInterfaceAlternates type : types) {
-        MemberType autoCloseable = new SolvedMemberType("java.lang.AutoCloseable");
+        MemberType autoCloseable = SolvedMemberType.of("java.lang.AutoCloseable");
         if (type == null || type.doesImplement(autoCloseable)) {
           continue;
         }
@@ -2842,7 +2841,7 @@ public class UnsolvedSymbolGenerator {
         UnsolvedMethodAlternates unsolvedMethodAlternates =
             UnsolvedMethodAlternates.create(
                 "close",
-                Set.of(new SolvedMemberType("void")),
+                Set.of(SolvedMemberType.of("void")),
                 List.of(type),
                 List.of(),
                 List.of(SolvedMemberType.JAVA_LANG_EXCEPTION));
@@ -3365,7 +3364,7 @@ public class UnsolvedSymbolGenerator {
           if (JavaParserUtil.isAClassName(validType)) {
             validType = "java.lang." + validType;
           }
-          typesToReplace.add(new SolvedMemberType(validType));
+          typesToReplace.add(SolvedMemberType.of(validType));
         }
       }
 
@@ -3483,8 +3482,8 @@ public class UnsolvedSymbolGenerator {
     method.setUnconstrainedReturnType();
     for (UnsolvedClassOrInterfaceAlternates symbolToRemove : symbolsToRemove) {
       removeTypeAndReplaceUses(
-          new UnsolvedMemberType(symbolToRemove, 0, List.of(), false),
-          new SolvedMemberType("java.lang.Object"));
+          UnsolvedMemberType.of(symbolToRemove, 0, List.of(), false),
+          SolvedMemberType.of("java.lang.Object"));
     }
 
     return new ArrayList<>(symbolsToRemove);
@@ -3663,20 +3662,16 @@ public class UnsolvedSymbolGenerator {
    * @return A set of generated fields/methods that may be in the given type
    */
   private Set<UnsolvedSymbolAlternates<?>> findAllMembers(UnsolvedClassOrInterfaceAlternates type) {
-    return generatedSymbols.entrySet().stream()
-        .filter(
-            entry -> {
-              int index = entry.getKey().indexOf("#");
-
-              if (index == -1) {
-                return false;
-              }
-
-              String declaringTypeFQN = entry.getKey().substring(0, index);
-              return type.getFullyQualifiedNames().contains(declaringTypeFQN);
-            })
-        .map(Map.Entry::getValue)
-        .collect(Collectors.toSet());
+    Set<UnsolvedSymbolAlternates<?>> members = new HashSet<>();
+    for (String declaringTypeFQN : type.getFullyQualifiedNames()) {
+      for (String key : generatedSymbols.getKeysDeclaredIn(declaringTypeFQN)) {
+        UnsolvedSymbolAlternates<?> member = generatedSymbols.get(key);
+        if (member != null) {
+          members.add(member);
+        }
+      }
+    }
+    return members;
   }
 
   /**
@@ -3949,7 +3944,7 @@ public class UnsolvedSymbolGenerator {
             boolean found = false;
             // If null, then a type is a primitive/void
             for (ResolvedType type : resolvedReturnTypes) {
-              alt.replaceReturnType(returnType, new SolvedMemberType(type.describe()));
+              alt.replaceReturnType(returnType, SolvedMemberType.of(type.describe()));
               found = true;
               break;
             }
@@ -3967,7 +3962,7 @@ public class UnsolvedSymbolGenerator {
             // Set type parameters to make sure we implement/extend the generic version, not the raw
             // type
             SolvedMemberType asSolvedMemberType =
-                new SolvedMemberType(
+                SolvedMemberType.of(
                     lub.getQualifiedName(),
                     Collections.nCopies(
                         lub.getTypeParameters().size(), WildcardMemberType.UNBOUNDED));
@@ -4807,10 +4802,9 @@ public class UnsolvedSymbolGenerator {
   public void generateAllAlternatesBasedOnSuperTypeRelationships() {
     // This method is called after all unsolved symbols are generated and all information is added
     // to ensure that all symbols are consistent with their super type relationships.
-    for (UnsolvedSymbolAlternates<?> symbol : Set.copyOf(generatedSymbols.values())) {
-      if (symbol instanceof UnsolvedClassOrInterfaceAlternates type) {
-        type.createAlternatesBasedOnSuperTypeRelationships();
-      }
+    for (UnsolvedClassOrInterfaceAlternates type :
+        generatedSymbols.getSymbolsOfKind(UnsolvedClassOrInterfaceAlternates.class)) {
+      type.createAlternatesBasedOnSuperTypeRelationships();
     }
   }
 
@@ -5001,15 +4995,14 @@ public class UnsolvedSymbolGenerator {
     Map<UnsolvedMethodAlternates, String> methodsToRemove = new HashMap<>();
     Map<String, String> methods = JavaLangUtils.getJavaLangThrowableMethods();
 
-    for (UnsolvedSymbolAlternates<?> symbol : generatedSymbols.values()) {
-      if (symbol instanceof UnsolvedMethodAlternates method) {
-        if (method.getAlternateDeclaringTypes().contains(type)) {
-          method.getFullyQualifiedNames().stream()
-              .map(f -> f.substring(f.indexOf('#') + 1))
-              .filter(methods::containsKey)
-              .findFirst()
-              .ifPresent(methodSignature -> methodsToRemove.put(method, methodSignature));
-        }
+    for (UnsolvedMethodAlternates method :
+        generatedSymbols.getSymbolsOfKind(UnsolvedMethodAlternates.class)) {
+      if (method.getAlternateDeclaringTypes().contains(type)) {
+        method.getFullyQualifiedNames().stream()
+            .map(f -> f.substring(f.indexOf('#') + 1))
+            .filter(methods::containsKey)
+            .findFirst()
+            .ifPresent(methodSignature -> methodsToRemove.put(method, methodSignature));
       }
     }
 
@@ -5027,7 +5020,7 @@ public class UnsolvedSymbolGenerator {
       for (MemberType returnType : method.getReturnTypes()) {
         if (returnType instanceof UnsolvedMemberType unsolvedReturn) {
           UnsolvedClassOrInterfaceAlternates unsolvedType = unsolvedReturn.getUnsolvedType();
-          typeCorrect.put(unsolvedType, new SolvedMemberType(correctReturnType));
+          typeCorrect.put(unsolvedType, SolvedMemberType.of(correctReturnType));
         }
       }
     }
@@ -5356,14 +5349,14 @@ public class UnsolvedSymbolGenerator {
       }
 
       if (wildcard.equals("? extends")) {
-        return new WildcardMemberType(
+        return WildcardMemberType.of(
             getMemberTypeFromFQNs(
-                new FullyQualifiedNameSet(fqns.erasedFqns(), fqns.typeArguments()), createNew),
+                FullyQualifiedNameSet.of(fqns.erasedFqns(), fqns.typeArguments()), createNew),
             true);
       } else if (wildcard.equals("? super")) {
-        return new WildcardMemberType(
+        return WildcardMemberType.of(
             getMemberTypeFromFQNs(
-                new FullyQualifiedNameSet(fqns.erasedFqns(), fqns.typeArguments()), createNew),
+                FullyQualifiedNameSet.of(fqns.erasedFqns(), fqns.typeArguments()), createNew),
             false);
       }
 
@@ -5384,7 +5377,7 @@ public class UnsolvedSymbolGenerator {
 
     for (String fqn : fqns.erasedFqns()) {
       if (fqnsToCompilationUnits.containsKey(JavaParserUtil.removeArrayBrackets(fqn))) {
-        return new SolvedMemberType(fqn, typeArguments);
+        return SolvedMemberType.of(fqn, typeArguments);
       }
 
       MemberType type = getMemberTypeIfPrimitiveOrJavaLang(fqn, typeArguments);
@@ -5396,7 +5389,7 @@ public class UnsolvedSymbolGenerator {
 
     // If a set has one element with no dots, it's likely a type variable
     if (fqns.erasedFqns().size() == 1 && !fqns.erasedFqns().iterator().next().contains(".")) {
-      return new SolvedMemberType(fqns.erasedFqns().iterator().next());
+      return SolvedMemberType.of(fqns.erasedFqns().iterator().next());
     }
 
     UnsolvedClassOrInterfaceAlternates unsolved;
@@ -5416,7 +5409,7 @@ public class UnsolvedSymbolGenerator {
     if (unsolved == null) {
       return null;
     } else {
-      return new UnsolvedMemberType(
+      return UnsolvedMemberType.of(
           unsolved,
           JavaParserUtil.countNumberOfArrayBrackets(fqns.erasedFqns().iterator().next()),
           typeArguments,
@@ -5437,7 +5430,7 @@ public class UnsolvedSymbolGenerator {
         || JavaLangUtils.isJavaLangOrPrimitiveName(
             JavaParserUtil.getSimpleNameFromQualifiedName(JavaParserUtil.removeArrayBrackets(name)))
         || name.equals("void")) {
-      return new SolvedMemberType(name, typeArguments);
+      return SolvedMemberType.of(name, typeArguments);
     }
     return null;
   }
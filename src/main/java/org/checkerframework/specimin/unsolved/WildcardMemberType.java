@@ -8,8 +8,12 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 
 /** Represents a wildcard type (i.e., ?, ? extends T, or ? super T). */
 public class WildcardMemberType extends MemberType {
+  /** The canonical instance of each distinct WildcardMemberType. */
+  private static final CanonicalTable<Key, WildcardMemberType> CANONICAL_INSTANCES =
+      new CanonicalTable<>();
+
   /** Represents the type for an unbounded wildcard: ? */
-  public static final WildcardMemberType UNBOUNDED = new WildcardMemberType(null, false);
+  public static final WildcardMemberType UNBOUNDED = of(null, false);
 
   /** The bound of the wildcard, or null if unbounded. */
   private final @Nullable MemberType bound;
@@ -20,19 +24,57 @@ public class WildcardMemberType extends MemberType {
    */
   private final boolean isUpperBound;
 
+  /** The key of this type in {@link #CANONICAL_INSTANCES}. */
+  private final Key key;
+
+  /**
+   * The key of a canonical instance. The bound is compared by identity, since it is a canonical
+   * instance itself.
+   *
+   * @param bound The bound, or null if unbounded
+   * @param isUpperBound Whether the bound is an upper bound
+   */
+  private record Key(@Nullable MemberType bound, boolean isUpperBound) {
+    @Override
+    @SuppressWarnings({"ReferenceEquality", "not.interned"}) // The bound is canonical
+    public boolean equals(@Nullable Object other) {
+      return other instanceof Key otherKey
+          && bound == otherKey.bound
+          && isUpperBound == otherKey.isUpperBound;
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * System.identityHashCode(bound) + Boolean.hashCode(isUpperBound);
+    }
+  }
+
   /**
-   * Creates a new WildcardMemberType with an optional bound. If the bound is null, it represents an
-   * unbounded wildcard (i.e., "?"). If the bound is not null, use isUpperBound to determine whether
-   * this is an upper or lower bound wildcard (i.e., "? extends T" or "? super T").
+   * Creates a new WildcardMemberType from its key.
+   *
+   * @param key The key
+   */
+  private WildcardMemberType(Key key) {
+    super(List.of());
+    this.bound = key.bound;
+    this.isUpperBound = key.isUpperBound;
+    this.key = key;
+  }
+
+  /**
+   * Gets the canonical WildcardMemberType with an optional bound. If the bound is null, it
+   * represents an unbounded wildcard (i.e., "?"). If the bound is not null, use isUpperBound to
+   * determine whether this is an upper or lower bound wildcard (i.e., "? extends T" or "? super
+   * T").
    *
    * @param bound The bound of the wildcard, or null for an unbounded wildcard.
    * @param isUpperBound True if this is an upper bound wildcard, false if it is a lower bound. If
    *     bound is null, this parameter is ignored.
+   * @return The canonical WildcardMemberType
    */
-  public WildcardMemberType(@Nullable MemberType bound, boolean isUpperBound) {
-    super(List.of());
-    this.bound = bound;
-    this.isUpperBound = isUpperBound;
+  public static WildcardMemberType of(@Nullable MemberType bound, boolean isUpperBound) {
+    return CANONICAL_INSTANCES.intern(
+        new Key(bound, isUpperBound), WildcardMemberType::new, type -> type.key);
   }
 
   /**
@@ -92,7 +134,11 @@ public class WildcardMemberType extends MemberType {
 
   @Override
   public boolean equals(@Nullable Object other) {
-    if (!(other instanceof WildcardMemberType otherAsWildcard)) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof WildcardMemberType otherAsWildcard)
+        || otherAsWildcard.hashCode() != hashCode()) {
       return false;
     }
 
@@ -101,14 +147,14 @@ public class WildcardMemberType extends MemberType {
   }
 
   @Override
-  public int hashCode() {
+  protected int computeHashCode() {
     return Objects.hash(bound, getBoundString());
   }
 
   @Override
   public MemberType copyWithNewTypeArgs(List<MemberType> newTypeArgs) {
     if (newTypeArgs.isEmpty()) {
-      return new WildcardMemberType(bound, isUpperBound);
+      return this;
     } else {
       throw new RuntimeException("WildcardMemberType cannot have type arguments");
     }
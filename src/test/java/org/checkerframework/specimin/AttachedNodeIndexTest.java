@@ -0,0 +1,106 @@
+package org.checkerframework.specimin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** This class unit tests {@link AttachedNodeIndex}. */
+public class AttachedNodeIndexTest {
+
+  private static final String SOURCE =
+      "class A {\n"
+          + "  int f;\n"
+          + "  A() {}\n"
+          + "  A(int x) {}\n"
+          + "  void m(String s) { if (true) { int x; } if (false) { int x; } }\n"
+          + "  void m(int i) {}\n"
+          + "  void n(int x) {}\n"
+          + "  void n(int x, int y) {}\n"
+          + "  static class B { void m(int i) {} }\n"
+          + "}\n";
+
+  /**
+   * Parses the test source.
+   *
+   * @return The type declaration of A
+   */
+  private static TypeDeclaration<?> parseA() {
+    CompilationUnit cu = new JavaParser().parse(SOURCE).getResult().orElseThrow();
+    return cu.getType(0);
+  }
+
+  @Test
+  public void testFindsEquivalentOfDetachedNode() {
+    TypeDeclaration<?> attached = parseA();
+    TypeDeclaration<?> detached = parseA();
+    AttachedNodeIndex index = new AttachedNodeIndex(attached);
+
+    for (MethodDeclaration method : detached.findAll(MethodDeclaration.class)) {
+      Node found = index.find(method);
+      assertEquals(method, found);
+      assertEquals(
+          method.getParentNode().orElseThrow().getClass(),
+          found.getParentNode().orElseThrow().getClass());
+    }
+    List<ConstructorDeclaration> constructors = detached.findAll(ConstructorDeclaration.class);
+    assertSame(
+        attached.findAll(ConstructorDeclaration.class).get(1), index.find(constructors.get(1)));
+    assertSame(attached, index.find(detached));
+  }
+
+  @Test
+  public void testEqualParametersOfOverloadsAreDistinguished() {
+    TypeDeclaration<?> attached = parseA();
+    TypeDeclaration<?> detached = parseA();
+    AttachedNodeIndex index = new AttachedNodeIndex(attached);
+
+    Parameter detachedX = detached.getMethodsBySignature("n", "int", "int").get(0).getParameter(0);
+    Parameter attachedX = attached.getMethodsBySignature("n", "int", "int").get(0).getParameter(0);
+    assertEquals(attached.getMethodsBySignature("n", "int").get(0).getParameter(0), detachedX);
+    assertSame(attachedX, index.find(detachedX));
+  }
+
+  @Test
+  public void testEqualNodesResolveToTheFirst() {
+    TypeDeclaration<?> attached = parseA();
+    TypeDeclaration<?> detached = parseA();
+    AttachedNodeIndex index = new AttachedNodeIndex(attached);
+
+    List<VariableDeclarator> xs =
+        detached.findAll(VariableDeclarator.class, v -> v.getNameAsString().equals("x"));
+    Node firstX =
+        attached.findFirst(VariableDeclarator.class, v -> v.getNameAsString().equals("x")).get();
+    assertSame(firstX, index.find(xs.get(1)));
+  }
+
+  @Test
+  public void testAttachedNodeIsItsOwnEquivalent() {
+    TypeDeclaration<?> attached = parseA();
+    AttachedNodeIndex index = new AttachedNodeIndex(attached);
+
+    List<VariableDeclarator> xs =
+        attached.findAll(VariableDeclarator.class, v -> v.getNameAsString().equals("x"));
+    assertSame(xs.get(1), index.find(xs.get(1)));
+  }
+
+  @Test
+  public void testRemovedNodeIsNotFound() {
+    TypeDeclaration<?> attached = parseA();
+    TypeDeclaration<?> detached = parseA();
+    AttachedNodeIndex index = new AttachedNodeIndex(attached);
+
+    attached.getMethodsBySignature("m", "int").get(0).remove();
+    assertNull(index.find(detached.getMethodsBySignature("m", "int").get(0)));
+  }
+}
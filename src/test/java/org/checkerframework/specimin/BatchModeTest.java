@@ -0,0 +1,22 @@
+package org.checkerframework.specimin;
+
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This test checks that batch mode produces the same output for every job that shares a parsed
+ * project as for the same job run on its own, i.e., that the pruning done by one job is undone
+ * before the next one runs: the second job needs the constructor and method of Baz that the first
+ * job prunes.
+ */
+public class BatchModeTest {
+  @Test
+  public void runTest() throws IOException {
+    SpeciminTestExecutor.runBatchTest(
+        "restorebetweenjobs",
+        new String[] {"com/example/Foo.java", "com/example/Baz.java"},
+        new String[] {"com.example.Foo#bar()"},
+        new String[] {"com.example.Foo#qux()"},
+        new String[] {"com.example.Foo#bar()"});
+  }
+}
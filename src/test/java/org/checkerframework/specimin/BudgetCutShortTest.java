@@ -0,0 +1,100 @@
+package org.checkerframework.specimin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ast.CompilationUnit;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This test checks that a minimization whose step budget runs out partway through the slice still
+ * writes out well-formed output, both from the command line and from a server, and that a server
+ * reports the phases that were cut short.
+ */
+public class BudgetCutShortTest {
+
+  private static final String TEST_NAME = "twofilesimple";
+
+  private static final String[] TARGET_FILES = {"com/example/Foo.java", "com/example/Baz.java"};
+
+  private static final String[] TARGET_METHODS = {"com.example.Foo#bar()"};
+
+  @Test
+  public void testCommandLine() throws IOException {
+    Path outputDir = Files.createTempDirectory("specimin-budget-test-");
+    try {
+      SpeciminRunner.main(
+          "--outputDirectory",
+          outputDir.toAbsolutePath().toString(),
+          "--root",
+          SpeciminTestExecutor.getRoot(TEST_NAME),
+          "--targetFile",
+          TARGET_FILES[0],
+          "--targetFile",
+          TARGET_FILES[1],
+          "--targetMethod",
+          TARGET_METHODS[0],
+          "--stepBudget",
+          "1");
+      assertWellFormed(outputDir);
+    } finally {
+      FileUtils.deleteQuietly(outputDir.toFile());
+    }
+  }
+
+  @Test
+  public void testServer() throws IOException {
+    Path serverDir = Files.createTempDirectory("specimin-budget-test-");
+    try {
+      JsonObject request =
+          SpeciminTestExecutor.minimizationRequest(
+              0, serverDir.resolve("job0"), TARGET_FILES, TARGET_METHODS);
+      request.addProperty("stepBudget", 1);
+      JsonObject response =
+          JsonParser.parseString(SpeciminTestExecutor.serve(TEST_NAME, request + "\n").get(0))
+              .getAsJsonObject();
+      assertEquals("ok", response.get("status").getAsString(), response.toString());
+      JsonArray cutShort = response.getAsJsonArray("cutShort");
+      List<String> phases = new ArrayList<>();
+      for (JsonElement phase : cutShort) {
+        phases.add(phase.getAsString());
+      }
+      assertTrue(phases.contains(Budget.Phase.SLICE.name()), phases.toString());
+      assertWellFormed(serverDir.resolve("job0"));
+    } finally {
+      FileUtils.deleteQuietly(serverDir.toFile());
+    }
+  }
+
+  /**
+   * Checks that the output of a minimization contains the target file, and that every Java file in
+   * it parses.
+   *
+   * @param outputDir the output directory
+   * @throws IOException if the output cannot be read
+   */
+  private static void assertWellFormed(Path outputDir) throws IOException {
+    assertTrue(Files.exists(outputDir.resolve(TARGET_FILES[0])), "the target file was not written");
+    List<Path> javaFiles;
+    try (Stream<Path> files = Files.walk(outputDir)) {
+      javaFiles = files.filter(p -> p.toString().endsWith(".java")).toList();
+    }
+    for (Path javaFile : javaFiles) {
+      ParseResult<CompilationUnit> result = new JavaParser().parse(javaFile);
+      assertTrue(result.isSuccessful(), javaFile + ": " + result.getProblems());
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package org.checkerframework.specimin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/** This class unit tests {@link Budget} and {@link BudgetLimits}. */
+public class BudgetTest {
+
+  @Test
+  public void testStepLimit() {
+    Budget budget = new Budget(new BudgetLimits(null, 2));
+
+    assertTrue(budget.step(Budget.Phase.SLICE));
+    assertTrue(budget.step(Budget.Phase.SLICE));
+    assertTrue(budget.getCutShortPhases().isEmpty());
+    assertFalse(budget.step(Budget.Phase.SLICE));
+    // Once the budget has run out, every later phase is cut short as well
+    assertFalse(budget.step(Budget.Phase.POST_PROCESSING));
+    assertEquals(
+        Set.of(Budget.Phase.SLICE, Budget.Phase.POST_PROCESSING), budget.getCutShortPhases());
+  }
+
+  @Test
+  public void testTimeLimit() throws InterruptedException {
+    Budget budget = new Budget(new BudgetLimits(Duration.ofNanos(1), Long.MAX_VALUE));
+    Thread.sleep(1);
+
+    assertFalse(budget.step(Budget.Phase.POST_PROCESSING));
+    assertEquals(Set.of(Budget.Phase.POST_PROCESSING), budget.getCutShortPhases());
+  }
+
+  @Test
+  public void testUnlimited() {
+    Budget budget = Budget.unlimited();
+    for (int i = 0; i < 1000; i++) {
+      assertTrue(budget.step(Budget.Phase.SLICE));
+    }
+    assertTrue(budget.getCutShortPhases().isEmpty());
+  }
+
+  @Test
+  public void testInvalidLimits() {
+    assertThrows(IllegalArgumentException.class, () -> new BudgetLimits(null, 0));
+    assertThrows(IllegalArgumentException.class, () -> new BudgetLimits(Duration.ZERO, 1));
+  }
+}
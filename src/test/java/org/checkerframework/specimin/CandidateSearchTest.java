@@ -0,0 +1,141 @@
+package org.checkerframework.specimin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This test checks the search for a candidate output that compiles (--maxCandidates), with the
+ * output verified (--verify), from the command line and from a server. The target calls a method
+ * that could be declared in any of three unsolved interfaces, so there are several distinct
+ * candidates, and the best effort one compiles.
+ */
+public class CandidateSearchTest {
+
+  private static final String TEST_NAME = "implicitinterfaceaccesswithmanyinterfaces";
+
+  private static final String[] TARGET_FILES = {"com/example/Simple.java"};
+
+  private static final String[] TARGET_METHODS = {"com.example.Simple#foo()"};
+
+  @Test
+  public void testCommandLine() throws IOException {
+    Path outputDir = Files.createTempDirectory("specimin-candidate-test-");
+    try {
+      SpeciminRunner.main(
+          "--outputDirectory",
+          outputDir.toAbsolutePath().toString(),
+          "--root",
+          SpeciminTestExecutor.getRoot(TEST_NAME),
+          "--targetFile",
+          TARGET_FILES[0],
+          "--targetMethod",
+          TARGET_METHODS[0],
+          "--maxCandidates",
+          "3",
+          "--verify");
+      SpeciminTestExecutor.assertDirectoriesEqual(
+          Path.of("src/test/resources/" + TEST_NAME + "/expected/"), outputDir);
+
+      Path brokenRoot = createBrokenRoot(outputDir);
+      RuntimeException e =
+          assertThrows(
+              RuntimeException.class,
+              () ->
+                  SpeciminRunner.main(
+                      "--outputDirectory",
+                      outputDir.resolve("broken-output").toAbsolutePath().toString(),
+                      "--root",
+                      brokenRoot.toAbsolutePath() + "/",
+                      "--targetFile",
+                      TARGET_FILES[0],
+                      "--targetMethod",
+                      TARGET_METHODS[0],
+                      "--maxCandidates",
+                      "3",
+                      "--verify"));
+      assertTrue(e.getMessage().contains("does not compile"), e.getMessage());
+    } finally {
+      FileUtils.deleteQuietly(outputDir.toFile());
+    }
+  }
+
+  /**
+   * Checks that the server reports how many candidates it searched and which one it wrote out: the
+   * best effort one, as soon as it compiles; and none, once maxCandidates candidates do not.
+   */
+  @Test
+  public void testServer() throws IOException {
+    Path serverDir = Files.createTempDirectory("specimin-candidate-test-");
+    try {
+      JsonObject request =
+          SpeciminTestExecutor.minimizationRequest(
+              0, serverDir.resolve("job0"), TARGET_FILES, TARGET_METHODS);
+      request.addProperty("maxCandidates", 3);
+      request.addProperty("verify", true);
+      JsonObject response = parse(SpeciminTestExecutor.serve(TEST_NAME, request + "\n").get(0));
+      assertEquals("ok", response.get("status").getAsString(), response.toString());
+      assertEquals(1, response.get("candidates").getAsInt());
+      assertEquals(0, response.get("chosenCandidate").getAsInt());
+      assertTrue(response.get("compiles").getAsBoolean());
+      SpeciminTestExecutor.assertDirectoriesEqual(
+          Path.of("src/test/resources/" + TEST_NAME + "/expected/"), serverDir.resolve("job0"));
+
+      Path brokenRoot = createBrokenRoot(serverDir);
+      request =
+          SpeciminTestExecutor.minimizationRequest(
+              0, serverDir.resolve("job1"), TARGET_FILES, TARGET_METHODS);
+      request.addProperty("maxCandidates", 2);
+      request.addProperty("verify", true);
+      response =
+          parse(
+              SpeciminTestExecutor.serveRoot(brokenRoot.toAbsolutePath() + "/", request + "\n")
+                  .get(0));
+      assertEquals("ok", response.get("status").getAsString(), response.toString());
+      assertEquals(2, response.get("candidates").getAsInt());
+      assertEquals(-1, response.get("chosenCandidate").getAsInt());
+      assertFalse(response.get("compiles").getAsBoolean());
+    } finally {
+      FileUtils.deleteQuietly(serverDir.toFile());
+    }
+  }
+
+  /**
+   * Copies the input of the test, adding a type error to the target method that no choice of
+   * alternates can fix.
+   *
+   * @param dir the directory to copy the input into
+   * @return the root of the copy
+   * @throws IOException if some operation fails
+   */
+  private static Path createBrokenRoot(Path dir) throws IOException {
+    Path brokenRoot = dir.resolve("broken-input");
+    FileUtils.copyDirectory(
+        Path.of(SpeciminTestExecutor.getRoot(TEST_NAME)).toFile(), brokenRoot.toFile());
+    Path simple = brokenRoot.resolve(TARGET_FILES[0]);
+    String source = Files.readString(simple);
+    assertTrue(source.contains("return baz();"));
+    Files.writeString(
+        simple, source.replace("return baz();", "boolean unused = 0;\n        return baz();"));
+    return brokenRoot;
+  }
+
+  /**
+   * Parses a response.
+   *
+   * @param response The response
+   * @return The response as a JSON object
+   */
+  private static JsonObject parse(String response) {
+    return JsonParser.parseString(response).getAsJsonObject();
+  }
+}
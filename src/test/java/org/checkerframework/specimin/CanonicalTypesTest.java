@@ -0,0 +1,94 @@
+package org.checkerframework.specimin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.checkerframework.specimin.unsolved.FullyQualifiedNameSet;
+import org.checkerframework.specimin.unsolved.SolvedMemberType;
+import org.checkerframework.specimin.unsolved.WildcardMemberType;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class unit tests that {@link FullyQualifiedNameSet} and member types are hash-consed, and
+ * that their equality is unchanged.
+ */
+public class CanonicalTypesTest {
+
+  @Test
+  public void testFullyQualifiedNameSetsAreShared() {
+    FullyQualifiedNameSet b = FullyQualifiedNameSet.of("org.example.B");
+    FullyQualifiedNameSet a1 =
+        FullyQualifiedNameSet.of(
+            new LinkedHashSet<>(List.of("org.example.A", "com.example.A")), List.of(b));
+    FullyQualifiedNameSet a2 =
+        FullyQualifiedNameSet.of(
+            Set.of("org.example.A", "com.example.A"),
+            List.of(FullyQualifiedNameSet.of(Set.of("org.example.B"))));
+    assertEquals(a1, a2);
+    assertEquals(a1.hashCode(), a2.hashCode());
+    assertSame(b, a2.typeArguments().get(0));
+
+    FullyQualifiedNameSet a3 =
+        FullyQualifiedNameSet.of(
+            new LinkedHashSet<>(List.of("org.example.A", "com.example.A")), List.of(b));
+    assertSame(a1, a3);
+  }
+
+  @Test
+  public void testFullyQualifiedNameSetsKeepWhatCallersObserve() {
+    Set<String> erasedFqns = new LinkedHashSet<>(List.of("org.example.A", "com.example.A"));
+    FullyQualifiedNameSet known = FullyQualifiedNameSet.of(erasedFqns, List.of(), null, false);
+    FullyQualifiedNameSet generated = FullyQualifiedNameSet.of(erasedFqns, List.of(), null, true);
+    assertNotSame(known, generated);
+    assertEquals(known, generated);
+    assertTrue(generated.usesGeneratedName());
+
+    // Changing the caller's set afterwards does not change the canonical instance
+    erasedFqns.add("net.example.A");
+    assertEquals(List.of("org.example.A", "com.example.A"), List.copyOf(known.erasedFqns()));
+
+    FullyQualifiedNameSet reversed =
+        FullyQualifiedNameSet.of(new LinkedHashSet<>(List.of("com.example.A", "org.example.A")));
+    assertEquals(known, reversed);
+    assertEquals("com.example.A", reversed.erasedFqns().iterator().next());
+
+    assertNotEquals(known, FullyQualifiedNameSet.of(Set.of("org.example.A")));
+    assertNotEquals(
+        FullyQualifiedNameSet.of(Set.of("org.example.A"), List.of(), "? extends"),
+        FullyQualifiedNameSet.of(Set.of("org.example.A"), List.of(), "? super"));
+  }
+
+  @Test
+  public void testFullyQualifiedNameSetsAreChecked() {
+    assertThrows(IllegalArgumentException.class, () -> FullyQualifiedNameSet.of("? extends A"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> FullyQualifiedNameSet.of(Set.of("A"), List.of(), "? implements"));
+  }
+
+  @Test
+  public void testMemberTypesAreShared() {
+    assertSame(SolvedMemberType.JAVA_LANG_OBJECT, SolvedMemberType.of("java.lang.Object"));
+
+    SolvedMemberType list =
+        SolvedMemberType.of("java.util.List", List.of(SolvedMemberType.of("java.lang.String")));
+    assertSame(
+        list,
+        SolvedMemberType.of("java.util.List", List.of())
+            .copyWithNewTypeArgs(List.of(SolvedMemberType.of("java.lang.String"))));
+    assertNotEquals(list, SolvedMemberType.of("java.util.List"));
+
+    assertSame(WildcardMemberType.UNBOUNDED, WildcardMemberType.of(null, false));
+    assertSame(WildcardMemberType.of(list, true), WildcardMemberType.of(list, true));
+    assertNotEquals(WildcardMemberType.of(list, true), WildcardMemberType.of(list, false));
+    assertEquals(
+        "? extends java.util.List<java.lang.String>", WildcardMemberType.of(list, true).toString());
+  }
+}
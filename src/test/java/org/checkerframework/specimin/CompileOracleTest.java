@@ -0,0 +1,67 @@
+package org.checkerframework.specimin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/** This class unit tests {@link CompileOracle}. */
+public class CompileOracleTest {
+
+  /** A candidate that refers to a type it does not contain. */
+  private static final Map<String, String> MISSING_TYPE =
+      Map.of("com/example/A.java", "package com.example; public class A { B b; }");
+
+  /** A candidate that parses and resolves, but fails flow analysis. */
+  private static final Map<String, String> MISSING_RETURN =
+      Map.of("com/example/A.java", "package com.example; public class A { int f() { } }");
+
+  /** A candidate that compiles. */
+  private static final Map<String, String> COMPILES =
+      Map.of(
+          "com/example/A.java",
+          "package com.example; public class A { B b; }",
+          "com/example/B.java",
+          "package com.example; public class B {}");
+
+  @Test
+  public void testCompiles() {
+    try (CompileOracle oracle = new CompileOracle()) {
+      assertFalse(oracle.compiles(MISSING_TYPE));
+      assertFalse(oracle.compiles(MISSING_RETURN));
+      assertTrue(oracle.compiles(COMPILES));
+      // The file manager is reused
+      assertFalse(oracle.compiles(MISSING_TYPE));
+    }
+  }
+
+  @Test
+  public void testFindsFirstCompilingCandidate() {
+    try (CompileOracle oracle = new CompileOracle()) {
+      assertEquals(
+          2, oracle.findFirstCompiling(List.of(MISSING_TYPE, MISSING_RETURN, COMPILES, COMPILES)));
+      assertEquals(-1, oracle.findFirstCompiling(List.of(MISSING_TYPE, MISSING_RETURN)));
+      assertEquals(-1, oracle.findFirstCompiling(List.of()));
+    }
+  }
+
+  @Test
+  public void testDiagnostics() {
+    try (CompileOracle oracle = new CompileOracle()) {
+      assertEquals(List.of(), oracle.compile(COMPILES));
+
+      List<CompileDiagnostic> diagnostics = oracle.compile(MISSING_TYPE);
+      assertEquals(1, diagnostics.size());
+      CompileDiagnostic diagnostic = diagnostics.get(0);
+      assertTrue(diagnostic.isError());
+      assertEquals("com/example/A.java", diagnostic.path());
+      assertEquals(1, diagnostic.line());
+      assertEquals("compiler.err.cant.resolve.location", diagnostic.code());
+      assertEquals("com/example/A.java", diagnostic.toJson().get("path").getAsString());
+      assertEquals("ERROR", diagnostic.toJson().get("kind").getAsString());
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package org.checkerframework.specimin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This test checks that a run that copies a jar's decompiled sources from the decompilation cache
+ * gives the same output as the run that decompiled the jar and filled the cache, and that it does
+ * not decompile the jar again.
+ */
+public class DecompileCacheTest {
+  @Test
+  public void runTest() throws IOException {
+    Path cacheDirectory = Files.createTempDirectory("specimin-decompile-cache-");
+    Path jar = Path.of("src/test/resources/jarfile/input/Book.jar");
+    for (int run = 0; run < 2; run++) {
+      int decompilationsBefore = DecompilationCache.getDecompilations();
+      SpeciminTestExecutor.runTest(
+          "jarfile",
+          new String[] {"com/example/Simple.java"},
+          new String[] {"com.example.Simple#test()"},
+          "cf",
+          new String[] {jar.toString()},
+          "--decompileCacheDirectory",
+          cacheDirectory.toAbsolutePath().toString());
+      assertTrue(Files.isDirectory(cacheDirectory.resolve(DecompilationCache.getKey(jar))));
+      assertEquals(run == 0 ? 1 : 0, DecompilationCache.getDecompilations() - decompilationsBefore);
+    }
+  }
+}
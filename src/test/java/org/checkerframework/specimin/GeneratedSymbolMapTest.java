@@ -0,0 +1,62 @@
+package org.checkerframework.specimin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.checkerframework.specimin.unsolved.GeneratedSymbolMap;
+import org.checkerframework.specimin.unsolved.UnsolvedClassOrInterfaceAlternates;
+import org.checkerframework.specimin.unsolved.UnsolvedFieldAlternates;
+import org.junit.jupiter.api.Test;
+
+/** This class unit tests that {@link GeneratedSymbolMap} keeps its indexes up to date. */
+public class GeneratedSymbolMapTest {
+
+  @Test
+  public void testIndexes() {
+    GeneratedSymbolMap map = new GeneratedSymbolMap();
+    UnsolvedClassOrInterfaceAlternates foo =
+        UnsolvedClassOrInterfaceAlternates.create(Set.of("com.example.Foo"), map).get(0);
+    UnsolvedFieldAlternates bar =
+        UnsolvedFieldAlternates.create("bar", Map.of(), List.of(foo), false, false);
+    map.put("com.example.Foo", foo);
+    map.put("com.example.Foo#bar", bar);
+    map.put("org.example.Foo#bar", bar);
+
+    assertEquals(Set.of("com.example.Foo#bar"), map.getKeysDeclaredIn("com.example.Foo"));
+    assertEquals(
+        Set.of("com.example.Foo#bar", "org.example.Foo#bar"), map.getKeysWithSimpleName("bar"));
+    assertEquals(Set.of("com.example.Foo"), map.getKeysWithSimpleName("Foo"));
+    assertEquals(Set.of(bar), map.getSymbolsOfKind(UnsolvedFieldAlternates.class));
+    assertEquals(Set.of(foo), map.getSymbolsOfKind(UnsolvedClassOrInterfaceAlternates.class));
+
+    map.remove("com.example.Foo#bar");
+    assertTrue(map.getKeysDeclaredIn("com.example.Foo").isEmpty());
+    assertEquals(Set.of("org.example.Foo#bar"), map.getKeysWithSimpleName("bar"));
+    assertEquals(Set.of(bar), map.getSymbolsOfKind(UnsolvedFieldAlternates.class));
+
+    // Replacing a symbol under the same key moves the key to the new symbol's kind
+    map.put("org.example.Foo#bar", foo);
+    assertTrue(map.getSymbolsOfKind(UnsolvedFieldAlternates.class).isEmpty());
+    assertEquals(Set.of(foo), map.getSymbolsOfKind(UnsolvedClassOrInterfaceAlternates.class));
+
+    map.clear();
+    assertTrue(map.getKeysWithSimpleName("Foo").isEmpty());
+    assertTrue(map.getSymbolsOfKind(UnsolvedClassOrInterfaceAlternates.class).isEmpty());
+  }
+
+  @Test
+  public void testViewsCannotBeChanged() {
+    GeneratedSymbolMap map = new GeneratedSymbolMap();
+    UnsolvedClassOrInterfaceAlternates foo =
+        UnsolvedClassOrInterfaceAlternates.create(Set.of("com.example.Foo"), map).get(0);
+    map.put("com.example.Foo", foo);
+
+    assertThrows(UnsupportedOperationException.class, () -> map.keySet().remove("com.example.Foo"));
+    assertThrows(UnsupportedOperationException.class, () -> map.values().remove(foo));
+    assertEquals(foo, map.get("com.example.Foo"));
+  }
+}
@@ -0,0 +1,42 @@
+package org.checkerframework.specimin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/** This class unit tests the {@link JarIndex}, with and without its on-disk cache. */
+public class JarIndexTest {
+
+  private static final List<String> JARS = List.of("src/test/resources/jarfile/input/Book.jar");
+
+  @Test
+  public void testIndex() throws IOException {
+    JarIndex index = JarIndex.build(JARS);
+    Path jar = Path.of(JARS.get(0)).toAbsolutePath().normalize();
+    assertEquals(Set.of("an.old.library.Book"), index.getClassNames());
+    assertEquals(List.of("an/old/library/Book"), index.getBinaryNames(jar));
+    JarIndex.ClassLocation location = index.getLocation("an.old.library.Book");
+    assertNotNull(location);
+    assertEquals(jar, location.jar());
+    assertEquals(jar, index.getJar("an/old/library/Book"));
+    assertNull(index.getLocation("an.old.library"));
+  }
+
+  @Test
+  public void testCache() throws IOException {
+    Path cacheDirectory = Files.createTempDirectory("specimin-jar-index-cache-");
+    JarIndex first = JarIndex.build(JARS, cacheDirectory);
+    assertTrue(Files.isRegularFile(cacheDirectory.resolve("jar-index.cache")));
+    JarIndex second = JarIndex.build(JARS, cacheDirectory);
+    assertEquals(first.getClassNames(), second.getClassNames());
+    assertEquals(first.getJars(), second.getJars());
+  }
+}
@@ -0,0 +1,59 @@
+package org.checkerframework.specimin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class unit tests the subset and combination methods in JavaParserUtil, and that their lazy
+ * versions create each result only when it is reached.
+ */
+public class JavaParserUtilCombinationsTest {
+
+  @Test
+  public void testSubsets() {
+    assertEquals(
+        List.of(List.of(), List.of(1), List.of(2), List.of(1, 2)),
+        JavaParserUtil.generateSubsets(List.of(1, 2)));
+    assertEquals(List.of(List.of()), JavaParserUtil.generateSubsets(List.of()));
+  }
+
+  @Test
+  public void testCombinations() {
+    assertEquals(
+        List.of(List.of(1, 3), List.of(1, 4), List.of(2, 3), List.of(2, 4)),
+        JavaParserUtil.generateAllCombinations(List.of(List.of(1, 2), List.of(3, 4))));
+    assertEquals(List.of(List.of()), JavaParserUtil.generateAllCombinations(List.of()));
+    assertEquals(
+        List.of(), JavaParserUtil.generateAllCombinations(List.of(List.of(1), Set.<Integer>of())));
+  }
+
+  @Test
+  public void testFlatMapIsLazy() {
+    List<List<Integer>> mapped = new ArrayList<>();
+    Iterator<Integer> iterator =
+        JavaParserUtil.flatMapIterator(
+            JavaParserUtil.iterateSubsets(List.of(1, 2, 3)),
+            subset -> {
+              mapped.add(subset);
+              return subset.iterator();
+            });
+
+    assertEquals(1, iterator.next());
+    // The empty subset is skipped, and nothing after the first non-empty one is created
+    assertEquals(List.of(List.of(), List.of(1)), mapped);
+    assertEquals(2, iterator.next());
+    assertEquals(3, mapped.size());
+
+    List<Integer> remaining = new ArrayList<>();
+    iterator.forEachRemaining(remaining::add);
+    assertEquals(List.of(1, 2, 3, 1, 3, 2, 3, 1, 2, 3), remaining);
+    assertEquals(8, mapped.size());
+    assertFalse(iterator.hasNext());
+  }
+}
@@ -0,0 +1,21 @@
+package org.checkerframework.specimin;
+
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This test checks that decompiling the classes of a jar file only when they are looked up gives
+ * the same output as decompiling the whole jar file up front.
+ */
+public class LazyDecompilationTest {
+  @Test
+  public void runTest() throws IOException {
+    SpeciminTestExecutor.runTest(
+        "jarfile",
+        new String[] {"com/example/Simple.java"},
+        new String[] {"com.example.Simple#test()"},
+        "cf",
+        new String[] {"src/test/resources/jarfile/input/Book.jar"},
+        "--lazy-decompilation");
+  }
+}
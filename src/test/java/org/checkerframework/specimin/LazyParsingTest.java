@@ -0,0 +1,19 @@
+package org.checkerframework.specimin;
+
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This test checks that with lazy parsing, a class that the target uses is parsed when the slicer
+ * first looks it up, and is kept in the output just as when the whole root is parsed up front.
+ */
+public class LazyParsingTest {
+  @Test
+  public void runTest() throws IOException {
+    SpeciminTestExecutor.runTestWithoutJarPaths(
+        "twofilesimple",
+        new String[] {"com/example/Foo.java"},
+        new String[] {"com.example.Foo#bar()"},
+        "--lazy-parsing");
+  }
+}
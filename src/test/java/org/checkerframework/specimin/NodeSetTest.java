@@ -0,0 +1,105 @@
+package org.checkerframework.specimin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.NameExpr;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** This class unit tests {@link NodeSet}. */
+public class NodeSetTest {
+
+  /**
+   * Parses a compilation unit with two structurally equal name expressions.
+   *
+   * @return The name expressions
+   */
+  private static List<NameExpr> parseNames() {
+    CompilationUnit cu =
+        new JavaParser().parse("class A { void m() { x = 1; x = 2; } }").getResult().orElseThrow();
+    return cu.findAll(NameExpr.class);
+  }
+
+  @Test
+  public void testComparesByIdentity() {
+    List<NameExpr> names = parseNames();
+    NodeSet set = new NodeSet(new NodeIds());
+
+    assertEquals(names.get(0), names.get(1));
+    assertTrue(set.add(names.get(0)));
+    assertFalse(set.add(names.get(0)));
+    assertTrue(set.contains(names.get(0)));
+    assertFalse(set.contains(names.get(1)));
+    assertFalse(set.contains(names.get(0).clone()));
+    assertTrue(set.add(names.get(1)));
+    assertEquals(2, set.size());
+  }
+
+  @Test
+  public void testIteratesInOrderOfIds() {
+    List<NameExpr> names = parseNames();
+    NodeSet set = new NodeSet(new NodeIds());
+    set.add(names.get(1));
+    set.add(names.get(0));
+
+    List<Node> iterated = new ArrayList<>(set);
+    assertTrue(iterated.get(0) == names.get(1) && iterated.get(1) == names.get(0));
+
+    Iterator<Node> iterator = set.iterator();
+    iterator.next();
+    iterator.remove();
+    assertEquals(1, set.size());
+    assertFalse(set.contains(names.get(1)));
+    assertTrue(set.contains(names.get(0)));
+  }
+
+  @Test
+  public void testCopiesAndSetsWithOtherIds() {
+    List<NameExpr> names = parseNames();
+    NodeSet set = new NodeSet(new NodeIds());
+    set.add(names.get(0));
+
+    NodeSet copy = new NodeSet(set);
+    copy.remove(names.get(0));
+    assertTrue(set.contains(names.get(0)));
+    assertFalse(copy.contains(names.get(0)));
+
+    // A set with its own IDs does not see the IDs of the first set
+    NodeSet other = new NodeSet(List.of(names.get(1)));
+    assertFalse(other.contains(names.get(0)));
+    assertTrue(other.contains(names.get(1)));
+    assertFalse(set.contains(names.get(1)));
+  }
+
+  @Test
+  public void testInterleavedIdsAreIndependent() {
+    List<NameExpr> names = parseNames();
+    NodeIds firstIds = new NodeIds();
+    NodeIds secondIds = new NodeIds();
+    NodeSet first = new NodeSet(firstIds);
+    NodeSet second = new NodeSet(secondIds);
+
+    first.add(names.get(0));
+    second.add(names.get(1));
+    second.add(names.get(0));
+    first.add(names.get(1));
+
+    assertEquals(0, firstIds.find(names.get(0)));
+    assertEquals(1, firstIds.find(names.get(1)));
+    assertEquals(1, secondIds.find(names.get(0)));
+    assertEquals(0, secondIds.find(names.get(1)));
+    assertTrue(first.contains(names.get(0)) && first.contains(names.get(1)));
+    assertTrue(second.contains(names.get(0)) && second.contains(names.get(1)));
+
+    first.remove(names.get(0));
+    assertFalse(first.contains(names.get(0)));
+    assertTrue(second.contains(names.get(0)));
+  }
+}
@@ -0,0 +1,25 @@
+package org.checkerframework.specimin;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This test checks that the decompiled sources of a jar file are kept out of the input root, while
+ * still making it into the output.
+ */
+public class OverlayRootTest {
+  @Test
+  public void runTest() throws IOException {
+    SpeciminTestExecutor.runTest(
+        "jarfile",
+        new String[] {"com/example/Simple.java"},
+        new String[] {"com.example.Simple#test()"},
+        "cf",
+        new String[] {"src/test/resources/jarfile/input/Book.jar"});
+    assertFalse(Files.exists(Path.of("src/test/resources/jarfile/input/an")));
+  }
+}
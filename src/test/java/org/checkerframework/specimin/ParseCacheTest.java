@@ -0,0 +1,76 @@
+package org.checkerframework.specimin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This test checks that a run that reads the source index from a cache written by an earlier run
+ * on the same root gives the same output as the earlier run.
+ */
+public class ParseCacheTest {
+  @Test
+  public void runTest() throws IOException {
+    Path cacheDirectory = Files.createTempDirectory("specimin-parse-cache-");
+    for (int run = 0; run < 2; run++) {
+      SpeciminTestExecutor.runTestWithoutJarPaths(
+          "twofilesimple",
+          new String[] {"com/example/Foo.java"},
+          new String[] {"com.example.Foo#bar()"},
+          "--lazy-parsing",
+          "--parseCacheDirectory",
+          cacheDirectory.toAbsolutePath().toString());
+      assertTrue(Files.isRegularFile(cacheDirectory.resolve("source-index.cache")));
+    }
+  }
+
+  /**
+   * Checks that a second index of the same root reads no file whose size and modification time are
+   * unchanged, and reads a file that changed.
+   */
+  @Test
+  public void testUnchangedFilesNotRead() throws IOException {
+    Path root = Files.createTempDirectory("specimin-parse-cache-root-");
+    Files.writeString(root.resolve("A.java"), "class A {}\n");
+    Path b = Files.writeString(root.resolve("B.java"), "class B {}\n");
+    Path cacheDirectory = Files.createTempDirectory("specimin-parse-cache-");
+
+    assertEquals(2, SourceIndex.build(root, cacheDirectory).getFilesRead());
+
+    SourceIndex second = SourceIndex.build(root, cacheDirectory);
+    assertEquals(0, second.getFilesRead());
+    assertEquals(b.toAbsolutePath().normalize(), second.getPath("B"));
+
+    Files.writeString(b, "class B {}\nclass C {}\n");
+    SourceIndex third = SourceIndex.build(root, cacheDirectory);
+    assertEquals(1, third.getFilesRead());
+    assertEquals(b.toAbsolutePath().normalize(), third.getPath("C"));
+  }
+
+  /**
+   * Checks that files added to the index from outside the root, such as decompiled sources, are
+   * indexed but not written to the cache.
+   */
+  @Test
+  public void testOverlayFilesNotCached() throws IOException {
+    Path root = Files.createTempDirectory("specimin-parse-cache-root-");
+    Files.writeString(root.resolve("A.java"), "class A {}\n");
+    Path overlay = Files.createTempDirectory("specimin-parse-cache-overlay-");
+    Path overlayFile = overlay.resolve("B.java");
+    Files.writeString(overlayFile, "class B {}\n");
+    Path cacheDirectory = Files.createTempDirectory("specimin-parse-cache-");
+    Path cacheFile = cacheDirectory.resolve("source-index.cache");
+
+    SourceIndex index = SourceIndex.build(root, cacheDirectory);
+    List<String> cached = Files.readAllLines(cacheFile);
+    index.addOverlayFiles(List.of(overlayFile));
+
+    assertEquals(overlayFile.toAbsolutePath().normalize(), index.getPath("B"));
+    assertEquals(cached, Files.readAllLines(cacheFile));
+  }
+}
@@ -0,0 +1,115 @@
+package org.checkerframework.specimin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Modifier;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.resolution.types.ResolvedType;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class unit tests the memo of {@link Resolver}: that failures are memoized as well as
+ * successes, and that the memo is bypassed while suspended and forgotten when invalidated.
+ */
+public class ResolverMemoTest {
+
+  /**
+   * Clears the resolver state that other tests in the same JVM may have left behind, or that this
+   * test leaves behind: the type index and type declaration table of the last project, the memo,
+   * and any suspension of the memo.
+   */
+  @BeforeEach
+  @AfterEach
+  public void resetResolver() {
+    while (Resolver.isMemoSuspended()) {
+      Resolver.resumeMemo();
+    }
+    Resolver.setTypeIndex(null);
+    JavaParserUtil.setTypeDeclarationTable(null);
+    Resolver.setFqnToCompilationUnitMap(new HashMap<>());
+    Resolver.invalidateMemo();
+  }
+
+  /**
+   * Parses a compilation unit with a symbol solver that knows only the JDK, and makes it the only
+   * compilation unit known to the resolver.
+   *
+   * @param code The code of the compilation unit, which declares a class named A
+   * @return The compilation unit
+   */
+  private static CompilationUnit parse(String code) {
+    ParserConfiguration configuration =
+        new ParserConfiguration()
+            .setSymbolResolver(new JavaSymbolSolver(new ReflectionTypeSolver()));
+    CompilationUnit cu = new JavaParser(configuration).parse(code).getResult().orElseThrow();
+    Map<String, CompilationUnit> fqnToCompilationUnits = new HashMap<>();
+    fqnToCompilationUnits.put("A", cu);
+    Resolver.setFqnToCompilationUnitMap(fqnToCompilationUnits);
+    return cu;
+  }
+
+  @Test
+  public void testResolveMemoizesFailures() {
+    CompilationUnit cu = parse("class A { void m() { helper(); } }");
+    MethodCallExpr call = cu.findFirst(MethodCallExpr.class).orElseThrow();
+
+    assertNull(Resolver.resolve(call));
+
+    // Declaring the method makes the call resolvable, but the failure is memoized.
+    cu.getClassByName("A").orElseThrow().addMethod("helper");
+    assertNull(Resolver.resolve(call));
+
+    Resolver.suspendMemo();
+    try {
+      assertNotNull(Resolver.resolve(call));
+    } finally {
+      Resolver.resumeMemo();
+    }
+    // Nothing resolved while the memo was suspended was memoized.
+    assertNull(Resolver.resolve(call));
+
+    Resolver.invalidateMemo();
+    Object resolved = Resolver.resolve(call);
+    assertNotNull(resolved);
+    assertSame(resolved, Resolver.resolve(call));
+    assertSame(resolved, Resolver.resolveGuaranteeNonNull(call));
+  }
+
+  @Test
+  public void testCalculateResolvedTypeMemoizesFailures() {
+    CompilationUnit cu = parse("class A { Object m() { return x; } }");
+    NameExpr x = cu.findFirst(NameExpr.class).orElseThrow();
+
+    assertNull(Resolver.calculateResolvedType(x));
+
+    ClassOrInterfaceDeclaration a = cu.getClassByName("A").orElseThrow();
+    a.addField("String", "x", Modifier.Keyword.PRIVATE);
+    assertNull(Resolver.calculateResolvedType(x));
+
+    Resolver.invalidateMemo();
+    ResolvedType type = Resolver.calculateResolvedType(x);
+    assertNotNull(type);
+    assertEquals("java.lang.String", type.describe());
+    assertSame(type, Resolver.calculateResolvedType(x));
+  }
+
+  @Test
+  public void testResumeWithoutSuspendThrows() {
+    assertThrows(IllegalStateException.class, Resolver::resumeMemo);
+  }
+}
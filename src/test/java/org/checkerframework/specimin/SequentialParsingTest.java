@@ -0,0 +1,20 @@
+package org.checkerframework.specimin;
+
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This test checks that parsing the root on a single thread gives the same output as the default,
+ * which parses the root on a fork-join pool.
+ */
+public class SequentialParsingTest {
+  @Test
+  public void runTest() throws IOException {
+    SpeciminTestExecutor.runTestWithoutJarPaths(
+        "twofilesimple",
+        new String[] {"com/example/Foo.java"},
+        new String[] {"com.example.Foo#bar()"},
+        "--parseThreads",
+        "1");
+  }
+}
@@ -0,0 +1,57 @@
+package org.checkerframework.specimin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/** This class unit tests the token-level scan that builds a {@link SourceIndex}. */
+public class SourceIndexScanTest {
+
+  private static final String SOURCE =
+      "/* class NotAType {} */\n"
+          + "package com.example;\n"
+          + "\n"
+          + "import java.util.List;\n"
+          + "\n"
+          + "@SuppressWarnings({\"class Fake {}\"})\n"
+          + "public class Outer<T extends List<?>> {\n"
+          + "  // interface AlsoNotAType {}\n"
+          + "  Class<?> literal = Outer.class;\n"
+          + "  char brace = '{';\n"
+          + "  String block = \"\"\"\n"
+          + "      enum Nope { A }\n"
+          + "      \"\"\";\n"
+          + "  int record = 0x1F;\n"
+          + "  Object anon = new Object() { class InAnonymous {} };\n"
+          + "  void m() { class Local {} record LocalRecord(int x) {} }\n"
+          + "  static class Inner { interface Deeper {} }\n"
+          + "  enum Color { RED { void f() {} }, GREEN; @interface Anno {} }\n"
+          + "  record Point(int x, int y) implements Comparable<Point> {}\n"
+          + "}\n"
+          + "\n"
+          + "class Secondary {}\n";
+
+  @Test
+  public void testScan() {
+    SourceIndex.ScanResult result = SourceIndex.scan(SOURCE);
+    assertEquals("com.example", result.packageName());
+    assertEquals(
+        List.of(
+            "com.example.Outer",
+            "com.example.Outer.Inner",
+            "com.example.Outer.Inner.Deeper",
+            "com.example.Outer.Color",
+            "com.example.Outer.Color.Anno",
+            "com.example.Outer.Point",
+            "com.example.Secondary"),
+        result.typeNames());
+  }
+
+  @Test
+  public void testScanDefaultPackage() {
+    SourceIndex.ScanResult result = SourceIndex.scan("class A { class B {} }\nenum C {}\n");
+    assertEquals("", result.packageName());
+    assertEquals(List.of("A", "A.B", "C"), result.typeNames());
+  }
+}
@@ -0,0 +1,92 @@
+package org.checkerframework.specimin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This test checks that a server produces the same output for every request it answers from its
+ * warm project as for the same minimization run on its own, i.e., that the pruning done by one
+ * request is undone before the next one runs, even if that request fails.
+ */
+public class SpeciminServerTest {
+
+  private static final String[] TARGET_FILES = {"com/example/Foo.java", "com/example/Baz.java"};
+
+  @Test
+  public void runTest() throws IOException {
+    SpeciminTestExecutor.runServerTest(
+        "restorebetweenjobs",
+        TARGET_FILES,
+        new String[] {"com.example.Foo#bar()"},
+        new String[] {"com.example.Foo#qux()"},
+        new String[] {"com.example.Foo#bar()"});
+  }
+
+  /**
+   * Checks that a request that fails after its slice was pruned does not leave the pruned project
+   * behind: its output directory cannot be created, and the next request needs what it pruned.
+   */
+  @Test
+  public void testRequestAfterFailedRequest() throws IOException {
+    Path serverDir = Files.createTempDirectory("specimin-server-test-");
+    try {
+      Path notADirectory = Files.createFile(serverDir.resolve("file"));
+      String requests =
+          SpeciminTestExecutor.minimizationRequest(
+                  0,
+                  notADirectory.resolve("job0"),
+                  TARGET_FILES,
+                  new String[] {"com.example.Foo#bar()"})
+              + "\n"
+              + SpeciminTestExecutor.minimizationRequest(
+                  1,
+                  serverDir.resolve("job1"),
+                  TARGET_FILES,
+                  new String[] {"com.example.Foo#qux()"})
+              + "\n";
+
+      List<String> responseLines = SpeciminTestExecutor.serve("restorebetweenjobs", requests);
+      assertEquals(3, responseLines.size(), responseLines.toString());
+      assertEquals("error", getStatus(responseLines.get(0)));
+      assertEquals("ok", getStatus(responseLines.get(1)), responseLines.get(1));
+
+      Path aloneDir = serverDir.resolve("alone");
+      SpeciminTestExecutor.runAlone(
+          "restorebetweenjobs", TARGET_FILES, new String[] {"com.example.Foo#qux()"}, aloneDir);
+      SpeciminTestExecutor.assertDirectoriesEqual(aloneDir, serverDir.resolve("job1"));
+    } finally {
+      FileUtils.deleteQuietly(serverDir.toFile());
+    }
+  }
+
+  /** Checks that a request whose command is not a string is answered with an error. */
+  @Test
+  public void testMalformedCommand() throws IOException {
+    List<String> responseLines =
+        SpeciminTestExecutor.serve(
+            "twofilesimple", "{\"id\": 1, \"command\": {}}\n{\"id\": 2, \"command\": []}\n");
+    assertEquals(3, responseLines.size(), responseLines.toString());
+    assertEquals("error", getStatus(responseLines.get(0)));
+    assertEquals("error", getStatus(responseLines.get(1)));
+    assertEquals("ok", getStatus(responseLines.get(2)));
+  }
+
+  /**
+   * Gets the status of a response.
+   *
+   * @param response The response
+   * @return Its "status" member
+   */
+  private static String getStatus(String response) {
+    JsonObject json = JsonParser.parseString(response).getAsJsonObject();
+    return json.get("status").getAsString();
+  }
+}
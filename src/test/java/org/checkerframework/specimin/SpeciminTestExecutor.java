@@ -1,16 +1,27 @@
 package org.checkerframework.specimin;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
 import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.visitor.EqualsVisitor;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.stream.Stream;
+import org.apache.commons.io.FileUtils;
 
 /** Utility class containing routines to run Specimin's tests. */
 public class SpeciminTestExecutor {
@@ -102,6 +113,211 @@ public class SpeciminTestExecutor {
     assertDirectoriesEqual(expectedDir, outputDir);
   }
 
+  /**
+   * Executes a specimin test in batch mode: several minimizations of the input of the test are
+   * listed in one batch manifest, and the output of every job must match the output of the same
+   * minimization run on its own. Since all jobs share one parsed project, and each job prunes what
+   * its targets do not need, a job whose targets need what an earlier job pruned checks that it
+   * sees none of the changes that the jobs before it made to the project.
+   *
+   * @param testName the name of the test folder
+   * @param targetFiles the targeted files of every job
+   * @param jobTargetMembers the targeted methods or fields of each job, in order, in the same
+   *     format as {@link #runTest(String, String[], String[], String, String[], String...)}
+   * @throws IOException if some operation fails
+   */
+  public static void runBatchTest(
+      String testName, String[] targetFiles, String[]... jobTargetMembers) throws IOException {
+    Path batchDir = Files.createTempDirectory("specimin-batch-test-");
+    try {
+      List<String> manifest = new ArrayList<>();
+      for (int i = 0; i < jobTargetMembers.length; i++) {
+        StringBuilder job = new StringBuilder();
+        job.append("--outputDirectory \"")
+            .append(batchDir.resolve("job" + i).toAbsolutePath())
+            .append('"');
+        for (String targetFile : targetFiles) {
+          job.append(" --targetFile \"").append(targetFile).append('"');
+        }
+        for (String targetMember : jobTargetMembers[i]) {
+          job.append(targetMember.contains("(") ? " --targetMethod \"" : " --targetField \"")
+              .append(targetMember)
+              .append('"');
+        }
+        manifest.add(job.toString());
+      }
+      Path manifestPath = batchDir.resolve("manifest.txt");
+      Files.write(manifestPath, manifest);
+
+      SpeciminRunner.main("--root", getRoot(testName), "--batch", manifestPath.toString());
+
+      for (int i = 0; i < jobTargetMembers.length; i++) {
+        Path aloneDir = batchDir.resolve("alone" + i);
+        runAlone(testName, targetFiles, jobTargetMembers[i], aloneDir);
+        assertDirectoriesEqual(aloneDir, batchDir.resolve("job" + i));
+      }
+    } finally {
+      FileUtils.deleteQuietly(batchDir.toFile());
+    }
+  }
+
+  /**
+   * Runs a single minimization of the input of a test on its own, as the reference for the output
+   * of the same minimization when it shares a parsed project with others.
+   *
+   * @param testName the name of the test folder
+   * @param targetFiles the targeted files
+   * @param targetMembers the targeted methods or fields, in the same format as {@link
+   *     #runTest(String, String[], String[], String, String[], String...)}
+   * @param outputDir the directory for the output
+   * @throws IOException if some operation fails
+   */
+  static void runAlone(
+      String testName, String[] targetFiles, String[] targetMembers, Path outputDir)
+      throws IOException {
+    List<String> speciminArgs = new ArrayList<>();
+    speciminArgs.add("--outputDirectory");
+    speciminArgs.add(outputDir.toAbsolutePath().toString());
+    speciminArgs.add("--root");
+    speciminArgs.add(getRoot(testName));
+    for (String targetFile : targetFiles) {
+      speciminArgs.add("--targetFile");
+      speciminArgs.add(targetFile);
+    }
+    for (String targetMember : targetMembers) {
+      speciminArgs.add(targetMember.contains("(") ? "--targetMethod" : "--targetField");
+      speciminArgs.add(targetMember);
+    }
+    SpeciminRunner.main(speciminArgs.toArray(new String[0]));
+  }
+
+  /**
+   * Gets the root of the input of a test.
+   *
+   * @param testName the name of the test folder
+   * @return the absolute path of the "input" folder of the test, ending in a slash
+   */
+  static String getRoot(String testName) {
+    return Path.of("src/test/resources/" + testName + "/input/").toAbsolutePath().toString() + "/";
+  }
+
+  /**
+   * Executes a specimin test against a server: several minimizations of the input of the test are
+   * sent to one {@link SpeciminServer}, and every response must succeed with output that matches
+   * the output of the same minimization run on its own. As in {@link #runBatchTest(String,
+   * String[], String[][])}, a request whose targets need what an earlier request pruned checks that
+   * the server restores its project between requests.
+   *
+   * @param testName the name of the test folder
+   * @param targetFiles the targeted files of every request
+   * @param jobTargetMembers the targeted methods or fields of each request, in order, in the same
+   *     format as {@link #runTest(String, String[], String[], String, String[], String...)}
+   * @throws IOException if some operation fails
+   */
+  public static void runServerTest(
+      String testName, String[] targetFiles, String[]... jobTargetMembers) throws IOException {
+    Path serverDir = Files.createTempDirectory("specimin-server-test-");
+    try {
+      StringBuilder requests = new StringBuilder();
+      for (int i = 0; i < jobTargetMembers.length; i++) {
+        requests
+            .append(
+                minimizationRequest(
+                    i, serverDir.resolve("job" + i), targetFiles, jobTargetMembers[i]))
+            .append('\n');
+      }
+
+      List<String> responseLines = serve(testName, requests.toString());
+      assertEquals(jobTargetMembers.length + 1, responseLines.size(), responseLines.toString());
+      for (int i = 0; i < jobTargetMembers.length; i++) {
+        JsonObject response = JsonParser.parseString(responseLines.get(i)).getAsJsonObject();
+        assertEquals(i, response.get("id").getAsInt());
+        assertEquals("ok", response.get("status").getAsString(), responseLines.get(i));
+      }
+
+      for (int i = 0; i < jobTargetMembers.length; i++) {
+        Path aloneDir = serverDir.resolve("alone" + i);
+        runAlone(testName, targetFiles, jobTargetMembers[i], aloneDir);
+        assertDirectoriesEqual(aloneDir, serverDir.resolve("job" + i));
+      }
+    } finally {
+      FileUtils.deleteQuietly(serverDir.toFile());
+    }
+  }
+
+  /**
+   * Creates a request to a {@link SpeciminServer} for a minimization.
+   *
+   * @param id the id of the request
+   * @param outputDir the directory for the output
+   * @param targetFiles the targeted files
+   * @param targetMembers the targeted methods or fields, in the same format as {@link
+   *     #runTest(String, String[], String[], String, String[], String...)}
+   * @return the request
+   */
+  static JsonObject minimizationRequest(
+      int id, Path outputDir, String[] targetFiles, String[] targetMembers) {
+    JsonObject request = new JsonObject();
+    request.addProperty("id", id);
+    request.addProperty("outputDirectory", outputDir.toAbsolutePath().toString());
+    JsonArray files = new JsonArray();
+    for (String targetFile : targetFiles) {
+      files.add(targetFile);
+    }
+    request.add("targetFiles", files);
+    JsonArray methods = new JsonArray();
+    JsonArray fields = new JsonArray();
+    for (String targetMember : targetMembers) {
+      (targetMember.contains("(") ? methods : fields).add(targetMember);
+    }
+    request.add("targetMethods", methods);
+    request.add("targetFields", fields);
+    return request;
+  }
+
+  /**
+   * Serves some requests, followed by a shutdown request, with a new {@link SpeciminServer} for the
+   * input of a test.
+   *
+   * @param testName the name of the test folder
+   * @param requests the requests, one per line
+   * @return the responses, one per request, followed by the response to the shutdown request
+   * @throws IOException if some operation fails
+   */
+  static List<String> serve(String testName, String requests) throws IOException {
+    return serveRoot(getRoot(testName), requests);
+  }
+
+  /**
+   * Serves some requests, followed by a shutdown request, with a new {@link SpeciminServer} for a
+   * root directory.
+   *
+   * @param root the root directory, ending in a slash
+   * @param requests the requests, one per line
+   * @return the responses, one per request, followed by the response to the shutdown request
+   * @throws IOException if some operation fails
+   */
+  static List<String> serveRoot(String root, String requests) throws IOException {
+    ProjectModel project =
+        ProjectModel.load(
+            root,
+            List.of(),
+            new HashSet<>(),
+            SourceIndex.build(Path.of(root)),
+            ParseOptions.defaults());
+    StringWriter responses = new StringWriter();
+    boolean shutDown;
+    try (SpeciminServer server =
+        new SpeciminServer(project, false, SpeciminServer.JobDefaults.defaults())) {
+      shutDown =
+          server.serve(
+              new BufferedReader(new StringReader(requests + "{\"command\": \"shutdown\"}\n")),
+              new PrintWriter(responses, true));
+    }
+    assertTrue(shutDown, "the server did not acknowledge the shutdown request");
+    return responses.toString().lines().toList();
+  }
+
   /**
    * Compares two directories recursively, parsing all Java files and comparing their ASTs.
    *
@@ -109,7 +325,7 @@ public class SpeciminTestExecutor {
    * @param actualDir the directory with the actual output
    * @throws IOException if there is an issue reading the files
    */
-  private static void assertDirectoriesEqual(Path expectedDir, Path actualDir) throws IOException {
+  static void assertDirectoriesEqual(Path expectedDir, Path actualDir) throws IOException {
     try (Stream<Path> expectedStream = Files.walk(expectedDir);
         Stream<Path> actualStream = Files.walk(actualDir)) {
       List<Path> expectedJavaFiles =
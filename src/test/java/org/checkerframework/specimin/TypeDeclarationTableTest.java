@@ -0,0 +1,72 @@
+package org.checkerframework.specimin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/** This class unit tests {@link TypeDeclarationTable}. */
+public class TypeDeclarationTableTest {
+
+  private static final String SOURCE =
+      "package p;\n"
+          + "class A {\n"
+          + "  static class B { interface C {} }\n"
+          + "  void m() { class L {} }\n"
+          + "  void n() { class L {} }\n"
+          + "}\n"
+          + "class D {}\n";
+
+  /**
+   * Parses the test source.
+   *
+   * @return The compilation unit
+   */
+  private static CompilationUnit parse() {
+    return new JavaParser().parse(SOURCE).getResult().orElseThrow();
+  }
+
+  @Test
+  public void testFindsNestedTypes() {
+    CompilationUnit cu = parse();
+    TypeDeclarationTable table = new TypeDeclarationTable();
+    Set<String> fqns = table.add(cu);
+
+    assertEquals(Set.of("p.A", "p.A.B", "p.A.B.C", "p.D"), fqns);
+    assertTrue(table.contains(cu));
+    assertSame(cu.getType(0), table.get("p.A", cu));
+    assertSame(cu.getType(1), table.get("p.D", cu));
+    assertEquals("C", table.get("p.A.B.C", cu).getNameAsString());
+    assertNull(table.get("p.A.E", cu));
+    assertNull(table.get("p.A", parse()));
+  }
+
+  @Test
+  public void testRemovedTypeIsNotFound() {
+    CompilationUnit cu = parse();
+    TypeDeclarationTable table = new TypeDeclarationTable();
+    table.add(cu);
+
+    cu.getType(0).getMembers().get(0).remove();
+    assertNull(table.get("p.A.B", cu));
+    assertNull(table.get("p.A.B.C", cu));
+    assertSame(cu.getType(0), table.get("p.A", cu));
+  }
+
+  @Test
+  public void testRemovedCompilationUnit() {
+    CompilationUnit cu = parse();
+    TypeDeclarationTable table = new TypeDeclarationTable();
+    table.add(cu);
+    table.remove(cu);
+
+    assertFalse(table.contains(cu));
+    assertNull(table.get("p.A", cu));
+  }
+}
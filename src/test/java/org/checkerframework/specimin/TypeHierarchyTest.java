@@ -0,0 +1,160 @@
+package org.checkerframework.specimin;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class unit tests {@link TypeHierarchy}: that its queries agree with the hierarchy in the
+ * source, and that it is memoized unless the resolver's memo is suspended.
+ */
+public class TypeHierarchyTest {
+
+  private static final String SOURCE =
+      "abstract class A implements Comparable<A> {}\n"
+          + "class B extends A { public int compareTo(A a) { return 0; } }\n"
+          + "interface I { void m(String s); }\n"
+          + "class C<T> { void n(T t) {} }\n"
+          + "class D extends C<String> implements I { public void m(String s) {} }\n";
+
+  /** The map of FQNs to compilation units of the last parsed source. */
+  private Map<String, CompilationUnit> fqnToCompilationUnits = new HashMap<>();
+
+  /**
+   * Resets the static state that the hierarchy queries read, so that neither an earlier end-to-end
+   * test's project nor this test's source outlives the test that set it up.
+   */
+  @BeforeEach
+  @AfterEach
+  public void resetResolver() {
+    while (Resolver.isMemoSuspended()) {
+      Resolver.resumeMemo();
+    }
+    Resolver.setTypeIndex(null);
+    JavaParserUtil.setTypeDeclarationTable(null);
+    Resolver.setFqnToCompilationUnitMap(new HashMap<>());
+    Resolver.invalidateMemo();
+  }
+
+  /**
+   * Parses the test source with a symbol solver that knows only the JDK, and makes it the only
+   * compilation unit known to the resolver.
+   *
+   * @return The compilation unit
+   */
+  private CompilationUnit parse() {
+    ParserConfiguration configuration =
+        new ParserConfiguration()
+            .setSymbolResolver(new JavaSymbolSolver(new ReflectionTypeSolver()));
+    CompilationUnit cu = new JavaParser(configuration).parse(SOURCE).getResult().orElseThrow();
+    fqnToCompilationUnits = new HashMap<>();
+    for (String name : List.of("A", "B", "I", "C", "D")) {
+      fqnToCompilationUnits.put(name, cu);
+    }
+    Resolver.setFqnToCompilationUnitMap(fqnToCompilationUnits);
+    return cu;
+  }
+
+  /**
+   * Gets the names of some type declarations.
+   *
+   * @param typeDecls The type declarations
+   * @return Their simple names, in order
+   */
+  private static List<String> namesOf(List<TypeDeclaration<?>> typeDecls) {
+    return typeDecls.stream().map(TypeDeclaration::getNameAsString).toList();
+  }
+
+  @Test
+  public void testAncestors() {
+    CompilationUnit cu = parse();
+    TypeHierarchy hierarchy = new TypeHierarchy();
+
+    assertEquals(
+        List.of("A"),
+        namesOf(
+            hierarchy.getAllSolvableAncestors(
+                cu.getClassByName("B").orElseThrow(), fqnToCompilationUnits)));
+    assertEquals(
+        List.of("C", "I"),
+        namesOf(
+            hierarchy.getAllSolvableAncestors(
+                cu.getClassByName("D").orElseThrow(), fqnToCompilationUnits)));
+
+    ResolvedReferenceTypeDeclaration b =
+        (ResolvedReferenceTypeDeclaration)
+            Resolver.resolveGuaranteeNonNull(cu.getClassByName("B").orElseThrow());
+    Set<String> jdkAncestors =
+        hierarchy.getAllJdkAncestors(b).stream()
+            .map(ResolvedReferenceTypeDeclaration::getQualifiedName)
+            .collect(Collectors.toSet());
+    assertTrue(jdkAncestors.contains("java.lang.Comparable"));
+    assertTrue(jdkAncestors.contains("java.lang.Object"));
+  }
+
+  @Test
+  public void testMustImplementMethods() {
+    CompilationUnit cu = parse();
+    TypeHierarchy hierarchy = new TypeHierarchy();
+
+    Set<String> mustImplement =
+        hierarchy.getAllMustImplementMethods(cu.getClassByName("A").orElseThrow()).stream()
+            .map(ResolvedMethodDeclaration::getName)
+            .collect(Collectors.toSet());
+    assertEquals(Set.of("compareTo"), mustImplement);
+  }
+
+  @Test
+  public void testMethodSignaturesSubstituteTypeArguments() {
+    CompilationUnit cu = parse();
+    TypeHierarchy hierarchy = new TypeHierarchy();
+
+    List<TypeHierarchy.Supertype> supertypes =
+        hierarchy.getDirectSupertypes(cu.getClassByName("D").orElseThrow(), fqnToCompilationUnits);
+    assertEquals(2, supertypes.size());
+    List<TypeHierarchy.MethodSignature> methods = hierarchy.getMethodSignatures(supertypes.get(0));
+    assertEquals(1, methods.size());
+    assertEquals("n(java.lang.String)", methods.get(0).signature());
+    assertSame(methods, hierarchy.getMethodSignatures(supertypes.get(0)));
+  }
+
+  @Test
+  public void testMemoizedUnlessSuspended() {
+    CompilationUnit cu = parse();
+    TypeHierarchy hierarchy = new TypeHierarchy();
+    TypeDeclaration<?> d = cu.getClassByName("D").orElseThrow();
+
+    List<TypeHierarchy.Supertype> supertypes =
+        hierarchy.getDirectSupertypes(d, fqnToCompilationUnits);
+    assertSame(supertypes, hierarchy.getDirectSupertypes(d, fqnToCompilationUnits));
+
+    Resolver.suspendMemo();
+    try {
+      assertNotSame(supertypes, hierarchy.getDirectSupertypes(d, fqnToCompilationUnits));
+    } finally {
+      Resolver.resumeMemo();
+    }
+    assertSame(supertypes, hierarchy.getDirectSupertypes(d, fqnToCompilationUnits));
+
+    hierarchy.clear();
+    assertNotSame(supertypes, hierarchy.getDirectSupertypes(d, fqnToCompilationUnits));
+  }
+}
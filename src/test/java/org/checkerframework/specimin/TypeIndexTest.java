@@ -0,0 +1,112 @@
+package org.checkerframework.specimin;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** This class unit tests the check of {@link TypeIndex} for types that cannot be resolved. */
+public class TypeIndexTest {
+
+  private static final String SOURCE =
+      "package p;\n"
+          + "\n"
+          + "import java.util.*;\n"
+          + "import q.Imported;\n"
+          + "\n"
+          + "class A<T> extends Missing {\n"
+          + "  Gone gone;\n"
+          + "  List<Gone> listOfGone;\n"
+          + "  Map<String, ? extends Gone> wildcard;\n"
+          + "  Gone[] array;\n"
+          + "  Imported imported;\n"
+          + "  Present present;\n"
+          + "  List<String> list;\n"
+          + "  T typeVariable;\n"
+          + "  Inner inner;\n"
+          + "  Local local;\n"
+          + "  Map.Entry<String, String> qualified;\n"
+          + "  String string;\n"
+          + "  class Inner {}\n"
+          + "  void m() { class Local {} }\n"
+          + "}\n"
+          + "\n"
+          + "class B extends ArrayList<String> {\n"
+          + "  Gone maybeInherited;\n"
+          + "}\n";
+
+  @TempDir Path root;
+
+  private TypeIndex typeIndex;
+
+  private CompilationUnit cu;
+
+  @BeforeEach
+  public void setUp() throws IOException {
+    Files.createDirectories(root.resolve("p"));
+    Files.writeString(root.resolve("p/Present.java"), "package p;\n\npublic class Present {}\n");
+    typeIndex =
+        new TypeIndex(SourceIndex.build(root), JarIndex.build(List.of()), new MemoryTypeSolver());
+    cu = new JavaParser().parse(SOURCE).getResult().orElseThrow();
+  }
+
+  /**
+   * Gets the type of the field with the given name.
+   *
+   * @param name The name of a field declared in the test source
+   * @return The type of the field
+   */
+  private ClassOrInterfaceType getFieldType(String name) {
+    FieldDeclaration field =
+        cu.findFirst(FieldDeclaration.class, f -> f.getVariable(0).getNameAsString().equals(name))
+            .orElseThrow();
+    return field.getElementType().asClassOrInterfaceType();
+  }
+
+  @Test
+  public void testUnresolvable() {
+    assertTrue(typeIndex.cannotResolve(getFieldType("gone")));
+    assertTrue(typeIndex.cannotResolve(getFieldType("listOfGone")));
+    assertTrue(typeIndex.cannotResolve(getFieldType("wildcard")));
+    assertTrue(typeIndex.cannotResolve(getFieldType("array")));
+    // The import names a type that exists nowhere.
+    assertTrue(typeIndex.cannotResolve(getFieldType("imported")));
+  }
+
+  @Test
+  public void testMaybeResolvable() {
+    assertFalse(typeIndex.cannotResolve(getFieldType("present")));
+    assertFalse(typeIndex.cannotResolve(getFieldType("list")));
+    assertFalse(typeIndex.cannotResolve(getFieldType("typeVariable")));
+    assertFalse(typeIndex.cannotResolve(getFieldType("inner")));
+    assertFalse(typeIndex.cannotResolve(getFieldType("local")));
+    assertFalse(typeIndex.cannotResolve(getFieldType("qualified")));
+    assertFalse(typeIndex.cannotResolve(getFieldType("string")));
+    // ArrayList exists, so it could declare a member type named Gone.
+    assertFalse(typeIndex.cannotResolve(getFieldType("maybeInherited")));
+  }
+
+  @Test
+  public void testContainsType() {
+    assertTrue(typeIndex.containsType("p.Present"));
+    assertTrue(typeIndex.containsType("java.util.Map.Entry"));
+    assertFalse(typeIndex.containsType("java.util.Gone"));
+    assertFalse(typeIndex.containsType("p.Gone"));
+  }
+
+  @Test
+  public void testNotInCompilationUnit() {
+    ClassOrInterfaceType detached = getFieldType("gone").clone();
+    assertFalse(typeIndex.cannotResolve(detached));
+  }
+}
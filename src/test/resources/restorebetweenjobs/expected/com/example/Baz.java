@@ -0,0 +1,7 @@
+package com.example;
+
+public class Baz {
+    public Baz(String s) {
+        throw new java.lang.Error();
+    }
+}
@@ -0,0 +1,7 @@
+package com.example;
+
+class Foo {
+    void bar() {
+        Baz obj = new Baz("hello");
+    }
+}
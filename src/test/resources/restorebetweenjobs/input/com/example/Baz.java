@@ -0,0 +1,15 @@
+package com.example;
+
+public class Baz {
+    public Baz(String s) {
+
+    }
+
+    public Baz() {
+        System.out.println("Only qux() uses this constructor.");
+    }
+
+    public void baz() {
+        System.out.println("Only qux() uses this method.");
+    }
+}
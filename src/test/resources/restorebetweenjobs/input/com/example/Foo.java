@@ -0,0 +1,12 @@
+package com.example;
+
+class Foo {
+    void bar() {
+        Baz obj = new Baz("hello");
+    }
+
+    void qux() {
+        Baz obj = new Baz();
+        obj.baz();
+    }
+}